@@ -616,7 +616,8 @@ public class RunnerBuilder {
                   graphQLConfiguration,
                   graphQL,
                   dataFetcherContext,
-                  besuController.getProtocolManager().ethContext().getScheduler()));
+                  besuController.getProtocolManager().ethContext().getScheduler(),
+                  metricsSystem));
     }
 
     Optional<WebSocketService> webSocketService = Optional.empty();
@@ -912,10 +913,10 @@ public class RunnerBuilder {
     }
 
     final LogsSubscriptionService logsSubscriptionService =
-        new LogsSubscriptionService(subscriptionManager, privacyQueries);
+        new LogsSubscriptionService(subscriptionManager, privacyQueries, metricsSystem);
 
     // monitoring public logs
-    blockchain.observeLogs(logsSubscriptionService);
+    blockchain.observeBlockAdded(logsSubscriptionService::onBlockAdded);
 
     // monitoring private logs
     if (privacyParameters.isEnabled()) {
@@ -1841,6 +1841,8 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
                 .remoteSealersTimeToLive(unstableMiningOptions.getRemoteSealersTimeToLive())
                 .powJobTimeToLive(unstableMiningOptions.getPowJobTimeToLive())
                 .maxOmmerDepth(unstableMiningOptions.getMaxOmmersDepth())
+                .blockTxsSelectionMaxTime(unstableMiningOptions.getBlockTxsSelectionMaxTime())
+                .blockTxsPreExecutionLimit(unstableMiningOptions.getBlockTxsPreExecutionLimit())
                 .build())
         .transactionPoolConfiguration(buildTransactionPoolConfiguration())
         .nodeKey(new NodeKey(securityModule()))
@@ -2832,10 +2834,7 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
 
     @Override
     public int getDatabaseVersion() {
-      return unstableDataStorageOptions
-          .toDomainObject()
-          .getDataStorageFormat()
-          .getDatabaseVersion();
+      return unstableDataStorageOptions.toDomainObject().getDatabaseVersion();
     }
   }
 
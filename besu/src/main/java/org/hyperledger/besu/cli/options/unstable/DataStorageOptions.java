@@ -17,6 +17,7 @@
 package org.hyperledger.besu.cli.options.unstable;
 
 import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.DEFAULT_BONSAI_MAX_LAYERS_TO_LOAD;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.DEFAULT_TRIE_NODE_CACHE_SIZE;
 
 import org.hyperledger.besu.cli.options.CLIOptions;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
@@ -34,6 +35,10 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
   private static final String BONSAI_STORAGE_FORMAT_MAX_LAYERS_TO_LOAD =
       "--Xbonsai-maximum-back-layers-to-load";
 
+  private static final String TRIE_NODE_CACHE_SIZE = "--Xtrie-node-cache-size";
+
+  private static final String COMPACT_RECEIPTS_ENABLED = "--Xcompact-receipts-enabled";
+
   // Use Bonsai DB
   @Option(
       names = {DATA_STORAGE_FORMAT},
@@ -52,6 +57,23 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
       arity = "1")
   private final Long bonsaiMaxLayersToLoad = DEFAULT_BONSAI_MAX_LAYERS_TO_LOAD;
 
+  @Option(
+      names = {TRIE_NODE_CACHE_SIZE},
+      hidden = true,
+      paramLabel = "<LONG>",
+      description =
+          "Maximum size in bytes of the cache of upper account trie nodes, 0 to disable it (default: ${DEFAULT-VALUE}).",
+      arity = "1")
+  private final Long trieNodeCacheSize = DEFAULT_TRIE_NODE_CACHE_SIZE;
+
+  @Option(
+      names = {COMPACT_RECEIPTS_ENABLED},
+      hidden = true,
+      description =
+          "Store transaction receipts without their logs bloom filter and rewrite the stored ones in the background. This upgrades the database, which older versions of Besu cannot open afterwards (default: ${DEFAULT-VALUE}).",
+      arity = "1")
+  private final Boolean compactReceiptsEnabled = false;
+
   public static DataStorageOptions create() {
     return new DataStorageOptions();
   }
@@ -61,6 +83,8 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
     return ImmutableDataStorageConfiguration.builder()
         .dataStorageFormat(dataStorageFormat)
         .bonsaiMaxLayersToLoad(bonsaiMaxLayersToLoad)
+        .trieNodeCacheSize(trieNodeCacheSize)
+        .compactReceiptsEnabled(compactReceiptsEnabled)
         .build();
   }
 
@@ -70,6 +94,10 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
         DATA_STORAGE_FORMAT,
         dataStorageFormat.toString(),
         BONSAI_STORAGE_FORMAT_MAX_LAYERS_TO_LOAD,
-        bonsaiMaxLayersToLoad.toString());
+        bonsaiMaxLayersToLoad.toString(),
+        TRIE_NODE_CACHE_SIZE,
+        trieNodeCacheSize.toString(),
+        COMPACT_RECEIPTS_ENABLED,
+        compactReceiptsEnabled.toString());
   }
 }
@@ -26,6 +26,8 @@ import picocli.CommandLine;
 public class EvmOptions implements CLIOptions<EvmConfiguration> {
 
   public static final String JUMPDEST_CACHE_WEIGHT = "--Xevm-jumpdest-cache-weight-kb";
+  public static final String PARALLEL_TX_EXECUTION_ENABLED =
+      "--Xevm-parallel-tx-execution-enabled";
 
   public static EvmOptions create() {
     return new EvmOptions();
@@ -44,13 +46,28 @@ public class EvmOptions implements CLIOptions<EvmConfiguration> {
   private Long jumpDestCacheWeightKilobytes =
       32_000L; // 10k contracts, (25k max contract size / 8 bit) + 32byte hash
 
+  @SuppressWarnings({"FieldCanBeFinal", "FieldMayBeFinal"})
+  @CommandLine.Option(
+      names = {PARALLEL_TX_EXECUTION_ENABLED},
+      description =
+          "Execute the transactions of imported blocks optimistically in parallel, re-executing "
+              + "those that conflict with an earlier transaction of the block "
+              + "(default: ${DEFAULT-VALUE})",
+      hidden = true,
+      arity = "1")
+  private Boolean parallelTransactionExecutionEnabled = false;
+
   @Override
   public EvmConfiguration toDomainObject() {
-    return new EvmConfiguration(jumpDestCacheWeightKilobytes);
+    return new EvmConfiguration(
+        jumpDestCacheWeightKilobytes, parallelTransactionExecutionEnabled);
   }
 
   @Override
   public List<String> getCLIOptions() {
-    return Arrays.asList(JUMPDEST_CACHE_WEIGHT);
+    return Arrays.asList(
+        JUMPDEST_CACHE_WEIGHT,
+        PARALLEL_TX_EXECUTION_ENABLED,
+        parallelTransactionExecutionEnabled.toString());
   }
 }
@@ -14,6 +14,8 @@
  */
 package org.hyperledger.besu.cli.options.unstable;
 
+import static org.hyperledger.besu.ethereum.core.MiningParameters.DEFAULT_BLOCK_TXS_PRE_EXECUTION_LIMIT;
+import static org.hyperledger.besu.ethereum.core.MiningParameters.DEFAULT_BLOCK_TXS_SELECTION_MAX_TIME;
 import static org.hyperledger.besu.ethereum.core.MiningParameters.DEFAULT_MAX_OMMERS_DEPTH;
 import static org.hyperledger.besu.ethereum.core.MiningParameters.DEFAULT_POW_JOB_TTL;
 import static org.hyperledger.besu.ethereum.core.MiningParameters.DEFAULT_REMOTE_SEALERS_LIMIT;
@@ -51,6 +53,20 @@ public class MiningOptions {
           "Specifies the depth of ommer blocks to accept when receiving solutions (default: ${DEFAULT-VALUE})")
   private final Integer maxOmmersDepth = DEFAULT_MAX_OMMERS_DEPTH;
 
+  @CommandLine.Option(
+      hidden = true,
+      names = {"--Xblock-txs-selection-max-time"},
+      description =
+          "Specifies the maximum time spent selecting the transactions of a block, after which the block is created with the transactions selected so far, 0 for no limit (default: ${DEFAULT-VALUE} milliseconds)")
+  private final Long blockTxsSelectionMaxTime = DEFAULT_BLOCK_TXS_SELECTION_MAX_TIME;
+
+  @CommandLine.Option(
+      hidden = true,
+      names = {"--Xblock-txs-pre-execution-limit"},
+      description =
+          "Specifies the maximum number of pending transactions executed against the chain head ahead of the creation of a block, whose results are reused when still valid, 0 to disable (default: ${DEFAULT-VALUE})")
+  private final Integer blockTxsPreExecutionLimit = DEFAULT_BLOCK_TXS_PRE_EXECUTION_LIMIT;
+
   @SuppressWarnings({"FieldCanBeFinal", "FieldMayBeFinal"}) // PicoCLI requires non-final Strings.
   @CommandLine.Option(
       hidden = true,
@@ -81,4 +97,12 @@ public class MiningOptions {
   public int getMaxOmmersDepth() {
     return maxOmmersDepth;
   }
+
+  public Long getBlockTxsSelectionMaxTime() {
+    return blockTxsSelectionMaxTime;
+  }
+
+  public int getBlockTxsPreExecutionLimit() {
+    return blockTxsPreExecutionLimit;
+  }
 }
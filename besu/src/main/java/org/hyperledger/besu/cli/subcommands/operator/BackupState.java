@@ -21,16 +21,22 @@ import static org.hyperledger.besu.cli.DefaultCommandValues.MANDATORY_LONG_FORMA
 
 import org.hyperledger.besu.BesuInfo;
 import org.hyperledger.besu.controller.BesuController;
+import org.hyperledger.besu.ethereum.api.query.BonsaiStateBackupService;
 import org.hyperledger.besu.ethereum.api.query.StateBackupService;
 import org.hyperledger.besu.ethereum.api.query.StateBackupService.BackupStatus;
+import org.hyperledger.besu.ethereum.bonsai.BonsaiWorldStateArchive;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
 import org.hyperledger.besu.ethereum.worldstate.DefaultWorldStateArchive;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
 
@@ -65,6 +71,22 @@ public class BackupState implements Runnable {
       arity = "1")
   private final Boolean compress = true;
 
+  @Option(
+      names = "--base-backup-path",
+      paramLabel = MANDATORY_LONG_FORMAT_HELP,
+      description =
+          "The path of a previous backup to back up the changes since (Bonsai only, default: none)",
+      arity = "1..1")
+  private final File baseBackupDir = null;
+
+  @Option(
+      names = "--parallelism",
+      paramLabel = MANDATORY_LONG_FORMAT_HELP,
+      description =
+          "The number of key ranges written in parallel (Bonsai only, default: ${DEFAULT-VALUE})",
+      arity = "1..1")
+  private final Integer parallelism = Runtime.getRuntime().availableProcessors();
+
   @ParentCommand private OperatorSubCommand parentCommand;
 
   @Override
@@ -78,9 +100,15 @@ public class BackupState implements Runnable {
 
     final BesuController besuController = createBesuController();
     final MutableBlockchain blockchain = besuController.getProtocolContext().getBlockchain();
+    final WorldStateArchive worldStateArchive =
+        besuController.getProtocolContext().getWorldStateArchive();
+    if (worldStateArchive instanceof BonsaiWorldStateArchive) {
+      backupBonsai(blockchain, (BonsaiWorldStateArchive) worldStateArchive);
+      return;
+    }
+    checkArgument(baseBackupDir == null, "Incremental backups require the Bonsai data format.");
     final WorldStateStorage worldStateStorage =
-        ((DefaultWorldStateArchive) besuController.getProtocolContext().getWorldStateArchive())
-            .getWorldStateStorage();
+        ((DefaultWorldStateArchive) worldStateArchive).getWorldStateStorage();
     final EthScheduler scheduler = new EthScheduler(1, 1, 1, 1, new NoOpMetricsSystem());
     try {
       final long targetBlock = Math.min(blockchain.getChainHeadBlockNumber(), this.block);
@@ -120,6 +148,46 @@ public class BackupState implements Runnable {
     }
   }
 
+  private void backupBonsai(
+      final MutableBlockchain blockchain, final BonsaiWorldStateArchive worldStateArchive) {
+    // the Bonsai state can only be read at the block it was persisted at
+    checkArgument(
+        block == Long.MAX_VALUE,
+        "The --block option is not supported with the Bonsai data format, the backup is taken at"
+            + " the block of the persisted world state.");
+    final BonsaiStateBackupService backup =
+        new BonsaiStateBackupService(
+            BesuInfo.version(),
+            blockchain,
+            worldStateArchive.getWorldStateStorage(),
+            parallelism,
+            new NoOpMetricsSystem());
+    final CompletableFuture<Void> backupFuture =
+        CompletableFuture.runAsync(
+            () -> {
+              try {
+                if (baseBackupDir == null) {
+                  backup.backup(backupDir.toPath(), compress);
+                } else {
+                  backup.backupIncremental(backupDir.toPath(), baseBackupDir.toPath(), compress);
+                }
+              } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            });
+    while (!backupFuture.isDone()) {
+      System.out.printf(
+          "Backup Progress - %,d Blocks / %,d State Entries%n",
+          backup.getBackedUpBlocks(), backup.getBackedUpEntries());
+      LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(10));
+    }
+    backupFuture.join();
+
+    System.out.printf(
+        "Backup complete%n Blocks: %,d%n State Entries: %,d%n",
+        backup.getBackedUpBlocks(), backup.getBackedUpEntries());
+  }
+
   private BesuController createBesuController() {
     return parentCommand.parentCommand.buildController();
   }
@@ -16,13 +16,17 @@
 
 package org.hyperledger.besu.cli.subcommands.operator;
 
+import static com.google.common.base.Preconditions.checkState;
 import static org.hyperledger.besu.cli.DefaultCommandValues.MANDATORY_LONG_FORMAT_HELP;
 import static org.hyperledger.besu.ethereum.trie.CompactEncoding.bytesToPath;
 
 import org.hyperledger.besu.config.JsonUtil;
 import org.hyperledger.besu.controller.BesuController;
 import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.api.query.BonsaiStateBackupService;
+import org.hyperledger.besu.ethereum.api.query.BonsaiStateRestoreService;
 import org.hyperledger.besu.ethereum.api.query.StateBackupService;
+import org.hyperledger.besu.ethereum.bonsai.BonsaiWorldStateArchive;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockBody;
@@ -37,14 +41,21 @@ import org.hyperledger.besu.ethereum.trie.PersistVisitor;
 import org.hyperledger.besu.ethereum.trie.RestoreVisitor;
 import org.hyperledger.besu.ethereum.worldstate.DefaultWorldStateArchive;
 import org.hyperledger.besu.ethereum.worldstate.StateTrieAccountValue;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 import org.hyperledger.besu.util.io.RollingFileReader;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.tuweni.bytes.Bytes;
@@ -71,6 +82,14 @@ public class RestoreState implements Runnable {
       arity = "1..1")
   private final Path backupDir = null;
 
+  @Option(
+      names = "--parallelism",
+      paramLabel = MANDATORY_LONG_FORMAT_HELP,
+      description =
+          "The number of key ranges restored in parallel (Bonsai only, default: ${DEFAULT-VALUE})",
+      arity = "1..1")
+  private final Integer parallelism = Runtime.getRuntime().availableProcessors();
+
   @ParentCommand private OperatorSubCommand parentCommand;
 
   private static final int TRIE_NODE_COMMIT_BATCH_SIZE = 100;
@@ -101,6 +120,10 @@ public class RestoreState implements Runnable {
   @Override
   public void run() {
     try {
+      if (Files.exists(backupDir.resolve(BonsaiStateBackupService.MANIFEST_FILE_NAME))) {
+        restoreBonsai();
+        return;
+      }
       final ObjectNode manifest =
           JsonUtil.objectNodeFromString(
               Files.readString(backupDir.resolve("besu-backup-manifest.json")));
@@ -109,6 +132,14 @@ public class RestoreState implements Runnable {
       targetBlock = manifest.get("targetBlock").asLong();
       accountCount = manifest.get("accountCount").asLong();
       besuController = createBesuController();
+      checkState(
+          !(besuController.getProtocolContext().getWorldStateArchive()
+              instanceof BonsaiWorldStateArchive),
+          "The backup in %s was taken at block %s with the Forest data format and cannot be"
+              + " restored with the Bonsai data format, a Bonsai backup must be taken without"
+              + " --block.",
+          backupDir,
+          targetBlock);
 
       restoreBlocks();
       restoreAccounts();
@@ -120,6 +151,49 @@ public class RestoreState implements Runnable {
     }
   }
 
+  // an incremental backup is restored by running the restore of each backup in turn
+  private void restoreBonsai() throws IOException {
+    besuController = createBesuController();
+    final WorldStateArchive worldStateArchive =
+        besuController.getProtocolContext().getWorldStateArchive();
+    if (!(worldStateArchive instanceof BonsaiWorldStateArchive)) {
+      throw new IllegalStateException("Bonsai backups require the Bonsai data format");
+    }
+    final BonsaiStateRestoreService restore =
+        new BonsaiStateRestoreService(
+            besuController.getProtocolContext().getBlockchain(),
+            parentCommand.parentCommand.dataDir(),
+            (BonsaiWorldStateArchive) worldStateArchive,
+            parallelism,
+            new NoOpMetricsSystem());
+    final CompletableFuture<Void> restoreFuture =
+        CompletableFuture.runAsync(
+            () -> {
+              try {
+                restore.restore(backupDir);
+              } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            });
+    while (!restoreFuture.isDone()) {
+      // the total grows as the ranges of the segments are scheduled
+      LOG.info(
+          "Restore Progress - {} of {} State Entries",
+          restore.getRestoredEntries(),
+          restore.getTotalEntries());
+      LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(10));
+    }
+    try {
+      restoreFuture.join();
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e.getCause()).getCause();
+      }
+      throw e;
+    }
+    LOG.info("Restore complete, {} State Entries", restore.getRestoredEntries());
+  }
+
   private void restoreBlocks() throws IOException {
     try (final RollingFileReader headerReader =
             new RollingFileReader(this::headerFileName, compressed);
@@ -55,16 +55,20 @@ import org.hyperledger.besu.ethereum.eth.sync.state.SyncState;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPool;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolConfiguration;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolFactory;
+import org.hyperledger.besu.ethereum.mainnet.ParallelTransactionProcessor;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.p2p.config.SubProtocolConfiguration;
+import org.hyperledger.besu.ethereum.privacy.EnclavePayloadPrefetcher;
 import org.hyperledger.besu.ethereum.storage.StorageProvider;
 import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
+import org.hyperledger.besu.ethereum.storage.keyvalue.TransactionReceiptsCompactor;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageFormat;
 import org.hyperledger.besu.ethereum.worldstate.DefaultWorldStateArchive;
 import org.hyperledger.besu.ethereum.worldstate.MarkSweepPruner;
 import org.hyperledger.besu.ethereum.worldstate.Pruner;
 import org.hyperledger.besu.ethereum.worldstate.PrunerConfiguration;
+import org.hyperledger.besu.ethereum.worldstate.TrieNodeCache;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 import org.hyperledger.besu.ethereum.worldstate.WorldStatePreimageStorage;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
@@ -82,6 +86,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -261,13 +266,30 @@ public abstract class BesuControllerBuilder {
     checkNotNull(evmConfiguration, "Missing evm config");
     prepForBuild();
 
+    // shared by the privacy block processors and precompiles of all the protocol specs
+    final Optional<ExecutorService> enclavePayloadPrefetchExecutor =
+        privacyParameters.isEnabled()
+            ? Optional.of(
+                EnclavePayloadPrefetcher.createExecutor(
+                    EnclavePayloadPrefetcher.DEFAULT_MAX_CONCURRENT_REQUESTS))
+            : Optional.empty();
+    enclavePayloadPrefetchExecutor.ifPresent(
+        executor ->
+            privacyParameters.setEnclavePayloadPrefetcher(
+                new EnclavePayloadPrefetcher(
+                    privacyParameters.getEnclave(),
+                    privacyParameters.getPrivacyAddress(),
+                    executor,
+                    metricsSystem)));
+
     final ProtocolSchedule protocolSchedule = createProtocolSchedule();
     final GenesisState genesisState = GenesisState.fromConfig(genesisConfig, protocolSchedule);
     final WorldStateStorage worldStateStorage =
         storageProvider.createWorldStateStorage(dataStorageConfiguration.getDataStorageFormat());
 
     final BlockchainStorage blockchainStorage =
-        storageProvider.createBlockchainStorage(protocolSchedule);
+        storageProvider.createBlockchainStorage(
+            protocolSchedule, dataStorageConfiguration.getCompactReceiptsEnabled());
 
     final MutableBlockchain blockchain =
         DefaultBlockchain.createMutable(
@@ -277,8 +299,21 @@ public abstract class BesuControllerBuilder {
             reorgLoggingThreshold,
             dataDirectory.toString());
 
+    final Optional<TransactionReceiptsCompactor> transactionReceiptsCompactor =
+        dataStorageConfiguration.getCompactReceiptsEnabled()
+            ? Optional.of(
+                new TransactionReceiptsCompactor(
+                    storageProvider.getStorageBySegmentIdentifier(
+                        KeyValueSegmentIdentifier.BLOCKCHAIN),
+                    metricsSystem))
+            : Optional.empty();
+    transactionReceiptsCompactor.ifPresent(TransactionReceiptsCompactor::start);
+
+    final TrieNodeCache trieNodeCache =
+        new TrieNodeCache(dataStorageConfiguration.getTrieNodeCacheSize());
+    trieNodeCache.registerMetrics(metricsSystem);
     final WorldStateArchive worldStateArchive =
-        createWorldStateArchive(worldStateStorage, blockchain);
+        createWorldStateArchive(worldStateStorage, blockchain, trieNodeCache);
 
     if (blockchain.getChainHeadBlockNumber() < 1) {
       genesisState.writeStateTo(worldStateArchive.getMutable());
@@ -292,6 +327,15 @@ public abstract class BesuControllerBuilder {
     protocolSchedule.setPublicWorldStateArchiveForPrivacyBlockProcessor(
         protocolContext.getWorldStateArchive());
 
+    // shared by the block processors of all the protocol specs
+    final Optional<ExecutorService> parallelTransactionExecutor =
+        evmConfiguration.isParallelTransactionExecutionEnabled()
+            ? Optional.of(
+                ParallelTransactionProcessor.createExecutor(
+                    Runtime.getRuntime().availableProcessors()))
+            : Optional.empty();
+    parallelTransactionExecutor.ifPresent(protocolSchedule::setParallelTransactionExecutor);
+
     Optional<Pruner> maybePruner = Optional.empty();
     if (isPruningEnabled) {
       if (!storageProvider.isWorldStateIterable()) {
@@ -393,6 +437,10 @@ public abstract class BesuControllerBuilder {
         createAdditionalJsonRpcMethodFactory(protocolContext);
 
     final List<Closeable> closeables = new ArrayList<>();
+    // stopped before the storage it writes to is closed
+    transactionReceiptsCompactor.ifPresent(closeables::add);
+    parallelTransactionExecutor.ifPresent(executor -> closeables.add(executor::shutdown));
+    enclavePayloadPrefetchExecutor.ifPresent(executor -> closeables.add(executor::shutdown));
     closeables.add(storageProvider);
     if (privacyParameters.getPrivateStorageProvider() != null) {
       closeables.add(privacyParameters.getPrivateStorageProvider());
@@ -501,16 +549,21 @@ public abstract class BesuControllerBuilder {
   }
 
   private WorldStateArchive createWorldStateArchive(
-      final WorldStateStorage worldStateStorage, final Blockchain blockchain) {
+      final WorldStateStorage worldStateStorage,
+      final Blockchain blockchain,
+      final TrieNodeCache trieNodeCache) {
     switch (dataStorageConfiguration.getDataStorageFormat()) {
       case BONSAI:
         return new BonsaiWorldStateArchive(
-            storageProvider, blockchain, dataStorageConfiguration.getBonsaiMaxLayersToLoad());
+            storageProvider,
+            blockchain,
+            dataStorageConfiguration.getBonsaiMaxLayersToLoad(),
+            trieNodeCache);
       case FOREST:
       default:
         final WorldStatePreimageStorage preimageStorage =
             storageProvider.createWorldStatePreimageStorage();
-        return new DefaultWorldStateArchive(worldStateStorage, preimageStorage);
+        return new DefaultWorldStateArchive(worldStateStorage, preimageStorage, trieNodeCache);
     }
   }
 
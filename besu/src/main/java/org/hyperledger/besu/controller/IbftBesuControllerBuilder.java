@@ -148,7 +148,8 @@ public class IbftBesuControllerBuilder extends BftBesuControllerBuilder {
             miningParameters,
             localAddress,
             bftConfig.getMiningBeneficiary().map(Address::fromHexString).orElse(localAddress),
-            bftExtraDataCodec().get());
+            bftExtraDataCodec().get(),
+            metricsSystem);
 
     final ValidatorProvider validatorProvider =
         protocolContext.getConsensusContext(BftContext.class).getValidatorProvider();
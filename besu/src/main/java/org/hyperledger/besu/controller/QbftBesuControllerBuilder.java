@@ -188,7 +188,8 @@ public class QbftBesuControllerBuilder extends BftBesuControllerBuilder {
             localAddress,
             qbftConfig.getMiningBeneficiary().map(Address::fromHexString).orElse(localAddress),
             bftExtraDataCodec().get(),
-            qbftForksSchedule);
+            qbftForksSchedule,
+            metricsSystem);
 
     final ValidatorProvider validatorProvider =
         protocolContext.getConsensusContext(BftContext.class).getValidatorProvider();
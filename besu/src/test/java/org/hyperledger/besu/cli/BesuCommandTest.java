@@ -1694,6 +1694,44 @@ public class BesuCommandTest extends CommandTestAbstract {
     assertThat(commandErrorOutput.toString(UTF_8)).isEmpty();
   }
 
+  @Test
+  public void parsesTrieNodeCacheSizeOption() {
+    parseCommand("--Xtrie-node-cache-size", "0");
+    verify(mockControllerBuilder)
+        .dataStorageConfiguration(dataStorageConfigurationArgumentCaptor.capture());
+
+    assertThat(dataStorageConfigurationArgumentCaptor.getValue().getTrieNodeCacheSize())
+        .isEqualTo(0);
+    assertThat(commandOutput.toString(UTF_8)).isEmpty();
+    assertThat(commandErrorOutput.toString(UTF_8)).isEmpty();
+  }
+
+  @Test
+  public void compactReceiptsAreDisabledByDefault() {
+    parseCommand();
+    verify(mockControllerBuilder)
+        .dataStorageConfiguration(dataStorageConfigurationArgumentCaptor.capture());
+
+    assertThat(dataStorageConfigurationArgumentCaptor.getValue().getCompactReceiptsEnabled())
+        .isFalse();
+    assertThat(dataStorageConfigurationArgumentCaptor.getValue().getDatabaseVersion())
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void parsesCompactReceiptsEnabledOption() {
+    parseCommand("--Xcompact-receipts-enabled", "true");
+    verify(mockControllerBuilder)
+        .dataStorageConfiguration(dataStorageConfigurationArgumentCaptor.capture());
+
+    assertThat(dataStorageConfigurationArgumentCaptor.getValue().getCompactReceiptsEnabled())
+        .isTrue();
+    assertThat(dataStorageConfigurationArgumentCaptor.getValue().getDatabaseVersion())
+        .isEqualTo(3);
+    assertThat(commandOutput.toString(UTF_8)).isEmpty();
+    assertThat(commandErrorOutput.toString(UTF_8)).isEmpty();
+  }
+
   @Test
   public void parsesInvalidBonsaiTrieLimitBackLayersOption() {
 
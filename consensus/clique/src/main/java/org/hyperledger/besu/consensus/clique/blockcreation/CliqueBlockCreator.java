@@ -28,6 +28,8 @@ import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.blockcreation.AbstractBlockCreator;
+import org.hyperledger.besu.ethereum.blockcreation.BlockTransactionSelectionMetrics;
+import org.hyperledger.besu.ethereum.blockcreation.PendingTransactionsPreExecutor;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.BlockHeaderBuilder;
 import org.hyperledger.besu.ethereum.core.BlockHeaderFunctions;
@@ -56,7 +58,41 @@ public class CliqueBlockCreator extends AbstractBlockCreator {
       final Wei minTransactionGasPrice,
       final Double minBlockOccupancyRatio,
       final BlockHeader parentHeader,
-      final EpochManager epochManager) {
+      final EpochManager epochManager,
+      final long blockTxsSelectionMaxTime,
+      final BlockTransactionSelectionMetrics transactionSelectionMetrics) {
+    this(
+        coinbase,
+        targetGasLimitSupplier,
+        extraDataCalculator,
+        pendingTransactions,
+        protocolContext,
+        protocolSchedule,
+        nodeKey,
+        minTransactionGasPrice,
+        minBlockOccupancyRatio,
+        parentHeader,
+        epochManager,
+        blockTxsSelectionMaxTime,
+        transactionSelectionMetrics,
+        Optional.empty());
+  }
+
+  public CliqueBlockCreator(
+      final Address coinbase,
+      final Supplier<Optional<Long>> targetGasLimitSupplier,
+      final ExtraDataCalculator extraDataCalculator,
+      final AbstractPendingTransactionsSorter pendingTransactions,
+      final ProtocolContext protocolContext,
+      final ProtocolSchedule protocolSchedule,
+      final NodeKey nodeKey,
+      final Wei minTransactionGasPrice,
+      final Double minBlockOccupancyRatio,
+      final BlockHeader parentHeader,
+      final EpochManager epochManager,
+      final long blockTxsSelectionMaxTime,
+      final BlockTransactionSelectionMetrics transactionSelectionMetrics,
+      final Optional<PendingTransactionsPreExecutor> preExecutor) {
     super(
         coinbase,
         targetGasLimitSupplier,
@@ -67,7 +103,10 @@ public class CliqueBlockCreator extends AbstractBlockCreator {
         minTransactionGasPrice,
         Util.publicKeyToAddress(nodeKey.getPublicKey()),
         minBlockOccupancyRatio,
-        parentHeader);
+        parentHeader,
+        blockTxsSelectionMaxTime,
+        transactionSelectionMetrics,
+        preExecutor);
     this.nodeKey = nodeKey;
     this.epochManager = epochManager;
   }
@@ -23,6 +23,8 @@ import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.blockcreation.AbstractBlockScheduler;
 import org.hyperledger.besu.ethereum.blockcreation.AbstractMinerExecutor;
+import org.hyperledger.besu.ethereum.blockcreation.BlockTransactionSelectionMetrics;
+import org.hyperledger.besu.ethereum.blockcreation.PendingTransactionsPreExecutor;
 import org.hyperledger.besu.ethereum.chain.MinedBlockObserver;
 import org.hyperledger.besu.ethereum.chain.PoWObserver;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
@@ -30,6 +32,7 @@ import org.hyperledger.besu.ethereum.core.MiningParameters;
 import org.hyperledger.besu.ethereum.core.Util;
 import org.hyperledger.besu.ethereum.eth.transactions.sorter.AbstractPendingTransactionsSorter;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.util.Subscribers;
 
 import java.util.Collection;
@@ -47,6 +50,8 @@ public class CliqueMinerExecutor extends AbstractMinerExecutor<CliqueBlockMiner>
   private final Address localAddress;
   private final NodeKey nodeKey;
   private final EpochManager epochManager;
+  private final BlockTransactionSelectionMetrics transactionSelectionMetrics;
+  private final Optional<PendingTransactionsPreExecutor> preExecutor;
 
   public CliqueMinerExecutor(
       final ProtocolContext protocolContext,
@@ -55,11 +60,21 @@ public class CliqueMinerExecutor extends AbstractMinerExecutor<CliqueBlockMiner>
       final NodeKey nodeKey,
       final MiningParameters miningParams,
       final AbstractBlockScheduler blockScheduler,
-      final EpochManager epochManager) {
+      final EpochManager epochManager,
+      final MetricsSystem metricsSystem) {
     super(protocolContext, protocolSchedule, pendingTransactions, miningParams, blockScheduler);
     this.nodeKey = nodeKey;
     this.localAddress = Util.publicKeyToAddress(nodeKey.getPublicKey());
     this.epochManager = epochManager;
+    this.transactionSelectionMetrics = new BlockTransactionSelectionMetrics(metricsSystem);
+    this.preExecutor =
+        PendingTransactionsPreExecutor.create(
+            protocolContext,
+            protocolSchedule,
+            pendingTransactions,
+            localAddress,
+            miningParams,
+            metricsSystem);
   }
 
   @Override
@@ -80,7 +95,10 @@ public class CliqueMinerExecutor extends AbstractMinerExecutor<CliqueBlockMiner>
                 minTransactionGasPrice,
                 minBlockOccupancyRatio,
                 header,
-                epochManager);
+                epochManager,
+                blockTxsSelectionMaxTime,
+                transactionSelectionMetrics,
+                preExecutor);
 
     return new CliqueBlockMiner(
         blockCreator,
@@ -40,12 +40,14 @@ import org.hyperledger.besu.crypto.SignatureAlgorithmFactory;
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.ProtocolContext;
+import org.hyperledger.besu.ethereum.blockcreation.BlockTransactionSelectionMetrics;
 import org.hyperledger.besu.ethereum.chain.GenesisState;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.AddressHelpers;
 import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.MiningParameters;
 import org.hyperledger.besu.ethereum.core.Util;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolConfiguration;
 import org.hyperledger.besu.ethereum.eth.transactions.sorter.GasPricePendingTransactionsSorter;
@@ -144,7 +146,9 @@ public class CliqueBlockCreatorTest {
             Wei.ZERO,
             0.8,
             blockchain.getChainHeadHeader(),
-            epochManager);
+            epochManager,
+            MiningParameters.DEFAULT_BLOCK_TXS_SELECTION_MAX_TIME,
+            new BlockTransactionSelectionMetrics(metricsSystem));
 
     final Block createdBlock = blockCreator.createBlock(5L);
 
@@ -180,7 +184,9 @@ public class CliqueBlockCreatorTest {
             Wei.ZERO,
             0.8,
             blockchain.getChainHeadHeader(),
-            epochManager);
+            epochManager,
+            MiningParameters.DEFAULT_BLOCK_TXS_SELECTION_MAX_TIME,
+            new BlockTransactionSelectionMetrics(metricsSystem));
 
     final Block createdBlock = blockCreator.createBlock(0L);
     assertThat(createdBlock.getHeader().getNonce()).isEqualTo(CliqueBlockInterface.ADD_NONCE);
@@ -218,7 +224,9 @@ public class CliqueBlockCreatorTest {
             Wei.ZERO,
             0.8,
             blockchain.getChainHeadHeader(),
-            epochManager);
+            epochManager,
+            MiningParameters.DEFAULT_BLOCK_TXS_SELECTION_MAX_TIME,
+            new BlockTransactionSelectionMetrics(metricsSystem));
 
     final Block createdBlock = blockCreator.createBlock(0L);
     assertThat(createdBlock.getHeader().getNonce()).isEqualTo(CliqueBlockInterface.DROP_NONCE);
@@ -109,7 +109,8 @@ public class CliqueMinerExecutorTest {
                 .enabled(false)
                 .build(),
             mock(CliqueBlockScheduler.class),
-            new EpochManager(EPOCH_LENGTH));
+            new EpochManager(EPOCH_LENGTH),
+            metricsSystem);
 
     // NOTE: Passing in the *parent* block, so must be 1 less than EPOCH
     final BlockHeader header = blockHeaderBuilder.number(EPOCH_LENGTH - 1).buildHeader();
@@ -154,7 +155,8 @@ public class CliqueMinerExecutorTest {
                 .enabled(false)
                 .build(),
             mock(CliqueBlockScheduler.class),
-            new EpochManager(EPOCH_LENGTH));
+            new EpochManager(EPOCH_LENGTH),
+            metricsSystem);
 
     // Parent block was epoch, so the next block should contain no validators.
     final BlockHeader header = blockHeaderBuilder.number(EPOCH_LENGTH).buildHeader();
@@ -199,7 +201,8 @@ public class CliqueMinerExecutorTest {
                 .enabled(false)
                 .build(),
             mock(CliqueBlockScheduler.class),
-            new EpochManager(EPOCH_LENGTH));
+            new EpochManager(EPOCH_LENGTH),
+            metricsSystem);
 
     executor.setExtraData(modifiedVanityData);
     final Bytes extraDataBytes = executor.calculateExtraData(blockHeaderBuilder.buildHeader());
@@ -21,6 +21,8 @@ import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.blockcreation.AbstractBlockCreator;
+import org.hyperledger.besu.ethereum.blockcreation.BlockTransactionSelectionMetrics;
+import org.hyperledger.besu.ethereum.blockcreation.PendingTransactionsPreExecutor;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.BlockHeaderBuilder;
 import org.hyperledger.besu.ethereum.core.SealableBlockHeader;
@@ -47,7 +49,41 @@ public class BftBlockCreator extends AbstractBlockCreator {
       final Double minBlockOccupancyRatio,
       final BlockHeader parentHeader,
       final Address miningBeneficiary,
-      final BftExtraDataCodec bftExtraDataCodec) {
+      final BftExtraDataCodec bftExtraDataCodec,
+      final long blockTxsSelectionMaxTime,
+      final BlockTransactionSelectionMetrics transactionSelectionMetrics) {
+    this(
+        localAddress,
+        targetGasLimitSupplier,
+        extraDataCalculator,
+        pendingTransactions,
+        protocolContext,
+        protocolSchedule,
+        minTransactionGasPrice,
+        minBlockOccupancyRatio,
+        parentHeader,
+        miningBeneficiary,
+        bftExtraDataCodec,
+        blockTxsSelectionMaxTime,
+        transactionSelectionMetrics,
+        Optional.empty());
+  }
+
+  public BftBlockCreator(
+      final Address localAddress,
+      final Supplier<Optional<Long>> targetGasLimitSupplier,
+      final ExtraDataCalculator extraDataCalculator,
+      final AbstractPendingTransactionsSorter pendingTransactions,
+      final ProtocolContext protocolContext,
+      final ProtocolSchedule protocolSchedule,
+      final Wei minTransactionGasPrice,
+      final Double minBlockOccupancyRatio,
+      final BlockHeader parentHeader,
+      final Address miningBeneficiary,
+      final BftExtraDataCodec bftExtraDataCodec,
+      final long blockTxsSelectionMaxTime,
+      final BlockTransactionSelectionMetrics transactionSelectionMetrics,
+      final Optional<PendingTransactionsPreExecutor> preExecutor) {
     super(
         localAddress,
         targetGasLimitSupplier,
@@ -58,7 +94,10 @@ public class BftBlockCreator extends AbstractBlockCreator {
         minTransactionGasPrice,
         miningBeneficiary,
         minBlockOccupancyRatio,
-        parentHeader);
+        parentHeader,
+        blockTxsSelectionMaxTime,
+        transactionSelectionMetrics,
+        preExecutor);
     this.bftExtraDataCodec = bftExtraDataCodec;
   }
 
@@ -28,11 +28,14 @@ import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.blockcreation.BlockCreator;
+import org.hyperledger.besu.ethereum.blockcreation.BlockTransactionSelectionMetrics;
+import org.hyperledger.besu.ethereum.blockcreation.PendingTransactionsPreExecutor;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.MiningParameters;
 import org.hyperledger.besu.ethereum.eth.transactions.sorter.AbstractPendingTransactionsSorter;
 import org.hyperledger.besu.ethereum.mainnet.AbstractGasLimitSpecification;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -50,6 +53,9 @@ public class BftBlockCreatorFactory {
   protected final BftExtraDataCodec bftExtraDataCodec;
   private final Address localAddress;
   final Address miningBeneficiary;
+  private final long blockTxsSelectionMaxTime;
+  private final BlockTransactionSelectionMetrics transactionSelectionMetrics;
+  private final Optional<PendingTransactionsPreExecutor> preExecutor;
 
   protected volatile Bytes vanityData;
   private volatile Wei minTransactionGasPrice;
@@ -63,7 +69,8 @@ public class BftBlockCreatorFactory {
       final MiningParameters miningParams,
       final Address localAddress,
       final Address miningBeneficiary,
-      final BftExtraDataCodec bftExtraDataCodec) {
+      final BftExtraDataCodec bftExtraDataCodec,
+      final MetricsSystem metricsSystem) {
     this.pendingTransactions = pendingTransactions;
     this.protocolContext = protocolContext;
     this.protocolSchedule = protocolSchedule;
@@ -74,6 +81,16 @@ public class BftBlockCreatorFactory {
     this.miningBeneficiary = miningBeneficiary;
     this.bftExtraDataCodec = bftExtraDataCodec;
     this.targetGasLimit = miningParams.getTargetGasLimit();
+    this.blockTxsSelectionMaxTime = miningParams.getBlockTxsSelectionMaxTime();
+    this.transactionSelectionMetrics = new BlockTransactionSelectionMetrics(metricsSystem);
+    this.preExecutor =
+        PendingTransactionsPreExecutor.create(
+            protocolContext,
+            protocolSchedule,
+            pendingTransactions,
+            miningBeneficiary,
+            miningParams,
+            metricsSystem);
   }
 
   public BlockCreator create(final BlockHeader parentHeader, final int round) {
@@ -88,7 +105,10 @@ public class BftBlockCreatorFactory {
         minBlockOccupancyRatio,
         parentHeader,
         miningBeneficiary,
-        bftExtraDataCodec);
+        bftExtraDataCodec,
+        blockTxsSelectionMaxTime,
+        transactionSelectionMetrics,
+        preExecutor);
   }
 
   public void setExtraData(final Bytes extraData) {
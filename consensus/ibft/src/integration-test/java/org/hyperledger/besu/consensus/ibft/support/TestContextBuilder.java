@@ -349,7 +349,8 @@ public class TestContextBuilder {
             miningParams,
             localAddress,
             localAddress,
-            IBFT_EXTRA_DATA_ENCODER);
+            IBFT_EXTRA_DATA_ENCODER,
+            metricsSystem);
 
     final ProposerSelector proposerSelector =
         new ProposerSelector(blockChain, blockInterface, true, validatorProvider);
@@ -0,0 +1,248 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.consensus.merge.blockcreation;
+
+import org.hyperledger.besu.consensus.merge.MergeContext;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.blockcreation.AbstractBlockCreator;
+import org.hyperledger.besu.ethereum.core.BlockWithReceipts;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps improving prepared payloads until they are requested.
+ *
+ * <p>When a payload is prepared a first block is built right away, so that there is always
+ * something to return. The block is then rebuilt in the background against the latest content of
+ * the transaction pool, and whenever a rebuilt block pays more priority fees to the fee recipient
+ * it replaces the one stored in the {@link MergeContext}. Improvement stops when the payload is
+ * finalized with {@link #stop(PayloadIdentifier)}, which also cancels the block creation in
+ * flight, or once the deadline passes.
+ */
+public class BackgroundPayloadBuilder {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BackgroundPayloadBuilder.class);
+
+  public static final Duration DEFAULT_REBUILD_INTERVAL = Duration.ofMillis(500);
+  public static final Duration DEFAULT_DEADLINE = Duration.ofSeconds(12);
+
+  private final MergeContext mergeContext;
+  private final Executor executor;
+  private final Duration rebuildInterval;
+  private final Duration deadline;
+  private final Clock clock;
+
+  private final Map<PayloadIdentifier, PayloadJob> jobs = new ConcurrentHashMap<>();
+
+  public BackgroundPayloadBuilder(final MergeContext mergeContext, final Executor executor) {
+    this(mergeContext, executor, DEFAULT_REBUILD_INTERVAL, DEFAULT_DEADLINE, Clock.systemUTC());
+  }
+
+  public BackgroundPayloadBuilder(
+      final MergeContext mergeContext,
+      final Executor executor,
+      final Duration rebuildInterval,
+      final Duration deadline,
+      final Clock clock) {
+    this.mergeContext = mergeContext;
+    this.executor = executor;
+    this.rebuildInterval = rebuildInterval;
+    this.deadline = deadline;
+    this.clock = clock;
+  }
+
+  /**
+   * Builds the first block of a payload, stores it in the merge context and keeps improving it in
+   * the background. Preparing a payload that is already being improved has no effect.
+   *
+   * @param payloadId the identifier the payload is stored under
+   * @param timestamp the timestamp of the block to build
+   * @param blockCreatorFactory creates a block creator for each build, as creators are single-use
+   *     once cancelled
+   */
+  public void start(
+      final PayloadIdentifier payloadId,
+      final long timestamp,
+      final Supplier<AbstractBlockCreator> blockCreatorFactory) {
+    if (jobs.containsKey(payloadId)) {
+      return;
+    }
+    final BlockWithReceipts initial = blockCreatorFactory.get().createBlockWithReceipts(timestamp);
+    mergeContext.putPayloadById(payloadId, initial.getBlock());
+
+    final PayloadJob job =
+        new PayloadJob(
+            payloadId,
+            timestamp,
+            blockCreatorFactory,
+            blockValue(initial),
+            clock.millis() + deadline.toMillis());
+    if (jobs.putIfAbsent(payloadId, job) == null) {
+      executor.execute(job);
+    }
+  }
+
+  /**
+   * Stops improving a payload, so that the block currently stored for it is final.
+   *
+   * @param payloadId the identifier of the payload
+   */
+  public void stop(final PayloadIdentifier payloadId) {
+    Optional.ofNullable(jobs.remove(payloadId)).ifPresent(PayloadJob::stop);
+  }
+
+  /** Stops improving all payloads. */
+  public void stopAll() {
+    jobs.keySet().forEach(this::stop);
+  }
+
+  @VisibleForTesting
+  boolean isImproving(final PayloadIdentifier payloadId) {
+    return jobs.containsKey(payloadId);
+  }
+
+  /**
+   * The value of a block to its fee recipient: the priority fee paid for the gas used by each of
+   * its transactions.
+   */
+  static Wei blockValue(final BlockWithReceipts blockWithReceipts) {
+    final List<Transaction> transactions = blockWithReceipts.getBlock().getBody().getTransactions();
+    final List<TransactionReceipt> receipts = blockWithReceipts.getReceipts();
+    final Optional<Wei> baseFee = blockWithReceipts.getHeader().getBaseFee();
+
+    Wei value = Wei.ZERO;
+    long previousCumulativeGasUsed = 0;
+    for (int i = 0; i < transactions.size(); i++) {
+      final long cumulativeGasUsed = receipts.get(i).getCumulativeGasUsed();
+      value =
+          value.add(
+              transactions
+                  .get(i)
+                  .getEffectivePriorityFeePerGas(baseFee)
+                  .multiply(cumulativeGasUsed - previousCumulativeGasUsed));
+      previousCumulativeGasUsed = cumulativeGasUsed;
+    }
+    return value;
+  }
+
+  private class PayloadJob implements Runnable {
+
+    private final PayloadIdentifier payloadId;
+    private final long timestamp;
+    private final Supplier<AbstractBlockCreator> blockCreatorFactory;
+    private final long deadlineMillis;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    private Wei bestValue;
+    private AbstractBlockCreator currentBlockCreator;
+
+    private PayloadJob(
+        final PayloadIdentifier payloadId,
+        final long timestamp,
+        final Supplier<AbstractBlockCreator> blockCreatorFactory,
+        final Wei initialValue,
+        final long deadlineMillis) {
+      this.payloadId = payloadId;
+      this.timestamp = timestamp;
+      this.blockCreatorFactory = blockCreatorFactory;
+      this.bestValue = initialValue;
+      this.deadlineMillis = deadlineMillis;
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (awaitNextRound()) {
+          final AbstractBlockCreator blockCreator = blockCreatorFactory.get();
+          if (!setCurrentBlockCreator(blockCreator)) {
+            break;
+          }
+          final BlockWithReceipts candidate;
+          try {
+            candidate = blockCreator.createBlockWithReceipts(timestamp);
+          } catch (final RuntimeException e) {
+            if (!blockCreator.isCancelled()) {
+              LOG.debug("Failed to improve payload {}, keeping the current one", payloadId, e);
+            }
+            break;
+          }
+          offer(candidate);
+        }
+      } finally {
+        jobs.remove(payloadId, this);
+      }
+    }
+
+    private boolean awaitNextRound() {
+      try {
+        if (stopped.await(rebuildInterval.toMillis(), TimeUnit.MILLISECONDS)) {
+          return false;
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+      return clock.millis() < deadlineMillis;
+    }
+
+    private synchronized boolean setCurrentBlockCreator(final AbstractBlockCreator blockCreator) {
+      if (stopped.getCount() == 0) {
+        return false;
+      }
+      currentBlockCreator = blockCreator;
+      return true;
+    }
+
+    private synchronized void offer(final BlockWithReceipts candidate) {
+      // once stopped the stored payload may already have been handed out, so it must not change
+      if (stopped.getCount() == 0) {
+        return;
+      }
+      final Wei value = blockValue(candidate);
+      if (value.greaterThan(bestValue)) {
+        LOG.debug(
+            "Improved payload {} with block {}, value {} -> {}",
+            payloadId,
+            candidate.getHash(),
+            bestValue,
+            value);
+        mergeContext.replacePayloadById(payloadId, candidate.getBlock());
+        bestValue = value;
+      }
+    }
+
+    private synchronized void stop() {
+      stopped.countDown();
+      if (currentBlockCreator != null) {
+        currentBlockCreator.cancel();
+      }
+    }
+  }
+}
@@ -31,6 +31,14 @@ public interface MergeMiningCoordinator extends MiningCoordinator {
       final Bytes32 random,
       final Address feeRecipient);
 
+  /**
+   * Stops improving the payload prepared under the given identifier, so that the block stored for
+   * it can be handed out as final.
+   *
+   * @param payloadId the identifier returned by {@link #preparePayload}
+   */
+  void finalizeProposalById(final PayloadIdentifier payloadId);
+
   boolean executeBlock(final Block block);
 
   void updateForkChoice(final Hash headBlockHash, final Hash finalizedBlockHash);
@@ -0,0 +1,192 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.consensus.merge.blockcreation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.consensus.merge.MergeContext;
+import org.hyperledger.besu.crypto.KeyPair;
+import org.hyperledger.besu.crypto.SignatureAlgorithmFactory;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.blockcreation.AbstractBlockCreator;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.BlockWithReceipts;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
+import org.hyperledger.besu.plugin.data.TransactionType;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+public class BackgroundPayloadBuilderTest {
+
+  private static final KeyPair KEY_PAIR = SignatureAlgorithmFactory.getInstance().generateKeyPair();
+  private static final Wei BASE_FEE = Wei.of(7);
+  private static final long TIMESTAMP = 1337L;
+  private static final PayloadIdentifier PAYLOAD_ID =
+      PayloadIdentifier.forPayloadParams(Hash.ZERO, TIMESTAMP);
+
+  private final MergeContext mergeContext = mock(MergeContext.class);
+  private final BackgroundPayloadBuilder builder =
+      new BackgroundPayloadBuilder(
+          mergeContext, Runnable::run, Duration.ZERO, Duration.ofMinutes(1), Clock.systemUTC());
+
+  @Test
+  public void blockValueIsPriorityFeeTimesGasUsedOfEachTransaction() {
+    final Transaction legacy =
+        new TransactionTestFixture().gasPrice(Wei.of(10)).createTransaction(KEY_PAIR);
+    final Transaction eip1559 =
+        new TransactionTestFixture()
+            .type(TransactionType.EIP1559)
+            .maxPriorityFeePerGas(Optional.of(Wei.of(2)))
+            .maxFeePerGas(Optional.of(Wei.of(100)))
+            .createTransaction(KEY_PAIR);
+
+    final BlockWithReceipts block =
+        block(List.of(legacy, eip1559), List.of(receipt(21_000), receipt(51_000)));
+
+    assertThat(BackgroundPayloadBuilder.blockValue(block))
+        .isEqualTo(Wei.of(3 * 21_000 + 2 * 30_000));
+  }
+
+  @Test
+  public void keepsTheHighestValuePayload() {
+    final BlockWithReceipts initial = blockWithPriorityFee(1);
+    final BlockWithReceipts best = blockWithPriorityFee(3);
+    final BlockWithReceipts worse = blockWithPriorityFee(2);
+
+    builder.start(PAYLOAD_ID, TIMESTAMP, creatorsThenStop(initial, best, worse));
+
+    verify(mergeContext).putPayloadById(PAYLOAD_ID, initial.getBlock());
+    verify(mergeContext).replacePayloadById(PAYLOAD_ID, best.getBlock());
+    verify(mergeContext, never()).replacePayloadById(PAYLOAD_ID, worse.getBlock());
+    assertThat(builder.isImproving(PAYLOAD_ID)).isFalse();
+  }
+
+  @Test
+  public void stoppingCancelsTheBuildInFlightAndDiscardsItsResult() {
+    final BlockWithReceipts better = blockWithPriorityFee(3);
+    final AbstractBlockCreator inFlight = mock(AbstractBlockCreator.class);
+    when(inFlight.createBlockWithReceipts(TIMESTAMP))
+        .thenAnswer(
+            invocation -> {
+              builder.stop(PAYLOAD_ID);
+              return better;
+            });
+    final Queue<AbstractBlockCreator> creators =
+        new ArrayDeque<>(List.of(creator(blockWithPriorityFee(1)), inFlight));
+
+    builder.start(PAYLOAD_ID, TIMESTAMP, creators::remove);
+
+    verify(inFlight).cancel();
+    verify(mergeContext, never()).replacePayloadById(any(), any());
+    assertThat(builder.isImproving(PAYLOAD_ID)).isFalse();
+  }
+
+  @Test
+  public void failedBuildKeepsTheCurrentPayload() {
+    final AbstractBlockCreator failing = mock(AbstractBlockCreator.class);
+    when(failing.createBlockWithReceipts(TIMESTAMP)).thenThrow(new IllegalStateException());
+    final Queue<AbstractBlockCreator> creators =
+        new ArrayDeque<>(List.of(creator(blockWithPriorityFee(1)), failing));
+
+    builder.start(PAYLOAD_ID, TIMESTAMP, creators::remove);
+
+    verify(mergeContext).putPayloadById(eq(PAYLOAD_ID), any());
+    verify(mergeContext, never()).replacePayloadById(any(), any());
+    assertThat(builder.isImproving(PAYLOAD_ID)).isFalse();
+  }
+
+  @Test
+  public void stopsImprovingOnceTheDeadlinePasses() {
+    final BackgroundPayloadBuilder expiringBuilder =
+        new BackgroundPayloadBuilder(
+            mergeContext,
+            Runnable::run,
+            Duration.ZERO,
+            Duration.ZERO,
+            Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+    final Queue<AbstractBlockCreator> creators =
+        new ArrayDeque<>(List.of(creator(blockWithPriorityFee(1))));
+
+    expiringBuilder.start(PAYLOAD_ID, TIMESTAMP, creators::remove);
+
+    assertThat(creators).isEmpty();
+    verify(mergeContext, never()).replacePayloadById(any(), any());
+    assertThat(expiringBuilder.isImproving(PAYLOAD_ID)).isFalse();
+  }
+
+  private Supplier<AbstractBlockCreator> creatorsThenStop(final BlockWithReceipts... blocks) {
+    final Queue<AbstractBlockCreator> creators = new ArrayDeque<>();
+    for (final BlockWithReceipts block : blocks) {
+      creators.add(creator(block));
+    }
+    return () -> {
+      if (creators.isEmpty()) {
+        // the payload is requested once all the blocks have been built
+        builder.stop(PAYLOAD_ID);
+        return mock(AbstractBlockCreator.class);
+      }
+      return creators.remove();
+    };
+  }
+
+  private static AbstractBlockCreator creator(final BlockWithReceipts block) {
+    final AbstractBlockCreator creator = mock(AbstractBlockCreator.class);
+    when(creator.createBlockWithReceipts(TIMESTAMP)).thenReturn(block);
+    return creator;
+  }
+
+  private static BlockWithReceipts blockWithPriorityFee(final long priorityFee) {
+    final Transaction transaction =
+        new TransactionTestFixture()
+            .gasPrice(BASE_FEE.add(priorityFee))
+            .createTransaction(KEY_PAIR);
+    return block(List.of(transaction), List.of(receipt(21_000)));
+  }
+
+  private static BlockWithReceipts block(
+      final List<Transaction> transactions, final List<TransactionReceipt> receipts) {
+    return new BlockWithReceipts(
+        new Block(
+            new BlockHeaderTestFixture().baseFeePerGas(BASE_FEE).buildHeader(),
+            new BlockBody(transactions, Collections.emptyList())),
+        receipts);
+  }
+
+  private static TransactionReceipt receipt(final long cumulativeGasUsed) {
+    return new TransactionReceipt(1, cumulativeGasUsed, Collections.emptyList(), Optional.empty());
+  }
+}
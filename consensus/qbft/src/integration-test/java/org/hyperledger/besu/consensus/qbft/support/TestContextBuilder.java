@@ -455,7 +455,8 @@ public class TestContextBuilder {
             localAddress,
             localAddress,
             BFT_EXTRA_DATA_ENCODER,
-            forksSchedule);
+            forksSchedule,
+            metricsSystem);
 
     final ProposerSelector proposerSelector =
         new ProposerSelector(blockChain, blockInterface, true, validatorProvider);
@@ -28,6 +28,7 @@ import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.MiningParameters;
 import org.hyperledger.besu.ethereum.eth.transactions.sorter.AbstractPendingTransactionsSorter;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
 
 import java.util.Collections;
 import java.util.Optional;
@@ -46,7 +47,8 @@ public class QbftBlockCreatorFactory extends BftBlockCreatorFactory {
       final Address localAddress,
       final Address miningBeneficiary,
       final BftExtraDataCodec bftExtraDataCodec,
-      final ForksSchedule<QbftConfigOptions> forksSchedule) {
+      final ForksSchedule<QbftConfigOptions> forksSchedule,
+      final MetricsSystem metricsSystem) {
     super(
         pendingTransactions,
         protocolContext,
@@ -54,7 +56,8 @@ public class QbftBlockCreatorFactory extends BftBlockCreatorFactory {
         miningParams,
         localAddress,
         miningBeneficiary,
-        bftExtraDataCodec);
+        bftExtraDataCodec,
+        metricsSystem);
     this.forksSchedule = forksSchedule;
   }
 
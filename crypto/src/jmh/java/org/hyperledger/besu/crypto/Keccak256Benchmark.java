@@ -0,0 +1,125 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.crypto;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link Keccak256} with cloning a BouncyCastle {@link MessageDigest} per hash, which is
+ * how {@link Hash#keccak256(Bytes)} used to work. The sizes cover addresses and storage keys (20
+ * and 32 bytes), one full block of input (136 bytes), a typical branch node (532 bytes) and
+ * contract code.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class Keccak256Benchmark {
+
+  private static final int BATCH_SIZE = 64;
+
+  @Param({"20", "32", "136", "532", "4096"})
+  public int size;
+
+  private MessageDigest messageDigest;
+  private Bytes input;
+  private byte[] inputArray;
+  private ByteBuffer inputBuffer;
+  private final byte[] output = new byte[Keccak256.DIGEST_LENGTH];
+  private final ByteBuffer outputBuffer = ByteBuffer.allocateDirect(Keccak256.DIGEST_LENGTH);
+  private List<Bytes> batch;
+  private byte[] batchOutput;
+
+  @Setup(Level.Trial)
+  public void prepare() throws NoSuchAlgorithmException {
+    messageDigest = MessageDigestFactory.create(Hash.KECCAK256_ALG);
+    final Random random = new Random(size);
+    inputArray = new byte[size];
+    random.nextBytes(inputArray);
+    input = Bytes.wrap(inputArray);
+    inputBuffer = ByteBuffer.allocateDirect(size);
+    inputBuffer.put(inputArray).flip();
+    batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      final byte[] value = new byte[size];
+      random.nextBytes(value);
+      batch.add(Bytes.wrap(value));
+    }
+    batchOutput = new byte[BATCH_SIZE * Keccak256.DIGEST_LENGTH];
+  }
+
+  @Benchmark
+  public Bytes32 clonedMessageDigest() throws CloneNotSupportedException {
+    final MessageDigest digest = (MessageDigest) messageDigest.clone();
+    input.update(digest);
+    return Bytes32.wrap(digest.digest());
+  }
+
+  @Benchmark
+  public Bytes32 keccak256Bytes() {
+    return Keccak256.hash(input);
+  }
+
+  @Benchmark
+  public byte[] keccak256Array() {
+    Keccak256.hash(inputArray, 0, size, output, 0);
+    return output;
+  }
+
+  @Benchmark
+  public ByteBuffer keccak256DirectBuffer() {
+    inputBuffer.rewind();
+    outputBuffer.clear();
+    Keccak256.hash(inputBuffer, outputBuffer);
+    return outputBuffer;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public byte[] keccak256Batch() {
+    Keccak256.hashAll(batch, batchOutput, 0);
+    return batchOutput;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void clonedMessageDigestBatch(final Blackhole blackhole)
+      throws CloneNotSupportedException {
+    for (final Bytes value : batch) {
+      final MessageDigest digest = (MessageDigest) messageDigest.clone();
+      value.update(digest);
+      blackhole.consume(Bytes32.wrap(digest.digest()));
+    }
+  }
+}
@@ -0,0 +1,418 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.crypto;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Keccak-256 as used by Ethereum, that is with the original Keccak padding rather than the one
+ * standardised for SHA3-256.
+ *
+ * <p>Unlike a {@link java.security.MessageDigest}, an instance is meant to be reused: its state is
+ * a fixed array of lanes that input is absorbed into directly, and producing a digest resets it for
+ * the next input, so hashing allocates nothing beyond the output. Instances are not thread-safe;
+ * the static methods use an instance per thread.
+ */
+public final class Keccak256 {
+
+  public static final int DIGEST_LENGTH = 32;
+
+  private static final int RATE = 136;
+  private static final int RATE_LANES = RATE / Long.BYTES;
+
+  private static final VarHandle LONG_LE =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+  private static final long[] ROUND_CONSTANTS = {
+    0x0000000000000001L, 0x0000000000008082L, 0x800000000000808aL, 0x8000000080008000L,
+    0x000000000000808bL, 0x0000000080000001L, 0x8000000080008081L, 0x8000000000008009L,
+    0x000000000000008aL, 0x0000000000000088L, 0x0000000080008009L, 0x000000008000000aL,
+    0x000000008000808bL, 0x800000000000008bL, 0x8000000000008089L, 0x8000000000008003L,
+    0x8000000000008002L, 0x8000000000000080L, 0x000000000000800aL, 0x800000008000000aL,
+    0x8000000080008081L, 0x8000000000008080L, 0x0000000080000001L, 0x8000000080008008L
+  };
+
+  private static final ThreadLocal<Keccak256> THREAD_INSTANCE =
+      ThreadLocal.withInitial(Keccak256::new);
+
+  private final long[] state = new long[25];
+  // The number of bytes of the current block absorbed so far.
+  private int position;
+
+  /**
+   * Digest using keccak-256.
+   *
+   * @param input The input bytes to produce the digest for.
+   * @return A digest.
+   */
+  public static Bytes32 hash(final Bytes input) {
+    final byte[] digest = new byte[DIGEST_LENGTH];
+    final byte[] inputArray = input.toArrayUnsafe();
+    hash(inputArray, 0, inputArray.length, digest, 0);
+    return Bytes32.wrap(digest);
+  }
+
+  /**
+   * Digest a range of an array using keccak-256.
+   *
+   * @param input The array holding the input.
+   * @param offset The offset of the input in the array.
+   * @param length The length of the input.
+   * @param output The array to write the digest into.
+   * @param outputOffset The offset in the output array to write the 32 byte digest at.
+   */
+  public static void hash(
+      final byte[] input,
+      final int offset,
+      final int length,
+      final byte[] output,
+      final int outputOffset) {
+    final Keccak256 keccak = THREAD_INSTANCE.get();
+    keccak.update(input, offset, length);
+    keccak.digest(output, outputOffset);
+  }
+
+  /**
+   * Digest the remaining bytes of a buffer using keccak-256.
+   *
+   * @param input The buffer holding the input, which is consumed.
+   * @param output The buffer the 32 byte digest is written to.
+   */
+  public static void hash(final ByteBuffer input, final ByteBuffer output) {
+    final Keccak256 keccak = THREAD_INSTANCE.get();
+    keccak.update(input);
+    keccak.digest(output);
+  }
+
+  /**
+   * Digest each of many inputs using keccak-256. The digests share a single backing array, which
+   * makes this cheaper than hashing the inputs one at a time when they are small, such as addresses
+   * or trie nodes.
+   *
+   * @param inputs The inputs to produce digests for.
+   * @return The digest of each input, in the same order.
+   */
+  public static Bytes32[] hashAll(final List<? extends Bytes> inputs) {
+    final byte[] digests = new byte[inputs.size() * DIGEST_LENGTH];
+    hashAll(inputs, digests, 0);
+    final Bytes32[] result = new Bytes32[inputs.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = Bytes32.wrap(digests, i * DIGEST_LENGTH);
+    }
+    return result;
+  }
+
+  /**
+   * Digest each of many inputs using keccak-256, writing the digests one after another.
+   *
+   * @param inputs The inputs to produce digests for.
+   * @param output The array to write the digests into.
+   * @param outputOffset The offset in the output array to write the first digest at.
+   */
+  public static void hashAll(
+      final List<? extends Bytes> inputs, final byte[] output, final int outputOffset) {
+    checkArgument(
+        output.length - outputOffset >= inputs.size() * DIGEST_LENGTH,
+        "Output array too small for %s digests",
+        inputs.size());
+    final Keccak256 keccak = THREAD_INSTANCE.get();
+    int digestOffset = outputOffset;
+    for (final Bytes input : inputs) {
+      final byte[] inputArray = input.toArrayUnsafe();
+      keccak.update(inputArray, 0, inputArray.length);
+      keccak.digest(output, digestOffset);
+      digestOffset += DIGEST_LENGTH;
+    }
+  }
+
+  /**
+   * Absorbs a range of an array.
+   *
+   * @param input The array holding the input.
+   * @param offset The offset of the input in the array.
+   * @param length The length of the input.
+   */
+  public void update(final byte[] input, final int offset, final int length) {
+    // Checking the range up front means a bad one can't leave the state half updated.
+    Objects.checkFromIndexSize(offset, length, input.length);
+    int index = offset;
+    final int end = offset + length;
+    while (index < end) {
+      if ((position & 7) == 0 && end - index >= Long.BYTES) {
+        int lane = position >>> 3;
+        while (lane < RATE_LANES && end - index >= Long.BYTES) {
+          state[lane++] ^= (long) LONG_LE.get(input, index);
+          index += Long.BYTES;
+        }
+        position = lane << 3;
+      } else {
+        absorbByte(input[index++]);
+      }
+      if (position == RATE) {
+        permute(state);
+        position = 0;
+      }
+    }
+  }
+
+  /**
+   * Absorbs the remaining bytes of a buffer, leaving it with no bytes remaining.
+   *
+   * @param input The buffer holding the input.
+   */
+  public void update(final ByteBuffer input) {
+    if (input.hasArray()) {
+      update(input.array(), input.arrayOffset() + input.position(), input.remaining());
+      input.position(input.limit());
+      return;
+    }
+    final boolean littleEndian = input.order() == ByteOrder.LITTLE_ENDIAN;
+    while (input.hasRemaining()) {
+      if ((position & 7) == 0 && input.remaining() >= Long.BYTES) {
+        final long value = input.getLong();
+        state[position >>> 3] ^= littleEndian ? value : Long.reverseBytes(value);
+        position += Long.BYTES;
+      } else {
+        absorbByte(input.get());
+      }
+      if (position == RATE) {
+        permute(state);
+        position = 0;
+      }
+    }
+  }
+
+  /**
+   * Writes the digest of everything absorbed since the last digest, and resets for the next input.
+   *
+   * @param output The array to write the digest into.
+   * @param offset The offset in the array to write the 32 byte digest at.
+   */
+  public void digest(final byte[] output, final int offset) {
+    pad();
+    for (int i = 0; i < DIGEST_LENGTH / Long.BYTES; i++) {
+      LONG_LE.set(output, offset + i * Long.BYTES, state[i]);
+    }
+    reset();
+  }
+
+  /**
+   * Writes the digest of everything absorbed since the last digest, and resets for the next input.
+   *
+   * @param output The buffer to write the 32 byte digest to.
+   */
+  public void digest(final ByteBuffer output) {
+    pad();
+    final boolean littleEndian = output.order() == ByteOrder.LITTLE_ENDIAN;
+    for (int i = 0; i < DIGEST_LENGTH / Long.BYTES; i++) {
+      output.putLong(littleEndian ? state[i] : Long.reverseBytes(state[i]));
+    }
+    reset();
+  }
+
+  /** Discards everything absorbed since the last digest. */
+  public void reset() {
+    Arrays.fill(state, 0L);
+    position = 0;
+  }
+
+  private void absorbByte(final byte value) {
+    state[position >>> 3] ^= (value & 0xFFL) << ((position & 7) << 3);
+    position++;
+  }
+
+  private void pad() {
+    state[position >>> 3] ^= 0x01L << ((position & 7) << 3);
+    state[RATE_LANES - 1] ^= 0x80L << 56;
+    permute(state);
+  }
+
+  private static void permute(final long[] a) {
+    long a00 = a[0];
+    long a01 = a[1];
+    long a02 = a[2];
+    long a03 = a[3];
+    long a04 = a[4];
+    long a05 = a[5];
+    long a06 = a[6];
+    long a07 = a[7];
+    long a08 = a[8];
+    long a09 = a[9];
+    long a10 = a[10];
+    long a11 = a[11];
+    long a12 = a[12];
+    long a13 = a[13];
+    long a14 = a[14];
+    long a15 = a[15];
+    long a16 = a[16];
+    long a17 = a[17];
+    long a18 = a[18];
+    long a19 = a[19];
+    long a20 = a[20];
+    long a21 = a[21];
+    long a22 = a[22];
+    long a23 = a[23];
+    long a24 = a[24];
+
+    for (int round = 0; round < 24; round++) {
+      // theta
+      long c0 = a00 ^ a05 ^ a10 ^ a15 ^ a20;
+      long c1 = a01 ^ a06 ^ a11 ^ a16 ^ a21;
+      final long c2 = a02 ^ a07 ^ a12 ^ a17 ^ a22;
+      final long c3 = a03 ^ a08 ^ a13 ^ a18 ^ a23;
+      final long c4 = a04 ^ a09 ^ a14 ^ a19 ^ a24;
+
+      final long d1 = Long.rotateLeft(c1, 1) ^ c4;
+      final long d2 = Long.rotateLeft(c2, 1) ^ c0;
+      final long d3 = Long.rotateLeft(c3, 1) ^ c1;
+      final long d4 = Long.rotateLeft(c4, 1) ^ c2;
+      final long d0 = Long.rotateLeft(c0, 1) ^ c3;
+
+      a00 ^= d1;
+      a05 ^= d1;
+      a10 ^= d1;
+      a15 ^= d1;
+      a20 ^= d1;
+      a01 ^= d2;
+      a06 ^= d2;
+      a11 ^= d2;
+      a16 ^= d2;
+      a21 ^= d2;
+      a02 ^= d3;
+      a07 ^= d3;
+      a12 ^= d3;
+      a17 ^= d3;
+      a22 ^= d3;
+      a03 ^= d4;
+      a08 ^= d4;
+      a13 ^= d4;
+      a18 ^= d4;
+      a23 ^= d4;
+      a04 ^= d0;
+      a09 ^= d0;
+      a14 ^= d0;
+      a19 ^= d0;
+      a24 ^= d0;
+
+      // rho and pi
+      c1 = Long.rotateLeft(a01, 1);
+      a01 = Long.rotateLeft(a06, 44);
+      a06 = Long.rotateLeft(a09, 20);
+      a09 = Long.rotateLeft(a22, 61);
+      a22 = Long.rotateLeft(a14, 39);
+      a14 = Long.rotateLeft(a20, 18);
+      a20 = Long.rotateLeft(a02, 62);
+      a02 = Long.rotateLeft(a12, 43);
+      a12 = Long.rotateLeft(a13, 25);
+      a13 = Long.rotateLeft(a19, 8);
+      a19 = Long.rotateLeft(a23, 56);
+      a23 = Long.rotateLeft(a15, 41);
+      a15 = Long.rotateLeft(a04, 27);
+      a04 = Long.rotateLeft(a24, 14);
+      a24 = Long.rotateLeft(a21, 2);
+      a21 = Long.rotateLeft(a08, 55);
+      a08 = Long.rotateLeft(a16, 45);
+      a16 = Long.rotateLeft(a05, 36);
+      a05 = Long.rotateLeft(a03, 28);
+      a03 = Long.rotateLeft(a18, 21);
+      a18 = Long.rotateLeft(a17, 15);
+      a17 = Long.rotateLeft(a11, 10);
+      a11 = Long.rotateLeft(a07, 6);
+      a07 = Long.rotateLeft(a10, 3);
+      a10 = c1;
+
+      // chi
+      c0 = a00 ^ (~a01 & a02);
+      c1 = a01 ^ (~a02 & a03);
+      a02 ^= ~a03 & a04;
+      a03 ^= ~a04 & a00;
+      a04 ^= ~a00 & a01;
+      a00 = c0;
+      a01 = c1;
+
+      c0 = a05 ^ (~a06 & a07);
+      c1 = a06 ^ (~a07 & a08);
+      a07 ^= ~a08 & a09;
+      a08 ^= ~a09 & a05;
+      a09 ^= ~a05 & a06;
+      a05 = c0;
+      a06 = c1;
+
+      c0 = a10 ^ (~a11 & a12);
+      c1 = a11 ^ (~a12 & a13);
+      a12 ^= ~a13 & a14;
+      a13 ^= ~a14 & a10;
+      a14 ^= ~a10 & a11;
+      a10 = c0;
+      a11 = c1;
+
+      c0 = a15 ^ (~a16 & a17);
+      c1 = a16 ^ (~a17 & a18);
+      a17 ^= ~a18 & a19;
+      a18 ^= ~a19 & a15;
+      a19 ^= ~a15 & a16;
+      a15 = c0;
+      a16 = c1;
+
+      c0 = a20 ^ (~a21 & a22);
+      c1 = a21 ^ (~a22 & a23);
+      a22 ^= ~a23 & a24;
+      a23 ^= ~a24 & a20;
+      a24 ^= ~a20 & a21;
+      a20 = c0;
+      a21 = c1;
+
+      // iota
+      a00 ^= ROUND_CONSTANTS[round];
+    }
+
+    a[0] = a00;
+    a[1] = a01;
+    a[2] = a02;
+    a[3] = a03;
+    a[4] = a04;
+    a[5] = a05;
+    a[6] = a06;
+    a[7] = a07;
+    a[8] = a08;
+    a[9] = a09;
+    a[10] = a10;
+    a[11] = a11;
+    a[12] = a12;
+    a[13] = a13;
+    a[14] = a14;
+    a[15] = a15;
+    a[16] = a16;
+    a[17] = a17;
+    a[18] = a18;
+    a[19] = a19;
+    a[20] = a20;
+    a[21] = a21;
+    a[22] = a22;
+    a[23] = a23;
+    a[24] = a24;
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.crypto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+
+public class Keccak256Test {
+
+  private static final Bytes32 EMPTY_KECCAK256 =
+      Bytes32.fromHexString("c5d2460186f7233c927e7db2dcc703c0e500b653ca82273b7bfad8045d85a470");
+
+  private final Random random = new Random(1);
+
+  @Test
+  public void shouldHashEmptyInput() {
+    assertThat(Keccak256.hash(Bytes.EMPTY)).isEqualTo(EMPTY_KECCAK256);
+  }
+
+  @Test
+  public void shouldMatchMessageDigestAcrossBlockBoundaries() throws Exception {
+    // Covers inputs shorter than, equal to and spanning several 136 byte blocks, including those
+    // whose padding falls in the last byte of a block.
+    for (int length = 0; length <= 3 * 136 + 1; length++) {
+      final byte[] input = randomBytes(length);
+      assertThat(Keccak256.hash(Bytes.wrap(input)))
+          .describedAs("input of %s bytes", length)
+          .isEqualTo(Bytes32.wrap(messageDigest(input)));
+    }
+  }
+
+  @Test
+  public void shouldHashArrayRangeIntoOutputOffset() throws Exception {
+    final byte[] input = randomBytes(300);
+    final byte[] output = new byte[40];
+
+    Keccak256.hash(input, 3, 290, output, 5);
+
+    assertThat(Arrays.copyOfRange(output, 5, 37))
+        .isEqualTo(messageDigest(Arrays.copyOfRange(input, 3, 293)));
+  }
+
+  @Test
+  public void shouldProduceSameDigestForIncrementalUpdates() throws Exception {
+    final byte[] input = randomBytes(500);
+    final Keccak256 keccak = new Keccak256();
+    keccak.update(input, 0, 7);
+    keccak.update(input, 7, 200);
+    keccak.update(input, 207, 293);
+    final byte[] output = new byte[Keccak256.DIGEST_LENGTH];
+
+    keccak.digest(output, 0);
+
+    assertThat(output).isEqualTo(messageDigest(input));
+  }
+
+  @Test
+  public void shouldResetAfterDigest() throws Exception {
+    final Keccak256 keccak = new Keccak256();
+    final byte[] output = new byte[Keccak256.DIGEST_LENGTH];
+    keccak.update(randomBytes(100), 0, 100);
+    keccak.digest(output, 0);
+
+    final byte[] input = randomBytes(50);
+    keccak.update(input, 0, input.length);
+    keccak.digest(output, 0);
+
+    assertThat(output).isEqualTo(messageDigest(input));
+  }
+
+  @Test
+  public void shouldHashDirectBuffersInEitherByteOrder() throws Exception {
+    final byte[] input = randomBytes(333);
+    for (final ByteOrder order : List.of(ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN)) {
+      final ByteBuffer inputBuffer = ByteBuffer.allocateDirect(input.length).order(order);
+      inputBuffer.put(input).flip();
+      final ByteBuffer outputBuffer = ByteBuffer.allocateDirect(32).order(order);
+
+      Keccak256.hash(inputBuffer, outputBuffer);
+
+      assertThat(inputBuffer.hasRemaining()).isFalse();
+      final byte[] output = new byte[Keccak256.DIGEST_LENGTH];
+      outputBuffer.flip().get(output);
+      assertThat(output).isEqualTo(messageDigest(input));
+    }
+  }
+
+  @Test
+  public void shouldHashAllInputsInOrder() throws Exception {
+    final List<Bytes> inputs = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      inputs.add(Bytes.wrap(randomBytes(i * 30)));
+    }
+
+    final Bytes32[] digests = Keccak256.hashAll(inputs);
+
+    assertThat(digests).hasSize(inputs.size());
+    for (int i = 0; i < inputs.size(); i++) {
+      assertThat(digests[i]).isEqualTo(Bytes32.wrap(messageDigest(inputs.get(i).toArray())));
+    }
+  }
+
+  @Test
+  public void shouldRejectOutputTooSmallForBatch() {
+    final List<Bytes> inputs = List.of(Bytes.of(1), Bytes.of(2));
+
+    assertThatThrownBy(() -> Keccak256.hashAll(inputs, new byte[63], 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void shouldNotCorruptStateOnInvalidRange() throws Exception {
+    final Keccak256 keccak = new Keccak256();
+    final byte[] input = randomBytes(10);
+
+    assertThatThrownBy(() -> keccak.update(input, 5, 10))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+
+    final byte[] output = new byte[Keccak256.DIGEST_LENGTH];
+    keccak.update(input, 0, input.length);
+    keccak.digest(output, 0);
+    assertThat(output).isEqualTo(messageDigest(input));
+  }
+
+  private byte[] randomBytes(final int length) {
+    final byte[] bytes = new byte[length];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+
+  private static byte[] messageDigest(final byte[] input) throws Exception {
+    final MessageDigest digest = MessageDigestFactory.create(Hash.KECCAK256_ALG);
+    return digest.digest(input);
+  }
+}
@@ -36,4 +36,15 @@ public interface GraphQLDataFetcherContext {
   default IsAliveHandler getIsAliveHandler() {
     return new IsAliveHandler(true);
   }
+
+  /**
+   * Returns the loader to read blockchain data with while executing a query. Data loaded with it is
+   * kept for as long as the loader is, so contexts that outlive a single query return a new loader
+   * on every call.
+   *
+   * @return the data loader
+   */
+  default GraphQLDataLoader getDataLoader() {
+    return new GraphQLDataLoader(getBlockchainQueries());
+  }
 }
@@ -21,6 +21,8 @@ import org.hyperledger.besu.ethereum.core.Synchronizer;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPool;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 
+import java.util.Optional;
+
 public class GraphQLDataFetcherContextImpl implements GraphQLDataFetcherContext {
 
   private final BlockchainQueries blockchainQueries;
@@ -29,16 +31,27 @@ public class GraphQLDataFetcherContextImpl implements GraphQLDataFetcherContext
   private final ProtocolSchedule protocolSchedule;
   private final TransactionPool transactionPool;
   private final IsAliveHandler isAliveHandler;
+  private final Optional<GraphQLDataLoader> dataLoader;
 
+  /**
+   * Creates the context of a single query.
+   *
+   * @param context the context to take the query services from
+   * @param isAliveHandler the handler that times the query out
+   * @param dataLoader the loader to read blockchain data with during the query
+   */
   public GraphQLDataFetcherContextImpl(
-      final GraphQLDataFetcherContext context, final IsAliveHandler isAliveHandler) {
+      final GraphQLDataFetcherContext context,
+      final IsAliveHandler isAliveHandler,
+      final GraphQLDataLoader dataLoader) {
     this(
         context.getBlockchainQueries(),
         context.getProtocolSchedule(),
         context.getTransactionPool(),
         context.getMiningCoordinator(),
         context.getSynchronizer(),
-        isAliveHandler);
+        isAliveHandler,
+        Optional.of(dataLoader));
   }
 
   public GraphQLDataFetcherContextImpl(
@@ -63,12 +76,31 @@ public class GraphQLDataFetcherContextImpl implements GraphQLDataFetcherContext
       final MiningCoordinator miningCoordinator,
       final Synchronizer synchronizer,
       final IsAliveHandler isAliveHandler) {
+    this(
+        blockchainQueries,
+        protocolSchedule,
+        transactionPool,
+        miningCoordinator,
+        synchronizer,
+        isAliveHandler,
+        Optional.empty());
+  }
+
+  private GraphQLDataFetcherContextImpl(
+      final BlockchainQueries blockchainQueries,
+      final ProtocolSchedule protocolSchedule,
+      final TransactionPool transactionPool,
+      final MiningCoordinator miningCoordinator,
+      final Synchronizer synchronizer,
+      final IsAliveHandler isAliveHandler,
+      final Optional<GraphQLDataLoader> dataLoader) {
     this.blockchainQueries = blockchainQueries;
     this.protocolSchedule = protocolSchedule;
     this.miningCoordinator = miningCoordinator;
     this.synchronizer = synchronizer;
     this.transactionPool = transactionPool;
     this.isAliveHandler = isAliveHandler;
+    this.dataLoader = dataLoader;
   }
 
   @Override
@@ -100,4 +132,9 @@ public class GraphQLDataFetcherContextImpl implements GraphQLDataFetcherContext
   public IsAliveHandler getIsAliveHandler() {
     return isAliveHandler;
   }
+
+  @Override
+  public GraphQLDataLoader getDataLoader() {
+    return dataLoader.orElseGet(GraphQLDataFetcherContext.super::getDataLoader);
+  }
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.graphql;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.api.query.BlockWithMetadata;
+import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
+import org.hyperledger.besu.ethereum.api.query.TransactionReceiptWithMetadata;
+import org.hyperledger.besu.ethereum.api.query.TransactionWithMetadata;
+import org.hyperledger.besu.ethereum.chain.TransactionLocation;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.worldstate.WorldState;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Loads the blocks, receipts, world states and accounts needed to execute a single GraphQL query.
+ *
+ * <p>Resolvers for different fields of the same object, or of objects in the same block, ask for
+ * the same data over and over: every receipt field of a transaction needs its receipt, which
+ * otherwise means reading the transaction location, the block and all of its receipts each time.
+ * Everything loaded here is kept until the query completes, and receipts are loaded a block at a
+ * time, so a query for the receipts of all transactions in a block reads the block and its
+ * receipts once. A loader must therefore not outlive the query it was created for.
+ */
+public class GraphQLDataLoader {
+
+  private final BlockchainQueries blockchainQueries;
+  private final LabelledMetric<Counter> lookupCounter;
+
+  private final Map<Hash, Optional<BlockWithMetadata<TransactionWithMetadata, Hash>>> blocks =
+      new ConcurrentHashMap<>();
+  private final Map<Hash, Optional<TransactionLocation>> transactionLocations =
+      new ConcurrentHashMap<>();
+  private final Map<Hash, Optional<List<TransactionReceiptWithMetadata>>> blockReceipts =
+      new ConcurrentHashMap<>();
+  private final Map<Long, Optional<WorldState>> worldStates = new ConcurrentHashMap<>();
+  private final Map<Long, Map<Address, Optional<Account>>> accounts = new ConcurrentHashMap<>();
+
+  public GraphQLDataLoader(final BlockchainQueries blockchainQueries) {
+    this(blockchainQueries, NoOpMetricsSystem.getCounterLabelledMetric(2));
+  }
+
+  /**
+   * Creates a loader for a single query.
+   *
+   * @param blockchainQueries the queries to load data with
+   * @param lookupCounter counts lookups by type of data and by whether they were already loaded
+   *     ("hit") or had to be read from storage ("miss")
+   */
+  public GraphQLDataLoader(
+      final BlockchainQueries blockchainQueries, final LabelledMetric<Counter> lookupCounter) {
+    this.blockchainQueries = blockchainQueries;
+    this.lookupCounter = lookupCounter;
+  }
+
+  public BlockchainQueries getBlockchainQueries() {
+    return blockchainQueries;
+  }
+
+  public Optional<BlockWithMetadata<TransactionWithMetadata, Hash>> blockByHash(
+      final Hash blockHash) {
+    return load("block", blocks, blockHash, blockchainQueries::blockByHash);
+  }
+
+  public Optional<TransactionWithMetadata> transactionByHash(final Hash transactionHash) {
+    return transactionLocation(transactionHash)
+        .flatMap(
+            location ->
+                blockByHash(location.getBlockHash())
+                    .map(block -> block.getTransactions().get(location.getTransactionIndex())));
+  }
+
+  public Optional<TransactionReceiptWithMetadata> transactionReceiptByTransactionHash(
+      final Hash transactionHash) {
+    return transactionLocation(transactionHash)
+        .flatMap(
+            location ->
+                load(
+                        "receipts",
+                        blockReceipts,
+                        location.getBlockHash(),
+                        blockchainQueries::transactionReceiptsByBlockHash)
+                    .map(receipts -> receipts.get(location.getTransactionIndex())));
+  }
+
+  public Optional<WorldState> getWorldState(final long blockNumber) {
+    return load("world_state", worldStates, blockNumber, blockchainQueries::getWorldState);
+  }
+
+  /**
+   * Returns the account at the given address in the world state after the given block.
+   *
+   * @param blockNumber the number of the block
+   * @param address the address of the account
+   * @return the account, or null if it doesn't exist or the world state isn't available
+   */
+  public Account getAccount(final long blockNumber, final Address address) {
+    final Map<Address, Optional<Account>> blockAccounts =
+        accounts.computeIfAbsent(blockNumber, n -> new ConcurrentHashMap<>());
+    return load(
+            "account",
+            blockAccounts,
+            address,
+            a -> getWorldState(blockNumber).map(worldState -> worldState.get(a)))
+        .orElse(null);
+  }
+
+  private Optional<TransactionLocation> transactionLocation(final Hash transactionHash) {
+    return load(
+        "transaction_location",
+        transactionLocations,
+        transactionHash,
+        blockchainQueries::transactionLocationByHash);
+  }
+
+  // Loaders may load other types of data while loading, but never the same type, as a loader
+  // must not update the map its value is being computed in.
+  private <K, V> V load(
+      final String type, final Map<K, V> loaded, final K key, final Function<K, V> loader) {
+    final V value = loaded.get(key);
+    if (value != null) {
+      lookupCounter.labels(type, "hit").inc();
+      return value;
+    }
+    return loaded.computeIfAbsent(
+        key,
+        k -> {
+          lookupCounter.labels(type, "miss").inc();
+          return loader.apply(k);
+        });
+  }
+}
@@ -28,6 +28,11 @@ import org.hyperledger.besu.ethereum.api.handlers.IsAliveHandler;
 import org.hyperledger.besu.ethereum.api.handlers.TimeoutHandler;
 import org.hyperledger.besu.ethereum.api.handlers.TimeoutOptions;
 import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
 import org.hyperledger.besu.util.NetworkUtility;
 
 import java.net.InetSocketAddress;
@@ -90,6 +95,8 @@ public class GraphQLHttpService {
 
   private final GraphQLDataFetcherContext dataFetcherContext;
   private final EthScheduler scheduler;
+  private final Counter queryCounter;
+  private final LabelledMetric<Counter> dataLookupCounter;
 
   /**
    * Construct a GraphQLHttpService handler
@@ -108,6 +115,28 @@ public class GraphQLHttpService {
       final GraphQL graphQL,
       final GraphQLDataFetcherContextImpl dataFetcherContext,
       final EthScheduler scheduler) {
+    this(vertx, dataDir, config, graphQL, dataFetcherContext, scheduler, new NoOpMetricsSystem());
+  }
+
+  /**
+   * Construct a GraphQLHttpService handler
+   *
+   * @param vertx The vertx process that will be running this service
+   * @param dataDir The data directory where requests can be buffered
+   * @param config Configuration for the rpc methods being loaded
+   * @param graphQL GraphQL engine
+   * @param dataFetcherContext DataFetcherContext required by GraphQL to finish it's job
+   * @param scheduler {@link EthScheduler} used to trigger timeout on backend queries
+   * @param metricsSystem The metrics system to report the data loaded by queries to
+   */
+  public GraphQLHttpService(
+      final Vertx vertx,
+      final Path dataDir,
+      final GraphQLConfiguration config,
+      final GraphQL graphQL,
+      final GraphQLDataFetcherContextImpl dataFetcherContext,
+      final EthScheduler scheduler,
+      final MetricsSystem metricsSystem) {
     this.dataDir = dataDir;
 
     validateConfig(config);
@@ -116,6 +145,17 @@ public class GraphQLHttpService {
     this.graphQL = graphQL;
     this.dataFetcherContext = dataFetcherContext;
     this.scheduler = scheduler;
+    this.queryCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.RPC, "graphql_queries_total", "Number of GraphQL queries executed");
+    this.dataLookupCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.RPC,
+            "graphql_data_lookups_total",
+            "Number of blockchain data lookups made by GraphQL queries, by whether they were read"
+                + " from storage or already loaded by the same query",
+            "type",
+            "result");
   }
 
   private void validateConfig(final GraphQLConfiguration config) {
@@ -400,8 +440,12 @@ public class GraphQLHttpService {
             .variables(variables)
             .context(
                 new GraphQLDataFetcherContextImpl(
-                    dataFetcherContext, new IsAliveHandler(scheduler, config.getHttpTimeoutSec())))
+                    dataFetcherContext,
+                    new IsAliveHandler(scheduler, config.getHttpTimeoutSec()),
+                    new GraphQLDataLoader(
+                        dataFetcherContext.getBlockchainQueries(), dataLookupCounter)))
             .build();
+    queryCounter.inc();
     final ExecutionResult result = graphQL.execute(executionInput);
     final Map<String, Object> toSpecificationResult = result.toSpecification();
     final List<GraphQLError> errors = result.getErrors();
@@ -18,6 +18,7 @@ import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.api.graphql.GraphQLDataFetcherContext;
+import org.hyperledger.besu.ethereum.api.graphql.GraphQLDataLoader;
 import org.hyperledger.besu.ethereum.api.query.BlockWithMetadata;
 import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
 import org.hyperledger.besu.ethereum.api.query.LogsQuery;
@@ -32,7 +33,6 @@ import org.hyperledger.besu.ethereum.transaction.TransactionSimulator;
 import org.hyperledger.besu.ethereum.transaction.TransactionSimulatorResult;
 import org.hyperledger.besu.evm.log.LogTopic;
 import org.hyperledger.besu.evm.tracing.OperationTracer;
-import org.hyperledger.besu.evm.worldstate.WorldState;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -56,10 +56,10 @@ public class BlockAdapterBase extends AdapterBase {
   }
 
   public Optional<NormalBlockAdapter> getParent(final DataFetchingEnvironment environment) {
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final GraphQLDataLoader loader = getDataLoader(environment);
     final Hash parentHash = header.getParentHash();
     final Optional<BlockWithMetadata<TransactionWithMetadata, Hash>> block =
-        query.blockByHash(parentHash);
+        loader.blockByHash(parentHash);
     return block.map(NormalBlockAdapter::new);
   }
 
@@ -87,14 +87,14 @@ public class BlockAdapterBase extends AdapterBase {
 
   public Optional<AdapterBase> getMiner(final DataFetchingEnvironment environment) {
 
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final GraphQLDataLoader loader = getDataLoader(environment);
     long blockNumber = header.getNumber();
     final Long bn = environment.getArgument("block");
     if (bn != null) {
       blockNumber = bn;
     }
 
-    return Optional.ofNullable(query.getWorldState(blockNumber).get().get(header.getCoinbase()))
+    return Optional.ofNullable(loader.getAccount(blockNumber, header.getCoinbase()))
         .map(account -> (AdapterBase) new AccountAdapter(account))
         .or(() -> Optional.of(new EmptyAccountAdapter(header.getCoinbase())));
   }
@@ -138,13 +138,12 @@ public class BlockAdapterBase extends AdapterBase {
 
   public Optional<AccountAdapter> getAccount(final DataFetchingEnvironment environment) {
 
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final GraphQLDataLoader loader = getDataLoader(environment);
     final long bn = header.getNumber();
-    final WorldState ws = query.getWorldState(bn).get();
 
-    if (ws != null) {
+    if (loader.getWorldState(bn).isPresent()) {
       final Address addr = environment.getArgument("address");
-      return Optional.of(new AccountAdapter(ws.get(addr)));
+      return Optional.of(new AccountAdapter(loader.getAccount(bn, addr)));
     }
     return Optional.empty();
   }
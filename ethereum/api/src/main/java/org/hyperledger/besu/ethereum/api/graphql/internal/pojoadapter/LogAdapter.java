@@ -15,7 +15,7 @@
 package org.hyperledger.besu.ethereum.api.graphql.internal.pojoadapter;
 
 import org.hyperledger.besu.datatypes.Hash;
-import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
+import org.hyperledger.besu.ethereum.api.graphql.GraphQLDataLoader;
 import org.hyperledger.besu.ethereum.api.query.TransactionWithMetadata;
 import org.hyperledger.besu.ethereum.core.LogWithMetadata;
 import org.hyperledger.besu.evm.log.LogTopic;
@@ -49,22 +49,26 @@ public class LogAdapter extends AdapterBase {
   }
 
   public Optional<TransactionAdapter> getTransaction(final DataFetchingEnvironment environment) {
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final GraphQLDataLoader loader = getDataLoader(environment);
     final Hash hash = logWithMetadata.getTransactionHash();
-    final Optional<TransactionWithMetadata> tran = query.transactionByHash(hash);
+    final Optional<TransactionWithMetadata> tran = loader.transactionByHash(hash);
     return tran.map(TransactionAdapter::new);
   }
 
   public Optional<AccountAdapter> getAccount(final DataFetchingEnvironment environment) {
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final GraphQLDataLoader loader = getDataLoader(environment);
     long blockNumber = logWithMetadata.getBlockNumber();
     final Long bn = environment.getArgument("block");
     if (bn != null) {
       blockNumber = bn;
     }
+    final long accountBlockNumber = blockNumber;
 
-    return query
-        .getWorldState(blockNumber)
-        .map(ws -> new AccountAdapter(ws.get(logWithMetadata.getLogger())));
+    return loader
+        .getWorldState(accountBlockNumber)
+        .map(
+            ws ->
+                new AccountAdapter(
+                    loader.getAccount(accountBlockNumber, logWithMetadata.getLogger())));
   }
 }
@@ -18,13 +18,12 @@ import org.hyperledger.besu.config.GoQuorumOptions;
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.datatypes.Wei;
-import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
+import org.hyperledger.besu.ethereum.api.graphql.GraphQLDataLoader;
 import org.hyperledger.besu.ethereum.api.query.TransactionReceiptWithMetadata;
 import org.hyperledger.besu.ethereum.api.query.TransactionWithMetadata;
 import org.hyperledger.besu.ethereum.core.LogWithMetadata;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
-import org.hyperledger.besu.evm.worldstate.WorldState;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -55,36 +54,39 @@ public class TransactionAdapter extends AdapterBase {
   }
 
   public Optional<AccountAdapter> getFrom(final DataFetchingEnvironment environment) {
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final GraphQLDataLoader loader = getDataLoader(environment);
     final Optional<Long> txBlockNumber = transactionWithMetadata.getBlockNumber();
     final Optional<Long> bn = Optional.ofNullable(environment.getArgument("block"));
     if (!txBlockNumber.isPresent() && !bn.isPresent()) {
       return Optional.empty();
     }
-    return query
-        .getWorldState(bn.orElseGet(txBlockNumber::get))
+    final long blockNumber = bn.orElseGet(txBlockNumber::get);
+    return loader
+        .getWorldState(blockNumber)
         .map(
-            mutableWorldState ->
+            ws ->
                 new AccountAdapter(
-                    mutableWorldState.get(transactionWithMetadata.getTransaction().getSender())));
+                    loader.getAccount(
+                        blockNumber, transactionWithMetadata.getTransaction().getSender())));
   }
 
   public Optional<AccountAdapter> getTo(final DataFetchingEnvironment environment) {
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final GraphQLDataLoader loader = getDataLoader(environment);
     final Optional<Long> txBlockNumber = transactionWithMetadata.getBlockNumber();
     final Optional<Long> bn = Optional.ofNullable(environment.getArgument("block"));
     if (!txBlockNumber.isPresent() && !bn.isPresent()) {
       return Optional.empty();
     }
+    final long blockNumber = bn.orElseGet(txBlockNumber::get);
 
-    return query
-        .getWorldState(bn.orElseGet(txBlockNumber::get))
+    return loader
+        .getWorldState(blockNumber)
         .flatMap(
             ws ->
                 transactionWithMetadata
                     .getTransaction()
                     .getTo()
-                    .map(addr -> new AccountAdapter(ws.get(addr))));
+                    .map(addr -> new AccountAdapter(loader.getAccount(blockNumber, addr))));
   }
 
   public Optional<Wei> getValue() {
@@ -106,14 +108,14 @@ public class TransactionAdapter extends AdapterBase {
   public Optional<NormalBlockAdapter> getBlock(final DataFetchingEnvironment environment) {
     return transactionWithMetadata
         .getBlockHash()
-        .flatMap(blockHash -> getBlockchainQueries(environment).blockByHash(blockHash))
+        .flatMap(blockHash -> getDataLoader(environment).blockByHash(blockHash))
         .map(NormalBlockAdapter::new);
   }
 
   public Optional<Long> getStatus(final DataFetchingEnvironment environment) {
     return Optional.ofNullable(transactionWithMetadata.getTransaction())
         .map(Transaction::getHash)
-        .flatMap(rpt -> getBlockchainQueries(environment).transactionReceiptByTransactionHash(rpt))
+        .flatMap(rpt -> getDataLoader(environment).transactionReceiptByTransactionHash(rpt))
         .map(TransactionReceiptWithMetadata::getReceipt)
         .flatMap(
             receipt ->
@@ -123,17 +125,17 @@ public class TransactionAdapter extends AdapterBase {
   }
 
   public Optional<Long> getGasUsed(final DataFetchingEnvironment environment) {
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final GraphQLDataLoader loader = getDataLoader(environment);
     final Optional<TransactionReceiptWithMetadata> rpt =
-        query.transactionReceiptByTransactionHash(
+        loader.transactionReceiptByTransactionHash(
             transactionWithMetadata.getTransaction().getHash());
     return rpt.map(TransactionReceiptWithMetadata::getGasUsed);
   }
 
   public Optional<Long> getCumulativeGasUsed(final DataFetchingEnvironment environment) {
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final GraphQLDataLoader loader = getDataLoader(environment);
     final Optional<TransactionReceiptWithMetadata> rpt =
-        query.transactionReceiptByTransactionHash(
+        loader.transactionReceiptByTransactionHash(
             transactionWithMetadata.getTransaction().getHash());
     if (rpt.isPresent()) {
       final TransactionReceipt receipt = rpt.get().getReceipt();
@@ -148,7 +150,7 @@ public class TransactionAdapter extends AdapterBase {
       final Optional<Address> addr = transactionWithMetadata.getTransaction().contractAddress();
 
       if (addr.isPresent()) {
-        final BlockchainQueries query = getBlockchainQueries(environment);
+        final GraphQLDataLoader loader = getDataLoader(environment);
         final Optional<Long> txBlockNumber = transactionWithMetadata.getBlockNumber();
         final Optional<Long> bn = Optional.ofNullable(environment.getArgument("block"));
         if (!txBlockNumber.isPresent() && !bn.isPresent()) {
@@ -156,9 +158,8 @@ public class TransactionAdapter extends AdapterBase {
         }
         final long blockNumber = bn.orElseGet(txBlockNumber::get);
 
-        final Optional<WorldState> ws = query.getWorldState(blockNumber);
-        if (ws.isPresent()) {
-          return Optional.of(new AccountAdapter(ws.get().get(addr.get())));
+        if (loader.getWorldState(blockNumber).isPresent()) {
+          return Optional.of(new AccountAdapter(loader.getAccount(blockNumber, addr.get())));
         }
       }
     }
@@ -166,10 +167,10 @@ public class TransactionAdapter extends AdapterBase {
   }
 
   public List<LogAdapter> getLogs(final DataFetchingEnvironment environment) {
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final GraphQLDataLoader loader = getDataLoader(environment);
     final Hash hash = transactionWithMetadata.getTransaction().getHash();
     final Optional<TransactionReceiptWithMetadata> maybeTransactionReceiptWithMetadata =
-        query.transactionReceiptByTransactionHash(hash);
+        loader.transactionReceiptByTransactionHash(hash);
     final List<LogAdapter> results = new ArrayList<>();
     if (maybeTransactionReceiptWithMetadata.isPresent()) {
       final List<LogWithMetadata> logs =
@@ -14,6 +14,7 @@
  */
 package org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.engine;
 
+import org.hyperledger.besu.consensus.merge.blockcreation.MergeMiningCoordinator;
 import org.hyperledger.besu.consensus.merge.blockcreation.PayloadIdentifier;
 import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.api.jsonrpc.RpcMethod;
@@ -34,14 +35,17 @@ import org.slf4j.LoggerFactory;
 
 public class EngineGetPayload extends ExecutionEngineJsonRpcMethod {
 
+  private final MergeMiningCoordinator mergeCoordinator;
   private final BlockResultFactory blockResultFactory;
   private static final Logger LOG = LoggerFactory.getLogger(EngineGetPayload.class);
 
   public EngineGetPayload(
       final Vertx vertx,
       final ProtocolContext protocolContext,
+      final MergeMiningCoordinator mergeCoordinator,
       final BlockResultFactory blockResultFactory) {
     super(vertx, protocolContext);
+    this.mergeCoordinator = mergeCoordinator;
     this.blockResultFactory = blockResultFactory;
   }
 
@@ -54,6 +58,7 @@ public class EngineGetPayload extends ExecutionEngineJsonRpcMethod {
   public JsonRpcResponse syncResponse(final JsonRpcRequestContext request) {
     final PayloadIdentifier payloadId = request.getRequiredParameter(0, PayloadIdentifier.class);
 
+    mergeCoordinator.finalizeProposalById(payloadId);
     final Optional<Block> block = mergeContext.retrieveBlockById(payloadId);
     if (block.isPresent()) {
       LOG.debug("assembledBlock {}", block.map(Block::toString).get());
@@ -0,0 +1,48 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.results;
+
+import org.hyperledger.besu.ethereum.eth.manager.PeerResponseStats;
+
+import java.util.Optional;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.immutables.value.Value;
+
+@JsonPropertyOrder({"latency", "throughput"})
+@Value.Immutable
+@Value.Style(allParameters = true)
+public interface PeerResponseStatsResult {
+
+  static Optional<PeerResponseStatsResult> fromPeerResponseStats(final PeerResponseStats stats) {
+    if (stats.getLatencyMillis().isEmpty() || stats.getThroughputBytesPerSecond().isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        ImmutablePeerResponseStatsResult.builder()
+            .latency(Math.round(stats.getLatencyMillis().getAsDouble()))
+            .throughput(Math.round(stats.getThroughputBytesPerSecond().getAsDouble()))
+            .build());
+  }
+
+  /** Smoothed response latency in milliseconds. */
+  @JsonGetter(value = "latency")
+  long getLatency();
+
+  /** Smoothed response throughput in bytes per second. */
+  @JsonGetter(value = "throughput")
+  long getThroughput();
+}
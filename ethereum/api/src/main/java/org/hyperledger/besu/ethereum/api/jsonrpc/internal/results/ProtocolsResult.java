@@ -19,23 +19,33 @@ package org.hyperledger.besu.ethereum.api.jsonrpc.internal.results;
 import org.hyperledger.besu.ethereum.eth.manager.ChainState.BestBlock;
 import org.hyperledger.besu.ethereum.eth.manager.EthPeer;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import org.apache.tuweni.bytes.Bytes;
 import org.immutables.value.Value;
 
-@JsonPropertyOrder({"difficulty", "head", "version"})
+@JsonPropertyOrder({"difficulty", "head", "version", "responseStats"})
 @Value.Immutable
 @Value.Style(allParameters = true)
 public interface ProtocolsResult {
 
   static ProtocolsResult fromEthPeer(final EthPeer ethPeer) {
     final BestBlock bestBlock = ethPeer.chainState().getBestBlock();
+    final Map<String, PeerResponseStatsResult> responseStats = new TreeMap<>();
+    ethPeer
+        .getResponseStatsByRequestType()
+        .forEach(
+            (requestType, stats) ->
+                PeerResponseStatsResult.fromPeerResponseStats(stats)
+                    .ifPresent(result -> responseStats.put(requestType, result)));
     return ImmutableProtocolsResult.builder()
         .difficulty(Quantity.create(bestBlock.getTotalDifficulty()))
         .head(Objects.requireNonNullElse(bestBlock.getHash(), Bytes.EMPTY).toHexString())
         .version(ethPeer.getLastProtocolVersion())
+        .responseStats(responseStats)
         .build();
   }
 
@@ -44,4 +54,7 @@ public interface ProtocolsResult {
   String getHead();
 
   int getVersion();
+
+  /** The smoothed response latency and throughput of the peer, by request type. */
+  Map<String, PeerResponseStatsResult> getResponseStats();
 }
@@ -31,12 +31,14 @@ import com.google.common.collect.Iterables;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.http.HttpConnection;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.net.SocketAddress;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
@@ -123,6 +125,14 @@ public class WebSocketService {
 
       LOG.debug("Websocket Connected ({})", socketAddressAsString(socketAddress));
 
+      final MessageConsumer<JsonArray> batchConsumer =
+          vertx
+              .eventBus()
+              .consumer(
+                  SubscriptionManager.batchAddress(connectionId),
+                  message ->
+                      message.body().forEach(frame -> websocket.writeTextMessage((String) frame)));
+
       websocket.binaryMessageHandler(
           buffer -> {
             LOG.debug(
@@ -156,6 +166,7 @@ public class WebSocketService {
       websocket.closeHandler(
           v -> {
             LOG.debug("Websocket Disconnected ({})", socketAddressAsString(socketAddress));
+            batchConsumer.unregister();
             vertx
                 .eventBus()
                 .publish(SubscriptionManager.EVENTBUS_REMOVE_SUBSCRIPTIONS_ADDRESS, connectionId);
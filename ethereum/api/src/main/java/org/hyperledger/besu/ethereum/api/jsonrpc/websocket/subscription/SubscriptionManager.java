@@ -15,6 +15,8 @@
 package org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription;
 
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.JsonRpcResult;
+import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.logs.LogsSubscription;
+import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.logs.LogsSubscriptionIndex;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.logs.PrivateLogsSubscription;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.SubscribeRequest;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.SubscriptionType;
@@ -29,6 +31,7 @@ import org.hyperledger.besu.plugin.services.metrics.Counter;
 import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -39,6 +42,7 @@ import java.util.stream.Collectors;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,9 +56,11 @@ public class SubscriptionManager extends AbstractVerticle implements PrivateTran
 
   public static final String EVENTBUS_REMOVE_SUBSCRIPTIONS_ADDRESS =
       "SubscriptionManager::removeSubscriptions";
+  private static final String BATCH_ADDRESS_SUFFIX = "::batch";
 
   private final AtomicLong subscriptionCounter = new AtomicLong(0);
   private final Map<Long, Subscription> subscriptions = new ConcurrentHashMap<>();
+  private final LogsSubscriptionIndex logsSubscriptionIndex = new LogsSubscriptionIndex();
   private final SubscriptionBuilder subscriptionBuilder = new SubscriptionBuilder();
   private final LabelledMetric<Counter> subscribeCounter;
   private final LabelledMetric<Counter> unsubscribeCounter;
@@ -94,6 +100,9 @@ public class SubscriptionManager extends AbstractVerticle implements PrivateTran
     final Subscription subscription =
         subscriptionBuilder.build(subscriptionId, request.getConnectionId(), request);
     subscriptions.put(subscription.getSubscriptionId(), subscription);
+    if (subscription instanceof LogsSubscription) {
+      logsSubscriptionIndex.add((LogsSubscription) subscription);
+    }
 
     return subscription.getSubscriptionId();
   }
@@ -117,6 +126,9 @@ public class SubscriptionManager extends AbstractVerticle implements PrivateTran
   private void destroySubscription(final long subscriptionId) {
     final Subscription removed = subscriptions.remove(subscriptionId);
     if (removed != null) {
+      if (removed instanceof LogsSubscription) {
+        logsSubscriptionIndex.remove((LogsSubscription) removed);
+      }
       unsubscribeCounter.labels(removed.getSubscriptionType().getCode()).inc();
     }
   }
@@ -145,6 +157,21 @@ public class SubscriptionManager extends AbstractVerticle implements PrivateTran
         .collect(Collectors.toList());
   }
 
+  public LogsSubscriptionIndex getLogsSubscriptionIndex() {
+    return logsSubscriptionIndex;
+  }
+
+  /**
+   * The event bus address on which a connection accepts a JSON array of text frames, delivered in
+   * order. Sending a batch costs a single event bus message regardless of the number of frames.
+   *
+   * @param connectionId the connection id, which is the text handler address of the websocket
+   * @return the batch address of the connection
+   */
+  public static String batchAddress(final String connectionId) {
+    return connectionId + BATCH_ADDRESS_SUFFIX;
+  }
+
   public void sendMessage(final Long subscriptionId, final JsonRpcResult msg) {
     final Subscription subscription = subscriptions.get(subscriptionId);
 
@@ -154,6 +181,39 @@ public class SubscriptionManager extends AbstractVerticle implements PrivateTran
     }
   }
 
+  /**
+   * Sends several notifications at once. Notifications for subscriptions that share a connection
+   * are delivered to that connection as a single batch, in the order given for each subscription.
+   * Results that are sent to several subscriptions should be wrapped in a {@link
+   * org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.response.PreEncodedResult} so
+   * they are only encoded once.
+   *
+   * @param messages the results to send, by subscription id
+   */
+  public void sendMessages(final Map<Long, List<JsonRpcResult>> messages) {
+    final Map<String, List<String>> framesByConnection = new LinkedHashMap<>();
+    messages.forEach(
+        (subscriptionId, results) -> {
+          final Subscription subscription = subscriptions.get(subscriptionId);
+          if (subscription != null) {
+            final List<String> frames =
+                framesByConnection.computeIfAbsent(
+                    subscription.getConnectionId(), connectionId -> new ArrayList<>());
+            results.forEach(
+                result -> frames.add(Json.encode(new SubscriptionResponse(subscription, result))));
+          }
+        });
+
+    framesByConnection.forEach(
+        (connectionId, frames) -> {
+          if (frames.size() == 1) {
+            vertx.eventBus().send(connectionId, frames.get(0));
+          } else {
+            vertx.eventBus().send(batchAddress(connectionId), new JsonArray(frames));
+          }
+        });
+  }
+
   public <T> void notifySubscribersOnWorkerThread(
       final SubscriptionType subscriptionType,
       final Class<T> clazz,
@@ -0,0 +1,143 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.logs;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.FilterParameter;
+import org.hyperledger.besu.evm.log.Log;
+import org.hyperledger.besu.evm.log.LogTopic;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of the active logs subscriptions by the most selective criterion of their filter, so that a
+ * log only needs to be matched against the subscriptions that could possibly be interested in it.
+ *
+ * <p>Subscriptions filtering on addresses are indexed by address. Subscriptions without an address
+ * filter but with a fixed first topic are indexed by that topic. All others have to be checked
+ * against every log.
+ */
+public class LogsSubscriptionIndex {
+
+  private final Map<Address, Set<LogsSubscription>> byAddress = new ConcurrentHashMap<>();
+  private final Map<LogTopic, Set<LogsSubscription>> byFirstTopic = new ConcurrentHashMap<>();
+  private final Set<LogsSubscription> unindexed = ConcurrentHashMap.newKeySet();
+  private final Set<PrivateLogsSubscription> privateSubscriptions = ConcurrentHashMap.newKeySet();
+
+  public void add(final LogsSubscription subscription) {
+    final FilterParameter filterParameter = subscription.getFilterParameter();
+    final List<Address> addresses = filterParameter.getAddresses();
+    final List<LogTopic> firstTopics = indexableFirstTopics(filterParameter.getTopics());
+    if (!addresses.isEmpty()) {
+      addresses.forEach(address -> addTo(byAddress, address, subscription));
+    } else if (!firstTopics.isEmpty()) {
+      firstTopics.forEach(topic -> addTo(byFirstTopic, topic, subscription));
+    } else {
+      unindexed.add(subscription);
+    }
+    if (subscription instanceof PrivateLogsSubscription) {
+      privateSubscriptions.add((PrivateLogsSubscription) subscription);
+    }
+  }
+
+  public void remove(final LogsSubscription subscription) {
+    final FilterParameter filterParameter = subscription.getFilterParameter();
+    filterParameter
+        .getAddresses()
+        .forEach(address -> removeFrom(byAddress, address, subscription));
+    indexableFirstTopics(filterParameter.getTopics())
+        .forEach(topic -> removeFrom(byFirstTopic, topic, subscription));
+    unindexed.remove(subscription);
+    if (subscription instanceof PrivateLogsSubscription) {
+      privateSubscriptions.remove(subscription);
+    }
+  }
+
+  /**
+   * Returns the subscriptions that could match the given log. The caller still has to apply the
+   * full filter of each returned subscription.
+   *
+   * @param log the log to find candidate subscriptions for
+   * @return the candidate subscriptions, in no particular order
+   */
+  public Collection<LogsSubscription> candidates(final Log log) {
+    final Set<LogsSubscription> candidates = new LinkedHashSet<>(unindexed);
+    final Set<LogsSubscription> addressMatches = byAddress.get(log.getLogger());
+    if (addressMatches != null) {
+      candidates.addAll(addressMatches);
+    }
+    if (!log.getTopics().isEmpty()) {
+      final Set<LogsSubscription> topicMatches = byFirstTopic.get(log.getTopics().get(0));
+      if (topicMatches != null) {
+        candidates.addAll(topicMatches);
+      }
+    }
+    return candidates;
+  }
+
+  public Collection<PrivateLogsSubscription> privateSubscriptions() {
+    return privateSubscriptions;
+  }
+
+  public boolean isEmpty() {
+    return byAddress.isEmpty() && byFirstTopic.isEmpty() && unindexed.isEmpty();
+  }
+
+  private static <K> void addTo(
+      final Map<K, Set<LogsSubscription>> index,
+      final K key,
+      final LogsSubscription subscription) {
+    index.compute(
+        key,
+        (__, subscriptions) -> {
+          final Set<LogsSubscription> result =
+              subscriptions != null ? subscriptions : ConcurrentHashMap.newKeySet();
+          result.add(subscription);
+          return result;
+        });
+  }
+
+  private static <K> void removeFrom(
+      final Map<K, Set<LogsSubscription>> index,
+      final K key,
+      final LogsSubscription subscription) {
+    index.computeIfPresent(
+        key,
+        (__, subscriptions) -> {
+          subscriptions.remove(subscription);
+          return subscriptions.isEmpty() ? null : subscriptions;
+        });
+  }
+
+  /**
+   * The first topic position can only be used as an index key when it is constrained to a fixed set
+   * of values, i.e. when it is present, non-empty and contains no wildcard.
+   */
+  private static List<LogTopic> indexableFirstTopics(final List<List<LogTopic>> topics) {
+    if (topics.isEmpty()) {
+      return List.of();
+    }
+    final List<LogTopic> firstTopics = topics.get(0);
+    if (firstTopics == null || firstTopics.isEmpty() || firstTopics.contains(null)) {
+      return List.of();
+    }
+    return firstTopics;
+  }
+}
@@ -15,15 +15,24 @@
 package org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.logs;
 
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.FilterParameter;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.JsonRpcResult;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.LogResult;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.SubscriptionManager;
-import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.SubscriptionType;
+import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.response.PreEncodedResult;
 import org.hyperledger.besu.ethereum.api.query.LogsQuery;
 import org.hyperledger.besu.ethereum.api.query.PrivacyQueries;
 import org.hyperledger.besu.ethereum.chain.BlockAddedEvent;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.LogWithMetadata;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 
@@ -31,58 +40,115 @@ public class LogsSubscriptionService implements Consumer<LogWithMetadata> {
 
   private final SubscriptionManager subscriptionManager;
   private final Optional<PrivacyQueries> privacyQueries;
+  private final OperationTimer fanOutTimer;
+  private final Counter notificationsCounter;
 
   public LogsSubscriptionService(
       final SubscriptionManager subscriptionManager,
-      final Optional<PrivacyQueries> privacyQueries) {
+      final Optional<PrivacyQueries> privacyQueries,
+      final MetricsSystem metricsSystem) {
     this.subscriptionManager = subscriptionManager;
     this.privacyQueries = privacyQueries;
+    this.fanOutTimer =
+        metricsSystem.createTimer(
+            BesuMetricCategory.RPC,
+            "subscription_logs_fan_out_time",
+            "Time taken to match and dispatch the logs of a block to the logs subscriptions");
+    this.notificationsCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.RPC,
+            "subscription_logs_notifications_total",
+            "Total number of log notifications sent to logs subscriptions");
   }
 
   @Override
   public void accept(final LogWithMetadata logWithMetadata) {
-    subscriptionManager.subscriptionsOfType(SubscriptionType.LOGS, LogsSubscription.class).stream()
-        .filter(
-            logsSubscription -> {
-              final FilterParameter filterParameter = logsSubscription.getFilterParameter();
-              final long blockNumber = logWithMetadata.getBlockNumber();
-              return filterParameter
-                          .getFromBlock()
-                          .getNumber()
-                          .orElse(BlockHeader.GENESIS_BLOCK_NUMBER)
-                      <= blockNumber
-                  && filterParameter.getToBlock().getNumber().orElse(Long.MAX_VALUE) >= blockNumber
-                  && filterParameter.getLogsQuery().matches(logWithMetadata);
-            })
-        .forEach(logsSubscription -> sendLogToSubscription(logWithMetadata, logsSubscription));
+    notifySubscribers(List.of(logWithMetadata));
+  }
+
+  /**
+   * Matches all the logs of the added block at once, so that the notifications for a connection are
+   * delivered as a single batch.
+   *
+   * @param event the block added event
+   */
+  public void onBlockAdded(final BlockAddedEvent event) {
+    notifySubscribers(event.getLogsWithMetadata());
+  }
+
+  private void notifySubscribers(final List<LogWithMetadata> logsWithMetadata) {
+    final LogsSubscriptionIndex index = subscriptionManager.getLogsSubscriptionIndex();
+    if (logsWithMetadata.isEmpty() || index.isEmpty()) {
+      return;
+    }
+
+    try (final OperationTimer.TimingContext ignored = fanOutTimer.startTimer()) {
+      final Map<Long, List<JsonRpcResult>> messages = new LinkedHashMap<>();
+      for (final LogWithMetadata logWithMetadata : logsWithMetadata) {
+        JsonRpcResult result = null;
+        for (final LogsSubscription subscription : index.candidates(logWithMetadata)) {
+          if (matches(subscription.getFilterParameter(), logWithMetadata)) {
+            if (result == null) {
+              // encode once, however many subscriptions are notified
+              result = PreEncodedResult.encode(new LogResult(logWithMetadata));
+            }
+            addMessage(messages, subscription, result);
+          }
+        }
+      }
+      sendMessages(messages);
+    }
+  }
+
+  private static boolean matches(
+      final FilterParameter filterParameter, final LogWithMetadata logWithMetadata) {
+    final long blockNumber = logWithMetadata.getBlockNumber();
+    return filterParameter.getFromBlock().getNumber().orElse(BlockHeader.GENESIS_BLOCK_NUMBER)
+            <= blockNumber
+        && filterParameter.getToBlock().getNumber().orElse(Long.MAX_VALUE) >= blockNumber
+        && filterParameter.getLogsQuery().matches(logWithMetadata);
   }
 
   public void checkPrivateLogs(final BlockAddedEvent event) {
     privacyQueries.ifPresent(
-        pq ->
-            subscriptionManager
-                .subscriptionsOfType(SubscriptionType.LOGS, LogsSubscription.class)
-                .stream()
-                .filter(PrivateLogsSubscription.class::isInstance)
-                .map(PrivateLogsSubscription.class::cast)
-                .forEach(queryPrivateEventForSubscription(pq, event)));
+        pq -> {
+          final Map<Long, List<JsonRpcResult>> messages = new LinkedHashMap<>();
+          subscriptionManager
+              .getLogsSubscriptionIndex()
+              .privateSubscriptions()
+              .forEach(subscription -> queryPrivateEvent(pq, event, subscription, messages));
+          sendMessages(messages);
+        });
   }
 
-  private Consumer<PrivateLogsSubscription> queryPrivateEventForSubscription(
-      final PrivacyQueries privacyQueries, final BlockAddedEvent event) {
-    return subscription -> {
-      final String privacyGroupId = subscription.getPrivacyGroupId();
-      final LogsQuery logsQuery = subscription.getFilterParameter().getLogsQuery();
+  private void queryPrivateEvent(
+      final PrivacyQueries privacyQueries,
+      final BlockAddedEvent event,
+      final PrivateLogsSubscription subscription,
+      final Map<Long, List<JsonRpcResult>> messages) {
+    final String privacyGroupId = subscription.getPrivacyGroupId();
+    final LogsQuery logsQuery = subscription.getFilterParameter().getLogsQuery();
+
+    privacyQueries
+        .matchingLogs(privacyGroupId, event.getBlock().getHash(), logsQuery)
+        .forEach(
+            logWithMetadata ->
+                addMessage(messages, subscription, new LogResult(logWithMetadata)));
+  }
 
-      privacyQueries
-          .matchingLogs(privacyGroupId, event.getBlock().getHash(), logsQuery)
-          .forEach(logWithMetadata -> sendLogToSubscription(logWithMetadata, subscription));
-    };
+  private static void addMessage(
+      final Map<Long, List<JsonRpcResult>> messages,
+      final LogsSubscription subscription,
+      final JsonRpcResult result) {
+    messages
+        .computeIfAbsent(subscription.getSubscriptionId(), subscriptionId -> new ArrayList<>())
+        .add(result);
   }
 
-  private void sendLogToSubscription(
-      final LogWithMetadata logWithMetadata, final LogsSubscription subscription) {
-    subscriptionManager.sendMessage(
-        subscription.getSubscriptionId(), new LogResult(logWithMetadata));
+  private void sendMessages(final Map<Long, List<JsonRpcResult>> messages) {
+    if (!messages.isEmpty()) {
+      notificationsCounter.inc(messages.values().stream().mapToLong(List::size).sum());
+      subscriptionManager.sendMessages(messages);
+    }
   }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.response;
+
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.JsonRpcResult;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.vertx.core.json.Json;
+
+/**
+ * A result that has already been serialized to JSON. Used when the same notification is delivered
+ * to many subscribers, so the result is encoded once and only the small envelope is encoded per
+ * subscription.
+ */
+@JsonSerialize(using = PreEncodedResult.Serializer.class)
+public final class PreEncodedResult implements JsonRpcResult {
+
+  private final String json;
+
+  private PreEncodedResult(final String json) {
+    this.json = json;
+  }
+
+  public static PreEncodedResult encode(final JsonRpcResult result) {
+    if (result instanceof PreEncodedResult) {
+      return (PreEncodedResult) result;
+    }
+    return new PreEncodedResult(Json.encode(result));
+  }
+
+  public String getJson() {
+    return json;
+  }
+
+  public static class Serializer extends StdSerializer<PreEncodedResult> {
+
+    public Serializer() {
+      this(null);
+    }
+
+    protected Serializer(final Class<PreEncodedResult> t) {
+      super(t);
+    }
+
+    @Override
+    public void serialize(
+        final PreEncodedResult value, final JsonGenerator gen, final SerializerProvider provider)
+        throws IOException {
+      gen.writeRawValue(value.json);
+    }
+  }
+}
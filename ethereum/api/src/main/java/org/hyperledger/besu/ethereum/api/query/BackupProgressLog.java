@@ -0,0 +1,93 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import org.hyperledger.besu.config.JsonUtil;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * An append-only log of the key ranges completed by a Bonsai backup or restore, one JSON object per
+ * line, which a backup or restore run again after a failure reads to skip these ranges.
+ */
+class BackupProgressLog implements Closeable {
+
+  private final Path file;
+  private final List<ObjectNode> entries;
+  private final BufferedWriter writer;
+
+  private BackupProgressLog(
+      final Path file, final List<ObjectNode> entries, final BufferedWriter writer) {
+    this.file = file;
+    this.entries = entries;
+    this.writer = writer;
+  }
+
+  static BackupProgressLog open(final Path file) throws IOException {
+    final List<ObjectNode> entries = new ArrayList<>();
+    if (Files.exists(file)) {
+      String log = Files.readString(file, UTF_8);
+      // the last entry of a run which was killed may have been partially written
+      final int end = log.lastIndexOf('\n') + 1;
+      if (end < log.length()) {
+        log = log.substring(0, end);
+        Files.writeString(file, log, UTF_8);
+      }
+      for (final String line : log.split("\n")) {
+        if (!line.isEmpty()) {
+          entries.add(JsonUtil.objectNodeFromString(line));
+        }
+      }
+    }
+    return new BackupProgressLog(
+        file,
+        entries,
+        Files.newBufferedWriter(file, UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+  }
+
+  /** The entries appended by the previous runs. */
+  List<ObjectNode> getEntries() {
+    return entries;
+  }
+
+  synchronized void append(final Map<String, Object> entry) throws IOException {
+    writer.write(JsonUtil.getJson(entry, false));
+    writer.write('\n');
+    writer.flush();
+  }
+
+  /** Deletes the log once the backup or restore it tracks is complete. */
+  void delete() throws IOException {
+    close();
+    Files.deleteIfExists(file);
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    writer.close();
+  }
+}
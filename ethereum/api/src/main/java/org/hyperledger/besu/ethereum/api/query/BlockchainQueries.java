@@ -614,6 +614,45 @@ public class BlockchainQueries {
             header.getNumber()));
   }
 
+  /**
+   * Returns the receipts of all transactions in the block with the given hash, reading the block
+   * and its receipts only once.
+   *
+   * @param blockHash The hash of the block whose receipts to retrieve.
+   * @return The transaction receipts of the block, in transaction order.
+   */
+  public Optional<List<TransactionReceiptWithMetadata>> transactionReceiptsByBlockHash(
+      final Hash blockHash) {
+    final Optional<Block> maybeBlock = blockchain.getBlockByHash(blockHash);
+    final Optional<List<TransactionReceipt>> maybeReceipts = blockchain.getTxReceipts(blockHash);
+    if (maybeBlock.isEmpty() || maybeReceipts.isEmpty()) {
+      return Optional.empty();
+    }
+    final BlockHeader header = maybeBlock.get().getHeader();
+    final List<Transaction> transactions = maybeBlock.get().getBody().getTransactions();
+    final List<TransactionReceipt> transactionReceipts = maybeReceipts.get();
+
+    final List<TransactionReceiptWithMetadata> receipts =
+        new ArrayList<>(transactionReceipts.size());
+    long previousCumulativeGasUsed = 0;
+    for (int i = 0; i < transactionReceipts.size(); i++) {
+      final TransactionReceipt transactionReceipt = transactionReceipts.get(i);
+      final Transaction transaction = transactions.get(i);
+      receipts.add(
+          TransactionReceiptWithMetadata.create(
+              transactionReceipt,
+              transaction,
+              transaction.getHash(),
+              i,
+              transactionReceipt.getCumulativeGasUsed() - previousCumulativeGasUsed,
+              header.getBaseFee(),
+              blockHash,
+              header.getNumber()));
+      previousCumulativeGasUsed = transactionReceipt.getCumulativeGasUsed();
+    }
+    return Optional.of(receipts);
+  }
+
   /**
    * Retrieve logs from the range of blocks with optional filtering based on logger address and log
    * topics.
@@ -764,8 +803,13 @@ public class BlockchainQueries {
               i -> {
                 try {
                   BackendQuery.stopIfExpired(isQueryAlive);
+                  final TransactionReceipt receipt = receipts.get(i);
+                  // Transactions are decoded lazily, so only look at the ones with matching logs.
+                  if (receipt.getLogs().stream().noneMatch(query::matches)) {
+                    return Collections.<LogWithMetadata>emptyList();
+                  }
                   return LogWithMetadata.generate(
-                      receipts.get(i),
+                      receipt,
                       number,
                       blockHash,
                       transactions.get(i).getHash(),
@@ -0,0 +1,540 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query;
+
+import static com.google.common.base.Preconditions.checkState;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_STORAGE_STORAGE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.CODE_STORAGE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.TRIE_BRANCH_STORAGE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.TRIE_LOG_STORAGE;
+
+import org.hyperledger.besu.config.JsonUtil;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.bonsai.BonsaiWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.util.io.RollingFileWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Backs up a Bonsai world state and the blocks of its chain.
+ *
+ * <p>A full backup copies the flat account, code and storage segments and the trie branch segment,
+ * which hold the world state at the block of the persisted state. The keys of each segment are
+ * split in ranges of consecutive keys, which are written in parallel. Each range has its own
+ * rolling files, and its first and last keys, entry count and CRC32 checksum are recorded in the
+ * manifest.
+ *
+ * <p>An incremental backup only holds the blocks and trie logs since the block of a previous
+ * backup, full or incremental, which the state restored from that backup is rolled forward with.
+ *
+ * <p>A backup which failed can be run again with the same backup directory. The ranges completed
+ * are appended to a progress log until the backup is complete, and are skipped when the backup is
+ * run again. The first range which fails cancels the ranges left.
+ *
+ * <p>The segments are not read from a snapshot of the database, the node must not be running.
+ */
+public class BonsaiStateBackupService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BonsaiStateBackupService.class);
+
+  public static final String MANIFEST_FILE_NAME = "besu-bonsai-backup-manifest.json";
+  public static final String FORMAT = "bonsai";
+
+  private static final String PROGRESS_FILE_NAME = "besu-bonsai-backup-progress.jsonl";
+
+  /** The segments holding the world state at the block of the persisted state. */
+  public static final List<KeyValueSegmentIdentifier> SNAPSHOT_SEGMENTS =
+      List.of(ACCOUNT_INFO_STATE, CODE_STORAGE, ACCOUNT_STORAGE_STORAGE, TRIE_BRANCH_STORAGE);
+
+  private static final int KEY_RANGE_SIZE = 10_000;
+
+  private final String besuVersion;
+  private final Blockchain blockchain;
+  private final BonsaiWorldStateKeyValueStorage worldStateStorage;
+  private final int parallelism;
+  private final LabelledMetric<Counter> entriesCounter;
+  private final AtomicLong backedUpEntries = new AtomicLong();
+  private final AtomicLong backedUpBlocks = new AtomicLong();
+
+  public BonsaiStateBackupService(
+      final String besuVersion,
+      final Blockchain blockchain,
+      final BonsaiWorldStateKeyValueStorage worldStateStorage,
+      final int parallelism,
+      final MetricsSystem metricsSystem) {
+    this.besuVersion = besuVersion;
+    this.blockchain = blockchain;
+    this.worldStateStorage = worldStateStorage;
+    this.parallelism = parallelism;
+    this.entriesCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "bonsai_backup_entries_total",
+            "Number of world state entries written to a Bonsai backup, by segment",
+            "segment");
+  }
+
+  public static Path segmentFileName(
+      final Path backupDir,
+      final KeyValueSegmentIdentifier segment,
+      final int range,
+      final int fileNumber,
+      final boolean compressed) {
+    return backupDir.resolve(
+        String.format(
+            "besu-bonsai-%s-backup-%06d-%04d.%sdat",
+            segment.getName().toLowerCase(Locale.ROOT),
+            range,
+            fileNumber,
+            compressed ? "c" : "r"));
+  }
+
+  public static ObjectNode readManifest(final Path backupDir) throws IOException {
+    return JsonUtil.objectNodeFromString(Files.readString(backupDir.resolve(MANIFEST_FILE_NAME)));
+  }
+
+  public long getBackedUpEntries() {
+    return backedUpEntries.get();
+  }
+
+  public long getBackedUpBlocks() {
+    return backedUpBlocks.get();
+  }
+
+  /**
+   * Backs up the whole world state at the block of the persisted state, and the blocks up to it.
+   *
+   * @param backupDir the directory to write the backup to
+   * @param compress whether to compress the entries of the backup
+   * @throws IOException if the backup could not be written
+   */
+  public void backup(final Path backupDir, final boolean compress) throws IOException {
+    final BlockHeader target = persistedBlockHeader();
+    LOG.info("Backing up the Bonsai world state at block {}", target.getNumber());
+
+    final Map<String, Object> manifest = createManifest(compress, target, 0);
+    manifest.put("incremental", false);
+    try (final BackupProgressLog progress = startBackup(backupDir, manifest)) {
+      backupChainData(backupDir, compress, 0, target.getNumber(), progress);
+      final Map<String, Object> segments = new LinkedHashMap<>();
+      for (final KeyValueSegmentIdentifier segment : SNAPSHOT_SEGMENTS) {
+        final KeyValueStorage storage = worldStateStorage.getSegmentStorage(segment);
+        try (final Stream<byte[]> keys = storage.streamKeys()) {
+          segments.put(
+              segment.getName(),
+              backupSegment(backupDir, compress, segment, keys, storage::get, progress));
+        }
+      }
+      completeBackup(backupDir, manifest, segments, progress);
+    }
+  }
+
+  /**
+   * Backs up the trie logs and the blocks from the block of a previous backup to the block of the
+   * persisted state.
+   *
+   * @param backupDir the directory to write the backup to
+   * @param baseBackupDir the directory of the previous backup, full or incremental
+   * @param compress whether to compress the entries of the backup
+   * @throws IOException if the backup could not be written
+   */
+  public void backupIncremental(
+      final Path backupDir, final Path baseBackupDir, final boolean compress) throws IOException {
+    final ObjectNode baseManifest = readManifest(baseBackupDir);
+    checkState(
+        baseManifest.path("complete").asBoolean(false),
+        "The base backup in %s is not complete",
+        baseBackupDir);
+    final Hash baseBlockHash = Hash.fromHexString(baseManifest.get("targetBlockHash").asText());
+    final BlockHeader base =
+        blockchain
+            .getBlockHeader(baseBlockHash)
+            .orElseThrow(
+                () ->
+                    new IllegalStateException(
+                        "Block " + baseBlockHash + " of the base backup is not in the blockchain"));
+    final BlockHeader target = persistedBlockHeader();
+    LOG.info(
+        "Backing up the Bonsai world state changes from block {} to block {}",
+        base.getNumber(),
+        target.getNumber());
+
+    final List<byte[]> blockHashes = new ArrayList<>();
+    BlockHeader header = target;
+    while (header.getNumber() > base.getNumber()) {
+      blockHashes.add(header.getHash().toArrayUnsafe());
+      header = blockchain.getBlockHeader(header.getParentHash()).orElseThrow();
+    }
+    checkState(
+        header.getHash().equals(base.getHash()),
+        "Block %s of the base backup is not an ancestor of block %s",
+        base.getNumber(),
+        target.getNumber());
+    Collections.reverse(blockHashes);
+
+    final Map<String, Object> manifest = createManifest(compress, target, base.getNumber() + 1);
+    manifest.put("incremental", true);
+    manifest.put("baseBlockHash", base.getHash().toHexString());
+    try (final BackupProgressLog progress = startBackup(backupDir, manifest)) {
+      backupChainData(backupDir, compress, base.getNumber() + 1, target.getNumber(), progress);
+      final KeyValueStorage trieLogStorage = worldStateStorage.getSegmentStorage(TRIE_LOG_STORAGE);
+      final Map<String, Object> segments = new LinkedHashMap<>();
+      segments.put(
+          TRIE_LOG_STORAGE.getName(),
+          backupSegment(
+              backupDir,
+              compress,
+              TRIE_LOG_STORAGE,
+              blockHashes.stream(),
+              blockHash ->
+                  Optional.of(
+                      trieLogStorage
+                          .get(blockHash)
+                          .orElseThrow(
+                              () ->
+                                  new IllegalStateException(
+                                      "Trie log of block "
+                                          + Bytes.wrap(blockHash)
+                                          + " not found, a full backup is required"))),
+              progress));
+      completeBackup(backupDir, manifest, segments, progress);
+    }
+  }
+
+  private BlockHeader persistedBlockHeader() {
+    final Hash blockHash =
+        worldStateStorage
+            .getWorldStateBlockHash()
+            .map(Bytes32::wrap)
+            .map(Hash::wrap)
+            .orElseThrow(() -> new IllegalStateException("No persisted Bonsai world state"));
+    return blockchain
+        .getBlockHeader(blockHash)
+        .orElseThrow(
+            () ->
+                new IllegalStateException(
+                    "Block " + blockHash + " of the persisted world state is not in the chain"));
+  }
+
+  private Map<String, Object> createManifest(
+      final boolean compress, final BlockHeader target, final long firstBlock) {
+    final Map<String, Object> manifest = new HashMap<>();
+    manifest.put("clientVersion", besuVersion);
+    manifest.put("format", FORMAT);
+    manifest.put("compressed", compress);
+    manifest.put("firstBlock", firstBlock);
+    manifest.put("targetBlock", target.getNumber());
+    manifest.put("targetBlockHash", target.getHash().toHexString());
+    return manifest;
+  }
+
+  /*
+  The manifest of a backup which is not complete is written first, and a backup run again with the
+  same directory resumes from the progress log as long as it backs up the same state.
+   */
+  private BackupProgressLog startBackup(final Path backupDir, final Map<String, Object> manifest)
+      throws IOException {
+    final Path progressFile = backupDir.resolve(PROGRESS_FILE_NAME);
+    if (Files.exists(backupDir.resolve(MANIFEST_FILE_NAME))) {
+      final ObjectNode existing = readManifest(backupDir);
+      checkState(
+          !existing.path("complete").asBoolean(false),
+          "%s already holds a complete backup, the backup must be written to an empty directory",
+          backupDir);
+      for (final Map.Entry<String, Object> field : manifest.entrySet()) {
+        checkState(
+            field.getKey().equals("clientVersion")
+                || String.valueOf(field.getValue()).equals(existing.path(field.getKey()).asText()),
+            "%s holds an unfinished backup with a different %s, the backup must be written to an"
+                + " empty directory",
+            backupDir,
+            field.getKey());
+      }
+      LOG.info("Resuming the backup in {}", backupDir);
+    } else {
+      Files.deleteIfExists(progressFile);
+      manifest.put("complete", false);
+      writeManifest(backupDir, manifest);
+    }
+    return BackupProgressLog.open(progressFile);
+  }
+
+  private void completeBackup(
+      final Path backupDir,
+      final Map<String, Object> manifest,
+      final Map<String, Object> segments,
+      final BackupProgressLog progress)
+      throws IOException {
+    manifest.put("segments", segments);
+    manifest.put("complete", true);
+    writeManifest(backupDir, manifest);
+    progress.delete();
+  }
+
+  private void writeManifest(final Path backupDir, final Map<String, Object> manifest)
+      throws IOException {
+    // the manifest is replaced in one move, it is never left partially written
+    final Path manifestFile = backupDir.resolve(MANIFEST_FILE_NAME);
+    final Path tempFile = backupDir.resolve(MANIFEST_FILE_NAME + ".tmp");
+    Files.write(tempFile, JsonUtil.getJson(manifest).getBytes(StandardCharsets.UTF_8));
+    Files.move(
+        tempFile,
+        manifestFile,
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private void backupChainData(
+      final Path backupDir,
+      final boolean compress,
+      final long firstBlock,
+      final long lastBlock,
+      final BackupProgressLog progress)
+      throws IOException {
+    if (progress.getEntries().stream().anyMatch(entry -> entry.has("chainData"))) {
+      backedUpBlocks.addAndGet(lastBlock - firstBlock + 1);
+      return;
+    }
+    try (final RollingFileWriter headerWriter =
+            new RollingFileWriter(
+                (fileNumber, compressed) ->
+                    StateBackupService.headerFileName(backupDir, fileNumber, compressed),
+                compress);
+        final RollingFileWriter bodyWriter =
+            new RollingFileWriter(
+                (fileNumber, compressed) ->
+                    StateBackupService.bodyFileName(backupDir, fileNumber, compressed),
+                compress);
+        final RollingFileWriter receiptsWriter =
+            new RollingFileWriter(
+                (fileNumber, compressed) ->
+                    StateBackupService.receiptFileName(backupDir, fileNumber, compressed),
+                compress)) {
+      for (long blockNumber = firstBlock; blockNumber <= lastBlock; blockNumber++) {
+        final Optional<Block> block = blockchain.getBlockByNumber(blockNumber);
+        checkState(block.isPresent(), "Block data for %s was not found", blockNumber);
+        final Optional<List<TransactionReceipt>> receipts =
+            blockchain.getTxReceipts(block.get().getHash());
+        checkState(receipts.isPresent(), "Receipts for %s were not found", blockNumber);
+
+        final BytesValueRLPOutput headerOutput = new BytesValueRLPOutput();
+        block.get().getHeader().writeTo(headerOutput);
+        headerWriter.writeBytes(headerOutput.encoded().toArrayUnsafe());
+
+        final BytesValueRLPOutput bodyOutput = new BytesValueRLPOutput();
+        block.get().getBody().writeTo(bodyOutput);
+        bodyWriter.writeBytes(bodyOutput.encoded().toArrayUnsafe());
+
+        final BytesValueRLPOutput receiptsOutput = new BytesValueRLPOutput();
+        receiptsOutput.writeList(receipts.get(), TransactionReceipt::writeToWithRevertReason);
+        receiptsWriter.writeBytes(receiptsOutput.encoded().toArrayUnsafe());
+
+        backedUpBlocks.incrementAndGet();
+      }
+    }
+    progress.append(Map.of("chainData", true));
+  }
+
+  /*
+  The keys are streamed once, and the ranges of consecutive keys are written in parallel. The
+  ranges are the same each time the backup is run, as the node is not running, and the first and
+  last keys of a completed range are checked before it is skipped.
+   */
+  private List<Map<String, Object>> backupSegment(
+      final Path backupDir,
+      final boolean compress,
+      final KeyValueSegmentIdentifier segment,
+      final Stream<byte[]> keys,
+      final Function<byte[], Optional<byte[]>> values,
+      final BackupProgressLog progress)
+      throws IOException {
+    final Counter counter = entriesCounter.labels(segment.getName().toLowerCase(Locale.ROOT));
+    final Map<Integer, ObjectNode> completedRanges = new HashMap<>();
+    for (final ObjectNode entry : progress.getEntries()) {
+      if (segment.getName().equals(entry.path("segment").asText())) {
+        completedRanges.put(entry.get("range").asInt(), entry);
+      }
+    }
+    final NavigableMap<Integer, Map<String, Object>> rangeManifests = new ConcurrentSkipListMap<>();
+    try (final ParallelRangeTasks tasks =
+        new ParallelRangeTasks(parallelism, getClass().getSimpleName())) {
+      final Iterator<byte[]> keyIterator = keys.iterator();
+      int range = 0;
+      while (keyIterator.hasNext() && !tasks.hasFailed()) {
+        final List<byte[]> rangeKeys = new ArrayList<>(KEY_RANGE_SIZE);
+        while (keyIterator.hasNext() && rangeKeys.size() < KEY_RANGE_SIZE) {
+          rangeKeys.add(keyIterator.next());
+        }
+        final int rangeNumber = range++;
+        final ObjectNode completedRange = completedRanges.get(rangeNumber);
+        if (completedRange != null) {
+          checkState(
+              keyHex(rangeKeys.get(0)).equals(completedRange.get("firstKey").asText())
+                  && keyHex(rangeKeys.get(rangeKeys.size() - 1))
+                      .equals(completedRange.get("lastKey").asText()),
+              "The keys of %s changed since the backup in %s was started",
+              segment.getName(),
+              backupDir);
+          rangeManifests.put(
+              rangeNumber,
+              rangeManifest(
+                  rangeNumber,
+                  completedRange.get("firstKey").asText(),
+                  completedRange.get("lastKey").asText(),
+                  completedRange.get("entries").asLong(),
+                  completedRange.get("checksum").asText()));
+          backedUpEntries.addAndGet(completedRange.get("entries").asLong());
+          continue;
+        }
+        tasks.submit(
+            () ->
+                rangeManifests.put(
+                    rangeNumber,
+                    backupRange(
+                        backupDir,
+                        compress,
+                        segment,
+                        rangeNumber,
+                        rangeKeys,
+                        values,
+                        counter,
+                        tasks,
+                        progress)));
+      }
+      tasks.await();
+    }
+
+    LOG.info(
+        "Backed up {} entries of {}",
+        rangeManifests.values().stream()
+            .mapToLong(rangeManifest -> (long) rangeManifest.get("entries"))
+            .sum(),
+        segment.getName());
+    return new ArrayList<>(rangeManifests.values());
+  }
+
+  private Map<String, Object> backupRange(
+      final Path backupDir,
+      final boolean compress,
+      final KeyValueSegmentIdentifier segment,
+      final int range,
+      final List<byte[]> keys,
+      final Function<byte[], Optional<byte[]>> values,
+      final Counter counter,
+      final ParallelRangeTasks tasks,
+      final BackupProgressLog progress) {
+    final CRC32 checksum = new CRC32();
+    long entries = 0;
+    try {
+      try (final RollingFileWriter writer =
+          new RollingFileWriter(
+              (fileNumber, compressed) ->
+                  segmentFileName(backupDir, segment, range, fileNumber, compressed),
+              compress)) {
+        for (final byte[] key : keys) {
+          tasks.checkNotCancelled();
+          // a key without a value was removed since the keys were streamed
+          final Optional<byte[]> value = values.apply(key);
+          if (value.isEmpty()) {
+            continue;
+          }
+          final BytesValueRLPOutput output = new BytesValueRLPOutput();
+          output.startList();
+          output.writeBytes(Bytes.wrap(key));
+          output.writeBytes(Bytes.wrap(value.get()));
+          output.endList();
+          final byte[] entry = output.encoded().toArrayUnsafe();
+          writer.writeBytes(entry);
+          checksum.update(entry);
+          entries++;
+          counter.inc();
+          backedUpEntries.incrementAndGet();
+        }
+      }
+
+      final Map<String, Object> rangeManifest =
+          rangeManifest(
+              range,
+              keyHex(keys.get(0)),
+              keyHex(keys.get(keys.size() - 1)),
+              entries,
+              Long.toHexString(checksum.getValue()));
+      final Map<String, Object> progressEntry = new LinkedHashMap<>();
+      progressEntry.put("segment", segment.getName());
+      progressEntry.putAll(rangeManifest);
+      progress.append(progressEntry);
+      return rangeManifest;
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Map<String, Object> rangeManifest(
+      final int range,
+      final String firstKey,
+      final String lastKey,
+      final long entries,
+      final String checksum) {
+    final Map<String, Object> rangeManifest = new LinkedHashMap<>();
+    rangeManifest.put("range", range);
+    rangeManifest.put("firstKey", firstKey);
+    rangeManifest.put("lastKey", lastKey);
+    rangeManifest.put("entries", entries);
+    rangeManifest.put("checksum", checksum);
+    return rangeManifest;
+  }
+
+  private static String keyHex(final byte[] key) {
+    return Bytes.wrap(key).toHexString();
+  }
+}
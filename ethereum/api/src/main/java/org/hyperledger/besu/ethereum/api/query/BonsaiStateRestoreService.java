@@ -0,0 +1,375 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.bonsai.BonsaiWorldStateArchive;
+import org.hyperledger.besu.ethereum.bonsai.BonsaiWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+import org.hyperledger.besu.util.io.RollingFileReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Restores a backup written by {@link BonsaiStateBackupService}.
+ *
+ * <p>A full backup replaces the world state, an incremental backup must be restored on top of the
+ * state of its base backup. The ranges of a segment are restored in parallel, and their entry
+ * counts and checksums are verified against the manifest. The first range which fails cancels the
+ * ranges left.
+ *
+ * <p>A restore which failed leaves the world state inconsistent until the same backup is restored
+ * again into the same database. The ranges restored are appended to a progress log in the data
+ * directory of the database, and are skipped when the restore of the same backup is run again.
+ */
+public class BonsaiStateRestoreService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BonsaiStateRestoreService.class);
+
+  private static final String PROGRESS_FILE_NAME = "besu-bonsai-restore-progress.jsonl";
+  private static final int COMMIT_BATCH_SIZE = 10_000;
+
+  private final MutableBlockchain blockchain;
+  private final Path dataDir;
+  private final BonsaiWorldStateArchive worldStateArchive;
+  private final BonsaiWorldStateKeyValueStorage worldStateStorage;
+  private final int parallelism;
+  private final LabelledMetric<Counter> entriesCounter;
+  private final AtomicLong restoredEntries = new AtomicLong();
+  private final AtomicLong totalEntries = new AtomicLong();
+
+  public BonsaiStateRestoreService(
+      final MutableBlockchain blockchain,
+      final Path dataDir,
+      final BonsaiWorldStateArchive worldStateArchive,
+      final int parallelism,
+      final MetricsSystem metricsSystem) {
+    this.blockchain = blockchain;
+    this.dataDir = dataDir;
+    this.worldStateArchive = worldStateArchive;
+    this.worldStateStorage = worldStateArchive.getWorldStateStorage();
+    this.parallelism = parallelism;
+    this.entriesCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "bonsai_restore_entries_total",
+            "Number of world state entries restored from a Bonsai backup, by segment",
+            "segment");
+  }
+
+  public long getRestoredEntries() {
+    return restoredEntries.get();
+  }
+
+  public long getTotalEntries() {
+    return totalEntries.get();
+  }
+
+  /**
+   * Restores the blocks and the world state of a backup.
+   *
+   * @param backupDir the directory of the backup
+   * @throws IOException if the backup could not be read
+   */
+  public void restore(final Path backupDir) throws IOException {
+    final ObjectNode manifest = BonsaiStateBackupService.readManifest(backupDir);
+    checkState(
+        BonsaiStateBackupService.FORMAT.equals(manifest.get("format").asText()),
+        "Backup in %s is not a Bonsai backup",
+        backupDir);
+    checkState(
+        manifest.path("complete").asBoolean(false),
+        "Backup in %s is not complete, the backup must be run again to complete it",
+        backupDir);
+    final boolean compressed = manifest.get("compressed").asBoolean(false);
+    final boolean incremental = manifest.get("incremental").asBoolean(false);
+    final Hash targetBlockHash = Hash.fromHexString(manifest.get("targetBlockHash").asText());
+
+    if (incremental) {
+      final Hash baseBlockHash = Hash.fromHexString(manifest.get("baseBlockHash").asText());
+      final Hash persistedBlockHash =
+          worldStateStorage
+              .getWorldStateBlockHash()
+              .map(Bytes32::wrap)
+              .map(Hash::wrap)
+              .orElse(Hash.ZERO);
+      checkState(
+          persistedBlockHash.equals(baseBlockHash),
+          "Incremental backup is based on block %s but the world state is at block %s",
+          baseBlockHash,
+          persistedBlockHash);
+    }
+
+    try (final BackupProgressLog progress = openProgressLog(targetBlockHash, incremental)) {
+      if (progress.getEntries().isEmpty()) {
+        if (!incremental) {
+          for (final KeyValueSegmentIdentifier segment :
+              BonsaiStateBackupService.SNAPSHOT_SEGMENTS) {
+            worldStateStorage.getSegmentStorage(segment).clear();
+          }
+        }
+        // the backup is only recorded once the segments were cleared
+        final Map<String, Object> backup = new LinkedHashMap<>();
+        backup.put("targetBlockHash", targetBlockHash.toHexString());
+        backup.put("incremental", incremental);
+        progress.append(backup);
+      } else {
+        LOG.info("Resuming the restore of {}", backupDir);
+      }
+      restoreBlocks(
+          backupDir,
+          compressed,
+          manifest.get("firstBlock").asLong(),
+          manifest.get("targetBlock").asLong());
+      restoreSegments(backupDir, compressed, manifest.get("segments"), progress);
+      completeRestore(targetBlockHash, incremental);
+      progress.delete();
+    }
+  }
+
+  /*
+  The log starts with the target block of the backup it tracks. The log of another backup, left by
+  a restore which failed, is discarded and an empty log is returned, to restore the backup from the
+  start.
+   */
+  private BackupProgressLog openProgressLog(final Hash targetBlockHash, final boolean incremental)
+      throws IOException {
+    final Path progressFile = dataDir.resolve(PROGRESS_FILE_NAME);
+    final BackupProgressLog progress = BackupProgressLog.open(progressFile);
+    final List<ObjectNode> entries = progress.getEntries();
+    if (!entries.isEmpty()
+        && targetBlockHash.toHexString().equals(entries.get(0).path("targetBlockHash").asText())
+        && incremental == entries.get(0).path("incremental").asBoolean()) {
+      return progress;
+    }
+    progress.delete();
+    return BackupProgressLog.open(progressFile);
+  }
+
+  private void completeRestore(final Hash targetBlockHash, final boolean incremental) {
+    final BlockHeader target =
+        blockchain
+            .getBlockHeader(targetBlockHash)
+            .orElseThrow(() -> new IllegalStateException("Target block was not restored"));
+    if (incremental) {
+      checkState(
+          worldStateArchive.getMutable(target.getStateRoot(), target.getHash(), true).isPresent(),
+          "Could not roll the world state forward to block %s",
+          target.getNumber());
+    } else {
+      worldStateArchive.setArchiveStateUnSafe(target);
+    }
+    final Hash worldStateRootHash =
+        worldStateStorage
+            .getWorldStateRootHash()
+            .map(Bytes32::wrap)
+            .map(Hash::wrap)
+            .orElse(Hash.ZERO);
+    checkState(
+        worldStateRootHash.equals(target.getStateRoot()),
+        "Restored world state root %s does not match the state root of block %s",
+        worldStateRootHash,
+        target.getNumber());
+    LOG.info("Restored the Bonsai world state at block {}", target.getNumber());
+  }
+
+  private void restoreBlocks(
+      final Path backupDir, final boolean compressed, final long firstBlock, final long lastBlock)
+      throws IOException {
+    if (lastBlock < firstBlock) {
+      return;
+    }
+    try (final RollingFileReader headerReader =
+            new RollingFileReader(
+                (fileNumber, compress) ->
+                    StateBackupService.headerFileName(backupDir, fileNumber, compress),
+                compressed);
+        final RollingFileReader bodyReader =
+            new RollingFileReader(
+                (fileNumber, compress) ->
+                    StateBackupService.bodyFileName(backupDir, fileNumber, compress),
+                compressed);
+        final RollingFileReader receiptReader =
+            new RollingFileReader(
+                (fileNumber, compress) ->
+                    StateBackupService.receiptFileName(backupDir, fileNumber, compress),
+                compressed)) {
+      final BlockHeaderFunctions functions = new MainnetBlockHeaderFunctions();
+      for (long blockNumber = firstBlock; blockNumber <= lastBlock; blockNumber++) {
+        final BlockHeader header =
+            BlockHeader.readFrom(
+                new BytesValueRLPInput(Bytes.wrap(headerReader.readBytes()), false, true),
+                functions);
+        final BlockBody body =
+            BlockBody.readFrom(
+                new BytesValueRLPInput(Bytes.wrap(bodyReader.readBytes()), false, true),
+                functions);
+        final RLPInput receiptsRlp =
+            new BytesValueRLPInput(Bytes.wrap(receiptReader.readBytes()), false, true);
+        final int receiptsCount = receiptsRlp.enterList();
+        final List<TransactionReceipt> receipts = new ArrayList<>(receiptsCount);
+        for (int i = 0; i < receiptsCount; i++) {
+          receipts.add(TransactionReceipt.readFrom(receiptsRlp, true));
+        }
+        receiptsRlp.leaveList();
+
+        // the genesis block, and the blocks of a previous restore, are already in the chain
+        if (!blockchain.contains(header.getHash())) {
+          blockchain.appendBlock(new Block(header, body), receipts);
+        }
+      }
+    }
+    LOG.info("Chain data loaded up to block {}", lastBlock);
+  }
+
+  private void restoreSegments(
+      final Path backupDir,
+      final boolean compressed,
+      final JsonNode segments,
+      final BackupProgressLog progress)
+      throws IOException {
+    final Set<String> restoredRanges = new HashSet<>();
+    for (final ObjectNode entry : progress.getEntries()) {
+      if (entry.has("segment")) {
+        restoredRanges.add(entry.get("segment").asText() + "/" + entry.get("range").asInt());
+      }
+    }
+    try (final ParallelRangeTasks tasks =
+        new ParallelRangeTasks(parallelism, getClass().getSimpleName())) {
+      final Iterator<Map.Entry<String, JsonNode>> fields = segments.fields();
+      while (fields.hasNext() && !tasks.hasFailed()) {
+        final Map.Entry<String, JsonNode> field = fields.next();
+        final KeyValueSegmentIdentifier segment = KeyValueSegmentIdentifier.valueOf(field.getKey());
+        for (final JsonNode rangeManifest : field.getValue()) {
+          final int range = rangeManifest.get("range").asInt();
+          final long entries = rangeManifest.get("entries").asLong();
+          totalEntries.addAndGet(entries);
+          if (restoredRanges.contains(segment.getName() + "/" + range)) {
+            restoredEntries.addAndGet(entries);
+            continue;
+          }
+          tasks.submit(
+              () ->
+                  restoreRange(
+                      backupDir,
+                      compressed,
+                      segment,
+                      range,
+                      entries,
+                      Long.parseLong(rangeManifest.get("checksum").asText(), 16),
+                      tasks,
+                      progress));
+        }
+      }
+      tasks.await();
+    }
+  }
+
+  private void restoreRange(
+      final Path backupDir,
+      final boolean compressed,
+      final KeyValueSegmentIdentifier segment,
+      final int range,
+      final long entries,
+      final long expectedChecksum,
+      final ParallelRangeTasks tasks,
+      final BackupProgressLog progress) {
+    final KeyValueStorage storage = worldStateStorage.getSegmentStorage(segment);
+    final Counter counter = entriesCounter.labels(segment.getName().toLowerCase(Locale.ROOT));
+    final CRC32 checksum = new CRC32();
+    try {
+      // no files can be read for a range without entries
+      if (entries > 0) {
+        try (final RollingFileReader reader =
+            new RollingFileReader(
+                (fileNumber, compress) ->
+                    BonsaiStateBackupService.segmentFileName(
+                        backupDir, segment, range, fileNumber, compress),
+                compressed)) {
+          KeyValueStorageTransaction transaction = storage.startTransaction();
+          for (long i = 0; i < entries; i++) {
+            tasks.checkNotCancelled();
+            final byte[] entry = reader.readBytes();
+            checksum.update(entry);
+            final RLPInput input = new BytesValueRLPInput(Bytes.wrap(entry), false);
+            input.enterList();
+            transaction.put(input.readBytes().toArrayUnsafe(), input.readBytes().toArrayUnsafe());
+            input.leaveList();
+            counter.inc();
+            restoredEntries.incrementAndGet();
+            if ((i + 1) % COMMIT_BATCH_SIZE == 0) {
+              transaction.commit();
+              transaction = storage.startTransaction();
+            }
+          }
+          transaction.commit();
+          checkState(
+              reader.isDone(),
+              "Range %s of %s holds more entries than expected",
+              range,
+              segment.getName());
+        }
+      }
+      checkState(
+          checksum.getValue() == expectedChecksum,
+          "Checksum mismatch in range %s of %s",
+          range,
+          segment.getName());
+
+      final Map<String, Object> progressEntry = new LinkedHashMap<>();
+      progressEntry.put("segment", segment.getName());
+      progressEntry.put("range", range);
+      progress.append(progressEntry);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Runs the key ranges of a Bonsai backup or restore in parallel, and cancels the ranges which are
+ * left once one of them failed.
+ */
+class ParallelRangeTasks implements AutoCloseable {
+
+  private final ExecutorService executor;
+  private final Semaphore pendingTasks;
+  private final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+  ParallelRangeTasks(final int parallelism, final String threadNamePrefix) {
+    this.executor =
+        Executors.newFixedThreadPool(
+            parallelism,
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat(threadNamePrefix + "-%d")
+                .build());
+    this.pendingTasks = new Semaphore(parallelism * 2);
+  }
+
+  /**
+   * Submits a task once fewer than twice the parallelism are pending. The task is skipped if a
+   * task already failed.
+   *
+   * @param task the task to run
+   */
+  void submit(final Runnable task) {
+    pendingTasks.acquireUninterruptibly();
+    if (hasFailed()) {
+      pendingTasks.release();
+      return;
+    }
+    tasks.add(
+        CompletableFuture.runAsync(task, executor)
+            .whenComplete(
+                (result, error) -> {
+                  pendingTasks.release();
+                  if (error != null) {
+                    failure.compareAndSet(
+                        null, error instanceof CompletionException ? error.getCause() : error);
+                  }
+                }));
+  }
+
+  boolean hasFailed() {
+    return failure.get() != null;
+  }
+
+  /** Called by the tasks between two entries, to stop as soon as another task failed. */
+  void checkNotCancelled() {
+    if (hasFailed()) {
+      throw new CancellationException("Cancelled after another range failed");
+    }
+  }
+
+  /**
+   * Waits for the submitted tasks to stop, and rethrows the failure of the first task which failed.
+   *
+   * @throws IOException if the first task which failed could not read or write a file
+   */
+  void await() throws IOException {
+    CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new))
+        .handle((result, error) -> null)
+        .join();
+    final Throwable error = failure.get();
+    if (error == null) {
+      return;
+    }
+    if (error instanceof UncheckedIOException) {
+      throw ((UncheckedIOException) error).getCause();
+    }
+    if (error instanceof RuntimeException) {
+      throw (RuntimeException) error;
+    }
+    if (error instanceof Error) {
+      throw (Error) error;
+    }
+    throw new IllegalStateException(error);
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
@@ -51,5 +51,6 @@ public abstract class AbstractDataFetcherTest {
     fetcher = fetchers.getBlockDataFetcher();
     Mockito.when(environment.getContext()).thenReturn(context);
     Mockito.when(context.getBlockchainQueries()).thenReturn(query);
+    Mockito.lenient().when(context.getDataLoader()).thenReturn(new GraphQLDataLoader(query));
   }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.graphql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
+import org.hyperledger.besu.ethereum.api.query.TransactionReceiptWithMetadata;
+import org.hyperledger.besu.ethereum.chain.TransactionLocation;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.worldstate.WorldState;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.Test;
+
+public class GraphQLDataLoaderTest {
+
+  private static final Hash BLOCK_HASH = Hash.hash(Bytes.of(1));
+  private static final Hash FIRST_TRANSACTION = Hash.hash(Bytes.of(2));
+  private static final Hash SECOND_TRANSACTION = Hash.hash(Bytes.of(3));
+
+  private final BlockchainQueries query = mock(BlockchainQueries.class);
+  private final GraphQLDataLoader loader = new GraphQLDataLoader(query);
+
+  @Test
+  public void receiptsOfTheSameBlockAreLoadedOnce() {
+    final TransactionReceiptWithMetadata firstReceipt = mock(TransactionReceiptWithMetadata.class);
+    final TransactionReceiptWithMetadata secondReceipt = mock(TransactionReceiptWithMetadata.class);
+    when(query.transactionLocationByHash(FIRST_TRANSACTION))
+        .thenReturn(Optional.of(new TransactionLocation(BLOCK_HASH, 0)));
+    when(query.transactionLocationByHash(SECOND_TRANSACTION))
+        .thenReturn(Optional.of(new TransactionLocation(BLOCK_HASH, 1)));
+    when(query.transactionReceiptsByBlockHash(BLOCK_HASH))
+        .thenReturn(Optional.of(List.of(firstReceipt, secondReceipt)));
+
+    assertThat(loader.transactionReceiptByTransactionHash(FIRST_TRANSACTION))
+        .containsSame(firstReceipt);
+    assertThat(loader.transactionReceiptByTransactionHash(SECOND_TRANSACTION))
+        .containsSame(secondReceipt);
+    assertThat(loader.transactionReceiptByTransactionHash(FIRST_TRANSACTION))
+        .containsSame(firstReceipt);
+
+    verify(query, times(1)).transactionReceiptsByBlockHash(BLOCK_HASH);
+    verify(query, times(1)).transactionLocationByHash(FIRST_TRANSACTION);
+  }
+
+  @Test
+  public void missingDataIsRememberedToo() {
+    when(query.transactionLocationByHash(FIRST_TRANSACTION)).thenReturn(Optional.empty());
+
+    assertThat(loader.transactionReceiptByTransactionHash(FIRST_TRANSACTION)).isEmpty();
+    assertThat(loader.transactionByHash(FIRST_TRANSACTION)).isEmpty();
+
+    verify(query, times(1)).transactionLocationByHash(FIRST_TRANSACTION);
+  }
+
+  @Test
+  public void accountsAreLoadedOncePerBlock() {
+    final WorldState worldState = mock(WorldState.class);
+    final Account account = mock(Account.class);
+    final Address address = Address.fromHexString("0xdeadbeef");
+    when(query.getWorldState(1L)).thenReturn(Optional.of(worldState));
+    when(worldState.get(address)).thenReturn(account);
+
+    assertThat(loader.getAccount(1L, address)).isSameAs(account);
+    assertThat(loader.getAccount(1L, address)).isSameAs(account);
+    assertThat(loader.getWorldState(1L)).containsSame(worldState);
+
+    verify(query, times(1)).getWorldState(1L);
+    verify(worldState, times(1)).get(address);
+  }
+
+  @Test
+  public void accountIsNullWithoutWorldState() {
+    when(query.getWorldState(1L)).thenReturn(Optional.empty());
+
+    assertThat(loader.getAccount(1L, Address.fromHexString("0xdeadbeef"))).isNull();
+  }
+}
@@ -15,9 +15,11 @@
 package org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.engine;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.hyperledger.besu.consensus.merge.MergeContext;
+import org.hyperledger.besu.consensus.merge.blockcreation.MergeMiningCoordinator;
 import org.hyperledger.besu.consensus.merge.blockcreation.PayloadIdentifier;
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.ethereum.ProtocolContext;
@@ -63,11 +65,13 @@ public class EngineGetPayloadTest {
 
   @Mock private MergeContext mergeContext;
 
+  @Mock private MergeMiningCoordinator mergeCoordinator;
+
   @Before
   public void before() {
     when(mergeContext.retrieveBlockById(mockPid)).thenReturn(Optional.of(mockBlock));
     when(protocolContext.getConsensusContext(Mockito.any())).thenReturn(mergeContext);
-    this.method = new EngineGetPayload(vertx, protocolContext, factory);
+    this.method = new EngineGetPayload(vertx, protocolContext, mergeCoordinator, factory);
   }
 
   @Test
@@ -90,6 +94,7 @@ public class EngineGetPayloadTest {
               assertThat(res.getRandom())
                   .isEqualTo(mockHeader.getRandom().map(Bytes32::toString).orElse(""));
             });
+    verify(mergeCoordinator).finalizeProposalById(mockPid);
   }
 
   @Test
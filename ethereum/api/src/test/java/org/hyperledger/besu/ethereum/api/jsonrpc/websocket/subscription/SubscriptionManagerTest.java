@@ -21,6 +21,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
 
+import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.BlockParameter;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.FilterParameter;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.blockheaders.NewBlockHeadersSubscription;
@@ -257,6 +258,31 @@ public class SubscriptionManagerTest {
                 .size())
         .isEqualTo(0);
     assertThat(subscriptionManager.getSubscriptionById(subscriptionId)).isNull();
+    assertThat(subscriptionManager.getLogsSubscriptionIndex().privateSubscriptions()).isEmpty();
+  }
+
+  @Test
+  public void logsSubscriptionIndexShouldFollowSubscribeAndUnsubscribe() {
+    final FilterParameter filterParameter =
+        new FilterParameter(
+            BlockParameter.LATEST,
+            BlockParameter.LATEST,
+            null,
+            null,
+            List.of(Address.fromHexString("0x1")),
+            null,
+            null,
+            null,
+            null);
+    final Long subscriptionId =
+        subscriptionManager.subscribe(
+            new SubscribeRequest(SubscriptionType.LOGS, filterParameter, null, CONNECTION_ID));
+
+    assertThat(subscriptionManager.getLogsSubscriptionIndex().isEmpty()).isFalse();
+
+    subscriptionManager.unsubscribe(new UnsubscribeRequest(subscriptionId, CONNECTION_ID));
+
+    assertThat(subscriptionManager.getLogsSubscriptionIndex().isEmpty()).isTrue();
   }
 
   private SubscribeRequest subscribeRequest(final String connectionId) {
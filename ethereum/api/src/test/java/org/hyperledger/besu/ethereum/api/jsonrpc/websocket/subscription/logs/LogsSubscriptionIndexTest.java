@@ -0,0 +1,137 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.logs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.BlockParameter;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.FilterParameter;
+import org.hyperledger.besu.evm.log.Log;
+import org.hyperledger.besu.evm.log.LogTopic;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.Test;
+
+public class LogsSubscriptionIndexTest {
+
+  private static final Address ADDRESS_A = Address.fromHexString("0xa");
+  private static final Address ADDRESS_B = Address.fromHexString("0xb");
+  private static final LogTopic TOPIC_A = LogTopic.fromHexString("0x" + "aa".repeat(32));
+  private static final LogTopic TOPIC_B = LogTopic.fromHexString("0x" + "bb".repeat(32));
+
+  private final AtomicLong nextSubscriptionId = new AtomicLong();
+  private final LogsSubscriptionIndex index = new LogsSubscriptionIndex();
+
+  @Test
+  public void addressSubscriptionIsOnlyCandidateForLogsOfThatAddress() {
+    final LogsSubscription subscription =
+        subscription(List.of(ADDRESS_A), Collections.emptyList());
+    index.add(subscription);
+
+    assertThat(index.candidates(log(ADDRESS_A, TOPIC_A))).containsExactly(subscription);
+    assertThat(index.candidates(log(ADDRESS_B, TOPIC_A))).isEmpty();
+  }
+
+  @Test
+  public void topicSubscriptionIsOnlyCandidateForLogsWithThatFirstTopic() {
+    final LogsSubscription subscription =
+        subscription(Collections.emptyList(), List.of(List.of(TOPIC_A)));
+    index.add(subscription);
+
+    assertThat(index.candidates(log(ADDRESS_A, TOPIC_A))).containsExactly(subscription);
+    assertThat(index.candidates(log(ADDRESS_B, TOPIC_A))).containsExactly(subscription);
+    assertThat(index.candidates(log(ADDRESS_A, TOPIC_B))).isEmpty();
+  }
+
+  @Test
+  public void wildcardSubscriptionIsCandidateForEveryLog() {
+    final LogsSubscription subscription =
+        subscription(Collections.emptyList(), List.of(Arrays.asList(TOPIC_A, null)));
+    index.add(subscription);
+
+    assertThat(index.candidates(log(ADDRESS_A, TOPIC_B))).containsExactly(subscription);
+    assertThat(index.candidates(log(ADDRESS_B))).containsExactly(subscription);
+  }
+
+  @Test
+  public void removedSubscriptionIsNoLongerCandidate() {
+    final LogsSubscription byAddress = subscription(List.of(ADDRESS_A), Collections.emptyList());
+    final LogsSubscription byTopic =
+        subscription(Collections.emptyList(), List.of(List.of(TOPIC_A)));
+    final LogsSubscription wildcard =
+        subscription(Collections.emptyList(), Collections.emptyList());
+    index.add(byAddress);
+    index.add(byTopic);
+    index.add(wildcard);
+
+    assertThat(index.candidates(log(ADDRESS_A, TOPIC_A)))
+        .containsExactlyInAnyOrder(byAddress, byTopic, wildcard);
+
+    index.remove(byAddress);
+    index.remove(byTopic);
+    index.remove(wildcard);
+
+    assertThat(index.candidates(log(ADDRESS_A, TOPIC_A))).isEmpty();
+    assertThat(index.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void privateSubscriptionsAreTracked() {
+    final PrivateLogsSubscription subscription =
+        new PrivateLogsSubscription(
+            nextSubscriptionId.incrementAndGet(),
+            "conn",
+            filterParameter(List.of(ADDRESS_A), Collections.emptyList()),
+            "privacyGroupId",
+            "privacyUserId");
+    index.add(subscription);
+
+    assertThat(index.privateSubscriptions()).containsExactly(subscription);
+
+    index.remove(subscription);
+
+    assertThat(index.privateSubscriptions()).isEmpty();
+  }
+
+  private LogsSubscription subscription(
+      final List<Address> addresses, final List<List<LogTopic>> topics) {
+    return new LogsSubscription(
+        nextSubscriptionId.incrementAndGet(), "conn", filterParameter(addresses, topics));
+  }
+
+  private FilterParameter filterParameter(
+      final List<Address> addresses, final List<List<LogTopic>> topics) {
+    return new FilterParameter(
+        BlockParameter.LATEST,
+        BlockParameter.LATEST,
+        null,
+        null,
+        addresses,
+        topics,
+        null,
+        null,
+        null);
+  }
+
+  private Log log(final Address logger, final LogTopic... topics) {
+    return new Log(logger, Bytes.EMPTY, Arrays.asList(topics));
+  }
+}
@@ -17,7 +17,8 @@ package org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.logs;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,7 +26,7 @@ import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.BlockParameter;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.FilterParameter;
-import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.LogResult;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.JsonRpcResult;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.Quantity;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.SubscriptionManager;
 import org.hyperledger.besu.ethereum.api.query.PrivacyQueries;
@@ -41,11 +42,13 @@ import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.evm.log.Log;
 import org.hyperledger.besu.evm.log.LogTopic;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
@@ -53,11 +56,14 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.google.common.collect.Lists;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
 import org.apache.tuweni.bytes.Bytes;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -70,16 +76,21 @@ public class LogsSubscriptionServiceTest {
 
   private LogsSubscriptionService logsSubscriptionService;
   private final AtomicLong nextSubscriptionId = new AtomicLong();
+  private final LogsSubscriptionIndex logsSubscriptionIndex = new LogsSubscriptionIndex();
 
   @Mock private SubscriptionManager subscriptionManager;
 
   @Mock private PrivacyQueries privacyQueries;
 
+  @Captor private ArgumentCaptor<Map<Long, List<JsonRpcResult>>> messagesCaptor;
+
   @Before
   public void before() {
     logsSubscriptionService =
-        new LogsSubscriptionService(subscriptionManager, Optional.of(privacyQueries));
-    blockchain.observeLogs(logsSubscriptionService);
+        new LogsSubscriptionService(
+            subscriptionManager, Optional.of(privacyQueries), new NoOpMetricsSystem());
+    when(subscriptionManager.getLogsSubscriptionIndex()).thenReturn(logsSubscriptionIndex);
+    blockchain.observeBlockAdded(logsSubscriptionService::onBlockAdded);
     blockchain.observeBlockAdded(logsSubscriptionService::checkPrivateLogs);
   }
 
@@ -97,13 +108,10 @@ public class LogsSubscriptionServiceTest {
     registerSubscriptions(subscription);
     blockchain.appendBlock(blockWithReceipts.getBlock(), blockWithReceipts.getReceipts());
 
-    final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
-    verify(subscriptionManager).sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
-
-    final List<LogResult> logResults = captor.getAllValues();
+    final List<JsonObject> logResults = sentResults(subscription);
 
     assertThat(logResults).hasSize(1);
-    final LogResult result = logResults.get(0);
+    final JsonObject result = logResults.get(0);
     assertLogResultMatches(result, block, receipts, txIndex, logIndex, false);
   }
 
@@ -130,16 +138,12 @@ public class LogsSubscriptionServiceTest {
       blockchain.appendBlock(newBlock.getBlock(), newBlock.getReceipts());
     }
 
-    final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
-    verify(subscriptionManager, times(2))
-        .sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
-
-    final List<LogResult> logResults = captor.getAllValues();
+    final List<JsonObject> logResults = sentResults(subscription);
 
     assertThat(logResults).hasSize(2);
-    final LogResult firstLog = logResults.get(0);
+    final JsonObject firstLog = logResults.get(0);
     assertLogResultMatches(firstLog, block, receipts, txIndex, logIndex, false);
-    final LogResult secondLog = logResults.get(1);
+    final JsonObject secondLog = logResults.get(1);
     assertLogResultMatches(secondLog, block, receipts, txIndex, logIndex, true);
   }
 
@@ -173,18 +177,14 @@ public class LogsSubscriptionServiceTest {
     // Sanity check
     assertThat(blockchain.getChainHeadHash()).isEqualTo(newBlockWithLog.getBlock().getHash());
 
-    final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
-    verify(subscriptionManager, times(3))
-        .sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
-
-    final List<LogResult> logResults = captor.getAllValues();
+    final List<JsonObject> logResults = sentResults(subscription);
 
     assertThat(logResults).hasSize(3);
-    final LogResult originalLog = logResults.get(0);
+    final JsonObject originalLog = logResults.get(0);
     assertLogResultMatches(originalLog, block, receipts, txIndex, logIndex, false);
-    final LogResult removedLog = logResults.get(1);
+    final JsonObject removedLog = logResults.get(1);
     assertLogResultMatches(removedLog, block, receipts, txIndex, logIndex, true);
-    final LogResult updatedLog = logResults.get(2);
+    final JsonObject updatedLog = logResults.get(2);
     assertLogResultMatches(
         updatedLog, newBlockWithLog.getBlock(), newBlockWithLog.getReceipts(), 0, 0, false);
   }
@@ -211,10 +211,7 @@ public class LogsSubscriptionServiceTest {
       blockchain.appendBlock(otherBlock.getBlock(), otherBlock.getReceipts());
     }
 
-    final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
-    verify(subscriptionManager, times(targetBlocks.size() * txCount))
-        .sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
-    final List<LogResult> logResults = captor.getAllValues();
+    final List<JsonObject> logResults = sentResults(subscription);
 
     // Verify all logs are emitted
     assertThat(logResults).hasSize(targetBlocks.size() * txCount);
@@ -251,14 +248,10 @@ public class LogsSubscriptionServiceTest {
     blockchain.appendBlock(blockWithReceipts.getBlock(), blockWithReceipts.getReceipts());
 
     for (LogsSubscription subscription : subscriptions) {
-      final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
-      verify(subscriptionManager)
-          .sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
-
-      final List<LogResult> logResults = captor.getAllValues();
+      final List<JsonObject> logResults = sentResults(subscription);
 
       assertThat(logResults).hasSize(1);
-      final LogResult result = logResults.get(0);
+      final JsonObject result = logResults.get(0);
       assertLogResultMatches(result, block, receipts, txIndex, logIndex, false);
     }
   }
@@ -272,9 +265,7 @@ public class LogsSubscriptionServiceTest {
     final BlockWithReceipts blockWithReceipts = generateBlock(2, 0, 0);
     blockchain.appendBlock(blockWithReceipts.getBlock(), blockWithReceipts.getReceipts());
 
-    final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
-    verify(subscriptionManager, times(0))
-        .sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
+    verify(subscriptionManager, never()).sendMessages(any());
   }
 
   @Test
@@ -286,9 +277,7 @@ public class LogsSubscriptionServiceTest {
     final BlockWithReceipts blockWithReceipts = generateBlock(2, 2, 2);
     blockchain.appendBlock(blockWithReceipts.getBlock(), blockWithReceipts.getReceipts());
 
-    final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
-    verify(subscriptionManager, times(0))
-        .sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
+    verify(subscriptionManager, never()).sendMessages(any());
   }
 
   @Test
@@ -324,11 +313,11 @@ public class LogsSubscriptionServiceTest {
     final BlockWithReceipts blockWithReceipts = generateBlock(2, 2, 2);
     blockchain.appendBlock(blockWithReceipts.getBlock(), blockWithReceipts.getReceipts());
 
-    verify(subscriptionManager, times(1)).sendMessage(eq(subscription.getSubscriptionId()), any());
+    assertThat(sentResults(subscription)).hasSize(1);
   }
 
   private void assertLogResultMatches(
-      final LogResult result,
+      final JsonObject result,
       final Block block,
       final List<TransactionReceipt> receipts,
       final int txIndex,
@@ -337,17 +326,19 @@ public class LogsSubscriptionServiceTest {
     final Transaction expectedTransaction = block.getBody().getTransactions().get(txIndex);
     final Log expectedLog = receipts.get(txIndex).getLogsList().get(logIndex);
 
-    assertThat(result.getLogIndex()).isEqualTo(Quantity.create(logIndex));
-    assertThat(result.getTransactionIndex()).isEqualTo(Quantity.create(txIndex));
-    assertThat(result.getBlockNumber()).isEqualTo(Quantity.create(block.getHeader().getNumber()));
-    assertThat(result.getBlockHash()).isEqualTo(block.getHash().toString());
-    assertThat(result.getTransactionHash()).isEqualTo(expectedTransaction.getHash().toString());
-    assertThat(result.getAddress()).isEqualTo(expectedLog.getLogger().toString());
-    assertThat(result.getData()).isEqualTo(expectedLog.getData().toString());
-    assertThat(result.getTopics())
+    assertThat(result.getString("logIndex")).isEqualTo(Quantity.create(logIndex));
+    assertThat(result.getString("transactionIndex")).isEqualTo(Quantity.create(txIndex));
+    assertThat(result.getString("blockNumber"))
+        .isEqualTo(Quantity.create(block.getHeader().getNumber()));
+    assertThat(result.getString("blockHash")).isEqualTo(block.getHash().toString());
+    assertThat(result.getString("transactionHash"))
+        .isEqualTo(expectedTransaction.getHash().toString());
+    assertThat(result.getString("address")).isEqualTo(expectedLog.getLogger().toString());
+    assertThat(result.getString("data")).isEqualTo(expectedLog.getData().toString());
+    assertThat(result.getJsonArray("topics").getList())
         .isEqualTo(
             expectedLog.getTopics().stream().map(Bytes::toString).collect(Collectors.toList()));
-    assertThat(result.isRemoved()).isEqualTo(isRemoved);
+    assertThat(result.getBoolean("removed")).isEqualTo(isRemoved);
   }
 
   private BlockWithReceipts generateBlock(
@@ -437,8 +428,17 @@ public class LogsSubscriptionServiceTest {
   }
 
   private void registerSubscriptions(final List<LogsSubscription> subscriptions) {
-    when(subscriptionManager.subscriptionsOfType(any(), any()))
-        .thenReturn(Lists.newArrayList(subscriptions));
+    subscriptions.forEach(logsSubscriptionIndex::add);
+  }
+
+  private List<JsonObject> sentResults(final LogsSubscription subscription) {
+    verify(subscriptionManager, atLeast(0)).sendMessages(messagesCaptor.capture());
+    return messagesCaptor.getAllValues().stream()
+        .flatMap(
+            messages ->
+                messages.getOrDefault(subscription.getSubscriptionId(), List.of()).stream())
+        .map(result -> new JsonObject(Json.encode(result)))
+        .collect(Collectors.toList());
   }
 
   private LogWithMetadata logWithMetadata() {
@@ -373,6 +373,37 @@ public class BlockchainQueriesTest {
     assertThat(ommerOptional).isEmpty();
   }
 
+  @Test
+  public void transactionReceiptsByBlockHashShouldMatchReceiptsByTransactionHash() {
+    final BlockchainWithData data = setupBlockchain(3);
+    final BlockchainQueries queries = data.blockchainQueries;
+    final Block targetBlock = data.blockData.get(2).block;
+
+    final List<TransactionReceiptWithMetadata> receipts =
+        queries.transactionReceiptsByBlockHash(targetBlock.getHash()).get();
+
+    final List<Transaction> transactions = targetBlock.getBody().getTransactions();
+    assertThat(receipts).hasSize(transactions.size());
+    for (int i = 0; i < transactions.size(); i++) {
+      final TransactionReceiptWithMetadata expected =
+          queries.transactionReceiptByTransactionHash(transactions.get(i).getHash()).get();
+      final TransactionReceiptWithMetadata actual = receipts.get(i);
+      assertThat(actual.getReceipt()).isEqualTo(expected.getReceipt());
+      assertThat(actual.getTransactionHash()).isEqualTo(expected.getTransactionHash());
+      assertThat(actual.getTransactionIndex()).isEqualTo(i);
+      assertThat(actual.getGasUsed()).isEqualTo(expected.getGasUsed());
+      assertThat(actual.getBlockHash()).isEqualTo(targetBlock.getHash());
+    }
+  }
+
+  @Test
+  public void transactionReceiptsByBlockHashShouldReturnEmptyForUnknownBlock() {
+    final BlockchainWithData data = setupBlockchain(1);
+    final BlockchainQueries queries = data.blockchainQueries;
+
+    assertThat(queries.transactionReceiptsByBlockHash(Hash.ZERO)).isEmpty();
+  }
+
   @Test
   public void getOmmerByBlockHashAndIndexShouldReturnEmptyWhenBlockDoesNotHaveOmmers() {
     final BlockchainWithData data = setupBlockchain(1);
@@ -0,0 +1,290 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider.createBonsaiInMemoryWorldStateArchive;
+import static org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider.createInMemoryBlockchain;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.TRIE_BRANCH_STORAGE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.bonsai.BonsaiWorldStateArchive;
+import org.hyperledger.besu.ethereum.bonsai.BonsaiWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockchainSetupUtil;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageFormat;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BonsaiStateBackupServiceTest {
+
+  private static final int PARALLELISM = 2;
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private BlockchainSetupUtil source;
+  private MutableBlockchain targetBlockchain;
+  private BonsaiWorldStateArchive targetArchive;
+  private Path targetDataDir;
+
+  @Before
+  public void setup() throws IOException {
+    source = BlockchainSetupUtil.forTesting(DataStorageFormat.BONSAI);
+    targetDataDir = folder.newFolder().toPath();
+    targetBlockchain = createInMemoryBlockchain(source.getGenesisState().getBlock());
+    targetArchive = createBonsaiInMemoryWorldStateArchive(targetBlockchain);
+  }
+
+  @Test
+  public void restoresFullBackup() throws IOException {
+    source.importFirstBlocks(10);
+    final Path backupDir = folder.newFolder().toPath();
+
+    backupService().backup(backupDir, true);
+    restoreService().restore(backupDir);
+
+    assertRestoredChainHead();
+  }
+
+  @Test
+  public void restoresIncrementalBackupOnTopOfFullBackup() throws IOException {
+    source.importFirstBlocks(5);
+    final Path fullBackupDir = folder.newFolder().toPath();
+    backupService().backup(fullBackupDir, true);
+
+    for (int i = 5; i < 10; i++) {
+      source.importBlockAtIndex(i);
+    }
+    final Path incrementalBackupDir = folder.newFolder().toPath();
+    backupService().backupIncremental(incrementalBackupDir, fullBackupDir, true);
+
+    final BonsaiStateRestoreService restoreService = restoreService();
+    restoreService.restore(fullBackupDir);
+    restoreService.restore(incrementalBackupDir);
+
+    assertRestoredChainHead();
+  }
+
+  @Test
+  public void rejectsIncrementalBackupWithoutItsBase() throws IOException {
+    source.importFirstBlocks(5);
+    final Path fullBackupDir = folder.newFolder().toPath();
+    backupService().backup(fullBackupDir, true);
+    source.importBlockAtIndex(5);
+    final Path incrementalBackupDir = folder.newFolder().toPath();
+    backupService().backupIncremental(incrementalBackupDir, fullBackupDir, true);
+
+    assertThatThrownBy(() -> restoreService().restore(incrementalBackupDir))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("Incremental backup is based on block");
+  }
+
+  @Test
+  public void rejectsCorruptedBackup() throws IOException {
+    source.importFirstBlocks(10);
+    final Path backupDir = folder.newFolder().toPath();
+    backupService().backup(backupDir, false);
+
+    final Path largestSegmentFile;
+    try (final Stream<Path> files = Files.list(backupDir)) {
+      largestSegmentFile =
+          files
+              .filter(file -> file.getFileName().toString().startsWith("besu-bonsai-"))
+              .filter(file -> file.getFileName().toString().endsWith(".rdat"))
+              .max(Comparator.comparingLong(file -> file.toFile().length()))
+              .orElseThrow();
+    }
+    try (final RandomAccessFile file = new RandomAccessFile(largestSegmentFile.toFile(), "rw")) {
+      file.seek(file.length() - 1);
+      final int lastByte = file.read();
+      file.seek(file.length() - 1);
+      file.write(lastByte ^ 0xff);
+    }
+
+    assertThatThrownBy(() -> restoreService().restore(backupDir))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("Checksum mismatch");
+  }
+
+  @Test
+  public void resumesFailedBackup() throws IOException {
+    source.importFirstBlocks(10);
+    final Path backupDir = folder.newFolder().toPath();
+    final BonsaiWorldStateKeyValueStorage failingStorage = spy(sourceStorage());
+    final KeyValueStorage failingTrieBranchStorage =
+        spy(sourceStorage().getSegmentStorage(TRIE_BRANCH_STORAGE));
+    doThrow(new StorageException("Read failure")).when(failingTrieBranchStorage).get(any());
+    doReturn(failingTrieBranchStorage).when(failingStorage).getSegmentStorage(TRIE_BRANCH_STORAGE);
+
+    assertThatThrownBy(() -> backupService(failingStorage).backup(backupDir, true))
+        .isInstanceOf(StorageException.class)
+        .hasMessage("Read failure");
+    assertThatThrownBy(() -> restoreService().restore(backupDir))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("is not complete");
+
+    // the account segment was backed up before the failure, it is not read again
+    final BonsaiWorldStateKeyValueStorage resumedStorage = spy(sourceStorage());
+    final KeyValueStorage accountStorage =
+        spy(sourceStorage().getSegmentStorage(ACCOUNT_INFO_STATE));
+    doReturn(accountStorage).when(resumedStorage).getSegmentStorage(ACCOUNT_INFO_STATE);
+    backupService(resumedStorage).backup(backupDir, true);
+    verify(accountStorage, never()).get(any());
+
+    restoreService().restore(backupDir);
+    assertRestoredChainHead();
+  }
+
+  @Test
+  public void rejectsResumingBackupOfAnotherState() throws IOException {
+    source.importFirstBlocks(5);
+    final Path backupDir = folder.newFolder().toPath();
+    final BonsaiWorldStateKeyValueStorage failingStorage = spy(sourceStorage());
+    doThrow(new StorageException("Read failure"))
+        .when(failingStorage)
+        .getSegmentStorage(TRIE_BRANCH_STORAGE);
+    assertThatThrownBy(() -> backupService(failingStorage).backup(backupDir, true))
+        .isInstanceOf(StorageException.class);
+
+    source.importBlockAtIndex(5);
+
+    assertThatThrownBy(() -> backupService().backup(backupDir, true))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("holds an unfinished backup with a different");
+  }
+
+  @Test
+  public void resumesFailedRestore() throws IOException {
+    source.importFirstBlocks(10);
+    final Path backupDir = folder.newFolder().toPath();
+    backupService().backup(backupDir, false);
+
+    assertThatThrownBy(() -> failingRestoreService().restore(backupDir))
+        .isInstanceOf(StorageException.class)
+        .hasMessage("Write failure");
+
+    // the account range was restored before the failure, it is not read again
+    final Path accountRangeFile =
+        BonsaiStateBackupService.segmentFileName(backupDir, ACCOUNT_INFO_STATE, 0, 0, false);
+    Files.write(accountRangeFile, new byte[(int) accountRangeFile.toFile().length()]);
+    restoreService().restore(backupDir);
+
+    assertRestoredChainHead();
+  }
+
+  @Test
+  public void restoresAnotherBackupFromTheStartAfterFailedRestore() throws IOException {
+    source.importFirstBlocks(5);
+    final Path failedBackupDir = folder.newFolder().toPath();
+    backupService().backup(failedBackupDir, true);
+    for (int i = 5; i < 10; i++) {
+      source.importBlockAtIndex(i);
+    }
+    final Path backupDir = folder.newFolder().toPath();
+    backupService().backup(backupDir, true);
+
+    assertThatThrownBy(() -> failingRestoreService().restore(failedBackupDir))
+        .isInstanceOf(StorageException.class)
+        .hasMessage("Write failure");
+    restoreService().restore(backupDir);
+
+    assertRestoredChainHead();
+    // the accounts restored from the other backup were all replaced
+    final KeyValueStorage sourceAccounts = sourceStorage().getSegmentStorage(ACCOUNT_INFO_STATE);
+    final KeyValueStorage targetAccounts =
+        targetArchive.getWorldStateStorage().getSegmentStorage(ACCOUNT_INFO_STATE);
+    try (final Stream<byte[]> keys = targetAccounts.streamKeys()) {
+      keys.forEach(
+          key ->
+              assertThat(sourceAccounts.get(key).map(Bytes::wrap))
+                  .isEqualTo(targetAccounts.get(key).map(Bytes::wrap)));
+    }
+  }
+
+  private BonsaiWorldStateKeyValueStorage sourceStorage() {
+    return ((BonsaiWorldStateArchive) source.getWorldArchive()).getWorldStateStorage();
+  }
+
+  private BonsaiStateBackupService backupService() {
+    return backupService(sourceStorage());
+  }
+
+  private BonsaiStateBackupService backupService(
+      final BonsaiWorldStateKeyValueStorage worldStateStorage) {
+    return new BonsaiStateBackupService(
+        "test", source.getBlockchain(), worldStateStorage, PARALLELISM, new NoOpMetricsSystem());
+  }
+
+  private BonsaiStateRestoreService restoreService() {
+    return new BonsaiStateRestoreService(
+        targetBlockchain, targetDataDir, targetArchive, PARALLELISM, new NoOpMetricsSystem());
+  }
+
+  /*
+  The trie branches of the target cannot be written. A single thread restores the ranges in order,
+  so the other segments are restored before the trie branches fail.
+   */
+  private BonsaiStateRestoreService failingRestoreService() {
+    final BonsaiWorldStateKeyValueStorage targetStorage = targetArchive.getWorldStateStorage();
+    final BonsaiWorldStateArchive failingArchive = spy(targetArchive);
+    final BonsaiWorldStateKeyValueStorage failingStorage = spy(targetStorage);
+    final KeyValueStorage failingTrieBranchStorage =
+        spy(targetStorage.getSegmentStorage(TRIE_BRANCH_STORAGE));
+    doThrow(new StorageException("Write failure"))
+        .when(failingTrieBranchStorage)
+        .startTransaction();
+    doReturn(failingTrieBranchStorage).when(failingStorage).getSegmentStorage(TRIE_BRANCH_STORAGE);
+    doReturn(failingStorage).when(failingArchive).getWorldStateStorage();
+    return new BonsaiStateRestoreService(
+        targetBlockchain, targetDataDir, failingArchive, 1, new NoOpMetricsSystem());
+  }
+
+  private void assertRestoredChainHead() {
+    final BlockHeader chainHead = source.getBlockchain().getChainHeadHeader();
+    assertThat(targetBlockchain.getChainHeadHeader()).isEqualTo(chainHead);
+    assertThat(
+            targetArchive
+                .getWorldStateStorage()
+                .getWorldStateRootHash()
+                .map(Bytes32::wrap)
+                .map(Hash::wrap))
+        .contains(chainHead.getStateRoot());
+    assertThat(targetArchive.getMutable().rootHash()).isEqualTo(chainHead.getStateRoot());
+  }
+}
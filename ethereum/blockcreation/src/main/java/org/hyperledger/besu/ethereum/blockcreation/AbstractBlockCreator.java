@@ -23,7 +23,9 @@ import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.BlockHeaderBuilder;
 import org.hyperledger.besu.ethereum.core.BlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.core.BlockWithReceipts;
 import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.MiningParameters;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.ProcessableBlockHeader;
 import org.hyperledger.besu.ethereum.core.SealableBlockHeader;
@@ -40,9 +42,12 @@ import org.hyperledger.besu.ethereum.mainnet.feemarket.BaseFeeMarket;
 import org.hyperledger.besu.ethereum.mainnet.feemarket.FeeMarket;
 import org.hyperledger.besu.evm.account.EvmAccount;
 import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 import org.hyperledger.besu.plugin.services.securitymodule.SecurityModuleException;
 
 import java.math.BigInteger;
+import java.time.Clock;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CancellationException;
@@ -76,6 +81,9 @@ public abstract class AbstractBlockCreator implements AsyncBlockCreator {
   private final Address miningBeneficiary;
   protected final BlockHeader parentHeader;
   protected final ProtocolSpec protocolSpec;
+  private final long blockTxsSelectionMaxTime;
+  private final BlockTransactionSelectionMetrics transactionSelectionMetrics;
+  private final Optional<PendingTransactionsPreExecutor> preExecutor;
 
   private final AtomicBoolean isCancelled = new AtomicBoolean(false);
 
@@ -90,6 +98,64 @@ public abstract class AbstractBlockCreator implements AsyncBlockCreator {
       final Address miningBeneficiary,
       final Double minBlockOccupancyRatio,
       final BlockHeader parentHeader) {
+    this(
+        coinbase,
+        targetGasLimitSupplier,
+        extraDataCalculator,
+        pendingTransactions,
+        protocolContext,
+        protocolSchedule,
+        minTransactionGasPrice,
+        miningBeneficiary,
+        minBlockOccupancyRatio,
+        parentHeader,
+        MiningParameters.DEFAULT_BLOCK_TXS_SELECTION_MAX_TIME,
+        new BlockTransactionSelectionMetrics(new NoOpMetricsSystem()));
+  }
+
+  protected AbstractBlockCreator(
+      final Address coinbase,
+      final Supplier<Optional<Long>> targetGasLimitSupplier,
+      final ExtraDataCalculator extraDataCalculator,
+      final AbstractPendingTransactionsSorter pendingTransactions,
+      final ProtocolContext protocolContext,
+      final ProtocolSchedule protocolSchedule,
+      final Wei minTransactionGasPrice,
+      final Address miningBeneficiary,
+      final Double minBlockOccupancyRatio,
+      final BlockHeader parentHeader,
+      final long blockTxsSelectionMaxTime,
+      final BlockTransactionSelectionMetrics transactionSelectionMetrics) {
+    this(
+        coinbase,
+        targetGasLimitSupplier,
+        extraDataCalculator,
+        pendingTransactions,
+        protocolContext,
+        protocolSchedule,
+        minTransactionGasPrice,
+        miningBeneficiary,
+        minBlockOccupancyRatio,
+        parentHeader,
+        blockTxsSelectionMaxTime,
+        transactionSelectionMetrics,
+        Optional.empty());
+  }
+
+  protected AbstractBlockCreator(
+      final Address coinbase,
+      final Supplier<Optional<Long>> targetGasLimitSupplier,
+      final ExtraDataCalculator extraDataCalculator,
+      final AbstractPendingTransactionsSorter pendingTransactions,
+      final ProtocolContext protocolContext,
+      final ProtocolSchedule protocolSchedule,
+      final Wei minTransactionGasPrice,
+      final Address miningBeneficiary,
+      final Double minBlockOccupancyRatio,
+      final BlockHeader parentHeader,
+      final long blockTxsSelectionMaxTime,
+      final BlockTransactionSelectionMetrics transactionSelectionMetrics,
+      final Optional<PendingTransactionsPreExecutor> preExecutor) {
     this.coinbase = coinbase;
     this.targetGasLimitSupplier = targetGasLimitSupplier;
     this.extraDataCalculator = extraDataCalculator;
@@ -100,6 +166,9 @@ public abstract class AbstractBlockCreator implements AsyncBlockCreator {
     this.minBlockOccupancyRatio = minBlockOccupancyRatio;
     this.miningBeneficiary = miningBeneficiary;
     this.parentHeader = parentHeader;
+    this.blockTxsSelectionMaxTime = blockTxsSelectionMaxTime;
+    this.transactionSelectionMetrics = transactionSelectionMetrics;
+    this.preExecutor = preExecutor;
     this.protocolSpec = protocolSchedule.getByBlockNumber(parentHeader.getNumber() + 1);
     blockHeaderFunctions = ScheduleBasedBlockHeaderFunctions.create(protocolSchedule);
   }
@@ -123,16 +192,27 @@ public abstract class AbstractBlockCreator implements AsyncBlockCreator {
    */
   @Override
   public Block createBlock(final long timestamp) {
+    return createBlock(Optional.empty(), Optional.empty(), timestamp).getBlock();
+  }
+
+  /**
+   * Creates a block in the same way as {@link #createBlock(long)}, also returning the receipts of
+   * the selected transactions so that callers can assess what the block is worth.
+   *
+   * @param timestamp the timestamp of the block to create
+   * @return the created block together with the receipts of its transactions
+   */
+  public BlockWithReceipts createBlockWithReceipts(final long timestamp) {
     return createBlock(Optional.empty(), Optional.empty(), timestamp);
   }
 
   @Override
   public Block createBlock(
       final List<Transaction> transactions, final List<BlockHeader> ommers, final long timestamp) {
-    return createBlock(Optional.of(transactions), Optional.of(ommers), timestamp);
+    return createBlock(Optional.of(transactions), Optional.of(ommers), timestamp).getBlock();
   }
 
-  private Block createBlock(
+  private BlockWithReceipts createBlock(
       final Optional<List<Transaction>> maybeTransactions,
       final Optional<List<BlockHeader>> maybeOmmers,
       final long timestamp) {
@@ -184,7 +264,9 @@ public abstract class AbstractBlockCreator implements AsyncBlockCreator {
 
       final BlockHeader blockHeader = createFinalBlockHeader(sealableBlockHeader);
 
-      return new Block(blockHeader, new BlockBody(transactionResults.getTransactions(), ommers));
+      return new BlockWithReceipts(
+          new Block(blockHeader, new BlockBody(transactionResults.getTransactions(), ommers)),
+          transactionResults.getReceipts());
     } catch (final SecurityModuleException ex) {
       throw new IllegalStateException("Failed to create block signature", ex);
     } catch (final CancellationException ex) {
@@ -218,13 +300,24 @@ public abstract class AbstractBlockCreator implements AsyncBlockCreator {
             minBlockOccupancyRatio,
             isCancelled::get,
             miningBeneficiary,
-            protocolSpec.getFeeMarket());
+            protocolSpec.getFeeMarket(),
+            blockTxsSelectionMaxTime,
+            Clock.systemUTC(),
+            preExecutor.flatMap(
+                executor -> executor.forBlock(processableBlockHeader, miningBeneficiary)));
 
     if (transactions.isPresent()) {
       return selector.evaluateTransactions(transactions.get());
-    } else {
-      return selector.buildTransactionListForBlock();
     }
+    final BlockTransactionSelector.TransactionSelectionResults results;
+    final OperationTimer.TimingContext timingContext = transactionSelectionMetrics.startSelection();
+    try {
+      results = selector.buildTransactionListForBlock();
+    } finally {
+      timingContext.stopTimer();
+    }
+    transactionSelectionMetrics.onSelectionComplete(results);
+    return results;
   }
 
   private MutableWorldState duplicateWorldStateAtParent() {
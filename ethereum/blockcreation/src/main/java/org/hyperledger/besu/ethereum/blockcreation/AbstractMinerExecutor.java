@@ -47,6 +47,7 @@ public abstract class AbstractMinerExecutor<M extends BlockMiner<? extends Abstr
   protected final ProtocolSchedule protocolSchedule;
   protected final AbstractPendingTransactionsSorter pendingTransactions;
   protected final AbstractBlockScheduler blockScheduler;
+  protected final long blockTxsSelectionMaxTime;
 
   protected volatile Bytes extraData;
   protected volatile Wei minTransactionGasPrice;
@@ -69,6 +70,7 @@ public abstract class AbstractMinerExecutor<M extends BlockMiner<? extends Abstr
     this.blockScheduler = blockScheduler;
     this.minBlockOccupancyRatio = miningParams.getMinBlockOccupancyRatio();
     this.targetGasLimit = miningParams.getTargetGasLimit();
+    this.blockTxsSelectionMaxTime = miningParams.getBlockTxsSelectionMaxTime();
   }
 
   public Optional<M> startAsyncMining(
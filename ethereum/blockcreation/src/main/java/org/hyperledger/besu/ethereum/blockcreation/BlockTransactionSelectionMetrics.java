@@ -0,0 +1,71 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.blockcreation;
+
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
+
+/**
+ * Metrics of the selection of the transactions of the blocks created by this node: how many
+ * candidates were selected, rejected or skipped without being executed, how long the selection
+ * took and how often it was cut short by its time limit.
+ */
+public class BlockTransactionSelectionMetrics {
+
+  private final OperationTimer selectionTimer;
+  private final Counter selectedCounter;
+  private final Counter rejectedCounter;
+  private final Counter skippedCounter;
+  private final Counter timeLimitReachedCounter;
+
+  public BlockTransactionSelectionMetrics(final MetricsSystem metricsSystem) {
+    this.selectionTimer =
+        metricsSystem.createTimer(
+            BesuMetricCategory.BLOCKCHAIN,
+            "block_transaction_selection_time",
+            "Time spent selecting the transactions of a block");
+    final LabelledMetric<Counter> candidateCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "block_transaction_selection_candidates_total",
+            "Number of pending transactions considered for inclusion in a block, by outcome",
+            "result");
+    this.selectedCounter = candidateCounter.labels("selected");
+    this.rejectedCounter = candidateCounter.labels("rejected");
+    this.skippedCounter = candidateCounter.labels("skipped");
+    this.timeLimitReachedCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "block_transaction_selection_time_limit_reached_total",
+            "Number of blocks whose transaction selection stopped at the time limit");
+  }
+
+  public OperationTimer.TimingContext startSelection() {
+    return selectionTimer.startTimer();
+  }
+
+  public void onSelectionComplete(
+      final BlockTransactionSelector.TransactionSelectionResults results) {
+    selectedCounter.inc(results.getTransactions().size());
+    rejectedCounter.inc(results.getRejectedCount());
+    skippedCounter.inc(results.getSkippedCount());
+    if (results.isTimeLimitReached()) {
+      timeLimitReachedCounter.inc();
+    }
+  }
+}
@@ -16,7 +16,9 @@ package org.hyperledger.besu.ethereum.blockcreation;
 
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.blockcreation.PendingTransactionsPreExecutor.PreExecutedTransactions;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.MiningParameters;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.ProcessableBlockHeader;
 import org.hyperledger.besu.ethereum.core.Transaction;
@@ -35,8 +37,12 @@ import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
 import org.hyperledger.besu.evm.account.EvmAccount;
 import org.hyperledger.besu.evm.worldstate.WorldUpdater;
 
+import java.time.Clock;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.function.Supplier;
 
@@ -64,6 +70,16 @@ import org.slf4j.LoggerFactory;
  *
  * Once "used" this class must be discarded and another created. This class contains state which is
  * not cleared between executions of buildTransactionListForBlock().
+ *
+ * <p>When a maximum selection time is configured, the selection stops once it is reached and the
+ * block is built with the transactions selected so far. In that mode candidates are also checked
+ * against the nonce and balance of their sender before being executed, and once a transaction of a
+ * sender is rejected the later transactions of that sender are skipped, as their nonces can no
+ * longer be valid in this block.
+ *
+ * <p>When transactions were executed ahead by a {@link PendingTransactionsPreExecutor}, their
+ * results are applied instead of executing them again, unless they are invalidated by the
+ * transactions selected before them.
  */
 public class BlockTransactionSelector {
   private static final Logger LOG = LoggerFactory.getLogger(BlockTransactionSelector.class);
@@ -76,6 +92,9 @@ public class BlockTransactionSelector {
     private final List<Transaction> transactions = Lists.newArrayList();
     private final List<TransactionReceipt> receipts = Lists.newArrayList();
     private long cumulativeGasUsed = 0;
+    private int rejectedCount = 0;
+    private int skippedCount = 0;
+    private boolean timeLimitReached = false;
 
     private void update(
         final Transaction transaction, final TransactionReceipt receipt, final long gasUsed) {
@@ -95,6 +114,20 @@ public class BlockTransactionSelector {
     public long getCumulativeGasUsed() {
       return cumulativeGasUsed;
     }
+
+    /** The number of candidates that were evaluated but not selected. */
+    public int getRejectedCount() {
+      return rejectedCount;
+    }
+
+    /** The number of candidates that were not evaluated as an earlier nonce was rejected. */
+    public int getSkippedCount() {
+      return skippedCount;
+    }
+
+    public boolean isTimeLimitReached() {
+      return timeLimitReached;
+    }
   }
 
   private final Supplier<Boolean> isCancelled;
@@ -106,9 +139,14 @@ public class BlockTransactionSelector {
   private final AbstractBlockProcessor.TransactionReceiptFactory transactionReceiptFactory;
   private final Address miningBeneficiary;
   private final FeeMarket feeMarket;
+  private final long maxSelectionTime;
+  private final Clock clock;
+  private final Optional<PreExecutedTransactions> preExecutedTransactions;
 
   private final TransactionSelectionResults transactionSelectionResult =
       new TransactionSelectionResults();
+  private final Set<Address> skippedSenders = new HashSet<>();
+  private long selectionDeadline = Long.MAX_VALUE;
 
   public BlockTransactionSelector(
       final MainnetTransactionProcessor transactionProcessor,
@@ -122,6 +160,83 @@ public class BlockTransactionSelector {
       final Supplier<Boolean> isCancelled,
       final Address miningBeneficiary,
       final FeeMarket feeMarket) {
+    this(
+        transactionProcessor,
+        blockchain,
+        worldState,
+        pendingTransactions,
+        processableBlockHeader,
+        transactionReceiptFactory,
+        minTransactionGasPrice,
+        minBlockOccupancyRatio,
+        isCancelled,
+        miningBeneficiary,
+        feeMarket,
+        MiningParameters.DEFAULT_BLOCK_TXS_SELECTION_MAX_TIME,
+        Clock.systemUTC());
+  }
+
+  /**
+   * Creates a selector whose selection from the pending transactions is limited in time.
+   *
+   * @param maxSelectionTime the time in milliseconds after which the selection from the pending
+   *     transactions stops, 0 for no limit
+   * @param clock the clock the selection time is measured with
+   */
+  public BlockTransactionSelector(
+      final MainnetTransactionProcessor transactionProcessor,
+      final Blockchain blockchain,
+      final MutableWorldState worldState,
+      final AbstractPendingTransactionsSorter pendingTransactions,
+      final ProcessableBlockHeader processableBlockHeader,
+      final AbstractBlockProcessor.TransactionReceiptFactory transactionReceiptFactory,
+      final Wei minTransactionGasPrice,
+      final Double minBlockOccupancyRatio,
+      final Supplier<Boolean> isCancelled,
+      final Address miningBeneficiary,
+      final FeeMarket feeMarket,
+      final long maxSelectionTime,
+      final Clock clock) {
+    this(
+        transactionProcessor,
+        blockchain,
+        worldState,
+        pendingTransactions,
+        processableBlockHeader,
+        transactionReceiptFactory,
+        minTransactionGasPrice,
+        minBlockOccupancyRatio,
+        isCancelled,
+        miningBeneficiary,
+        feeMarket,
+        maxSelectionTime,
+        clock,
+        Optional.empty());
+  }
+
+  /**
+   * Creates a selector which reuses the results of the transactions executed ahead of the block.
+   *
+   * @param maxSelectionTime the time in milliseconds after which the selection from the pending
+   *     transactions stops, 0 for no limit
+   * @param clock the clock the selection time is measured with
+   * @param preExecutedTransactions the transactions executed ahead for this block, if any
+   */
+  public BlockTransactionSelector(
+      final MainnetTransactionProcessor transactionProcessor,
+      final Blockchain blockchain,
+      final MutableWorldState worldState,
+      final AbstractPendingTransactionsSorter pendingTransactions,
+      final ProcessableBlockHeader processableBlockHeader,
+      final AbstractBlockProcessor.TransactionReceiptFactory transactionReceiptFactory,
+      final Wei minTransactionGasPrice,
+      final Double minBlockOccupancyRatio,
+      final Supplier<Boolean> isCancelled,
+      final Address miningBeneficiary,
+      final FeeMarket feeMarket,
+      final long maxSelectionTime,
+      final Clock clock,
+      final Optional<PreExecutedTransactions> preExecutedTransactions) {
     this.transactionProcessor = transactionProcessor;
     this.blockchain = blockchain;
     this.worldState = worldState;
@@ -133,6 +248,9 @@ public class BlockTransactionSelector {
     this.minBlockOccupancyRatio = minBlockOccupancyRatio;
     this.miningBeneficiary = miningBeneficiary;
     this.feeMarket = feeMarket;
+    this.maxSelectionTime = maxSelectionTime;
+    this.clock = clock;
+    this.preExecutedTransactions = preExecutedTransactions;
   }
 
   /*
@@ -142,6 +260,9 @@ public class BlockTransactionSelector {
   in this throwing an CancellationException).
    */
   public TransactionSelectionResults buildTransactionListForBlock() {
+    if (isTimeLimited()) {
+      selectionDeadline = clock.millis() + maxSelectionTime;
+    }
     pendingTransactions.selectTransactions(
         pendingTransaction -> evaluateTransaction(pendingTransaction));
     return transactionSelectionResult;
@@ -172,8 +293,34 @@ public class BlockTransactionSelector {
       throw new CancellationException("Cancelled during transaction selection.");
     }
 
+    if (clock.millis() >= selectionDeadline) {
+      LOG.debug(
+          "Transaction selection time limit of {}ms reached for block {}, {} transactions selected",
+          maxSelectionTime,
+          processableBlockHeader.getNumber(),
+          transactionSelectionResult.getTransactions().size());
+      transactionSelectionResult.timeLimitReached = true;
+      return TransactionSelectionResult.COMPLETE_OPERATION;
+    }
+
+    if (skippedSenders.contains(transaction.getSender())) {
+      LOG.trace("{} skipped as an earlier transaction of its sender was rejected", transaction);
+      transactionSelectionResult.skippedCount++;
+      return TransactionSelectionResult.CONTINUE;
+    }
+
+    final int selectedCount = transactionSelectionResult.getTransactions().size();
+    final TransactionSelectionResult result = selectTransaction(transaction);
+    if (transactionSelectionResult.getTransactions().size() == selectedCount) {
+      transactionSelectionResult.rejectedCount++;
+    }
+    return result;
+  }
+
+  private TransactionSelectionResult selectTransaction(final Transaction transaction) {
     if (transactionTooLargeForBlock(transaction)) {
       LOG.trace("{} too large to select for block creation", transaction);
+      skipLaterTransactionsOfSender(transaction);
       if (blockOccupancyAboveThreshold()) {
         return TransactionSelectionResult.COMPLETE_OPERATION;
       } else {
@@ -192,18 +339,28 @@ public class BlockTransactionSelector {
           "Gas fee of {} lower than configured minimum {}, deleting",
           transaction,
           minTransactionGasPrice);
+      skipLaterTransactionsOfSender(transaction);
       return TransactionSelectionResult.DELETE_TRANSACTION_AND_CONTINUE;
     }
 
+    if (isTimeLimited() && !isGoQuorumPrivateTransaction(transaction)) {
+      final ValidationResult<TransactionInvalidReason> senderValidationResult =
+          validateSender(transaction);
+      if (!senderValidationResult.isValid()) {
+        LOG.trace(
+            "{} rejected before execution: {}",
+            transaction,
+            senderValidationResult.getErrorMessage());
+        return transactionSelectionResultForInvalidResult(transaction, senderValidationResult);
+      }
+    }
+
     final WorldUpdater worldStateUpdater = worldState.updater();
     final BlockHashLookup blockHashLookup = new BlockHashLookup(processableBlockHeader, blockchain);
-    final boolean isGoQuorumPrivateTransaction =
-        transaction.isGoQuorumPrivateTransaction(
-            transactionProcessor.getTransactionValidator().getGoQuorumCompatibilityMode());
 
     TransactionProcessingResult effectiveResult;
 
-    if (isGoQuorumPrivateTransaction) {
+    if (isGoQuorumPrivateTransaction(transaction)) {
       final ValidationResult<TransactionInvalidReason> validationResult =
           validateTransaction(processableBlockHeader, transaction, worldStateUpdater);
       if (!validationResult.isValid()) {
@@ -212,7 +369,7 @@ public class BlockTransactionSelector {
             validationResult.getErrorMessage(),
             processableBlockHeader.getParentHash().toHexString(),
             transaction.getHash().toHexString());
-        return transactionSelectionResultForInvalidResult(validationResult);
+        return transactionSelectionResultForInvalidResult(transaction, validationResult);
       } else {
         // valid GoQuorum private tx, we need to hand craft the receipt and increment the nonce
         effectiveResult = publicResultForWhenWeHaveAPrivateTransaction(transaction);
@@ -220,29 +377,43 @@ public class BlockTransactionSelector {
       }
     } else {
       effectiveResult =
-          transactionProcessor.processTransaction(
-              blockchain,
-              worldStateUpdater,
-              processableBlockHeader,
-              transaction,
-              miningBeneficiary,
-              blockHashLookup,
-              false,
-              TransactionValidationParams.mining());
+          preExecutedTransactions
+              .flatMap(preExecuted -> preExecuted.apply(transaction, worldStateUpdater))
+              .orElseGet(
+                  () ->
+                      transactionProcessor.processTransaction(
+                          blockchain,
+                          worldStateUpdater,
+                          processableBlockHeader,
+                          transaction,
+                          miningBeneficiary,
+                          blockHashLookup,
+                          false,
+                          TransactionValidationParams.mining()));
     }
 
     if (!effectiveResult.isInvalid()) {
+      preExecutedTransactions.ifPresent(
+          preExecuted -> preExecuted.recordExecution(worldStateUpdater));
       worldStateUpdater.commit();
       LOG.trace("Selected {} for block creation", transaction);
       updateTransactionResultTracking(transaction, effectiveResult);
     } else {
-      return transactionSelectionResultForInvalidResult(effectiveResult.getValidationResult());
+      return transactionSelectionResultForInvalidResult(
+          transaction, effectiveResult.getValidationResult());
     }
     return TransactionSelectionResult.CONTINUE;
   }
 
   private TransactionSelectionResult transactionSelectionResultForInvalidResult(
+      final Transaction transaction,
       final ValidationResult<TransactionInvalidReason> invalidReasonValidationResult) {
+    // A transaction that was already mined does not prevent the later ones from being valid
+    if (!invalidReasonValidationResult
+        .getInvalidReason()
+        .equals(TransactionInvalidReason.NONCE_TOO_LOW)) {
+      skipLaterTransactionsOfSender(transaction);
+    }
     // If the transaction has an incorrect nonce, leave it in the pool and continue
     if (invalidReasonValidationResult
         .getInvalidReason()
@@ -253,6 +424,34 @@ public class BlockTransactionSelector {
     return TransactionSelectionResult.DELETE_TRANSACTION_AND_CONTINUE;
   }
 
+  private boolean isTimeLimited() {
+    return maxSelectionTime > 0;
+  }
+
+  private void skipLaterTransactionsOfSender(final Transaction transaction) {
+    if (isTimeLimited()) {
+      skippedSenders.add(transaction.getSender());
+    }
+  }
+
+  private boolean isGoQuorumPrivateTransaction(final Transaction transaction) {
+    return transaction.isGoQuorumPrivateTransaction(
+        transactionProcessor.getTransactionValidator().getGoQuorumCompatibilityMode());
+  }
+
+  /*
+  Checks the nonce and the balance of the sender against the world state of the block so far, which
+  rejects most invalid candidates without the cost of executing them.
+   */
+  private ValidationResult<TransactionInvalidReason> validateSender(final Transaction transaction) {
+    return transactionProcessor
+        .getTransactionValidator()
+        .validateForSender(
+            transaction,
+            worldState.get(transaction.getSender()),
+            TransactionValidationParams.mining());
+  }
+
   private ValidationResult<TransactionInvalidReason> validateTransaction(
       final ProcessableBlockHeader blockHeader,
       final Transaction transaction,
@@ -283,12 +482,10 @@ public class BlockTransactionSelector {
    */
   private void updateTransactionResultTracking(
       final Transaction transaction, final TransactionProcessingResult result) {
-    final boolean isGoQuorumPrivateTransaction =
-        transaction.isGoQuorumPrivateTransaction(
-            transactionProcessor.getTransactionValidator().getGoQuorumCompatibilityMode());
-
     final long gasUsedByTransaction =
-        isGoQuorumPrivateTransaction ? 0 : transaction.getGasLimit() - result.getGasRemaining();
+        isGoQuorumPrivateTransaction(transaction)
+            ? 0
+            : transaction.getGasLimit() - result.getGasRemaining();
 
     final long cumulativeGasUsed =
         transactionSelectionResult.getCumulativeGasUsed() + gasUsedByTransaction;
@@ -0,0 +1,515 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.blockcreation;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.ProtocolContext;
+import org.hyperledger.besu.ethereum.chain.BlockAddedEvent;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderBuilder;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.MiningParameters;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.ProcessableBlockHeader;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.eth.transactions.sorter.AbstractPendingTransactionsSorter;
+import org.hyperledger.besu.ethereum.eth.transactions.sorter.AbstractPendingTransactionsSorter.TransactionSelectionResult;
+import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionProcessor;
+import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
+import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
+import org.hyperledger.besu.ethereum.mainnet.SpeculativeWorldUpdater;
+import org.hyperledger.besu.ethereum.mainnet.SpeculativeWorldUpdater.BlockStartState;
+import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
+import org.hyperledger.besu.ethereum.mainnet.feemarket.BaseFeeMarket;
+import org.hyperledger.besu.ethereum.mainnet.feemarket.FeeMarket;
+import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
+import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes the pending transactions most likely to be selected for the next block in the
+ * background, against the state of the chain head, so that the block creator can reuse their
+ * results instead of executing them while the block is being created.
+ *
+ * <p>Each transaction is executed on its own {@link SpeculativeWorldUpdater}, which records the
+ * accounts it reads. When the block is created on top of the same head, with the same protocol
+ * spec, for the same mining beneficiary and with the same base fee, the result of a transaction is
+ * reused if none of the accounts it used were written by the transactions selected before it in the
+ * block. Transactions which read any value of the block context, such as its number, the hash of a
+ * previous block or its timestamp, are only reused if the whole block context is the same as the
+ * one they were executed with.
+ *
+ * <p>The results are discarded whenever a new block becomes the chain head.
+ */
+public class PendingTransactionsPreExecutor {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PendingTransactionsPreExecutor.class);
+
+  // BLOCKHASH, COINBASE, TIMESTAMP, NUMBER, DIFFICULTY (PREVRANDAO), GASLIMIT, CHAINID and BASEFEE
+  private static final Set<Integer> BLOCK_CONTEXT_OPCODES =
+      Set.of(0x40, 0x41, 0x42, 0x43, 0x44, 0x45, 0x46, 0x48);
+
+  private final ProtocolContext protocolContext;
+  private final ProtocolSchedule protocolSchedule;
+  private final AbstractPendingTransactionsSorter pendingTransactions;
+  private final Address miningBeneficiary;
+  private final int maxTransactions;
+  private final Clock clock;
+  private final ExecutorService executor;
+  private final AtomicInteger queuedTransactions = new AtomicInteger();
+  private final Counter executedCounter;
+  private final Counter reusedCounter;
+  private final Counter staleCounter;
+
+  private volatile HeadExecution headExecution;
+
+  public PendingTransactionsPreExecutor(
+      final ProtocolContext protocolContext,
+      final ProtocolSchedule protocolSchedule,
+      final AbstractPendingTransactionsSorter pendingTransactions,
+      final Address miningBeneficiary,
+      final int maxTransactions,
+      final MetricsSystem metricsSystem) {
+    this(
+        protocolContext,
+        protocolSchedule,
+        pendingTransactions,
+        miningBeneficiary,
+        maxTransactions,
+        metricsSystem,
+        Clock.systemUTC(),
+        createExecutor());
+  }
+
+  @VisibleForTesting
+  PendingTransactionsPreExecutor(
+      final ProtocolContext protocolContext,
+      final ProtocolSchedule protocolSchedule,
+      final AbstractPendingTransactionsSorter pendingTransactions,
+      final Address miningBeneficiary,
+      final int maxTransactions,
+      final MetricsSystem metricsSystem,
+      final Clock clock,
+      final ExecutorService executor) {
+    this.protocolContext = protocolContext;
+    this.protocolSchedule = protocolSchedule;
+    this.pendingTransactions = pendingTransactions;
+    this.miningBeneficiary = miningBeneficiary;
+    this.maxTransactions = maxTransactions;
+    this.clock = clock;
+    this.executor = executor;
+    this.executedCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "block_txs_pre_executed_total",
+            "Number of pending transactions executed ahead of the creation of a block");
+    final LabelledMetric<Counter> resultCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "block_txs_pre_execution_results_total",
+            "Number of results of transactions executed ahead that were reused or found stale when creating a block",
+            "result");
+    this.reusedCounter = resultCounter.labels("reused");
+    this.staleCounter = resultCounter.labels("stale");
+  }
+
+  /**
+   * Creates and starts a pre-executor if enabled by the mining parameters.
+   *
+   * @return the started pre-executor, empty if transactions are not executed ahead
+   */
+  public static Optional<PendingTransactionsPreExecutor> create(
+      final ProtocolContext protocolContext,
+      final ProtocolSchedule protocolSchedule,
+      final AbstractPendingTransactionsSorter pendingTransactions,
+      final Address miningBeneficiary,
+      final MiningParameters miningParams,
+      final MetricsSystem metricsSystem) {
+    if (miningParams.getBlockTxsPreExecutionLimit() <= 0) {
+      return Optional.empty();
+    }
+    final PendingTransactionsPreExecutor preExecutor =
+        new PendingTransactionsPreExecutor(
+            protocolContext,
+            protocolSchedule,
+            pendingTransactions,
+            miningBeneficiary,
+            miningParams.getBlockTxsPreExecutionLimit(),
+            metricsSystem);
+    preExecutor.start();
+    return Optional.of(preExecutor);
+  }
+
+  private static ExecutorService createExecutor() {
+    // A single thread, so that the block creation keeps the remaining cores
+    final ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            30,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat(PendingTransactionsPreExecutor.class.getSimpleName() + "-%d")
+                .build());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Starts executing the best pending transactions whenever a new block becomes the chain head, and
+   * the transactions added to the pool while there is room for their results.
+   */
+  public void start() {
+    final Blockchain blockchain = protocolContext.getBlockchain();
+    blockchain.observeBlockAdded(this::onBlockAdded);
+    pendingTransactions.subscribePendingTransactions(this::onTransactionAdded);
+    final BlockHeader chainHead = blockchain.getChainHeadHeader();
+    executor.execute(() -> preExecuteOnHead(chainHead));
+  }
+
+  private void onBlockAdded(final BlockAddedEvent event) {
+    if (event.isNewCanonicalHead()) {
+      final BlockHeader newHead = event.getBlock().getHeader();
+      executor.execute(() -> preExecuteOnHead(newHead));
+    }
+  }
+
+  private void onTransactionAdded(final Transaction transaction) {
+    final HeadExecution execution = headExecution;
+    if (execution == null || execution.isFull()) {
+      return;
+    }
+    // Bursts of new transactions must not delay the execution on the next head
+    if (queuedTransactions.incrementAndGet() > maxTransactions) {
+      queuedTransactions.decrementAndGet();
+      return;
+    }
+    executor.execute(
+        () -> {
+          try {
+            final HeadExecution current = headExecution;
+            if (current != null && !current.isFull()) {
+              current.preExecute(transaction);
+            }
+          } finally {
+            queuedTransactions.decrementAndGet();
+          }
+        });
+  }
+
+  private void preExecuteOnHead(final BlockHeader head) {
+    try {
+      doPreExecuteOnHead(head);
+    } catch (final RuntimeException e) {
+      headExecution = null;
+      LOG.debug("Failed to execute transactions ahead of the block after {}", head.getNumber(), e);
+    }
+  }
+
+  private void doPreExecuteOnHead(final BlockHeader head) {
+    final Blockchain blockchain = protocolContext.getBlockchain();
+    if (!head.getHash().equals(blockchain.getChainHeadHash())) {
+      // A more recent head is queued
+      return;
+    }
+    headExecution = null;
+    final Optional<MutableWorldState> worldState =
+        protocolContext
+            .getWorldStateArchive()
+            .getMutable(head.getStateRoot(), head.getHash(), false)
+            .map(MutableWorldState::copy);
+    if (worldState.isEmpty()) {
+      LOG.debug("World state of block {} not available to execute transactions ahead", head);
+      return;
+    }
+    final HeadExecution execution =
+        new HeadExecution(blockchain, createPendingBlockHeader(head), worldState.get());
+    headExecution = execution;
+    selectBestTransactions().forEach(execution::preExecute);
+    LOG.trace(
+        "Executed {} pending transactions ahead of the block after {}",
+        execution.results.size(),
+        head.getNumber());
+  }
+
+  /*
+  Only the first transaction of each sender can be valid on top of the chain head. They are only
+  collected here as the pool is locked during the selection.
+   */
+  private List<Transaction> selectBestTransactions() {
+    final List<Transaction> transactions = new ArrayList<>();
+    final Set<Address> senders = new HashSet<>();
+    pendingTransactions.selectTransactions(
+        transaction -> {
+          if (senders.add(transaction.getSender())) {
+            transactions.add(transaction);
+          }
+          return transactions.size() < maxTransactions
+              ? TransactionSelectionResult.CONTINUE
+              : TransactionSelectionResult.COMPLETE_OPERATION;
+        });
+    return transactions;
+  }
+
+  /* Same as the header created by the block creator, except for the target gas limit. */
+  private ProcessableBlockHeader createPendingBlockHeader(final BlockHeader parentHeader) {
+    final long newBlockNumber = parentHeader.getNumber() + 1;
+    final ProtocolSpec protocolSpec = protocolSchedule.getByBlockNumber(newBlockNumber);
+    final long timestamp = Math.max(parentHeader.getTimestamp() + 1, clock.millis() / 1000);
+
+    final Wei baseFee =
+        Optional.of(protocolSpec.getFeeMarket())
+            .filter(FeeMarket::implementsBaseFee)
+            .map(BaseFeeMarket.class::cast)
+            .map(
+                feeMarket ->
+                    feeMarket.computeBaseFee(
+                        newBlockNumber,
+                        parentHeader.getBaseFee().orElse(Wei.ZERO),
+                        parentHeader.getGasUsed(),
+                        feeMarket.targetGasUsed(parentHeader)))
+            .orElse(null);
+
+    return BlockHeaderBuilder.create()
+        .parentHash(parentHeader.getHash())
+        .coinbase(miningBeneficiary)
+        .difficulty(
+            Difficulty.of(
+                protocolSpec
+                    .getDifficultyCalculator()
+                    .nextDifficulty(timestamp, parentHeader, protocolContext)))
+        .number(newBlockNumber)
+        .gasLimit(parentHeader.getGasLimit())
+        .timestamp(timestamp)
+        .baseFee(baseFee)
+        .buildProcessableBlockHeader();
+  }
+
+  /**
+   * The results of the transactions executed ahead that can be reused in the given block.
+   *
+   * @param blockHeader the header of the block being created
+   * @param miningBeneficiary the account the fees of the block are paid to
+   * @return the results that can be reused, empty if none were executed for this block
+   */
+  public Optional<PreExecutedTransactions> forBlock(
+      final ProcessableBlockHeader blockHeader, final Address miningBeneficiary) {
+    final HeadExecution execution = headExecution;
+    // the gas costs, including the ones of the precompiled contracts, depend on the protocol spec
+    if (execution == null
+        || !execution.header.getParentHash().equals(blockHeader.getParentHash())
+        || execution.protocolSpec != protocolSchedule.getByBlockNumber(blockHeader.getNumber())
+        || !this.miningBeneficiary.equals(miningBeneficiary)
+        || !Objects.equals(execution.header.getBaseFee(), blockHeader.getBaseFee())) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new PreExecutedTransactions(
+            execution.results,
+            sameBlockContext(execution.header, blockHeader),
+            reusedCounter,
+            staleCounter));
+  }
+
+  private static boolean sameBlockContext(
+      final ProcessableBlockHeader header, final ProcessableBlockHeader other) {
+    // the hashes of the previous blocks are the same as the parent is
+    return header.getParentHash().equals(other.getParentHash())
+        && header.getNumber() == other.getNumber()
+        && header.getCoinbase().equals(other.getCoinbase())
+        && header.getTimestamp() == other.getTimestamp()
+        && header.getDifficulty().equals(other.getDifficulty())
+        && header.getRandom().equals(other.getRandom())
+        && header.getGasLimit() == other.getGasLimit()
+        && header.getBaseFee().equals(other.getBaseFee());
+  }
+
+  private class HeadExecution {
+
+    private final Blockchain blockchain;
+    private final ProcessableBlockHeader header;
+    private final ProtocolSpec protocolSpec;
+    private final BlockStartState blockStartState;
+    private final MainnetTransactionProcessor transactionProcessor;
+    private final Map<Hash, PreExecutedTransaction> results = new ConcurrentHashMap<>();
+
+    private HeadExecution(
+        final Blockchain blockchain,
+        final ProcessableBlockHeader header,
+        final MutableWorldState worldState) {
+      this.blockchain = blockchain;
+      this.header = header;
+      this.blockStartState = new BlockStartState(worldState);
+      this.protocolSpec = protocolSchedule.getByBlockNumber(header.getNumber());
+      this.transactionProcessor = protocolSpec.getTransactionProcessor();
+    }
+
+    private boolean isFull() {
+      return results.size() >= maxTransactions;
+    }
+
+    private void preExecute(final Transaction transaction) {
+      if (results.containsKey(transaction.getHash())) {
+        return;
+      }
+      try {
+        final SpeculativeWorldUpdater updater =
+            new SpeculativeWorldUpdater(
+                blockStartState, miningBeneficiary, transaction.getSender());
+        final BlockContextTracer tracer = new BlockContextTracer();
+        final TransactionProcessingResult result =
+            transactionProcessor.processTransaction(
+                blockchain,
+                updater,
+                header,
+                transaction,
+                miningBeneficiary,
+                tracer,
+                new BlockHashLookup(header, blockchain),
+                false,
+                TransactionValidationParams.mining());
+        executedCounter.inc();
+        if (!result.isInvalid()) {
+          results.put(
+              transaction.getHash(),
+              new PreExecutedTransaction(updater, result, tracer.readsBlockContext));
+        }
+      } catch (final RuntimeException e) {
+        LOG.debug("Failed to execute {} ahead of the block creation", transaction, e);
+      }
+    }
+  }
+
+  private static class PreExecutedTransaction {
+
+    private final SpeculativeWorldUpdater updater;
+    private final TransactionProcessingResult result;
+    private final boolean readsBlockContext;
+
+    private PreExecutedTransaction(
+        final SpeculativeWorldUpdater updater,
+        final TransactionProcessingResult result,
+        final boolean readsBlockContext) {
+      this.updater = updater;
+      this.result = result;
+      this.readsBlockContext = readsBlockContext;
+    }
+  }
+
+  private static class BlockContextTracer implements OperationTracer {
+
+    private boolean readsBlockContext;
+
+    @Override
+    public void traceExecution(
+        final MessageFrame frame, final OperationTracer.ExecuteOperation executeOperation) {
+      if (BLOCK_CONTEXT_OPCODES.contains(frame.getCurrentOperation().getOpcode())) {
+        readsBlockContext = true;
+      }
+      executeOperation.execute();
+    }
+  }
+
+  /**
+   * The transactions executed ahead for a block being created. The results are used while the
+   * transactions of the block are selected, in order.
+   */
+  public static class PreExecutedTransactions {
+
+    private final Map<Hash, PreExecutedTransaction> results;
+    private final boolean sameBlockContext;
+    private final Counter reusedCounter;
+    private final Counter staleCounter;
+    private final Set<Address> writtenAccounts = new HashSet<>();
+
+    private PreExecutedTransactions(
+        final Map<Hash, PreExecutedTransaction> results,
+        final boolean sameBlockContext,
+        final Counter reusedCounter,
+        final Counter staleCounter) {
+      this.results = results;
+      this.sameBlockContext = sameBlockContext;
+      this.reusedCounter = reusedCounter;
+      this.staleCounter = staleCounter;
+    }
+
+    /**
+     * Applies the result of the transaction executed ahead to the given updater, if it is still
+     * valid after the transactions selected before it.
+     *
+     * @param transaction the transaction to select
+     * @param updater the updater of the transaction on the state of the block being created
+     * @return the result of the transaction, empty if it has to be executed
+     */
+    public Optional<TransactionProcessingResult> apply(
+        final Transaction transaction, final WorldUpdater updater) {
+      final PreExecutedTransaction preExecuted = results.get(transaction.getHash());
+      if (preExecuted == null) {
+        return Optional.empty();
+      }
+      if ((preExecuted.readsBlockContext && !sameBlockContext)
+          || preExecuted.updater.conflictsWith(writtenAccounts)) {
+        staleCounter.inc();
+        return Optional.empty();
+      }
+      preExecuted.updater.applyTo(updater);
+      reusedCounter.inc();
+      return Optional.of(preExecuted.result);
+    }
+
+    /**
+     * Records the accounts written by a transaction selected for the block, which invalidate the
+     * results of the later transactions using them.
+     *
+     * @param updater the updater of the selected transaction, before it is committed
+     */
+    public void recordExecution(final WorldUpdater updater) {
+      updater.getTouchedAccounts().stream().map(Account::getAddress).forEach(writtenAccounts::add);
+      writtenAccounts.addAll(updater.getDeletedAccountAddresses());
+    }
+  }
+}
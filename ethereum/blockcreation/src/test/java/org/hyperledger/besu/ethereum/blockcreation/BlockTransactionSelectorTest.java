@@ -19,6 +19,9 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.hyperledger.besu.config.GenesisConfigFile;
@@ -45,6 +48,7 @@ import org.hyperledger.besu.ethereum.eth.transactions.sorter.GasPricePendingTran
 import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionProcessor;
 import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionValidator;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
+import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
 import org.hyperledger.besu.ethereum.mainnet.ValidationResult;
 import org.hyperledger.besu.ethereum.mainnet.feemarket.FeeMarket;
 import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
@@ -59,6 +63,7 @@ import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.testutil.TestClock;
 
 import java.math.BigInteger;
+import java.time.Clock;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -631,6 +636,83 @@ public class BlockTransactionSelectorTest {
     assertThat(results.getTransactions().size()).isEqualTo(0);
   }
 
+  @Test
+  public void selectionStopsWhenTimeLimitIsReached() {
+    final ProcessableBlockHeader blockHeader = createBlockWithGasLimit(5000);
+    for (int i = 0; i < 3; i++) {
+      pendingTransactions.addRemoteTransaction(createTransaction(i));
+    }
+
+    when(transactionValidator.validateForSender(
+            any(), any(), any(TransactionValidationParams.class)))
+        .thenReturn(ValidationResult.valid());
+    when(transactionProcessor.processTransaction(
+            any(), any(), any(), any(), any(), any(), anyBoolean(), any()))
+        .thenReturn(
+            TransactionProcessingResult.successful(
+                new ArrayList<>(), 0, 0, Bytes.EMPTY, ValidationResult.valid()));
+
+    // the deadline is computed from the first reading, the second lets one transaction through
+    final Clock clock = mock(Clock.class);
+    when(clock.millis()).thenReturn(0L, 0L, 1000L);
+
+    final BlockTransactionSelector selector = createTimeLimitedSelector(blockHeader, clock);
+
+    final BlockTransactionSelector.TransactionSelectionResults results =
+        selector.buildTransactionListForBlock();
+
+    assertThat(results.getTransactions()).hasSize(1);
+    assertThat(results.isTimeLimitReached()).isTrue();
+    assertThat(results.getRejectedCount()).isZero();
+    assertThat(results.getSkippedCount()).isZero();
+  }
+
+  @Test
+  public void laterTransactionsOfARejectedSenderAreSkippedWithoutExecution() {
+    final ProcessableBlockHeader blockHeader = createBlockWithGasLimit(5000);
+    for (int i = 0; i < 4; i++) {
+      pendingTransactions.addRemoteTransaction(createTransaction(i));
+    }
+
+    when(transactionValidator.validateForSender(
+            any(), any(), any(TransactionValidationParams.class)))
+        .thenReturn(
+            ValidationResult.invalid(TransactionInvalidReason.UPFRONT_COST_EXCEEDS_BALANCE));
+
+    final BlockTransactionSelector selector =
+        createTimeLimitedSelector(blockHeader, TestClock.fixed());
+
+    final BlockTransactionSelector.TransactionSelectionResults results =
+        selector.buildTransactionListForBlock();
+
+    assertThat(results.getTransactions()).isEmpty();
+    assertThat(results.isTimeLimitReached()).isFalse();
+    assertThat(results.getRejectedCount()).isEqualTo(1);
+    assertThat(results.getSkippedCount()).isEqualTo(3);
+    verify(transactionValidator, times(1))
+        .validateForSender(any(), any(), any(TransactionValidationParams.class));
+    verify(transactionProcessor, never())
+        .processTransaction(any(), any(), any(), any(), any(), any(), anyBoolean(), any());
+  }
+
+  private BlockTransactionSelector createTimeLimitedSelector(
+      final ProcessableBlockHeader blockHeader, final Clock clock) {
+    return new BlockTransactionSelector(
+        transactionProcessor,
+        blockchain,
+        worldState,
+        pendingTransactions,
+        blockHeader,
+        this::createReceipt,
+        Wei.ZERO,
+        0.8,
+        this::isCancelled,
+        AddressHelpers.ofValue(1),
+        FeeMarket.legacy(),
+        500,
+        clock);
+  }
+
   private Transaction createTransaction(final int transactionNumber) {
     return Transaction.builder()
         .gasLimit(100)
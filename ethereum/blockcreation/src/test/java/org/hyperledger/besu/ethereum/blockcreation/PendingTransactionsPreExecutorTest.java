@@ -0,0 +1,290 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.blockcreation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider.createInMemoryBlockchain;
+import static org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider.createInMemoryWorldStateArchive;
+
+import org.hyperledger.besu.config.GenesisConfigFile;
+import org.hyperledger.besu.crypto.KeyPair;
+import org.hyperledger.besu.crypto.SignatureAlgorithm;
+import org.hyperledger.besu.crypto.SignatureAlgorithmFactory;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.ProtocolContext;
+import org.hyperledger.besu.ethereum.blockcreation.PendingTransactionsPreExecutor.PreExecutedTransactions;
+import org.hyperledger.besu.ethereum.chain.GenesisState;
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderBuilder;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.ProcessableBlockHeader;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.difficulty.fixed.FixedDifficultyProtocolSchedule;
+import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolConfiguration;
+import org.hyperledger.besu.ethereum.eth.transactions.sorter.GasPricePendingTransactionsSorter;
+import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
+import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
+import org.hyperledger.besu.ethereum.mainnet.feemarket.FeeMarket;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.testutil.TestClock;
+
+import java.math.BigInteger;
+import java.util.Optional;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PendingTransactionsPreExecutorTest {
+
+  private static final SignatureAlgorithm SIGNATURE_ALGORITHM =
+      SignatureAlgorithmFactory.getInstance();
+  // Accounts funded in the dev genesis
+  private static final KeyPair SENDER_1 =
+      keyPair("8f2a55949038a9610f50fb23b5883af3b4ecb3c3bb792cbcefbd1542c692be63");
+  private static final KeyPair SENDER_2 =
+      keyPair("c87509a1c067bbde78beb793e6fa76530b6382a4c0241e5e4a9ec0a0f44dc0d3");
+  private static final Address MINING_BENEFICIARY = Address.fromHexString("0xbe");
+
+  private final GenesisConfigFile genesisConfigFile = GenesisConfigFile.development();
+  private final ProtocolSchedule protocolSchedule =
+      FixedDifficultyProtocolSchedule.create(
+          genesisConfigFile.getConfigOptions(), EvmConfiguration.DEFAULT);
+  private final WorldStateArchive worldStateArchive = createInMemoryWorldStateArchive();
+
+  private MutableBlockchain blockchain;
+  private ProtocolContext protocolContext;
+  private GasPricePendingTransactionsSorter pendingTransactions;
+  private PendingTransactionsPreExecutor preExecutor;
+  private ProcessableBlockHeader blockHeader;
+
+  @Before
+  public void setUp() {
+    final GenesisState genesisState = GenesisState.fromConfig(genesisConfigFile, protocolSchedule);
+    blockchain = createInMemoryBlockchain(genesisState.getBlock());
+    genesisState.writeStateTo(worldStateArchive.getMutable());
+    protocolContext = new ProtocolContext(blockchain, worldStateArchive, null);
+    pendingTransactions =
+        new GasPricePendingTransactionsSorter(
+            TransactionPoolConfiguration.DEFAULT_TX_RETENTION_HOURS,
+            10,
+            10,
+            TestClock.fixed(),
+            new NoOpMetricsSystem(),
+            blockchain::getChainHeadHeader,
+            TransactionPoolConfiguration.DEFAULT_PRICE_BUMP);
+    preExecutor =
+        new PendingTransactionsPreExecutor(
+            protocolContext,
+            protocolSchedule,
+            pendingTransactions,
+            MINING_BENEFICIARY,
+            10,
+            new NoOpMetricsSystem(),
+            TestClock.fixed(),
+            MoreExecutors.newDirectExecutorService());
+    blockHeader = createBlockHeader(blockchain.getChainHeadHash());
+  }
+
+  @Test
+  public void blockCreatedWithTransactionsExecutedAheadHasTheSameState() {
+    pendingTransactions.addRemoteTransaction(transfer(SENDER_1, Address.fromHexString("0x01")));
+    pendingTransactions.addRemoteTransaction(transfer(SENDER_2, Address.fromHexString("0x02")));
+    preExecutor.start();
+
+    final MutableWorldState expected = createBlockState(Optional.empty());
+    final MutableWorldState actual =
+        createBlockState(preExecutor.forBlock(blockHeader, MINING_BENEFICIARY));
+
+    assertThat(actual.rootHash()).isEqualTo(expected.rootHash());
+  }
+
+  @Test
+  public void transactionUsingAnAccountWrittenBeforeIsExecutedAgain() {
+    final Address sender1 = senderAddress(SENDER_1);
+    final Transaction transaction1 = transfer(SENDER_1, Address.fromHexString("0x01"));
+    final Transaction transaction2 = transfer(SENDER_2, sender1);
+    pendingTransactions.addRemoteTransaction(transaction1);
+    pendingTransactions.addRemoteTransaction(transaction2);
+    preExecutor.start();
+
+    final PreExecutedTransactions preExecutedTransactions =
+        preExecutor.forBlock(blockHeader, MINING_BENEFICIARY).orElseThrow();
+    final WorldUpdater updater = worldStateAtHead().updater();
+
+    assertThat(preExecutedTransactions.apply(transaction1, updater)).isPresent();
+    preExecutedTransactions.recordExecution(updater);
+    updater.commit();
+    assertThat(preExecutedTransactions.apply(transaction2, updater)).isEmpty();
+  }
+
+  @Test
+  public void transactionsExecutedAheadAreNotUsedForAnotherParentOrBeneficiary() {
+    pendingTransactions.addRemoteTransaction(transfer(SENDER_1, Address.fromHexString("0x01")));
+    preExecutor.start();
+
+    assertThat(preExecutor.forBlock(createBlockHeader(Hash.ZERO), MINING_BENEFICIARY)).isEmpty();
+    assertThat(preExecutor.forBlock(blockHeader, Address.fromHexString("0x01"))).isEmpty();
+  }
+
+  @Test
+  public void transactionReadingTheBlockNumberIsExecutedAgainForAnotherBlockContext() {
+    // NUMBER POP STOP
+    final Transaction transaction = contractCreation(SENDER_1, Bytes.fromHexString("0x435000"));
+    pendingTransactions.addRemoteTransaction(transaction);
+    preExecutor.start();
+
+    final PreExecutedTransactions preExecutedTransactions =
+        preExecutor.forBlock(blockHeader, MINING_BENEFICIARY).orElseThrow();
+
+    assertThat(preExecutedTransactions.apply(transaction, worldStateAtHead().updater())).isEmpty();
+  }
+
+  @Test
+  public void transactionReadingABlockHashIsExecutedAgainForAnotherBlockContext() {
+    // PUSH1 0 BLOCKHASH POP STOP
+    final Transaction transaction = contractCreation(SENDER_1, Bytes.fromHexString("0x6000405000"));
+    pendingTransactions.addRemoteTransaction(transaction);
+    preExecutor.start();
+
+    final PreExecutedTransactions preExecutedTransactions =
+        preExecutor.forBlock(blockHeader, MINING_BENEFICIARY).orElseThrow();
+
+    assertThat(preExecutedTransactions.apply(transaction, worldStateAtHead().updater())).isEmpty();
+  }
+
+  @Test
+  public void transactionReadingTheBlockContextIsReusedForTheSameBlockContext() {
+    // NUMBER POP PUSH1 0 BLOCKHASH POP STOP
+    final Transaction transaction =
+        contractCreation(SENDER_1, Bytes.fromHexString("0x43506000405000"));
+    pendingTransactions.addRemoteTransaction(transaction);
+    preExecutor.start();
+
+    final PreExecutedTransactions preExecutedTransactions =
+        preExecutor.forBlock(createPreExecutionBlockHeader(), MINING_BENEFICIARY).orElseThrow();
+
+    assertThat(preExecutedTransactions.apply(transaction, worldStateAtHead().updater()))
+        .isPresent();
+  }
+
+  private MutableWorldState createBlockState(
+      final Optional<PreExecutedTransactions> preExecutedTransactions) {
+    final ProtocolSpec protocolSpec = protocolSchedule.getByBlockNumber(blockHeader.getNumber());
+    final MutableWorldState worldState = worldStateAtHead();
+    final BlockTransactionSelector selector =
+        new BlockTransactionSelector(
+            protocolSpec.getTransactionProcessor(),
+            blockchain,
+            worldState,
+            pendingTransactions,
+            blockHeader,
+            protocolSpec.getTransactionReceiptFactory(),
+            Wei.ZERO,
+            0.8,
+            () -> false,
+            MINING_BENEFICIARY,
+            FeeMarket.legacy(),
+            0,
+            TestClock.fixed(),
+            preExecutedTransactions);
+
+    assertThat(selector.buildTransactionListForBlock().getTransactions()).hasSize(2);
+    return worldState;
+  }
+
+  private MutableWorldState worldStateAtHead() {
+    final BlockHeader chainHead = blockchain.getChainHeadHeader();
+    return worldStateArchive
+        .getMutable(chainHead.getStateRoot(), chainHead.getHash(), false)
+        .orElseThrow()
+        .copy();
+  }
+
+  private ProcessableBlockHeader createBlockHeader(final Hash parentHash) {
+    final BlockHeader chainHead = blockchain.getChainHeadHeader();
+    return BlockHeaderBuilder.create()
+        .parentHash(parentHash)
+        .coinbase(MINING_BENEFICIARY)
+        .difficulty(Difficulty.of(100))
+        .number(chainHead.getNumber() + 1)
+        .gasLimit(chainHead.getGasLimit())
+        .timestamp(chainHead.getTimestamp() + 10)
+        .buildProcessableBlockHeader();
+  }
+
+  /* Same header as the one the transactions are executed ahead with. */
+  private ProcessableBlockHeader createPreExecutionBlockHeader() {
+    final BlockHeader chainHead = blockchain.getChainHeadHeader();
+    final long timestamp =
+        Math.max(chainHead.getTimestamp() + 1, TestClock.fixed().millis() / 1000);
+    return BlockHeaderBuilder.create()
+        .parentHash(chainHead.getHash())
+        .coinbase(MINING_BENEFICIARY)
+        .difficulty(
+            Difficulty.of(
+                protocolSchedule
+                    .getByBlockNumber(chainHead.getNumber() + 1)
+                    .getDifficultyCalculator()
+                    .nextDifficulty(timestamp, chainHead, protocolContext)))
+        .number(chainHead.getNumber() + 1)
+        .gasLimit(chainHead.getGasLimit())
+        .timestamp(timestamp)
+        .buildProcessableBlockHeader();
+  }
+
+  private static Transaction contractCreation(final KeyPair sender, final Bytes initCode) {
+    return Transaction.builder()
+        .gasLimit(100_000)
+        .gasPrice(Wei.of(5))
+        .nonce(0)
+        .payload(initCode)
+        .value(Wei.ZERO)
+        .chainId(BigInteger.valueOf(1337))
+        .guessType()
+        .signAndBuild(sender);
+  }
+
+  private static Transaction transfer(final KeyPair sender, final Address recipient) {
+    return Transaction.builder()
+        .gasLimit(21_000)
+        .gasPrice(Wei.of(5))
+        .nonce(0)
+        .payload(Bytes.EMPTY)
+        .to(recipient)
+        .value(Wei.of(1_000))
+        .chainId(BigInteger.valueOf(1337))
+        .guessType()
+        .signAndBuild(sender);
+  }
+
+  private static Address senderAddress(final KeyPair keyPair) {
+    return Address.extract(keyPair.getPublicKey());
+  }
+
+  private static KeyPair keyPair(final String privateKey) {
+    return SIGNATURE_ALGORITHM.createKeyPair(
+        SIGNATURE_ALGORITHM.createPrivateKey(Bytes32.fromHexString(privateKey)));
+  }
+}
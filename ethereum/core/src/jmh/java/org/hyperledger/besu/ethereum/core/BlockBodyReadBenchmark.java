@@ -0,0 +1,124 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.google.common.io.Resources;
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares reading mainnet block bodies eagerly, as they are read from the network, and lazily, as
+ * they are read from storage, for the typical ways stored bodies are used: looking up a single
+ * transaction, relaying the body to a peer and going through every transaction.
+ */
+@State(Scope.Thread)
+public class BlockBodyReadBenchmark {
+
+  private static final BlockHeaderFunctions BLOCK_HEADER_FUNCTIONS =
+      new MainnetBlockHeaderFunctions();
+
+  @Param({"4400000", "4400001", "4400002"})
+  public long blockNumber;
+
+  private Bytes encodedBody;
+  private int transactionIndex;
+
+  @Setup
+  public void prepare() throws IOException {
+    final Bytes block =
+        Bytes.wrap(
+            Resources.toByteArray(
+                Resources.getResource(
+                    String.format(
+                        "org/hyperledger/besu/ethereum/mainnet/block_%d.blocks", blockNumber))));
+    final RLPInput input = RLP.input(block);
+    input.enterList();
+    input.skipNext();
+    final Bytes transactions = input.readAsRlp().raw();
+    final Bytes ommers = input.readAsRlp().raw();
+    encodedBody =
+        RLP.encode(
+            out -> {
+              out.startList();
+              out.writeRaw(transactions);
+              out.writeRaw(ommers);
+              out.endList();
+            });
+    transactionIndex = read(false).getTransactions().size() / 2;
+  }
+
+  private BlockBody read(final boolean lazily) {
+    return lazily
+        ? BlockBody.readLazilyFrom(RLP.input(encodedBody), BLOCK_HEADER_FUNCTIONS)
+        : BlockBody.readFrom(RLP.input(encodedBody), BLOCK_HEADER_FUNCTIONS);
+  }
+
+  @Benchmark
+  public Hash singleTransactionEager() {
+    return read(false).getTransactions().get(transactionIndex).getHash();
+  }
+
+  @Benchmark
+  public Hash singleTransactionLazy() {
+    return read(true).getTransactions().get(transactionIndex).getHash();
+  }
+
+  @Benchmark
+  public Bytes relayEager() {
+    return relay(read(false));
+  }
+
+  @Benchmark
+  public Bytes relayLazy() {
+    return relay(read(true));
+  }
+
+  private static Bytes relay(final BlockBody body) {
+    final BytesValueRLPOutput out = new BytesValueRLPOutput();
+    out.writeList(List.of(body), BlockBody::writeTo);
+    return out.encoded();
+  }
+
+  @Benchmark
+  public long allTransactionsEager() {
+    return totalGasLimit(read(false));
+  }
+
+  @Benchmark
+  public long allTransactionsLazy() {
+    return totalGasLimit(read(true));
+  }
+
+  private static long totalGasLimit(final BlockBody body) {
+    long gasLimit = 0;
+    for (final Transaction transaction : body.getTransactions()) {
+      gasLimit += transaction.getGasLimit();
+    }
+    return gasLimit;
+  }
+}
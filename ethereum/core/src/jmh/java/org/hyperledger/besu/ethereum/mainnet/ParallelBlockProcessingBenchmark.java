@@ -0,0 +1,143 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import static org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider.createInMemoryBlockchain;
+import static org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider.createInMemoryWorldStateArchive;
+
+import org.hyperledger.besu.config.GenesisConfigFile;
+import org.hyperledger.besu.ethereum.ProtocolContext;
+import org.hyperledger.besu.ethereum.chain.GenesisState;
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.util.RawBlockIterator;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.testutil.BlockTestUtil;
+import org.hyperledger.besu.testutil.BlockTestUtil.ChainResources;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares processing the blocks of the recorded test chains with transactions executed
+ * sequentially and optimistically in parallel. Every block is processed again over the state of
+ * its parent, which the chain was imported with beforehand.
+ */
+@State(Scope.Thread)
+public class ParallelBlockProcessingBenchmark {
+
+  @Param({"test", "london"})
+  public String chain;
+
+  @Param({"false", "true"})
+  public boolean parallelTransactionExecution;
+
+  private MutableBlockchain blockchain;
+  private WorldStateArchive worldStateArchive;
+  private ProtocolSchedule protocolSchedule;
+  private ExecutorService executor;
+  private final List<Block> blocks = new ArrayList<>();
+
+  @Setup
+  public void prepare() throws Exception {
+    final ChainResources chainResources =
+        chain.equals("london")
+            ? BlockTestUtil.getTestChainLondonResources()
+            : BlockTestUtil.getTestChainResources();
+    final String genesisJson =
+        Resources.toString(chainResources.getGenesisURL(), StandardCharsets.UTF_8);
+    protocolSchedule =
+        MainnetProtocolSchedule.fromConfig(
+            GenesisConfigFile.fromConfig(genesisJson).getConfigOptions(), EvmConfiguration.DEFAULT);
+    if (parallelTransactionExecution) {
+      executor =
+          ParallelTransactionProcessor.createExecutor(Runtime.getRuntime().availableProcessors());
+      protocolSchedule.setParallelTransactionExecutor(executor);
+    }
+    final GenesisState genesisState = GenesisState.fromJson(genesisJson, protocolSchedule);
+    blockchain = createInMemoryBlockchain(genesisState.getBlock());
+    worldStateArchive = createInMemoryWorldStateArchive();
+    genesisState.writeStateTo(worldStateArchive.getMutable());
+    final ProtocolContext protocolContext =
+        new ProtocolContext(blockchain, worldStateArchive, null);
+
+    final BlockHeaderFunctions blockHeaderFunctions =
+        ScheduleBasedBlockHeaderFunctions.create(protocolSchedule);
+    try (final RawBlockIterator iterator =
+        new RawBlockIterator(
+            Path.of(chainResources.getBlocksURL().toURI()),
+            rlp -> BlockHeader.readFrom(rlp, blockHeaderFunctions))) {
+      while (iterator.hasNext()) {
+        final Block block = iterator.next();
+        if (block.getHeader().getNumber() == BlockHeader.GENESIS_BLOCK_NUMBER) {
+          continue;
+        }
+        if (!protocolSchedule
+            .getByBlockNumber(block.getHeader().getNumber())
+            .getBlockImporter()
+            .importBlock(protocolContext, block, HeaderValidationMode.FULL)) {
+          throw new IllegalStateException(
+              "Unable to import block " + block.getHeader().getNumber());
+        }
+        blocks.add(block);
+      }
+    }
+  }
+
+  @TearDown
+  public void shutdownExecutor() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  @Benchmark
+  public int processBlocks() {
+    int receiptCount = 0;
+    for (final Block block : blocks) {
+      final BlockHeader parentHeader =
+          blockchain.getBlockHeader(block.getHeader().getParentHash()).orElseThrow();
+      final MutableWorldState worldState =
+          worldStateArchive
+              .getMutable(parentHeader.getStateRoot(), parentHeader.getHash())
+              .orElseThrow();
+      final BlockProcessor.Result result =
+          protocolSchedule
+              .getByBlockNumber(block.getHeader().getNumber())
+              .getBlockProcessor()
+              .processBlock(blockchain, worldState, block);
+      if (!result.isSuccessful()) {
+        throw new IllegalStateException("Unable to process block " + block.getHeader().getNumber());
+      }
+      receiptCount += result.getReceipts().size();
+    }
+    return receiptCount;
+  }
+}
@@ -20,6 +20,7 @@ import static org.hyperledger.besu.ethereum.bonsai.BonsaiAccount.fromRLP;
 import static org.hyperledger.besu.ethereum.bonsai.BonsaiWorldStateKeyValueStorage.WORLD_BLOCK_HASH_KEY;
 import static org.hyperledger.besu.ethereum.bonsai.BonsaiWorldStateKeyValueStorage.WORLD_ROOT_HASH_KEY;
 
+import org.hyperledger.besu.crypto.Keccak256;
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
@@ -32,6 +33,8 @@ import org.hyperledger.besu.evm.worldstate.WorldUpdater;
 import org.hyperledger.besu.plugin.services.exception.StorageException;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
@@ -202,27 +205,28 @@ public class BonsaiPersistedWorldState implements MutableWorldState, BonsaiWorld
     // next walk the account trie
     final StoredMerklePatriciaTrie<Bytes, Bytes> accountTrie =
         new StoredMerklePatriciaTrie<>(
-            this::getAccountStateTrieNode,
+            archive.getTrieNodeCache().wrap(this::getAccountStateTrieNode),
             worldStateRootHash,
             Function.identity(),
             Function.identity());
 
     // for manicured tries and composting, collect branches here (not implemented)
 
-    // now add the accounts
-    for (final Map.Entry<Address, BonsaiValue<BonsaiAccount>> accountUpdate :
-        worldStateUpdater.getAccountsToUpdate().entrySet()) {
-      final Bytes accountKey = accountUpdate.getKey();
-      final BonsaiValue<BonsaiAccount> bonsaiValue = accountUpdate.getValue();
-      final BonsaiAccount updatedAccount = bonsaiValue.getUpdated();
+    // now add the accounts, hashing all of their addresses in one batch
+    final List<Map.Entry<Address, BonsaiValue<BonsaiAccount>>> accountUpdates =
+        new ArrayList<>(worldStateUpdater.getAccountsToUpdate().entrySet());
+    final List<Address> updatedAddresses = new ArrayList<>(accountUpdates.size());
+    accountUpdates.forEach(accountUpdate -> updatedAddresses.add(accountUpdate.getKey()));
+    final Bytes32[] addressHashes = Keccak256.hashAll(updatedAddresses);
+    for (int i = 0; i < addressHashes.length; i++) {
+      final Hash addressHash = Hash.wrap(addressHashes[i]);
+      final BonsaiAccount updatedAccount = accountUpdates.get(i).getValue().getUpdated();
       if (updatedAccount == null) {
-        final Hash addressHash = Hash.hash(accountKey);
         accountTrie.remove(addressHash);
         stateUpdater.removeAccountInfoState(addressHash);
       } else {
-        final Hash addressHash = updatedAccount.getAddressHash();
         final Bytes accountValue = updatedAccount.serializeAccount();
-        stateUpdater.putAccountInfoState(Hash.hash(accountKey), accountValue);
+        stateUpdater.putAccountInfoState(addressHash, accountValue);
         accountTrie.put(addressHash, accountValue);
       }
     }
@@ -25,6 +25,7 @@ import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.proof.WorldStateProof;
 import org.hyperledger.besu.ethereum.storage.StorageProvider;
+import org.hyperledger.besu.ethereum.worldstate.TrieNodeCache;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 import org.hyperledger.besu.evm.worldstate.WorldState;
 
@@ -52,6 +53,7 @@ public class BonsaiWorldStateArchive implements WorldStateArchive {
   private final Map<Bytes32, BonsaiLayeredWorldState> layeredWorldStatesByHash;
   private final BonsaiWorldStateKeyValueStorage worldStateStorage;
   private final long maxLayersToLoad;
+  private final TrieNodeCache trieNodeCache;
 
   public BonsaiWorldStateArchive(final StorageProvider provider, final Blockchain blockchain) {
     this(provider, blockchain, RETAINED_LAYERS, new HashMap<>());
@@ -62,12 +64,30 @@ public class BonsaiWorldStateArchive implements WorldStateArchive {
     this(provider, blockchain, maxLayersToLoad, new HashMap<>());
   }
 
+  public BonsaiWorldStateArchive(
+      final StorageProvider provider,
+      final Blockchain blockchain,
+      final long maxLayersToLoad,
+      final TrieNodeCache trieNodeCache) {
+    this(provider, blockchain, maxLayersToLoad, new HashMap<>(), trieNodeCache);
+  }
+
   public BonsaiWorldStateArchive(
       final StorageProvider provider,
       final Blockchain blockchain,
       final long maxLayersToLoad,
       final Map<Bytes32, BonsaiLayeredWorldState> layeredWorldStatesByHash) {
+    this(provider, blockchain, maxLayersToLoad, layeredWorldStatesByHash, TrieNodeCache.disabled());
+  }
+
+  public BonsaiWorldStateArchive(
+      final StorageProvider provider,
+      final Blockchain blockchain,
+      final long maxLayersToLoad,
+      final Map<Bytes32, BonsaiLayeredWorldState> layeredWorldStatesByHash,
+      final TrieNodeCache trieNodeCache) {
     this.blockchain = blockchain;
+    this.trieNodeCache = trieNodeCache;
 
     this.worldStateStorage = new BonsaiWorldStateKeyValueStorage(provider);
     this.persistedState = new BonsaiPersistedWorldState(this, worldStateStorage);
@@ -255,6 +275,10 @@ public class BonsaiWorldStateArchive implements WorldStateArchive {
     }
   }
 
+  TrieNodeCache getTrieNodeCache() {
+    return trieNodeCache;
+  }
+
   @Override
   public MutableWorldState getMutable() {
     return persistedState;
@@ -270,6 +294,10 @@ public class BonsaiWorldStateArchive implements WorldStateArchive {
     return Optional.empty();
   }
 
+  public BonsaiWorldStateKeyValueStorage getWorldStateStorage() {
+    return worldStateStorage;
+  }
+
   @Override
   public Optional<WorldStateProof> getAccountProof(
       final Hash worldStateRoot,
@@ -103,6 +103,30 @@ public class BonsaiWorldStateKeyValueStorage implements WorldStateStorage {
     }
   }
 
+  /**
+   * The storage of one of the segments holding the world state, for the tools copying a segment as
+   * a whole.
+   *
+   * @param segment one of the segments used by Bonsai
+   * @return the storage of the segment
+   */
+  public KeyValueStorage getSegmentStorage(final KeyValueSegmentIdentifier segment) {
+    switch (segment) {
+      case ACCOUNT_INFO_STATE:
+        return accountStorage;
+      case CODE_STORAGE:
+        return codeStorage;
+      case ACCOUNT_STORAGE_STORAGE:
+        return storageStorage;
+      case TRIE_BRANCH_STORAGE:
+        return trieBranchStorage;
+      case TRIE_LOG_STORAGE:
+        return trieLogStorage;
+      default:
+        throw new IllegalArgumentException("Segment " + segment + " is not used by Bonsai");
+    }
+  }
+
   public Optional<byte[]> getTrieLog(final Hash blockHash) {
     return trieLogStorage.get(blockHash.toArrayUnsafe());
   }
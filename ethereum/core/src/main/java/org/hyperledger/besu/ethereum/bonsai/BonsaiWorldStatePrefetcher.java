@@ -0,0 +1,170 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.bonsai;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.evm.AccessListEntry;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.tuweni.bytes.Bytes32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads, on background threads, the flat database entries a block is expected to access as soon as
+ * the block is known, so that they are already cached by the storage when the block is executed.
+ * The accounts of the coinbase, of the senders and of the recipients, the code of the recipients
+ * and the entries of the access lists are read.
+ *
+ * <p>The values read are discarded: the block may be executed on top of a different state than the
+ * one persisted when it is prefetched, so only the storage cache is warmed. The time the
+ * prefetching threads spend in these reads is reported per kind of entry. It is not the time saved
+ * on import, which depends on whether the entries are still cached when the block is executed.
+ */
+public class BonsaiWorldStatePrefetcher {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BonsaiWorldStatePrefetcher.class);
+
+  private final BonsaiWorldStateKeyValueStorage worldStateStorage;
+  private final ExecutorService executor;
+
+  private final OperationTimer accountReadTimer;
+  private final OperationTimer codeReadTimer;
+  private final OperationTimer storageReadTimer;
+  private final Counter droppedCounter;
+
+  /**
+   * Creates a prefetcher.
+   *
+   * @param worldStateStorage the storage to read the state from
+   * @param parallelism the number of threads reading the state
+   * @param maxPendingTasks the number of transactions whose state may wait to be read, the state of
+   *     further transactions is not read
+   * @param metricsSystem the metrics system
+   */
+  public BonsaiWorldStatePrefetcher(
+      final BonsaiWorldStateKeyValueStorage worldStateStorage,
+      final int parallelism,
+      final int maxPendingTasks,
+      final MetricsSystem metricsSystem) {
+    this.worldStateStorage = worldStateStorage;
+
+    final LabelledMetric<OperationTimer> readTimer =
+        metricsSystem.createLabelledTimer(
+            BesuMetricCategory.BLOCKCHAIN,
+            "state_prefetch_background_read_time",
+            "Time spent by the prefetching threads reading state ahead of block execution",
+            "type");
+    this.accountReadTimer = readTimer.labels("account");
+    this.codeReadTimer = readTimer.labels("code");
+    this.storageReadTimer = readTimer.labels("storage");
+    this.droppedCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "state_prefetch_dropped_total",
+            "Number of transactions whose state was not prefetched as too many were pending");
+
+    final ThreadPoolExecutor threadPoolExecutor =
+        new ThreadPoolExecutor(
+            parallelism,
+            parallelism,
+            30L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(maxPendingTasks),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat(getClass().getSimpleName() + "-%d")
+                .build(),
+            (task, pool) -> droppedCounter.inc());
+    threadPoolExecutor.allowCoreThreadTimeOut(true);
+    this.executor = threadPoolExecutor;
+  }
+
+  /**
+   * Starts reading the state the given block is expected to access. Returns immediately, the reads
+   * of the different transactions are spread over the prefetching threads.
+   *
+   * @param block the block that is about to be imported
+   */
+  public void prefetch(final Block block) {
+    final Address coinbase = block.getHeader().getCoinbase();
+    executor.execute(() -> runQuietly(() -> prefetchAccount(coinbase)));
+    for (final Transaction transaction : block.getBody().getTransactions()) {
+      executor.execute(() -> runQuietly(() -> prefetchTransaction(transaction)));
+    }
+  }
+
+  private void prefetchTransaction(final Transaction transaction) {
+    prefetchAccount(transaction.getSender());
+    transaction
+        .getTo()
+        .ifPresent(
+            to -> {
+              final Hash accountHash = prefetchAccount(to);
+              read(codeReadTimer, () -> worldStateStorage.getCode(null, accountHash));
+            });
+    transaction
+        .getAccessList()
+        .ifPresent(accessList -> accessList.forEach(this::prefetchAccessListEntry));
+  }
+
+  private void prefetchAccessListEntry(final AccessListEntry entry) {
+    final Hash accountHash = prefetchAccount(entry.getAddress());
+    for (final Bytes32 storageKey : entry.getStorageKeys()) {
+      final Hash slotHash = Hash.hash(storageKey);
+      read(
+          storageReadTimer,
+          () -> worldStateStorage.getStorageValueBySlotHash(accountHash, slotHash));
+    }
+  }
+
+  private Hash prefetchAccount(final Address address) {
+    final Hash accountHash = Hash.hash(address);
+    read(accountReadTimer, () -> worldStateStorage.getAccount(accountHash));
+    return accountHash;
+  }
+
+  private void runQuietly(final Runnable prefetch) {
+    try {
+      prefetch.run();
+    } catch (final RuntimeException e) {
+      // the entries are read again when the block is executed
+      LOG.trace("Failed to prefetch state", e);
+    }
+  }
+
+  private void read(final OperationTimer timer, final Supplier<?> read) {
+    final OperationTimer.TimingContext timingContext = timer.startTimer();
+    try {
+      read.get();
+    } finally {
+      timingContext.stopTimer();
+    }
+  }
+}
@@ -24,6 +24,8 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.apache.tuweni.bytes.Bytes;
+
 public interface BlockchainStorage {
 
   Optional<Hash> getChainHead();
@@ -36,6 +38,25 @@ public interface BlockchainStorage {
 
   Optional<List<TransactionReceipt>> getTransactionReceipts(Hash blockHash);
 
+  /**
+   * Returns the block body as it is stored, RLP encoded, so it can be passed on without being
+   * decoded.
+   *
+   * @param blockHash the hash of the block
+   * @return the RLP encoded block body
+   */
+  Optional<Bytes> getBlockBodyRlp(Hash blockHash);
+
+  /**
+   * Returns the transaction receipts of a block RLP encoded as in the wire protocol, without their
+   * revert reason. Receipts stored in that encoding are returned as they are, other receipts are
+   * copied field by field into it without being decoded.
+   *
+   * @param blockHash the hash of the block
+   * @return the RLP encoded list of transaction receipts
+   */
+  Optional<Bytes> getTransactionReceiptsRlp(Hash blockHash);
+
   Optional<Hash> getBlockHash(long blockNumber);
 
   Optional<Difficulty> getTotalDifficulty(Hash blockHash);
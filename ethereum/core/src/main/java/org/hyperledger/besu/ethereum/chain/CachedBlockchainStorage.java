@@ -0,0 +1,252 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.chain;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Keeps the decoded headers, bodies and receipts of the most recently written blocks, and the
+ * canonical number to hash mappings written with them, in front of a {@link BlockchainStorage}.
+ *
+ * <p>The cache is only populated when an updater commits, so it holds the blocks that were just
+ * imported, which are also the ones most often requested over RPC and by peers. Headers, bodies and
+ * receipts are keyed by block hash and never change once written. The number to hash mappings
+ * touched by an updater are invalidated before it commits and only re-populated afterwards, so a
+ * reorg can never leave a stale canonical mapping behind.
+ *
+ * <p>The RLP encoded bodies and receipts are always read from storage, as they are requested to be
+ * passed on as stored and the cache only holds decoded values.
+ */
+class CachedBlockchainStorage implements BlockchainStorage {
+
+  static final int DEFAULT_CACHE_SIZE = 128;
+
+  private final BlockchainStorage storage;
+
+  private final Cache<Hash, BlockHeader> headers;
+  private final Cache<Hash, BlockBody> bodies;
+  private final Cache<Hash, List<TransactionReceipt>> receipts;
+  private final Cache<Long, Hash> blockHashes;
+
+  private final LabelledMetric<Counter> lookupCounter;
+
+  CachedBlockchainStorage(
+      final BlockchainStorage storage, final int cacheSize, final MetricsSystem metricsSystem) {
+    this.storage = storage;
+    this.headers = createCache(cacheSize);
+    this.bodies = createCache(cacheSize);
+    this.receipts = createCache(cacheSize);
+    this.blockHashes = createCache(cacheSize);
+    this.lookupCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "cache_lookups_total",
+            "Number of block data lookups served by the recent block cache",
+            "type",
+            "result");
+  }
+
+  private static <K, V> Cache<K, V> createCache(final int cacheSize) {
+    return CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+  }
+
+  @Override
+  public Optional<Hash> getChainHead() {
+    return storage.getChainHead();
+  }
+
+  @Override
+  public Collection<Hash> getForkHeads() {
+    return storage.getForkHeads();
+  }
+
+  @Override
+  public Optional<BlockHeader> getBlockHeader(final Hash blockHash) {
+    return lookup("header", headers, blockHash, storage::getBlockHeader);
+  }
+
+  @Override
+  public Optional<BlockBody> getBlockBody(final Hash blockHash) {
+    return lookup("body", bodies, blockHash, storage::getBlockBody);
+  }
+
+  @Override
+  public Optional<List<TransactionReceipt>> getTransactionReceipts(final Hash blockHash) {
+    return lookup("receipts", receipts, blockHash, storage::getTransactionReceipts);
+  }
+
+  @Override
+  public Optional<Bytes> getBlockBodyRlp(final Hash blockHash) {
+    return storage.getBlockBodyRlp(blockHash);
+  }
+
+  @Override
+  public Optional<Bytes> getTransactionReceiptsRlp(final Hash blockHash) {
+    return storage.getTransactionReceiptsRlp(blockHash);
+  }
+
+  @Override
+  public Optional<Hash> getBlockHash(final long blockNumber) {
+    return lookup("block_hash", blockHashes, blockNumber, storage::getBlockHash);
+  }
+
+  @Override
+  public Optional<Difficulty> getTotalDifficulty(final Hash blockHash) {
+    return storage.getTotalDifficulty(blockHash);
+  }
+
+  @Override
+  public Optional<TransactionLocation> getTransactionLocation(final Hash transactionHash) {
+    return storage.getTransactionLocation(transactionHash);
+  }
+
+  @Override
+  public Updater updater() {
+    return new CachedUpdater(storage.updater());
+  }
+
+  private <K, V> Optional<V> lookup(
+      final String type,
+      final Cache<K, V> cache,
+      final K key,
+      final Function<K, Optional<V>> loader) {
+    final V cached = cache.getIfPresent(key);
+    if (cached != null) {
+      lookupCounter.labels(type, "hit").inc();
+      return Optional.of(cached);
+    }
+    lookupCounter.labels(type, "miss").inc();
+    return loader.apply(key);
+  }
+
+  private class CachedUpdater implements Updater {
+
+    private final Updater updater;
+
+    private final Map<Hash, BlockHeader> pendingHeaders = new HashMap<>();
+    private final Map<Hash, BlockBody> pendingBodies = new HashMap<>();
+    private final Map<Hash, List<TransactionReceipt>> pendingReceipts = new HashMap<>();
+    // an empty value means the mapping is being removed
+    private final Map<Long, Optional<Hash>> pendingBlockHashes = new HashMap<>();
+
+    private CachedUpdater(final Updater updater) {
+      this.updater = updater;
+    }
+
+    @Override
+    public void putBlockHeader(final Hash blockHash, final BlockHeader blockHeader) {
+      updater.putBlockHeader(blockHash, blockHeader);
+      pendingHeaders.put(blockHash, blockHeader);
+    }
+
+    @Override
+    public void putBlockBody(final Hash blockHash, final BlockBody blockBody) {
+      updater.putBlockBody(blockHash, blockBody);
+      pendingBodies.put(blockHash, blockBody);
+    }
+
+    @Override
+    public void putTransactionLocation(
+        final Hash transactionHash, final TransactionLocation transactionLocation) {
+      updater.putTransactionLocation(transactionHash, transactionLocation);
+    }
+
+    @Override
+    public void putTransactionReceipts(
+        final Hash blockHash, final List<TransactionReceipt> transactionReceipts) {
+      updater.putTransactionReceipts(blockHash, transactionReceipts);
+      pendingReceipts.put(blockHash, List.copyOf(transactionReceipts));
+    }
+
+    @Override
+    public void putBlockHash(final long blockNumber, final Hash blockHash) {
+      updater.putBlockHash(blockNumber, blockHash);
+      pendingBlockHashes.put(blockNumber, Optional.of(blockHash));
+    }
+
+    @Override
+    public void putTotalDifficulty(final Hash blockHash, final Difficulty totalDifficulty) {
+      updater.putTotalDifficulty(blockHash, totalDifficulty);
+    }
+
+    @Override
+    public void setChainHead(final Hash blockHash) {
+      updater.setChainHead(blockHash);
+    }
+
+    @Override
+    public void setForkHeads(final Collection<Hash> forkHeadHashes) {
+      updater.setForkHeads(forkHeadHashes);
+    }
+
+    @Override
+    public void removeBlockHash(final long blockNumber) {
+      updater.removeBlockHash(blockNumber);
+      pendingBlockHashes.put(blockNumber, Optional.empty());
+    }
+
+    @Override
+    public void removeTransactionLocation(final Hash transactionHash) {
+      updater.removeTransactionLocation(transactionHash);
+    }
+
+    @Override
+    public void commit() {
+      // Readers must not see an outdated canonical mapping from the cache once the new one is
+      // committed, so drop the mappings first; until the commit they are read from storage.
+      blockHashes.invalidateAll(pendingBlockHashes.keySet());
+      updater.commit();
+
+      headers.putAll(pendingHeaders);
+      bodies.putAll(pendingBodies);
+      receipts.putAll(pendingReceipts);
+      pendingBlockHashes.forEach(
+          (blockNumber, blockHash) -> blockHash.ifPresent(h -> blockHashes.put(blockNumber, h)));
+      clearPending();
+    }
+
+    @Override
+    public void rollback() {
+      updater.rollback();
+      clearPending();
+    }
+
+    private void clearPending() {
+      pendingHeaders.clear();
+      pendingBodies.clear();
+      pendingReceipts.clear();
+      pendingBlockHashes.clear();
+    }
+  }
+}
@@ -50,6 +50,7 @@ import java.util.stream.Stream;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Streams;
+import org.apache.tuweni.bytes.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -77,7 +78,13 @@ public class DefaultBlockchain implements MutableBlockchain {
       final BlockchainStorage blockchainStorage,
       final MetricsSystem metricsSystem,
       final long reorgLoggingThreshold) {
-    this(genesisBlock, blockchainStorage, metricsSystem, reorgLoggingThreshold, null);
+    this(
+        genesisBlock,
+        blockchainStorage,
+        metricsSystem,
+        reorgLoggingThreshold,
+        null,
+        CachedBlockchainStorage.DEFAULT_CACHE_SIZE);
   }
 
   private DefaultBlockchain(
@@ -85,12 +92,17 @@ public class DefaultBlockchain implements MutableBlockchain {
       final BlockchainStorage blockchainStorage,
       final MetricsSystem metricsSystem,
       final long reorgLoggingThreshold,
-      final String dataDirectory) {
+      final String dataDirectory,
+      final int cacheSize) {
     checkNotNull(genesisBlock);
     checkNotNull(blockchainStorage);
     checkNotNull(metricsSystem);
+    checkArgument(cacheSize >= 0, "Cache size must not be negative");
 
-    this.blockchainStorage = blockchainStorage;
+    this.blockchainStorage =
+        cacheSize > 0
+            ? new CachedBlockchainStorage(blockchainStorage, cacheSize, metricsSystem)
+            : blockchainStorage;
     genesisBlock.ifPresent(block -> this.setGenesis(block, dataDirectory));
 
     final Hash chainHead = blockchainStorage.getChainHead().get();
@@ -161,13 +173,34 @@ public class DefaultBlockchain implements MutableBlockchain {
       final MetricsSystem metricsSystem,
       final long reorgLoggingThreshold,
       final String dataDirectory) {
+    return createMutable(
+        genesisBlock,
+        blockchainStorage,
+        metricsSystem,
+        reorgLoggingThreshold,
+        dataDirectory,
+        CachedBlockchainStorage.DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * Creates a mutable blockchain that keeps the data of the last {@code cacheSize} imported blocks
+   * in memory, or none if {@code cacheSize} is zero.
+   */
+  public static MutableBlockchain createMutable(
+      final Block genesisBlock,
+      final BlockchainStorage blockchainStorage,
+      final MetricsSystem metricsSystem,
+      final long reorgLoggingThreshold,
+      final String dataDirectory,
+      final int cacheSize) {
     checkNotNull(genesisBlock);
     return new DefaultBlockchain(
         Optional.of(genesisBlock),
         blockchainStorage,
         metricsSystem,
         reorgLoggingThreshold,
-        dataDirectory);
+        dataDirectory,
+        cacheSize);
   }
 
   public static Blockchain create(
@@ -176,8 +209,9 @@ public class DefaultBlockchain implements MutableBlockchain {
       final long reorgLoggingThreshold) {
     checkArgument(
         validateStorageNonEmpty(blockchainStorage), "Cannot create Blockchain from empty storage");
+    // a read-only view never imports blocks, so there is nothing to cache
     return new DefaultBlockchain(
-        Optional.empty(), blockchainStorage, metricsSystem, reorgLoggingThreshold);
+        Optional.empty(), blockchainStorage, metricsSystem, reorgLoggingThreshold, null, 0);
   }
 
   private static boolean validateStorageNonEmpty(final BlockchainStorage blockchainStorage) {
@@ -234,6 +268,16 @@ public class DefaultBlockchain implements MutableBlockchain {
     return blockchainStorage.getTransactionReceipts(blockHeaderHash);
   }
 
+  @Override
+  public Optional<Bytes> getBlockBodyRlp(final Hash blockHeaderHash) {
+    return blockchainStorage.getBlockBodyRlp(blockHeaderHash);
+  }
+
+  @Override
+  public Optional<Bytes> getTxReceiptsRlp(final Hash blockHeaderHash) {
+    return blockchainStorage.getTransactionReceiptsRlp(blockHeaderHash);
+  }
+
   @Override
   public Optional<Hash> getBlockHashByNumber(final long number) {
     return blockchainStorage.getBlockHash(number);
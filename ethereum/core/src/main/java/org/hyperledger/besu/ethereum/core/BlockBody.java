@@ -14,12 +14,14 @@
  */
 package org.hyperledger.besu.ethereum.core;
 
+import org.hyperledger.besu.ethereum.rlp.LazyRLPList;
 import org.hyperledger.besu.ethereum.rlp.RLPInput;
 import org.hyperledger.besu.ethereum.rlp.RLPOutput;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.BiConsumer;
 
 public class BlockBody implements org.hyperledger.besu.plugin.data.BlockBody {
 
@@ -58,12 +60,22 @@ public class BlockBody implements org.hyperledger.besu.plugin.data.BlockBody {
   public void writeTo(final RLPOutput output) {
     output.startList();
 
-    output.writeList(getTransactions(), Transaction::writeTo);
-    output.writeList(getOmmers(), BlockHeader::writeTo);
+    writeList(output, getTransactions(), Transaction::writeTo);
+    writeList(output, getOmmers(), BlockHeader::writeTo);
 
     output.endList();
   }
 
+  private static <T> void writeList(
+      final RLPOutput output, final List<T> values, final BiConsumer<T, RLPOutput> valueWriter) {
+    if (values instanceof LazyRLPList) {
+      // Read lazily, so the list can be written back as it was read without decoding it.
+      ((LazyRLPList<T>) values).writeTo(output);
+    } else {
+      output.writeList(values, valueWriter);
+    }
+  }
+
   public static BlockBody readFrom(
       final RLPInput input, final BlockHeaderFunctions blockHeaderFunctions) {
     input.enterList();
@@ -76,6 +88,28 @@ public class BlockBody implements org.hyperledger.besu.plugin.data.BlockBody {
     return body;
   }
 
+  /**
+   * Reads a block body without decoding its transactions and ommers, which are only decoded when
+   * accessed. Writing the body back to an {@link RLPOutput} does not decode them at all.
+   *
+   * <p>Malformed transactions or ommers are only detected when accessed, so this is meant for
+   * bodies that have already been validated, such as those read back from storage.
+   *
+   * @param input the input to read the body from
+   * @param blockHeaderFunctions the functions used to compute the hashes of the ommers
+   * @return the block body
+   */
+  public static BlockBody readLazilyFrom(
+      final RLPInput input, final BlockHeaderFunctions blockHeaderFunctions) {
+    input.enterList();
+    final BlockBody body =
+        new BlockBody(
+            LazyRLPList.readFrom(input, Transaction::readFrom),
+            LazyRLPList.readFrom(input, rlp -> BlockHeader.readFrom(rlp, blockHeaderFunctions)));
+    input.leaveList();
+    return body;
+  }
+
   @Override
   public boolean equals(final Object obj) {
     if (obj == this) {
@@ -34,6 +34,12 @@ public class MiningParameters {
 
   public static final int DEFAULT_MAX_OMMERS_DEPTH = 8;
 
+  /** No time limit on the selection of the transactions of a block. */
+  public static final long DEFAULT_BLOCK_TXS_SELECTION_MAX_TIME = 0;
+
+  /** No pending transactions are executed ahead of the creation of a block. */
+  public static final int DEFAULT_BLOCK_TXS_PRE_EXECUTION_LIMIT = 0;
+
   private final Optional<Address> coinbase;
   private final Optional<AtomicLong> targetGasLimit;
   private final Wei minTransactionGasPrice;
@@ -49,6 +55,8 @@ public class MiningParameters {
   private final long remoteSealersTimeToLive;
   private final long powJobTimeToLive;
   private final int maxOmmerDepth;
+  private final long blockTxsSelectionMaxTime;
+  private final int blockTxsPreExecutionLimit;
 
   private MiningParameters(
       final Address coinbase,
@@ -65,7 +73,9 @@ public class MiningParameters {
       final int remoteSealersLimit,
       final long remoteSealersTimeToLive,
       final long powJobTimeToLive,
-      final int maxOmmerDepth) {
+      final int maxOmmerDepth,
+      final long blockTxsSelectionMaxTime,
+      final int blockTxsPreExecutionLimit) {
     this.coinbase = Optional.ofNullable(coinbase);
     this.targetGasLimit = Optional.ofNullable(targetGasLimit).map(AtomicLong::new);
     this.minTransactionGasPrice = minTransactionGasPrice;
@@ -81,6 +91,8 @@ public class MiningParameters {
     this.remoteSealersTimeToLive = remoteSealersTimeToLive;
     this.powJobTimeToLive = powJobTimeToLive;
     this.maxOmmerDepth = maxOmmerDepth;
+    this.blockTxsSelectionMaxTime = blockTxsSelectionMaxTime;
+    this.blockTxsPreExecutionLimit = blockTxsPreExecutionLimit;
   }
 
   public Optional<Address> getCoinbase() {
@@ -143,6 +155,26 @@ public class MiningParameters {
     return maxOmmerDepth;
   }
 
+  /**
+   * The time in milliseconds after which the selection of the transactions of a block stops with
+   * the transactions selected so far, 0 if it is not limited.
+   *
+   * @return the time limit of the transaction selection in milliseconds
+   */
+  public long getBlockTxsSelectionMaxTime() {
+    return blockTxsSelectionMaxTime;
+  }
+
+  /**
+   * The maximum number of pending transactions executed in the background against the chain head,
+   * so that the block creator can reuse their results, 0 if they are not executed ahead.
+   *
+   * @return the maximum number of transactions executed ahead of the creation of a block
+   */
+  public int getBlockTxsPreExecutionLimit() {
+    return blockTxsPreExecutionLimit;
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) return true;
@@ -160,7 +192,9 @@ public class MiningParameters {
         && Objects.equals(minBlockOccupancyRatio, that.minBlockOccupancyRatio)
         && remoteSealersTimeToLive == that.remoteSealersTimeToLive
         && remoteSealersLimit == that.remoteSealersLimit
-        && powJobTimeToLive == that.powJobTimeToLive;
+        && powJobTimeToLive == that.powJobTimeToLive
+        && blockTxsSelectionMaxTime == that.blockTxsSelectionMaxTime
+        && blockTxsPreExecutionLimit == that.blockTxsPreExecutionLimit;
   }
 
   @Override
@@ -178,7 +212,9 @@ public class MiningParameters {
         minBlockOccupancyRatio,
         remoteSealersLimit,
         remoteSealersTimeToLive,
-        powJobTimeToLive);
+        powJobTimeToLive,
+        blockTxsSelectionMaxTime,
+        blockTxsPreExecutionLimit);
   }
 
   @Override
@@ -214,6 +250,10 @@ public class MiningParameters {
         + remoteSealersTimeToLive
         + ", powJobTimeToLive="
         + powJobTimeToLive
+        + ", blockTxsSelectionMaxTime="
+        + blockTxsSelectionMaxTime
+        + ", blockTxsPreExecutionLimit="
+        + blockTxsPreExecutionLimit
         + '}';
   }
 
@@ -234,6 +274,8 @@ public class MiningParameters {
     private long remoteSealersTimeToLive = DEFAULT_REMOTE_SEALERS_TTL;
     private long powJobTimeToLive = DEFAULT_POW_JOB_TTL;
     private int maxOmmerDepth = DEFAULT_MAX_OMMERS_DEPTH;
+    private long blockTxsSelectionMaxTime = DEFAULT_BLOCK_TXS_SELECTION_MAX_TIME;
+    private int blockTxsPreExecutionLimit = DEFAULT_BLOCK_TXS_PRE_EXECUTION_LIMIT;
 
     public Builder coinbase(final Address address) {
       this.coinbase = address;
@@ -310,6 +352,16 @@ public class MiningParameters {
       return this;
     }
 
+    public Builder blockTxsSelectionMaxTime(final long blockTxsSelectionMaxTime) {
+      this.blockTxsSelectionMaxTime = blockTxsSelectionMaxTime;
+      return this;
+    }
+
+    public Builder blockTxsPreExecutionLimit(final int blockTxsPreExecutionLimit) {
+      this.blockTxsPreExecutionLimit = blockTxsPreExecutionLimit;
+      return this;
+    }
+
     public MiningParameters build() {
       return new MiningParameters(
           coinbase,
@@ -326,7 +378,9 @@ public class MiningParameters {
           remoteSealersLimit,
           remoteSealersTimeToLive,
           powJobTimeToLive,
-          maxOmmerDepth);
+          maxOmmerDepth,
+          blockTxsSelectionMaxTime,
+          blockTxsPreExecutionLimit);
     }
   }
 }
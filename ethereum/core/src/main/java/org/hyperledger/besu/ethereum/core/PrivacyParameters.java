@@ -21,6 +21,7 @@ import org.hyperledger.besu.crypto.KeyPairUtil;
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.enclave.Enclave;
 import org.hyperledger.besu.enclave.EnclaveFactory;
+import org.hyperledger.besu.ethereum.privacy.EnclavePayloadPrefetcher;
 import org.hyperledger.besu.ethereum.privacy.PrivateStateGenesisAllocator;
 import org.hyperledger.besu.ethereum.privacy.PrivateStateRootResolver;
 import org.hyperledger.besu.ethereum.privacy.PrivateWorldStateReader;
@@ -67,6 +68,7 @@ public class PrivacyParameters {
   private File enclavePublicKeyFile;
   private Optional<KeyPair> signingKeyPair = Optional.empty();
   private Enclave enclave;
+  private EnclavePayloadPrefetcher enclavePayloadPrefetcher;
   private PrivacyStorageProvider privateStorageProvider;
   private WorldStateArchive privateWorldStateArchive;
   private PrivateStateStorage privateStateStorage;
@@ -161,6 +163,15 @@ public class PrivacyParameters {
     this.enclave = enclave;
   }
 
+  public EnclavePayloadPrefetcher getEnclavePayloadPrefetcher() {
+    return enclavePayloadPrefetcher;
+  }
+
+  public void setEnclavePayloadPrefetcher(
+      final EnclavePayloadPrefetcher enclavePayloadPrefetcher) {
+    this.enclavePayloadPrefetcher = enclavePayloadPrefetcher;
+  }
+
   private void setMultiTenancyEnabled(final boolean multiTenancyEnabled) {
     this.multiTenancyEnabled = multiTenancyEnabled;
   }
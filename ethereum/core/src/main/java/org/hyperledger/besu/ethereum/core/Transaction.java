@@ -509,18 +509,22 @@ public class Transaction
   @Override
   public Address getSender() {
     if (sender == null) {
-      final SECPPublicKey publicKey =
-          signatureAlgorithm
-              .recoverPublicKeyFromSignature(getOrComputeSenderRecoveryHash(), signature)
-              .orElseThrow(
-                  () ->
-                      new IllegalStateException(
-                          "Cannot recover public key from signature for " + this));
-      sender = Address.extract(Hash.hash(publicKey.getEncodedBytes()));
+      sender = TransactionSenderCache.getInstance().get(getHash()).orElseGet(this::recoverSender);
     }
     return sender;
   }
 
+  private Address recoverSender() {
+    final SECPPublicKey publicKey =
+        signatureAlgorithm
+            .recoverPublicKeyFromSignature(getOrComputeSenderRecoveryHash(), signature)
+            .orElseThrow(
+                () ->
+                    new IllegalStateException(
+                        "Cannot recover public key from signature for " + this));
+    return Address.extract(Hash.hash(publicKey.getEncodedBytes()));
+  }
+
   /**
    * Returns the public key extracted from the signature.
    *
@@ -54,7 +54,8 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
   private final Hash stateRoot;
   private final long cumulativeGasUsed;
   private final List<Log> logs;
-  private final LogsBloomFilter bloomFilter;
+  // Receipts read from storage don't have their bloom filter, it's computed when first requested.
+  private volatile LogsBloomFilter bloomFilter;
   private final int status;
   private final TransactionReceiptType transactionReceiptType;
   private final Optional<Bytes> revertReason;
@@ -202,7 +203,7 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
       rlpOutput.writeLongScalar(status);
     }
     rlpOutput.writeLongScalar(cumulativeGasUsed);
-    rlpOutput.writeBytes(bloomFilter);
+    rlpOutput.writeBytes(getBloomFilter());
     rlpOutput.writeList(logs, Log::writeTo);
     if (withRevertReason && revertReason.isPresent()) {
       rlpOutput.writeBytes(revertReason.get());
@@ -210,6 +211,29 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
     rlpOutput.endList();
   }
 
+  /**
+   * Write the compact RLP representation used to store receipts, which leaves out the logs bloom
+   * filter as it can be recomputed from the logs. The transaction type is always written, as the
+   * first element of the list, and the revert reason is included if present.
+   *
+   * @param rlpOutput The RLP output to write to
+   */
+  public void writeToForStorage(final RLPOutput rlpOutput) {
+    rlpOutput.startList();
+    rlpOutput.writeByte(transactionType.getSerializedType());
+    if (stateRoot != null) {
+      rlpOutput.writeBytes(stateRoot);
+    } else {
+      rlpOutput.writeLongScalar(status);
+    }
+    rlpOutput.writeLongScalar(cumulativeGasUsed);
+    rlpOutput.writeList(logs, Log::writeTo);
+    if (revertReason.isPresent()) {
+      rlpOutput.writeBytes(revertReason.get());
+    }
+    rlpOutput.endList();
+  }
+
   /**
    * Creates a transaction receipt for the given RLP
    *
@@ -271,6 +295,127 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
     }
   }
 
+  /**
+   * Creates a transaction receipt from its compact storage representation, as written by {@link
+   * #writeToForStorage(RLPOutput)}. The logs bloom filter is computed from the logs when first
+   * requested.
+   *
+   * @param input the RLP-encoded transaction receipt
+   * @return the transaction receipt
+   */
+  public static TransactionReceipt readFromStorage(final RLPInput input) {
+    input.enterList();
+    final TransactionType transactionType = TransactionType.of(input.readUnsignedByte());
+    final RLPInput firstElement = input.readAsRlp();
+    final long cumulativeGas = input.readLongScalar();
+    final List<Log> logs = input.readList(Log::readFrom);
+    final Optional<Bytes> revertReason =
+        input.isEndOfCurrentList() ? Optional.empty() : Optional.of(input.readBytes());
+    input.leaveList();
+
+    if (firstElement.raw().size() == 1) {
+      return new TransactionReceipt(
+          transactionType,
+          null,
+          firstElement.readIntScalar(),
+          cumulativeGas,
+          logs,
+          null,
+          revertReason);
+    } else {
+      return new TransactionReceipt(
+          transactionType,
+          Hash.wrap(firstElement.readBytes32()),
+          cumulativeGas,
+          logs,
+          null,
+          revertReason);
+    }
+  }
+
+  /**
+   * Writes a stored transaction receipt as it is sent over the wire, without its revert reason.
+   * The fields of the receipt are copied as they are encoded rather than decoded, and the logs
+   * bloom filter of a receipt in the compact storage encoding is computed from its encoded logs.
+   *
+   * @param storedReceipt the receipt, in the encoding written by {@link
+   *     #writeToWithRevertReason(RLPOutput)} or by {@link #writeToForStorage(RLPOutput)}
+   * @param compact whether the receipt is in the compact storage encoding
+   * @param rlpOutput the RLP output to write to
+   */
+  public static void writeStoredForNetwork(
+      final RLPInput storedReceipt, final boolean compact, final RLPOutput rlpOutput) {
+    final TransactionType transactionType;
+    final RLPInput input;
+    if (compact) {
+      input = storedReceipt.readAsRlp();
+      input.enterList();
+      transactionType = TransactionType.of(input.readUnsignedByte());
+    } else if (storedReceipt.nextIsList()) {
+      input = storedReceipt.readAsRlp();
+      input.enterList();
+      transactionType = TransactionType.FRONTIER;
+    } else {
+      final Bytes typedTransactionReceiptBytes = storedReceipt.readBytes();
+      transactionType = TransactionType.of(typedTransactionReceiptBytes.get(0));
+      input = new BytesValueRLPInput(typedTransactionReceiptBytes.slice(1), false);
+      input.enterList();
+    }
+    final Bytes statusOrStateRoot = input.readAsRlp().raw();
+    final Bytes cumulativeGasUsed = input.readAsRlp().raw();
+    final Bytes storedBloomFilter = compact ? null : input.readBytes();
+    final Bytes logs = input.readAsRlp().raw();
+    // the revert reason, if any, is left out
+    final Bytes bloomFilter = compact ? bloomFilterOf(logs) : storedBloomFilter;
+
+    if (transactionType.equals(TransactionType.FRONTIER)) {
+      writeFieldsForNetwork(
+          rlpOutput, statusOrStateRoot, cumulativeGasUsed, bloomFilter, logs);
+    } else {
+      rlpOutput.writeBytes(
+          RLP.encode(
+              out -> {
+                out.writeIntScalar(transactionType.getSerializedType());
+                writeFieldsForNetwork(
+                    out, statusOrStateRoot, cumulativeGasUsed, bloomFilter, logs);
+              }));
+    }
+  }
+
+  private static void writeFieldsForNetwork(
+      final RLPOutput rlpOutput,
+      final Bytes statusOrStateRoot,
+      final Bytes cumulativeGasUsed,
+      final Bytes bloomFilter,
+      final Bytes logs) {
+    rlpOutput.startList();
+    rlpOutput.writeRaw(statusOrStateRoot);
+    rlpOutput.writeRaw(cumulativeGasUsed);
+    rlpOutput.writeBytes(bloomFilter);
+    rlpOutput.writeRaw(logs);
+    rlpOutput.endList();
+  }
+
+  private static LogsBloomFilter bloomFilterOf(final Bytes logs) {
+    // only the logger and the topics of each log go into the bloom filter
+    final LogsBloomFilter.Builder builder = LogsBloomFilter.builder();
+    final RLPInput input = RLP.input(logs);
+    input.enterList();
+    while (!input.isEndOfCurrentList()) {
+      input.enterList();
+      builder.insertBytes(input.readBytes());
+      input.enterList();
+      while (!input.isEndOfCurrentList()) {
+        builder.insertBytes(input.readBytes());
+      }
+      input.leaveList();
+      input.skipNext();
+      input.leaveList();
+    }
+    input.leaveList();
+    return builder.build();
+  }
+
   /**
    * Returns the state root for a state root-encoded transaction receipt
    *
@@ -316,6 +461,9 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
    */
   @Override
   public LogsBloomFilter getBloomFilter() {
+    if (bloomFilter == null) {
+      bloomFilter = LogsBloomFilter.builder().insertLogs(logs).build();
+    }
     return bloomFilter;
   }
 
@@ -364,7 +512,7 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
         .add("stateRoot", stateRoot)
         .add("cumulativeGasUsed", cumulativeGasUsed)
         .add("logs", logs)
-        .add("bloomFilter", bloomFilter)
+        .add("bloomFilter", getBloomFilter())
         .add("status", status)
         .add("transactionReceiptType", transactionReceiptType)
         .toString();
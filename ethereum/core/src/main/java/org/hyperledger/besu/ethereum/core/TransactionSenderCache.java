@@ -0,0 +1,85 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+
+import java.util.Optional;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Remembers the senders recovered for recently seen transactions, so that recovering them again
+ * from the signature can be skipped.
+ *
+ * <p>A transaction usually reaches the node twice: first through gossip, when the transaction pool
+ * recovers its sender to validate it, and then in a block, which is decoded into new {@link
+ * Transaction} objects whose senders would otherwise be recovered again during import. The
+ * transaction pool adds the senders of the transactions it accepts here and {@link
+ * Transaction#getSender()} looks them up before recovering. Entries are keyed by transaction hash,
+ * which covers the signature, so a cached sender is always the one recovery would produce.
+ */
+public class TransactionSenderCache {
+
+  static final int DEFAULT_CAPACITY = 10_000;
+
+  private static final TransactionSenderCache INSTANCE =
+      new TransactionSenderCache(DEFAULT_CAPACITY);
+
+  private final Cache<Hash, Address> senders;
+  private volatile LabelledMetric<Counter> lookupCounter =
+      NoOpMetricsSystem.NO_OP_LABELLED_1_COUNTER;
+
+  @VisibleForTesting
+  TransactionSenderCache(final int capacity) {
+    this.senders = CacheBuilder.newBuilder().maximumSize(capacity).build();
+  }
+
+  public static TransactionSenderCache getInstance() {
+    return INSTANCE;
+  }
+
+  public void registerMetrics(final MetricsSystem metricsSystem) {
+    lookupCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.ETHEREUM,
+            "transaction_sender_cache_lookups_total",
+            "Number of transaction sender lookups answered from the sender cache",
+            "result");
+  }
+
+  public Optional<Address> get(final Hash transactionHash) {
+    final Address sender = senders.getIfPresent(transactionHash);
+    lookupCounter.labels(sender != null ? "hit" : "miss").inc();
+    return Optional.ofNullable(sender);
+  }
+
+  public void put(final Hash transactionHash, final Address sender) {
+    senders.put(transactionHash, sender);
+  }
+
+  @VisibleForTesting
+  void clear() {
+    senders.invalidateAll();
+  }
+}
@@ -34,6 +34,7 @@ import org.hyperledger.besu.plugin.data.TransactionType;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import com.google.common.collect.ImmutableList;
 import org.slf4j.Logger;
@@ -124,6 +125,8 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
 
   protected final MiningBeneficiaryCalculator miningBeneficiaryCalculator;
 
+  private Optional<ParallelTransactionProcessor> parallelTransactionProcessor = Optional.empty();
+
   protected AbstractBlockProcessor(
       final MainnetTransactionProcessor transactionProcessor,
       final TransactionReceiptFactory transactionReceiptFactory,
@@ -137,6 +140,17 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
     this.skipZeroBlockRewards = skipZeroBlockRewards;
   }
 
+  /**
+   * Enables the optimistic parallel execution of the transactions of blocks without private
+   * transactions.
+   *
+   * @param parallelTransactionProcessor the processor executing the transactions in parallel
+   */
+  public void setParallelTransactionProcessor(
+      final ParallelTransactionProcessor parallelTransactionProcessor) {
+    this.parallelTransactionProcessor = Optional.of(parallelTransactionProcessor);
+  }
+
   @Override
   public AbstractBlockProcessor.Result processBlock(
       final Blockchain blockchain,
@@ -147,7 +161,19 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
       final PrivateMetadataUpdater privateMetadataUpdater) {
     final List<TransactionReceipt> receipts = new ArrayList<>();
     long currentGasUsed = 0;
-    for (final Transaction transaction : transactions) {
+    final Optional<ParallelTransactionProcessor.BlockExecution> blockExecution =
+        privateMetadataUpdater == null && transactions.size() > 1
+            ? parallelTransactionProcessor.map(
+                processor ->
+                    processor.execute(
+                        blockchain,
+                        worldState,
+                        blockHeader,
+                        transactions,
+                        miningBeneficiaryCalculator.calculateBeneficiary(blockHeader)))
+            : Optional.empty();
+    for (int i = 0; i < transactions.size(); i++) {
+      final Transaction transaction = transactions.get(i);
       if (!hasAvailableBlockBudget(blockHeader, transaction, currentGasUsed)) {
         return AbstractBlockProcessor.Result.failed();
       }
@@ -157,18 +183,27 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
       final Address miningBeneficiary =
           miningBeneficiaryCalculator.calculateBeneficiary(blockHeader);
 
-      final TransactionProcessingResult result =
-          transactionProcessor.processTransaction(
-              blockchain,
-              worldStateUpdater,
-              blockHeader,
-              transaction,
-              miningBeneficiary,
-              OperationTracer.NO_TRACING,
-              blockHashLookup,
-              true,
-              TransactionValidationParams.processingBlock(),
-              privateMetadataUpdater);
+      final int transactionIndex = i;
+      final Optional<TransactionProcessingResult> speculativeResult =
+          blockExecution.flatMap(execution -> execution.apply(transactionIndex, worldStateUpdater));
+      final TransactionProcessingResult result;
+      if (speculativeResult.isPresent()) {
+        result = speculativeResult.get();
+      } else {
+        result =
+            transactionProcessor.processTransaction(
+                blockchain,
+                worldStateUpdater,
+                blockHeader,
+                transaction,
+                miningBeneficiary,
+                OperationTracer.NO_TRACING,
+                blockHashLookup,
+                true,
+                TransactionValidationParams.processingBlock(),
+                privateMetadataUpdater);
+        blockExecution.ifPresent(execution -> execution.recordExecution(worldStateUpdater));
+      }
       if (result.isInvalid()) {
         LOG.info(
             "Block processing error: transaction invalid '{}'. Block {} Transaction {}",
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.NavigableSet;
 import java.util.Optional;
 import java.util.TreeSet;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -102,6 +103,19 @@ public class MutableProtocolSchedule implements ProtocolSchedule {
         });
   }
 
+  @Override
+  public void setParallelTransactionExecutor(final Executor executor) {
+    protocolSpecs.forEach(
+        spec -> {
+          final BlockProcessor blockProcessor = spec.getSpec().getBlockProcessor();
+          if (AbstractBlockProcessor.class.isAssignableFrom(blockProcessor.getClass()))
+            ((AbstractBlockProcessor) blockProcessor)
+                .setParallelTransactionProcessor(
+                    new ParallelTransactionProcessor(
+                        spec.getSpec().getTransactionProcessor(), executor));
+        });
+  }
+
   public List<ScheduledProtocolSpec> getScheduledProtocolSpecs() {
     return protocolSpecs.stream().collect(Collectors.toUnmodifiableList());
   }
@@ -0,0 +1,238 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.mainnet.SpeculativeWorldUpdater.BlockStartState;
+import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
+import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes the transactions of a block optimistically in parallel.
+ *
+ * <p>Every transaction is first executed on its own {@link SpeculativeWorldUpdater} over the state
+ * at the start of the block. The block processor then goes through the transactions in order: the
+ * updates of a transaction that neither read nor wrote an account written by a preceding
+ * transaction of the block are applied as they are, the other transactions are executed again on
+ * the up to date state. Both give the same receipts and state root as sequential execution.
+ */
+public class ParallelTransactionProcessor {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ParallelTransactionProcessor.class);
+
+  private final MainnetTransactionProcessor transactionProcessor;
+  private final Executor executor;
+  private final AtomicLong appliedTransactions = new AtomicLong();
+  private final AtomicLong executedAgainTransactions = new AtomicLong();
+
+  /**
+   * Creates a parallel transaction processor.
+   *
+   * @param transactionProcessor the processor executing each transaction
+   * @param executor the executor the transactions are executed on, shared by the block processors
+   *     of all the protocol specs
+   */
+  public ParallelTransactionProcessor(
+      final MainnetTransactionProcessor transactionProcessor, final Executor executor) {
+    this.transactionProcessor = transactionProcessor;
+    this.executor = executor;
+  }
+
+  /**
+   * Creates an executor to execute transactions on. It is owned by the caller, which shuts it down.
+   *
+   * @param parallelism the number of threads executing transactions
+   * @return the executor
+   */
+  public static ExecutorService createExecutor(final int parallelism) {
+    final ThreadPoolExecutor threadPoolExecutor =
+        new ThreadPoolExecutor(
+            parallelism,
+            parallelism,
+            30L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat(ParallelTransactionProcessor.class.getSimpleName() + "-%d")
+                .build());
+    threadPoolExecutor.allowCoreThreadTimeOut(true);
+    return threadPoolExecutor;
+  }
+
+  /**
+   * The number of transactions whose speculative updates were applied.
+   *
+   * @return the number of transactions applied since the processor was created
+   */
+  public long getAppliedTransactionCount() {
+    return appliedTransactions.get();
+  }
+
+  /**
+   * The number of transactions executed again in order, as their speculative execution failed or
+   * conflicted with a preceding transaction of the block.
+   *
+   * @return the number of transactions executed again since the processor was created
+   */
+  public long getExecutedAgainTransactionCount() {
+    return executedAgainTransactions.get();
+  }
+
+  /**
+   * Executes the transactions speculatively, waiting for all of them to complete as the world
+   * state must not be updated while they read it.
+   *
+   * @param blockchain the current blockchain
+   * @param worldState the world state at the start of the block
+   * @param blockHeader the header of the block
+   * @param transactions the transactions of the block
+   * @param miningBeneficiary the address receiving the transaction fees
+   * @return the speculative execution of the block, to apply while processing it in order
+   */
+  public BlockExecution execute(
+      final Blockchain blockchain,
+      final MutableWorldState worldState,
+      final BlockHeader blockHeader,
+      final List<Transaction> transactions,
+      final Address miningBeneficiary) {
+    final BlockStartState blockStartState = new BlockStartState(worldState);
+    final List<CompletableFuture<Optional<SpeculativeExecution>>> executions =
+        new ArrayList<>(transactions.size());
+    for (final Transaction transaction : transactions) {
+      executions.add(
+          CompletableFuture.supplyAsync(
+              () ->
+                  execute(
+                      blockchain, blockStartState, blockHeader, transaction, miningBeneficiary),
+              executor));
+    }
+    final List<Optional<SpeculativeExecution>> results = new ArrayList<>(executions.size());
+    executions.forEach(execution -> results.add(execution.join()));
+    return new BlockExecution(results);
+  }
+
+  private Optional<SpeculativeExecution> execute(
+      final Blockchain blockchain,
+      final BlockStartState blockStartState,
+      final BlockHeader blockHeader,
+      final Transaction transaction,
+      final Address miningBeneficiary) {
+    try {
+      final SpeculativeWorldUpdater updater =
+          new SpeculativeWorldUpdater(
+              blockStartState, miningBeneficiary, transaction.getSender());
+      final TransactionProcessingResult result =
+          transactionProcessor.processTransaction(
+              blockchain,
+              updater,
+              blockHeader,
+              transaction,
+              miningBeneficiary,
+              OperationTracer.NO_TRACING,
+              new BlockHashLookup(blockHeader, blockchain),
+              true,
+              TransactionValidationParams.processingBlock(),
+              null);
+      return result.isInvalid()
+          ? Optional.empty()
+          : Optional.of(new SpeculativeExecution(updater, result));
+    } catch (final RuntimeException e) {
+      // The transaction is executed again in order, where the failure is reported.
+      LOG.trace("Speculative execution of transaction {} failed", transaction.getHash(), e);
+      return Optional.empty();
+    }
+  }
+
+  /** The speculative execution of the transactions of a block. */
+  public class BlockExecution {
+
+    private final List<Optional<SpeculativeExecution>> executions;
+    private final Set<Address> writtenAccounts = new HashSet<>();
+
+    private BlockExecution(final List<Optional<SpeculativeExecution>> executions) {
+      this.executions = executions;
+    }
+
+    /**
+     * Applies the speculative updates of a transaction if they don't conflict with the preceding
+     * transactions of the block.
+     *
+     * @param transactionIndex the index of the transaction in the block
+     * @param updater the updater of the transaction on the up to date state
+     * @return the result of the transaction, or empty if it has to be executed again
+     */
+    public Optional<TransactionProcessingResult> apply(
+        final int transactionIndex, final WorldUpdater updater) {
+      final Optional<SpeculativeExecution> maybeExecution = executions.get(transactionIndex);
+      if (maybeExecution.isEmpty()
+          || maybeExecution.get().updater.conflictsWith(writtenAccounts)) {
+        executedAgainTransactions.incrementAndGet();
+        return Optional.empty();
+      }
+      final SpeculativeExecution execution = maybeExecution.get();
+      execution.updater.applyTo(updater);
+      writtenAccounts.addAll(execution.updater.getWrittenAccounts());
+      appliedTransactions.incrementAndGet();
+      return Optional.of(execution.result);
+    }
+
+    /**
+     * Records the accounts written by a transaction executed again in order.
+     *
+     * @param updater the updater the transaction was executed on, before it is committed
+     */
+    public void recordExecution(final WorldUpdater updater) {
+      updater.getTouchedAccounts().stream().map(Account::getAddress).forEach(writtenAccounts::add);
+      writtenAccounts.addAll(updater.getDeletedAccountAddresses());
+    }
+  }
+
+  private static class SpeculativeExecution {
+
+    private final SpeculativeWorldUpdater updater;
+    private final TransactionProcessingResult result;
+
+    private SpeculativeExecution(
+        final SpeculativeWorldUpdater updater, final TransactionProcessingResult result) {
+      this.updater = updater;
+      this.result = result;
+    }
+  }
+}
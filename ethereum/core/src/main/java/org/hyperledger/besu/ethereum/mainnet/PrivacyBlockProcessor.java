@@ -24,6 +24,7 @@ import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.privacy.EnclavePayloadPrefetcher;
 import org.hyperledger.besu.ethereum.privacy.PrivateStateGenesisAllocator;
 import org.hyperledger.besu.ethereum.privacy.PrivateStateRehydration;
 import org.hyperledger.besu.ethereum.privacy.PrivateStateRootResolver;
@@ -52,6 +53,7 @@ public class PrivacyBlockProcessor implements BlockProcessor {
   private final BlockProcessor blockProcessor;
   private final ProtocolSchedule protocolSchedule;
   private final Enclave enclave;
+  private final Optional<EnclavePayloadPrefetcher> enclavePayloadPrefetcher;
   private final PrivateStateStorage privateStateStorage;
   private final WorldStateArchive privateWorldStateArchive;
   private final PrivateStateRootResolver privateStateRootResolver;
@@ -62,6 +64,7 @@ public class PrivacyBlockProcessor implements BlockProcessor {
       final BlockProcessor blockProcessor,
       final ProtocolSchedule protocolSchedule,
       final Enclave enclave,
+      final Optional<EnclavePayloadPrefetcher> enclavePayloadPrefetcher,
       final PrivateStateStorage privateStateStorage,
       final WorldStateArchive privateWorldStateArchive,
       final PrivateStateRootResolver privateStateRootResolver,
@@ -69,6 +72,7 @@ public class PrivacyBlockProcessor implements BlockProcessor {
     this.blockProcessor = blockProcessor;
     this.protocolSchedule = protocolSchedule;
     this.enclave = enclave;
+    this.enclavePayloadPrefetcher = enclavePayloadPrefetcher;
     this.privateStateStorage = privateStateStorage;
     this.privateWorldStateArchive = privateWorldStateArchive;
     this.privateStateRootResolver = privateStateRootResolver;
@@ -92,16 +96,25 @@ public class PrivacyBlockProcessor implements BlockProcessor {
       throw new IllegalArgumentException("PrivateMetadataUpdater passed in is not null.");
     }
 
-    maybeRehydrate(blockchain, blockHeader, transactions);
-
-    final PrivateMetadataUpdater metadataUpdater =
-        new PrivateMetadataUpdater(blockHeader, privateStateStorage);
-
-    final Result result =
-        blockProcessor.processBlock(
-            blockchain, worldState, blockHeader, transactions, ommers, metadataUpdater);
-    metadataUpdater.commit();
-    return result;
+    // start fetching the private payloads so they are ready by the time the precompile needs them
+    final List<String> prefetchedPayloadKeys =
+        enclavePayloadPrefetcher
+            .map(prefetcher -> prefetcher.prefetch(transactions))
+            .orElse(List.of());
+    try {
+      maybeRehydrate(blockchain, blockHeader, transactions);
+
+      final PrivateMetadataUpdater metadataUpdater =
+          new PrivateMetadataUpdater(blockHeader, privateStateStorage);
+
+      final Result result =
+          blockProcessor.processBlock(
+              blockchain, worldState, blockHeader, transactions, ommers, metadataUpdater);
+      metadataUpdater.commit();
+      return result;
+    } finally {
+      enclavePayloadPrefetcher.ifPresent(prefetcher -> prefetcher.release(prefetchedPayloadKeys));
+    }
   }
 
   void maybeRehydrate(
@@ -19,6 +19,7 @@ import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 
 import java.math.BigInteger;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 
 public interface ProtocolSchedule {
@@ -33,4 +34,11 @@ public interface ProtocolSchedule {
 
   void setPublicWorldStateArchiveForPrivacyBlockProcessor(
       WorldStateArchive publicWorldStateArchive);
+
+  /**
+   * Enables the optimistic parallel execution of the transactions of blocks, on the given executor.
+   *
+   * @param executor the executor shared by the block processors of all the protocol specs
+   */
+  void setParallelTransactionExecutor(Executor executor);
 }
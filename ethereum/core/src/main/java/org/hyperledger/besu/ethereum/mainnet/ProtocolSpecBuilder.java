@@ -342,6 +342,7 @@ public class ProtocolSpecBuilder {
               blockProcessor,
               protocolSchedule,
               privacyParameters.getEnclave(),
+              Optional.ofNullable(privacyParameters.getEnclavePayloadPrefetcher()),
               privacyParameters.getPrivateStateStorage(),
               privacyParameters.getPrivateWorldStateArchive(),
               privacyParameters.getPrivateStateRootResolver(),
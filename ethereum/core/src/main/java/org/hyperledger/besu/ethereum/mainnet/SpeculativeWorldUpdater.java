@@ -0,0 +1,281 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.account.AccountStorageEntry;
+import org.hyperledger.besu.evm.account.EvmAccount;
+import org.hyperledger.besu.evm.account.MutableAccount;
+import org.hyperledger.besu.evm.worldstate.AbstractWorldUpdater;
+import org.hyperledger.besu.evm.worldstate.StackedUpdater;
+import org.hyperledger.besu.evm.worldstate.UpdateTrackingAccount;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+import org.hyperledger.besu.evm.worldstate.WorldView;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.NavigableMap;
+import java.util.Set;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * A {@link StackedUpdater} on which a transaction is executed speculatively over the state at the
+ * start of its block. It records the accounts the transaction reads, so that its result can be
+ * checked against the accounts written by the transactions preceding it in the block before being
+ * applied.
+ *
+ * <p>Paying the fee to the mining beneficiary is not recorded as a read: every transaction pays it,
+ * so unless the transaction otherwise uses the beneficiary account the fee is applied as a balance
+ * increase on top of the fees paid by the preceding transactions.
+ */
+public class SpeculativeWorldUpdater extends StackedUpdater<WorldView, Account> {
+
+  private final Address miningBeneficiary;
+  private final Address sender;
+  private final Set<Address> readAccounts = new HashSet<>();
+  private boolean payingMiningBeneficiary;
+
+  public SpeculativeWorldUpdater(
+      final BlockStartState blockStartState,
+      final Address miningBeneficiary,
+      final Address sender) {
+    super(blockStartState);
+    this.miningBeneficiary = miningBeneficiary;
+    this.sender = sender;
+  }
+
+  @Override
+  public Account get(final Address address) {
+    readAccounts.add(address);
+    return super.get(address);
+  }
+
+  @Override
+  public EvmAccount getAccount(final Address address) {
+    // The transaction processor only gets the sender and the mining beneficiary directly from this
+    // updater, the EVM goes through the updaters stacked on top of it.
+    if (address.equals(miningBeneficiary) && !address.equals(sender)) {
+      payingMiningBeneficiary = true;
+      try {
+        return super.getAccount(address);
+      } finally {
+        payingMiningBeneficiary = false;
+      }
+    }
+    return super.getAccount(address);
+  }
+
+  @Override
+  protected UpdateTrackingAccount<Account> getForMutation(final Address address) {
+    if (!payingMiningBeneficiary) {
+      readAccounts.add(address);
+    }
+    return super.getForMutation(address);
+  }
+
+  @Override
+  public void commit() {
+    throw new UnsupportedOperationException("Speculative updates must be applied to an updater");
+  }
+
+  /**
+   * Whether the speculative execution depends on, or overwrites, one of the given accounts.
+   *
+   * @param writtenAccounts the accounts written by the preceding transactions of the block
+   * @return true if the transaction has to be executed again on the up to date state
+   */
+  public boolean conflictsWith(final Set<Address> writtenAccounts) {
+    final boolean onlyPaysMiningBeneficiary = onlyPaysMiningBeneficiary();
+    final Set<Address> usedAccounts = new HashSet<>(readAccounts);
+    getUpdatedAccounts().forEach(account -> usedAccounts.add(account.getAddress()));
+    usedAccounts.addAll(getDeletedAccounts());
+    if (onlyPaysMiningBeneficiary) {
+      usedAccounts.remove(miningBeneficiary);
+    }
+    return usedAccounts.stream().anyMatch(writtenAccounts::contains);
+  }
+
+  /**
+   * The accounts written by the speculative execution.
+   *
+   * @return the addresses of the updated and deleted accounts
+   */
+  public Set<Address> getWrittenAccounts() {
+    final Set<Address> writtenAccounts = new HashSet<>(getDeletedAccounts());
+    getUpdatedAccounts().forEach(account -> writtenAccounts.add(account.getAddress()));
+    return writtenAccounts;
+  }
+
+  /**
+   * Applies the speculative updates to the given updater, the same way {@link #commit()} would
+   * have applied them to the block start state.
+   *
+   * @param updater the updater of the transaction on the up to date state
+   */
+  public void applyTo(final WorldUpdater updater) {
+    final boolean onlyPaysMiningBeneficiary = onlyPaysMiningBeneficiary();
+    getDeletedAccounts().forEach(updater::deleteAccount);
+    for (final UpdateTrackingAccount<UpdateTrackingAccount<Account>> update :
+        getUpdatedAccounts()) {
+      final MutableAccount account = updater.getOrCreate(update.getAddress()).getMutable();
+      if (onlyPaysMiningBeneficiary && update.getAddress().equals(miningBeneficiary)) {
+        final Account blockStartAccount = update.getWrappedAccount();
+        final Wei blockStartBalance =
+            blockStartAccount == null ? Wei.ZERO : blockStartAccount.getBalance();
+        account.incrementBalance(update.getBalance().subtract(blockStartBalance));
+        continue;
+      }
+      account.setNonce(update.getNonce());
+      account.setBalance(update.getBalance());
+      if (update.codeWasUpdated()) {
+        account.setCode(update.getCode());
+      }
+      if (update.getStorageWasCleared()) {
+        account.clearStorage();
+      }
+      update.getUpdatedStorage().forEach(account::setStorageValue);
+    }
+  }
+
+  private boolean onlyPaysMiningBeneficiary() {
+    // A beneficiary left empty by a zero fee is deleted, which depends on the fees paid before.
+    return !readAccounts.contains(miningBeneficiary)
+        && !getDeletedAccounts().contains(miningBeneficiary);
+  }
+
+  /**
+   * The read only state at the start of a block, shared by the transactions executed speculatively
+   * over it. Reads are serialized as world states are not safe for concurrent use, even to read.
+   */
+  public static class BlockStartState extends AbstractWorldUpdater<WorldView, Account> {
+
+    public BlockStartState(final WorldView worldState) {
+      super(worldState);
+    }
+
+    @Override
+    public Account get(final Address address) {
+      return getForMutation(address);
+    }
+
+    @Override
+    protected Account getForMutation(final Address address) {
+      synchronized (this) {
+        final Account account = wrappedWorldView().get(address);
+        return account == null ? null : new SynchronizedAccount(account, this);
+      }
+    }
+
+    @Override
+    public Collection<? extends Account> getTouchedAccounts() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public Collection<Address> getDeletedAccountAddresses() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public void revert() {
+      throw new UnsupportedOperationException("The block start state is read only");
+    }
+
+    @Override
+    public void commit() {
+      throw new UnsupportedOperationException("The block start state is read only");
+    }
+  }
+
+  private static class SynchronizedAccount implements Account {
+
+    private final Account account;
+    private final Object lock;
+
+    private SynchronizedAccount(final Account account, final Object lock) {
+      this.account = account;
+      this.lock = lock;
+    }
+
+    @Override
+    public Address getAddress() {
+      return account.getAddress();
+    }
+
+    @Override
+    public Hash getAddressHash() {
+      synchronized (lock) {
+        return account.getAddressHash();
+      }
+    }
+
+    @Override
+    public long getNonce() {
+      synchronized (lock) {
+        return account.getNonce();
+      }
+    }
+
+    @Override
+    public Wei getBalance() {
+      synchronized (lock) {
+        return account.getBalance();
+      }
+    }
+
+    @Override
+    public Bytes getCode() {
+      synchronized (lock) {
+        return account.getCode();
+      }
+    }
+
+    @Override
+    public Hash getCodeHash() {
+      synchronized (lock) {
+        return account.getCodeHash();
+      }
+    }
+
+    @Override
+    public UInt256 getStorageValue(final UInt256 key) {
+      synchronized (lock) {
+        return account.getStorageValue(key);
+      }
+    }
+
+    @Override
+    public UInt256 getOriginalStorageValue(final UInt256 key) {
+      synchronized (lock) {
+        return account.getOriginalStorageValue(key);
+      }
+    }
+
+    @Override
+    public NavigableMap<Bytes32, AccountStorageEntry> storageEntriesFrom(
+        final Bytes32 startKeyHash, final int limit) {
+      synchronized (lock) {
+        return account.storageEntriesFrom(startKeyHash, limit);
+      }
+    }
+  }
+}
@@ -82,12 +82,14 @@ public class FlexiblePrivacyPrecompiledContract extends PrivacyPrecompiledContra
 
   public FlexiblePrivacyPrecompiledContract(
       final GasCalculator gasCalculator, final PrivacyParameters privacyParameters) {
-    this(
+    super(
         gasCalculator,
         privacyParameters.getEnclave(),
+        Optional.ofNullable(privacyParameters.getEnclavePayloadPrefetcher()),
         privacyParameters.getPrivateWorldStateArchive(),
         privacyParameters.getPrivateStateRootResolver(),
-        privacyParameters.getPrivateStateGenesisAllocator());
+        privacyParameters.getPrivateStateGenesisAllocator(),
+        "FlexiblePrivacy");
   }
 
   public long addPrivateTransactionObserver(final PrivateTransactionObserver observer) {
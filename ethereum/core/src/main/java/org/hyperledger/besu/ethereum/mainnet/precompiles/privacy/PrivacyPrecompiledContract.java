@@ -30,6 +30,7 @@ import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.PrivacyParameters;
 import org.hyperledger.besu.ethereum.core.ProcessableBlockHeader;
+import org.hyperledger.besu.ethereum.privacy.EnclavePayloadPrefetcher;
 import org.hyperledger.besu.ethereum.privacy.PrivateStateGenesisAllocator;
 import org.hyperledger.besu.ethereum.privacy.PrivateStateRootResolver;
 import org.hyperledger.besu.ethereum.privacy.PrivateTransaction;
@@ -50,6 +51,7 @@ import org.hyperledger.besu.evm.worldstate.WorldUpdater;
 import org.hyperledger.besu.plugin.data.Hash;
 
 import java.util.Base64;
+import java.util.Optional;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
@@ -58,6 +60,7 @@ import org.slf4j.LoggerFactory;
 
 public class PrivacyPrecompiledContract extends AbstractPrecompiledContract {
   private final Enclave enclave;
+  private final Optional<EnclavePayloadPrefetcher> enclavePayloadPrefetcher;
   final WorldStateArchive privateWorldStateArchive;
   final PrivateStateRootResolver privateStateRootResolver;
   private final PrivateStateGenesisAllocator privateStateGenesisAllocator;
@@ -72,6 +75,7 @@ public class PrivacyPrecompiledContract extends AbstractPrecompiledContract {
     this(
         gasCalculator,
         privacyParameters.getEnclave(),
+        Optional.ofNullable(privacyParameters.getEnclavePayloadPrefetcher()),
         privacyParameters.getPrivateWorldStateArchive(),
         privacyParameters.getPrivateStateRootResolver(),
         privacyParameters.getPrivateStateGenesisAllocator(),
@@ -85,8 +89,27 @@ public class PrivacyPrecompiledContract extends AbstractPrecompiledContract {
       final PrivateStateRootResolver privateStateRootResolver,
       final PrivateStateGenesisAllocator privateStateGenesisAllocator,
       final String name) {
+    this(
+        gasCalculator,
+        enclave,
+        Optional.empty(),
+        worldStateArchive,
+        privateStateRootResolver,
+        privateStateGenesisAllocator,
+        name);
+  }
+
+  protected PrivacyPrecompiledContract(
+      final GasCalculator gasCalculator,
+      final Enclave enclave,
+      final Optional<EnclavePayloadPrefetcher> enclavePayloadPrefetcher,
+      final WorldStateArchive worldStateArchive,
+      final PrivateStateRootResolver privateStateRootResolver,
+      final PrivateStateGenesisAllocator privateStateGenesisAllocator,
+      final String name) {
     super(name, gasCalculator);
     this.enclave = enclave;
+    this.enclavePayloadPrefetcher = enclavePayloadPrefetcher;
     this.privateWorldStateArchive = worldStateArchive;
     this.privateStateRootResolver = privateStateRootResolver;
     this.privateStateGenesisAllocator = privateStateGenesisAllocator;
@@ -253,7 +276,11 @@ public class PrivacyPrecompiledContract extends AbstractPrecompiledContract {
   ReceiveResponse getReceiveResponse(final String key) {
     final ReceiveResponse receiveResponse;
     try {
-      receiveResponse = enclave.receive(key);
+      // served from the payloads prefetched for the block when available
+      receiveResponse =
+          enclavePayloadPrefetcher
+              .map(prefetcher -> prefetcher.receive(key))
+              .orElseGet(() -> enclave.receive(key));
     } catch (final EnclaveServerException e) {
       throw new IllegalStateException(
           "Enclave is responding with an error, perhaps it has a misconfiguration?", e);
@@ -0,0 +1,202 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.privacy;
+
+import static org.hyperledger.besu.ethereum.core.PrivacyParameters.DEFAULT_PRIVACY;
+import static org.hyperledger.besu.ethereum.core.PrivacyParameters.FLEXIBLE_PRIVACY;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.enclave.Enclave;
+import org.hyperledger.besu.enclave.types.ReceiveResponse;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.tuweni.bytes.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fetches the private transaction payloads referenced by the privacy marker transactions of a block
+ * from the enclave concurrently, before the block is executed, so that the privacy precompile does
+ * not have to wait for one enclave round trip per private transaction.
+ *
+ * <p>Payloads are keyed by their enclave key, which is derived from the payload itself, so an entry
+ * can never be served for the wrong transaction. Entries only live while the block that prefetched
+ * them is being processed.
+ */
+public class EnclavePayloadPrefetcher {
+
+  private static final Logger LOG = LoggerFactory.getLogger(EnclavePayloadPrefetcher.class);
+
+  public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+
+  private final Enclave enclave;
+  private final Address privacyPrecompileAddress;
+  private final Executor executor;
+  private final Map<String, CompletableFuture<ReceiveResponse>> payloads =
+      new ConcurrentHashMap<>();
+
+  private final OperationTimer waitTimer;
+  private final Counter prefetchCounter;
+  private final Counter missCounter;
+
+  /**
+   * Creates an enclave payload prefetcher.
+   *
+   * @param enclave the enclave the payloads are fetched from
+   * @param privacyPrecompileAddress the address of the privacy precompile the payloads are for
+   * @param executor the executor the enclave requests are made on
+   * @param metricsSystem the metrics system
+   */
+  public EnclavePayloadPrefetcher(
+      final Enclave enclave,
+      final Address privacyPrecompileAddress,
+      final Executor executor,
+      final MetricsSystem metricsSystem) {
+    this.enclave = enclave;
+    this.privacyPrecompileAddress = privacyPrecompileAddress;
+    this.executor = executor;
+
+    this.waitTimer =
+        metricsSystem.createTimer(
+            BesuMetricCategory.PRIVACY,
+            "enclave_payload_wait_time",
+            "Time spent by block processing waiting for private transaction payloads");
+    this.prefetchCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.PRIVACY,
+            "enclave_payload_prefetched_total",
+            "Number of private transaction payloads requested ahead of block execution");
+    this.missCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.PRIVACY,
+            "enclave_payload_prefetch_misses_total",
+            "Number of private transaction payloads that had to be fetched during execution");
+  }
+
+  /**
+   * Creates an executor to make enclave requests on. It is owned by the caller, which shuts it
+   * down.
+   *
+   * @param maxConcurrentRequests the maximum number of enclave requests in flight
+   * @return the executor
+   */
+  public static ExecutorService createExecutor(final int maxConcurrentRequests) {
+    final ThreadPoolExecutor threadPoolExecutor =
+        new ThreadPoolExecutor(
+            maxConcurrentRequests,
+            maxConcurrentRequests,
+            30L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat(EnclavePayloadPrefetcher.class.getSimpleName() + "-%d")
+                .build());
+    threadPoolExecutor.allowCoreThreadTimeOut(true);
+    return threadPoolExecutor;
+  }
+
+  /**
+   * Starts fetching the payloads of all the privacy marker transactions in the given list.
+   *
+   * @param transactions the transactions of the block about to be processed
+   * @return the enclave keys that were prefetched, to be passed to {@link #release(Collection)}
+   *     once the block has been processed
+   */
+  public List<String> prefetch(final List<Transaction> transactions) {
+    final List<String> keys = new ArrayList<>();
+    for (final Transaction transaction : transactions) {
+      payloadKey(transaction)
+          .ifPresent(
+              key -> {
+                keys.add(key);
+                payloads.computeIfAbsent(
+                    key,
+                    k -> {
+                      prefetchCounter.inc();
+                      return CompletableFuture.supplyAsync(() -> enclave.receive(k), executor);
+                    });
+              });
+    }
+    if (!keys.isEmpty()) {
+      LOG.trace("Prefetching {} private transaction payloads", keys.size());
+    }
+    return keys;
+  }
+
+  /**
+   * Returns the payload for the given key, waiting for it if it is still being prefetched and
+   * fetching it from the enclave if it was not prefetched. Enclave errors are rethrown as they
+   * would be by {@link Enclave#receive(String)}.
+   *
+   * @param key the enclave key of the payload
+   * @return the enclave response
+   */
+  public ReceiveResponse receive(final String key) {
+    try (final OperationTimer.TimingContext ignored = waitTimer.startTimer()) {
+      final CompletableFuture<ReceiveResponse> payload = payloads.get(key);
+      if (payload == null) {
+        missCounter.inc();
+        return enclave.receive(key);
+      }
+      try {
+        return payload.join();
+      } catch (final CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw e;
+      }
+    }
+  }
+
+  public void release(final Collection<String> keys) {
+    keys.forEach(payloads::remove);
+  }
+
+  private Optional<String> payloadKey(final Transaction transaction) {
+    if (!transaction.getTo().map(privacyPrecompileAddress::equals).orElse(false)) {
+      return Optional.empty();
+    }
+    final Bytes payload = transaction.getPayload();
+    // the privacy precompiles read the enclave key from their input, see
+    // PrivacyPrecompiledContract and FlexiblePrivacyPrecompiledContract
+    if (DEFAULT_PRIVACY.equals(privacyPrecompileAddress)) {
+      return Optional.of(payload.toBase64String());
+    } else if (FLEXIBLE_PRIVACY.equals(privacyPrecompileAddress) && payload.size() >= 32) {
+      return Optional.of(payload.slice(0, 32).toBase64String());
+    }
+    return Optional.empty();
+  }
+}
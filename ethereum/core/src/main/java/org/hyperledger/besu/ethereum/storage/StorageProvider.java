@@ -29,6 +29,17 @@ public interface StorageProvider extends Closeable {
 
   BlockchainStorage createBlockchainStorage(ProtocolSchedule protocolSchedule);
 
+  /**
+   * Creates the blockchain storage.
+   *
+   * @param protocolSchedule the protocol schedule used to decode block headers
+   * @param compactReceipts whether to store transaction receipts in the compact encoding, which
+   *     requires a database version that allows it
+   * @return the blockchain storage
+   */
+  BlockchainStorage createBlockchainStorage(
+      ProtocolSchedule protocolSchedule, boolean compactReceipts);
+
   WorldStateStorage createWorldStateStorage(DataStorageFormat dataStorageFormat);
 
   WorldStatePreimageStorage createWorldStatePreimageStorage();
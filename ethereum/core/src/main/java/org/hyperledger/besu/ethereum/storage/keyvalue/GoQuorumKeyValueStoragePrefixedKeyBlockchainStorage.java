@@ -36,6 +36,13 @@ public class GoQuorumKeyValueStoragePrefixedKeyBlockchainStorage
     super(storage, blockHeaderFunctions);
   }
 
+  public GoQuorumKeyValueStoragePrefixedKeyBlockchainStorage(
+      final KeyValueStorage storage,
+      final BlockHeaderFunctions blockHeaderFunctions,
+      final boolean compactReceipts) {
+    super(storage, blockHeaderFunctions, compactReceipts);
+  }
+
   @Override
   public Optional<BlockHeader> getBlockHeader(final Hash blockHash) {
     final Optional<BlockHeader> blockHeaderOptional =
@@ -52,13 +59,14 @@ public class GoQuorumKeyValueStoragePrefixedKeyBlockchainStorage
 
   @Override
   public Updater updater() {
-    return new Updater(storage.startTransaction());
+    return new Updater(storage.startTransaction(), compactReceipts);
   }
 
   public static class Updater extends KeyValueStoragePrefixedKeyBlockchainStorage.Updater {
 
-    private Updater(final KeyValueStorageTransaction transaction) {
-      super(transaction);
+    private Updater(
+        final KeyValueStorageTransaction transaction, final boolean compactReceipts) {
+      super(transaction, compactReceipts);
     }
 
     @Override
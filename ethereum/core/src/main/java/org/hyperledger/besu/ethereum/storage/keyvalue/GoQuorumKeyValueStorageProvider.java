@@ -44,9 +44,11 @@ public class GoQuorumKeyValueStorageProvider extends KeyValueStorageProvider {
   }
 
   @Override
-  public BlockchainStorage createBlockchainStorage(final ProtocolSchedule protocolSchedule) {
+  public BlockchainStorage createBlockchainStorage(
+      final ProtocolSchedule protocolSchedule, final boolean compactReceipts) {
     return new GoQuorumKeyValueStoragePrefixedKeyBlockchainStorage(
         getStorageBySegmentIdentifier(KeyValueSegmentIdentifier.BLOCKCHAIN),
-        ScheduleBasedBlockHeaderFunctions.create(protocolSchedule));
+        ScheduleBasedBlockHeaderFunctions.create(protocolSchedule),
+        compactReceipts);
   }
 }
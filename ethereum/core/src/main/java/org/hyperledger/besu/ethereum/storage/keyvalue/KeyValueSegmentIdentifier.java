@@ -20,15 +20,15 @@ import org.bouncycastle.util.Arrays;
 
 public enum KeyValueSegmentIdentifier implements SegmentIdentifier {
   BLOCKCHAIN(new byte[] {1}),
-  WORLD_STATE(new byte[] {2}, new int[] {0, 1}),
+  WORLD_STATE(new byte[] {2}, new int[] {0, 1, 3}),
   PRIVATE_TRANSACTIONS(new byte[] {3}),
   PRIVATE_STATE(new byte[] {4}),
-  PRUNING_STATE(new byte[] {5}, new int[] {0, 1}),
-  ACCOUNT_INFO_STATE(new byte[] {6}, new int[] {2}),
-  CODE_STORAGE(new byte[] {7}, new int[] {2}),
-  ACCOUNT_STORAGE_STORAGE(new byte[] {8}, new int[] {2}),
-  TRIE_BRANCH_STORAGE(new byte[] {9}, new int[] {2}),
-  TRIE_LOG_STORAGE(new byte[] {10}, new int[] {2}),
+  PRUNING_STATE(new byte[] {5}, new int[] {0, 1, 3}),
+  ACCOUNT_INFO_STATE(new byte[] {6}, new int[] {2, 4}),
+  CODE_STORAGE(new byte[] {7}, new int[] {2, 4}),
+  ACCOUNT_STORAGE_STORAGE(new byte[] {8}, new int[] {2, 4}),
+  TRIE_BRANCH_STORAGE(new byte[] {9}, new int[] {2, 4}),
+  TRIE_LOG_STORAGE(new byte[] {10}, new int[] {2, 4}),
   GOQUORUM_PRIVATE_WORLD_STATE(new byte[] {11}),
   GOQUORUM_PRIVATE_STORAGE(new byte[] {12});
 
@@ -36,7 +36,7 @@ public enum KeyValueSegmentIdentifier implements SegmentIdentifier {
   private final int[] versionList;
 
   KeyValueSegmentIdentifier(final byte[] id) {
-    this(id, new int[] {0, 1, 2});
+    this(id, new int[] {0, 1, 2, 3, 4});
   }
 
   KeyValueSegmentIdentifier(final byte[] id, final int[] versionList) {
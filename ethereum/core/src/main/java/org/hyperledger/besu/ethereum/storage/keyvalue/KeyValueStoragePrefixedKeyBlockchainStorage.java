@@ -22,7 +22,9 @@ import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.BlockHeaderFunctions;
 import org.hyperledger.besu.ethereum.core.Difficulty;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.rlp.LazyRLPList;
 import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 
@@ -42,22 +44,48 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
       Bytes.wrap("chainHeadHash".getBytes(StandardCharsets.UTF_8));
   private static final Bytes FORK_HEADS_KEY =
       Bytes.wrap("forkHeads".getBytes(StandardCharsets.UTF_8));
+  static final Bytes RECEIPTS_COMPACTED_UP_TO_KEY =
+      Bytes.wrap("receiptsCompactedUpTo".getBytes(StandardCharsets.UTF_8));
 
-  private static final Bytes CONSTANTS_PREFIX = Bytes.of(1);
+  static final Bytes CONSTANTS_PREFIX = Bytes.of(1);
   static final Bytes BLOCK_HEADER_PREFIX = Bytes.of(2);
   private static final Bytes BLOCK_BODY_PREFIX = Bytes.of(3);
-  private static final Bytes TRANSACTION_RECEIPTS_PREFIX = Bytes.of(4);
-  private static final Bytes BLOCK_HASH_PREFIX = Bytes.of(5);
+  static final Bytes TRANSACTION_RECEIPTS_PREFIX = Bytes.of(4);
+  static final Bytes BLOCK_HASH_PREFIX = Bytes.of(5);
   private static final Bytes TOTAL_DIFFICULTY_PREFIX = Bytes.of(6);
   private static final Bytes TRANSACTION_LOCATION_PREFIX = Bytes.of(7);
 
+  // Receipts are stored as the RLP list of their network encoding, which starts with a list prefix,
+  // unless compact receipts are enabled. The compact encoding starts with this version byte
+  // instead, followed by the RLP list of the receipts written without their logs bloom filter.
+  // Receipts in either encoding can be read, but only databases whose version allows compact
+  // receipts may contain them.
+  static final byte COMPACT_RECEIPTS_VERSION = 0x01;
+
   final KeyValueStorage storage;
   final BlockHeaderFunctions blockHeaderFunctions;
+  final boolean compactReceipts;
 
   public KeyValueStoragePrefixedKeyBlockchainStorage(
       final KeyValueStorage storage, final BlockHeaderFunctions blockHeaderFunctions) {
+    this(storage, blockHeaderFunctions, false);
+  }
+
+  /**
+   * Creates a blockchain storage.
+   *
+   * @param storage the storage to keep the blockchain in
+   * @param blockHeaderFunctions the functions used to decode block headers
+   * @param compactReceipts whether to store transaction receipts in the compact encoding, which
+   *     requires a database version that allows it
+   */
+  public KeyValueStoragePrefixedKeyBlockchainStorage(
+      final KeyValueStorage storage,
+      final BlockHeaderFunctions blockHeaderFunctions,
+      final boolean compactReceipts) {
     this.storage = storage;
     this.blockHeaderFunctions = blockHeaderFunctions;
+    this.compactReceipts = compactReceipts;
   }
 
   @Override
@@ -81,7 +109,7 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
   @Override
   public Optional<BlockBody> getBlockBody(final Hash blockHash) {
     return get(BLOCK_BODY_PREFIX, blockHash)
-        .map(bytes -> BlockBody.readFrom(RLP.input(bytes), blockHeaderFunctions));
+        .map(bytes -> BlockBody.readLazilyFrom(RLP.input(bytes), blockHeaderFunctions));
   }
 
   @Override
@@ -89,6 +117,16 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
     return get(TRANSACTION_RECEIPTS_PREFIX, blockHash).map(this::rlpDecodeTransactionReceipts);
   }
 
+  @Override
+  public Optional<Bytes> getBlockBodyRlp(final Hash blockHash) {
+    return get(BLOCK_BODY_PREFIX, blockHash);
+  }
+
+  @Override
+  public Optional<Bytes> getTransactionReceiptsRlp(final Hash blockHash) {
+    return get(TRANSACTION_RECEIPTS_PREFIX, blockHash).map(this::networkEncodeTransactionReceipts);
+  }
+
   @Override
   public Optional<Hash> getBlockHash(final long blockNumber) {
     return get(BLOCK_HASH_PREFIX, UInt256.valueOf(blockNumber)).map(this::bytesToHash);
@@ -107,11 +145,65 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
 
   @Override
   public Updater updater() {
-    return new Updater(storage.startTransaction());
+    return new Updater(storage.startTransaction(), compactReceipts);
   }
 
   private List<TransactionReceipt> rlpDecodeTransactionReceipts(final Bytes bytes) {
-    return RLP.input(bytes).readList(TransactionReceipt::readFrom);
+    // Receipts are often read for a single transaction or to match a few logs, so only decode the
+    // ones that are accessed.
+    if (isCompactReceipts(bytes)) {
+      return LazyRLPList.readFrom(RLP.input(bytes.slice(1)), TransactionReceipt::readFromStorage);
+    }
+    return LazyRLPList.readFrom(RLP.input(bytes), TransactionReceipt::readFrom);
+  }
+
+  private Bytes networkEncodeTransactionReceipts(final Bytes bytes) {
+    final boolean compact = isCompactReceipts(bytes);
+    if (!compact && !hasRevertReason(bytes)) {
+      return bytes;
+    }
+    // the receipts are copied field by field rather than decoded and encoded again
+    final RLPInput input = RLP.input(compact ? bytes.slice(1) : bytes);
+    return RLP.encode(
+        out -> {
+          out.startList();
+          input.enterList();
+          while (!input.isEndOfCurrentList()) {
+            TransactionReceipt.writeStoredForNetwork(input, compact, out);
+          }
+          input.leaveList();
+          out.endList();
+        });
+  }
+
+  private static boolean hasRevertReason(final Bytes storedReceipts) {
+    final RLPInput input = RLP.input(storedReceipts);
+    input.enterList();
+    while (!input.isEndOfCurrentList()) {
+      final RLPInput receipt = input.readAsRlp();
+      // typed receipts are the type byte followed by the receipt fields
+      final RLPInput fields =
+          receipt.nextIsList() ? receipt : RLP.input(receipt.readBytes().slice(1));
+      fields.enterList();
+      // status or state root, cumulative gas used, logs bloom and logs
+      for (int i = 0; i < 4; i++) {
+        fields.skipNext();
+      }
+      if (!fields.isEndOfCurrentList()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  static boolean isCompactReceipts(final Bytes bytes) {
+    return !bytes.isEmpty() && bytes.get(0) == COMPACT_RECEIPTS_VERSION;
+  }
+
+  static Bytes compactReceipts(final List<TransactionReceipt> receipts) {
+    return Bytes.concatenate(
+        Bytes.of(COMPACT_RECEIPTS_VERSION),
+        RLP.encode(o -> o.writeList(receipts, TransactionReceipt::writeToForStorage)));
   }
 
   private Hash bytesToHash(final Bytes bytes) {
@@ -125,9 +217,11 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
   public static class Updater implements BlockchainStorage.Updater {
 
     private final KeyValueStorageTransaction transaction;
+    private final boolean compactReceipts;
 
-    Updater(final KeyValueStorageTransaction transaction) {
+    Updater(final KeyValueStorageTransaction transaction, final boolean compactReceipts) {
       this.transaction = transaction;
+      this.compactReceipts = compactReceipts;
     }
 
     @Override
@@ -149,7 +243,10 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
     @Override
     public void putTransactionReceipts(
         final Hash blockHash, final List<TransactionReceipt> transactionReceipts) {
-      set(TRANSACTION_RECEIPTS_PREFIX, blockHash, rlpEncode(transactionReceipts));
+      set(
+          TRANSACTION_RECEIPTS_PREFIX,
+          blockHash,
+          compactReceipts ? compactReceipts(transactionReceipts) : rlpEncode(transactionReceipts));
     }
 
     @Override
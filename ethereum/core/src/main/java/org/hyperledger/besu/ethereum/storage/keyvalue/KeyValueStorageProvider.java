@@ -63,9 +63,16 @@ public class KeyValueStorageProvider implements StorageProvider {
 
   @Override
   public BlockchainStorage createBlockchainStorage(final ProtocolSchedule protocolSchedule) {
+    return createBlockchainStorage(protocolSchedule, false);
+  }
+
+  @Override
+  public BlockchainStorage createBlockchainStorage(
+      final ProtocolSchedule protocolSchedule, final boolean compactReceipts) {
     return new KeyValueStoragePrefixedKeyBlockchainStorage(
         getStorageBySegmentIdentifier(KeyValueSegmentIdentifier.BLOCKCHAIN),
-        ScheduleBasedBlockHeaderFunctions.create(protocolSchedule));
+        ScheduleBasedBlockHeaderFunctions.create(protocolSchedule),
+        compactReceipts);
   }
 
   @Override
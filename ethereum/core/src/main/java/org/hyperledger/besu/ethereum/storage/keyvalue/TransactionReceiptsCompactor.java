@@ -0,0 +1,197 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage.BLOCK_HASH_PREFIX;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage.CONSTANTS_PREFIX;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage.RECEIPTS_COMPACTED_UP_TO_KEY;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage.TRANSACTION_RECEIPTS_PREFIX;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage.compactReceipts;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage.isCompactReceipts;
+
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+
+import java.io.Closeable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rewrites, in the background, the transaction receipts of the canonical chain that are stored in
+ * the encoding including their logs bloom filter into the compact encoding, which leaves the bloom
+ * filters out. It must only run on a database whose version allows compact receipts.
+ *
+ * <p>Blocks are rewritten in order of their number, in batches. The number of the last block gone
+ * through is stored with each batch, so a rewrite that was stopped resumes where it left off and
+ * later starts only go through the blocks added since. Receipts of blocks that are not on the
+ * canonical chain keep the encoding they were stored in, as both encodings can be read.
+ *
+ * <p>The receipts of a block may be stored again while they are being rewritten, for instance when
+ * the block is imported again. Receipts are therefore only rewritten if they still hold the value
+ * that was read right before the batch is committed.
+ */
+public class TransactionReceiptsCompactor implements Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TransactionReceiptsCompactor.class);
+
+  private static final int BATCH_SIZE = 1_000;
+  private static final byte[] COMPACTED_UP_TO_KEY =
+      Bytes.concatenate(CONSTANTS_PREFIX, RECEIPTS_COMPACTED_UP_TO_KEY).toArrayUnsafe();
+
+  private final KeyValueStorage storage;
+  private final ExecutorService executor;
+  private final AtomicBoolean stopped = new AtomicBoolean(false);
+
+  private final Counter compactedBlocksCounter;
+  private final Counter bytesSavedCounter;
+
+  public TransactionReceiptsCompactor(
+      final KeyValueStorage storage, final MetricsSystem metricsSystem) {
+    this.storage = storage;
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat(getClass().getSimpleName())
+                .build());
+    this.compactedBlocksCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "receipts_compacted_blocks_total",
+            "Number of blocks whose stored receipts were rewritten in the compact encoding");
+    this.bytesSavedCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "receipts_compaction_bytes_saved_total",
+            "Number of bytes saved by rewriting stored receipts in the compact encoding");
+  }
+
+  /** Starts rewriting the stored receipts of the blocks not gone through yet. */
+  public void start() {
+    executor.execute(
+        () -> {
+          try {
+            compact();
+          } catch (final RuntimeException e) {
+            LOG.warn("Failed to rewrite stored receipts in the compact encoding", e);
+          }
+        });
+  }
+
+  /** Stops rewriting receipts, and waits for the batch being rewritten to be committed. */
+  @Override
+  public void close() {
+    stopped.set(true);
+    executor.shutdown();
+    // the storage is closed next, so nothing may be written to it anymore
+    Uninterruptibles.awaitTerminationUninterruptibly(executor);
+  }
+
+  /**
+   * Rewrites the stored receipts of the canonical blocks not gone through yet that are not in the
+   * compact encoding.
+   *
+   * @return the number of bytes saved
+   */
+  @VisibleForTesting
+  long compact() {
+    final long firstBlockNumber = getCompactedUpTo().map(number -> number + 1).orElse(0L);
+    LOG.debug("Rewriting stored receipts in the compact encoding from block {}", firstBlockNumber);
+    long nextBlockNumber = firstBlockNumber;
+    long compactedBlocks = 0;
+    long bytesSaved = 0;
+    boolean reachedHead = false;
+    while (!reachedHead && !stopped.get()) {
+      final Map<Bytes, Bytes> legacyReceipts = new LinkedHashMap<>();
+      final long batchStart = nextBlockNumber;
+      while (nextBlockNumber - batchStart < BATCH_SIZE) {
+        final Optional<Bytes> blockHash = get(BLOCK_HASH_PREFIX, UInt256.valueOf(nextBlockNumber));
+        if (blockHash.isEmpty()) {
+          reachedHead = true;
+          break;
+        }
+        final Bytes key = Bytes.concatenate(TRANSACTION_RECEIPTS_PREFIX, blockHash.get());
+        get(key)
+            .filter(stored -> !isCompactReceipts(stored))
+            .ifPresent(stored -> legacyReceipts.put(key, stored));
+        nextBlockNumber++;
+      }
+      if (nextBlockNumber == batchStart) {
+        break;
+      }
+
+      final KeyValueStorageTransaction transaction = storage.startTransaction();
+      for (final Map.Entry<Bytes, Bytes> entry : legacyReceipts.entrySet()) {
+        final Bytes stored = entry.getValue();
+        final Bytes compacted =
+            compactReceipts(RLP.input(stored).readList(TransactionReceipt::readFrom));
+        if (get(entry.getKey()).filter(stored::equals).isEmpty()) {
+          continue;
+        }
+        transaction.put(entry.getKey().toArrayUnsafe(), compacted.toArrayUnsafe());
+        compactedBlocks++;
+        bytesSaved += stored.size() - compacted.size();
+        compactedBlocksCounter.inc();
+        bytesSavedCounter.inc(stored.size() - compacted.size());
+      }
+      transaction.put(
+          COMPACTED_UP_TO_KEY, Bytes.ofUnsignedLong(nextBlockNumber - 1).toArrayUnsafe());
+      transaction.commit();
+      LOG.debug(
+          "Receipts compaction progress: up to block {}, {} blocks rewritten, {} bytes saved",
+          nextBlockNumber - 1,
+          compactedBlocks,
+          bytesSaved);
+    }
+    if (compactedBlocks > 0) {
+      LOG.info(
+          "Rewrote the receipts of {} blocks in the compact encoding, {} bytes saved{}",
+          compactedBlocks,
+          bytesSaved,
+          reachedHead ? "" : ", resuming on next start");
+    }
+    return bytesSaved;
+  }
+
+  @VisibleForTesting
+  Optional<Long> getCompactedUpTo() {
+    return storage.get(COMPACTED_UP_TO_KEY).map(Bytes::wrap).map(Bytes::toLong);
+  }
+
+  private Optional<Bytes> get(final Bytes prefix, final Bytes key) {
+    return get(Bytes.concatenate(prefix, key));
+  }
+
+  private Optional<Bytes> get(final Bytes key) {
+    return storage.get(key.toArrayUnsafe()).map(Bytes::wrap);
+  }
+}
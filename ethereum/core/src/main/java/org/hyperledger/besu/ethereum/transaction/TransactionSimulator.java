@@ -40,9 +40,11 @@ import org.hyperledger.besu.evm.Gas;
 import org.hyperledger.besu.evm.account.Account;
 import org.hyperledger.besu.evm.tracing.OperationTracer;
 import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+import org.hyperledger.besu.evm.worldstate.WorldView;
 
 import java.math.BigInteger;
 import java.util.Optional;
+import java.util.function.Function;
 
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
@@ -127,10 +129,15 @@ public class TransactionSimulator {
   }
 
   public Optional<TransactionSimulatorResult> processAtHead(final CallParameter callParams) {
+    return processAtHead(callParams, OperationTracer.NO_TRACING);
+  }
+
+  public Optional<TransactionSimulatorResult> processAtHead(
+      final CallParameter callParams, final OperationTracer operationTracer) {
     return process(
         callParams,
         TransactionValidationParams.transactionSimulator(),
-        OperationTracer.NO_TRACING,
+        operationTracer,
         blockchain.getChainHeadHeader());
   }
 
@@ -282,6 +289,24 @@ public class TransactionSimulator {
     return doesAddressExist(worldState, address, header);
   }
 
+  public Hash getChainHeadHash() {
+    return blockchain.getChainHeadHash();
+  }
+
+  /**
+   * Applies a read-only function to the world state of the current chain head.
+   *
+   * @param reader the function to apply to the world state
+   * @param <T> the type of the value read
+   * @return the value read, or empty if the world state of the chain head is not available
+   */
+  public <T> Optional<T> readWorldStateAtHead(final Function<WorldView, T> reader) {
+    final BlockHeader header = blockchain.getChainHeadHeader();
+    return worldStateArchive
+        .getMutable(header.getStateRoot(), header.getHash(), false)
+        .map(reader::apply);
+  }
+
   public Optional<Boolean> doesAddressExist(
       final MutableWorldState worldState, final Address address, final BlockHeader header) {
     if (header == null) {
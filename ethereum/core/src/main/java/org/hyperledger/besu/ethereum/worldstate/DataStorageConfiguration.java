@@ -22,6 +22,7 @@ import org.immutables.value.Value;
 public interface DataStorageConfiguration {
 
   long DEFAULT_BONSAI_MAX_LAYERS_TO_LOAD = 512;
+  long DEFAULT_TRIE_NODE_CACHE_SIZE = 64L * 1024 * 1024;
 
   DataStorageConfiguration DEFAULT_CONFIG =
       ImmutableDataStorageConfiguration.builder()
@@ -32,4 +33,20 @@ public interface DataStorageConfiguration {
   DataStorageFormat getDataStorageFormat();
 
   Long getBonsaiMaxLayersToLoad();
+
+  @Value.Default
+  default Long getTrieNodeCacheSize() {
+    return DEFAULT_TRIE_NODE_CACHE_SIZE;
+  }
+
+  @Value.Default
+  default Boolean getCompactReceiptsEnabled() {
+    return false;
+  }
+
+  default int getDatabaseVersion() {
+    return getCompactReceiptsEnabled()
+        ? getDataStorageFormat().getCompactReceiptsDatabaseVersion()
+        : getDataStorageFormat().getDatabaseVersion();
+  }
 }
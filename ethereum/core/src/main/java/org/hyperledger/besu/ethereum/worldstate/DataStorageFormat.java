@@ -17,16 +17,29 @@
 package org.hyperledger.besu.ethereum.worldstate;
 
 public enum DataStorageFormat {
-  FOREST(1), // Original format.  Store all tries
-  BONSAI(2); // New format.  Store one trie, and trie logs to roll forward and backward.
+  FOREST(1, 3), // Original format.  Store all tries
+  BONSAI(2, 4); // New format.  Store one trie, and trie logs to roll forward and backward.
 
   private final int databaseVersion;
+  private final int compactReceiptsDatabaseVersion;
 
-  DataStorageFormat(final int databaseVersion) {
+  DataStorageFormat(final int databaseVersion, final int compactReceiptsDatabaseVersion) {
     this.databaseVersion = databaseVersion;
+    this.compactReceiptsDatabaseVersion = compactReceiptsDatabaseVersion;
   }
 
   public int getDatabaseVersion() {
     return databaseVersion;
   }
+
+  /**
+   * Returns the version of a database in this format whose transaction receipts may be stored in
+   * the compact encoding, which versions of Besu that only know {@link #getDatabaseVersion()}
+   * cannot read.
+   *
+   * @return the database version with compact receipts
+   */
+  public int getCompactReceiptsDatabaseVersion() {
+    return compactReceiptsDatabaseVersion;
+  }
 }
@@ -52,6 +52,7 @@ public class DefaultMutableWorldState implements MutableWorldState {
 
   private final WorldStateStorage worldStateStorage;
   private final WorldStatePreimageStorage preimageStorage;
+  private final TrieNodeCache trieNodeCache;
 
   private final MerklePatriciaTrie<Bytes32, Bytes> accountStateTrie;
   private final Map<Address, MerklePatriciaTrie<Bytes32, Bytes>> updatedStorageTries =
@@ -69,7 +70,16 @@ public class DefaultMutableWorldState implements MutableWorldState {
       final Bytes32 rootHash,
       final WorldStateStorage worldStateStorage,
       final WorldStatePreimageStorage preimageStorage) {
+    this(rootHash, worldStateStorage, preimageStorage, TrieNodeCache.disabled());
+  }
+
+  public DefaultMutableWorldState(
+      final Bytes32 rootHash,
+      final WorldStateStorage worldStateStorage,
+      final WorldStatePreimageStorage preimageStorage,
+      final TrieNodeCache trieNodeCache) {
     this.worldStateStorage = worldStateStorage;
+    this.trieNodeCache = trieNodeCache;
     this.accountStateTrie = newAccountStateTrie(rootHash);
     this.preimageStorage = preimageStorage;
   }
@@ -85,12 +95,16 @@ public class DefaultMutableWorldState implements MutableWorldState {
     final DefaultMutableWorldState other = (DefaultMutableWorldState) worldState;
     this.worldStateStorage = other.worldStateStorage;
     this.preimageStorage = other.preimageStorage;
+    this.trieNodeCache = other.trieNodeCache;
     this.accountStateTrie = newAccountStateTrie(other.accountStateTrie.getRootHash());
   }
 
   private MerklePatriciaTrie<Bytes32, Bytes> newAccountStateTrie(final Bytes32 rootHash) {
     return new StoredMerklePatriciaTrie<>(
-        worldStateStorage::getAccountStateTrieNode, rootHash, b -> b, b -> b);
+        trieNodeCache.wrap(worldStateStorage::getAccountStateTrieNode),
+        rootHash,
+        b -> b,
+        b -> b);
   }
 
   private MerklePatriciaTrie<Bytes32, Bytes> newAccountStorageTrie(final Bytes32 rootHash) {
@@ -113,7 +127,8 @@ public class DefaultMutableWorldState implements MutableWorldState {
 
   @Override
   public MutableWorldState copy() {
-    return new DefaultMutableWorldState(rootHash(), worldStateStorage, preimageStorage);
+    return new DefaultMutableWorldState(
+        rootHash(), worldStateStorage, preimageStorage, trieNodeCache);
   }
 
   @Override
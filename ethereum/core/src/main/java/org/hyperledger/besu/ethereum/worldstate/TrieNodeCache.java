@@ -0,0 +1,162 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.worldstate;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.trie.NodeLoader;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Keeps the encoded nodes of the upper levels of the account state trie in memory, shared by all
+ * the tries created for successive blocks, so that walking from the root to an account does not go
+ * back to storage for the nodes every block has in common.
+ *
+ * <p>Only nodes at most {@link #DEFAULT_MAX_LOCATION_SIZE} nibbles below the root are cached, and
+ * the cache is bounded by the total size of the cached encodings rather than by a number of
+ * entries, so its memory use does not depend on the shape of the trie or on garbage collection.
+ * Entries are keyed by location and hash, and a node is only cached once its encoding has been
+ * checked against its hash, so a cached node is always the one the storage would return for that
+ * hash.
+ *
+ * <p>The decoded nodes themselves are not shared, as they refer to the node factory and storage
+ * of the trie that loaded them; a trie keeps the nodes it decodes for as long as it is in use.
+ *
+ * <p>A cache with a maximum size of 0 is disabled, its node loaders read every node from storage.
+ */
+public class TrieNodeCache {
+
+  static final int DEFAULT_MAX_LOCATION_SIZE = 4;
+  // approximate size of the key, the cache entry and the object headers of a cached node
+  private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+  private final Cache<Bytes, Bytes> nodes;
+  private final boolean enabled;
+  private final int maxLocationSize;
+  private final AtomicLong cachedBytes = new AtomicLong();
+  private volatile LabelledMetric<Counter> lookupCounter =
+      NoOpMetricsSystem.NO_OP_LABELLED_1_COUNTER;
+  private volatile Counter evictionCounter = NoOpMetricsSystem.NO_OP_COUNTER;
+
+  public TrieNodeCache(final long maxSizeBytes) {
+    this(maxSizeBytes, DEFAULT_MAX_LOCATION_SIZE);
+  }
+
+  @VisibleForTesting
+  TrieNodeCache(final long maxSizeBytes, final int maxLocationSize) {
+    this.enabled = maxSizeBytes > 0;
+    this.maxLocationSize = maxLocationSize;
+    this.nodes =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxSizeBytes)
+            .<Bytes, Bytes>weigher((key, node) -> weight(key, node))
+            .removalListener(this::onRemoval)
+            .build();
+  }
+
+  public static TrieNodeCache disabled() {
+    return new TrieNodeCache(0);
+  }
+
+  public void registerMetrics(final MetricsSystem metricsSystem) {
+    lookupCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "trie_node_cache_lookups_total",
+            "Number of state trie node lookups for the upper levels of the account trie",
+            "result");
+    evictionCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "trie_node_cache_evictions_total",
+            "Number of state trie nodes evicted from the trie node cache to stay within its size");
+    metricsSystem.createLongGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "trie_node_cache_size_bytes",
+        "Estimated memory used by the state trie nodes in the trie node cache",
+        cachedBytes::get);
+  }
+
+  /**
+   * Returns a node loader that serves the nodes it can from this cache and reads the others from
+   * the given loader, caching them if they belong to the upper levels of the trie.
+   *
+   * @param loader the loader reading nodes from storage
+   * @return the caching node loader
+   */
+  public NodeLoader wrap(final NodeLoader loader) {
+    if (!enabled) {
+      return loader;
+    }
+    return (location, hash) -> getNode(location, hash, loader);
+  }
+
+  private Optional<Bytes> getNode(
+      final Bytes location, final Bytes32 nodeHash, final NodeLoader loader) {
+    if (location == null || location.size() > maxLocationSize) {
+      return loader.getNode(location, nodeHash);
+    }
+    final Bytes key = Bytes.concatenate(nodeHash, location);
+    final Bytes cached = nodes.getIfPresent(key);
+    if (cached != null) {
+      lookupCounter.labels("hit").inc();
+      return Optional.of(cached);
+    }
+    lookupCounter.labels("miss").inc();
+    final Optional<Bytes> node = loader.getNode(location, nodeHash);
+    // storage keyed by location returns whatever is stored there, which may be another version
+    node.filter(encoded -> Hash.hash(encoded).equals(nodeHash))
+        .ifPresent(
+            encoded -> {
+              cachedBytes.addAndGet(weight(key, encoded));
+              nodes.put(key, encoded);
+            });
+    return node;
+  }
+
+  private static int weight(final Bytes key, final Bytes node) {
+    return key.size() + node.size() + ENTRY_OVERHEAD_BYTES;
+  }
+
+  private void onRemoval(final RemovalNotification<Bytes, Bytes> notification) {
+    cachedBytes.addAndGet(-weight(notification.getKey(), notification.getValue()));
+    if (notification.wasEvicted()) {
+      evictionCounter.inc();
+    }
+  }
+
+  @VisibleForTesting
+  long getCachedBytes() {
+    return cachedBytes.get();
+  }
+
+  @VisibleForTesting
+  void clear() {
+    nodes.invalidateAll();
+  }
+}
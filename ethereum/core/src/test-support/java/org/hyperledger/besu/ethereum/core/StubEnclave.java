@@ -0,0 +1,110 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core;
+
+import org.hyperledger.besu.enclave.Enclave;
+import org.hyperledger.besu.enclave.EnclaveClientException;
+import org.hyperledger.besu.enclave.RequestTransmitter;
+import org.hyperledger.besu.enclave.types.ReceiveResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in-memory enclave serving payloads that have been registered with {@link #put(String,
+ * ReceiveResponse)}, with an optional artificial latency per receive request. Only the receive
+ * endpoint is supported.
+ */
+public class StubEnclave extends Enclave {
+
+  private final Map<String, ReceiveResponse> payloads = new ConcurrentHashMap<>();
+  private final Duration latency;
+  private final AtomicInteger receiveRequests = new AtomicInteger();
+  private final AtomicInteger inFlightRequests = new AtomicInteger();
+  private final AtomicInteger maxInFlightRequests = new AtomicInteger();
+
+  public StubEnclave() {
+    this(Duration.ZERO);
+  }
+
+  public StubEnclave(final Duration latency) {
+    super(unsupportedTransmitter());
+    this.latency = latency;
+  }
+
+  public StubEnclave put(final String key, final ReceiveResponse response) {
+    payloads.put(key, response);
+    return this;
+  }
+
+  @Override
+  public ReceiveResponse receive(final String payloadKey) {
+    receiveRequests.incrementAndGet();
+    maxInFlightRequests.accumulateAndGet(inFlightRequests.incrementAndGet(), Math::max);
+    try {
+      if (!latency.isZero()) {
+        Thread.sleep(latency.toMillis());
+      }
+      final ReceiveResponse response = payloads.get(payloadKey);
+      if (response == null) {
+        throw new EnclaveClientException(404, "EnclavePayloadNotFound");
+      }
+      return response;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } finally {
+      inFlightRequests.decrementAndGet();
+    }
+  }
+
+  @Override
+  public ReceiveResponse receive(final String payloadKey, final String to) {
+    return receive(payloadKey);
+  }
+
+  public int getReceiveRequests() {
+    return receiveRequests.get();
+  }
+
+  public int getMaxInFlightRequests() {
+    return maxInFlightRequests.get();
+  }
+
+  private static RequestTransmitter unsupportedTransmitter() {
+    return new RequestTransmitter() {
+      @Override
+      public <T> T post(
+          final String mediaType,
+          final String content,
+          final String endpoint,
+          final ResponseBodyHandler<T> responseBodyHandler) {
+        throw new UnsupportedOperationException("StubEnclave does not support " + endpoint);
+      }
+
+      @Override
+      public <T> T get(
+          final String mediaType,
+          final String content,
+          final String endpoint,
+          final ResponseBodyHandler<T> responseBodyHandler,
+          final boolean withAcceptJsonHeader) {
+        throw new UnsupportedOperationException("StubEnclave does not support " + endpoint);
+      }
+    };
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.bonsai;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.crypto.SignatureAlgorithmFactory;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.evm.AccessListEntry;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.data.TransactionType;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+
+public class BonsaiWorldStatePrefetcherTest {
+
+  private static final long TIMEOUT_MILLIS = 5_000;
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final BonsaiWorldStateKeyValueStorage worldStateStorage =
+      mock(BonsaiWorldStateKeyValueStorage.class);
+  private final BonsaiWorldStatePrefetcher prefetcher =
+      new BonsaiWorldStatePrefetcher(worldStateStorage, 2, 16, new NoOpMetricsSystem());
+
+  @Test
+  public void readsTheStateTheBlockIsExpectedToAccess() {
+    final Address coinbase = gen.address();
+    final Address recipient = gen.address();
+    final Address accessedAccount = gen.address();
+    final Bytes32 storageKey = gen.bytes32();
+    final Transaction transaction =
+        transaction(recipient, new AccessListEntry(accessedAccount, List.of(storageKey)));
+
+    prefetcher.prefetch(block(coinbase, transaction));
+
+    verify(worldStateStorage, timeout(TIMEOUT_MILLIS)).getAccount(Hash.hash(coinbase));
+    verify(worldStateStorage, timeout(TIMEOUT_MILLIS))
+        .getAccount(Hash.hash(transaction.getSender()));
+    verify(worldStateStorage, timeout(TIMEOUT_MILLIS)).getAccount(Hash.hash(recipient));
+    verify(worldStateStorage, timeout(TIMEOUT_MILLIS)).getCode(null, Hash.hash(recipient));
+    verify(worldStateStorage, timeout(TIMEOUT_MILLIS)).getAccount(Hash.hash(accessedAccount));
+    verify(worldStateStorage, timeout(TIMEOUT_MILLIS))
+        .getStorageValueBySlotHash(Hash.hash(accessedAccount), Hash.hash(storageKey));
+  }
+
+  @Test
+  public void failedReadsDoNotStopTheOtherTransactions() {
+    final Address firstRecipient = gen.address();
+    final Address secondRecipient = gen.address();
+    when(worldStateStorage.getCode(null, Hash.hash(firstRecipient)))
+        .thenThrow(new IllegalStateException("closed"));
+
+    prefetcher.prefetch(
+        block(gen.address(), transaction(firstRecipient), transaction(secondRecipient)));
+
+    verify(worldStateStorage, timeout(TIMEOUT_MILLIS)).getCode(null, Hash.hash(secondRecipient));
+  }
+
+  private Block block(final Address coinbase, final Transaction... transactions) {
+    return gen.block(
+        BlockDataGenerator.BlockOptions.create()
+            .setCoinbase(coinbase)
+            .addTransaction(transactions));
+  }
+
+  private Transaction transaction(final Address to, final AccessListEntry... accessList) {
+    return Transaction.builder()
+        .type(TransactionType.ACCESS_LIST)
+        .nonce(0)
+        .gasPrice(Wei.ONE)
+        .gasLimit(21_000)
+        .to(to)
+        .value(Wei.ZERO)
+        .payload(Bytes.EMPTY)
+        .accessList(List.of(accessList))
+        .chainId(BigInteger.ONE)
+        .signAndBuild(SignatureAlgorithmFactory.getInstance().generateKeyPair());
+  }
+}
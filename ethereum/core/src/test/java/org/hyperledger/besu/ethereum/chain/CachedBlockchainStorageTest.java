@@ -0,0 +1,129 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.chain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class CachedBlockchainStorageTest {
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final BlockchainStorage storage =
+      spy(
+          new KeyValueStoragePrefixedKeyBlockchainStorage(
+              new InMemoryKeyValueStorage(), new MainnetBlockHeaderFunctions()));
+
+  @Test
+  public void committedBlockIsServedFromCache() {
+    final CachedBlockchainStorage cachedStorage = createCachedStorage(4);
+    final Block block = gen.block();
+    final List<TransactionReceipt> receipts = gen.receipts(block);
+
+    putBlock(cachedStorage.updater(), block, receipts).commit();
+
+    assertThat(cachedStorage.getBlockHeader(block.getHash())).contains(block.getHeader());
+    assertThat(cachedStorage.getBlockBody(block.getHash())).contains(block.getBody());
+    assertThat(cachedStorage.getTransactionReceipts(block.getHash())).contains(receipts);
+    assertThat(cachedStorage.getBlockHash(block.getHeader().getNumber()))
+        .contains(block.getHash());
+
+    verify(storage, never()).getBlockHeader(block.getHash());
+    verify(storage, never()).getBlockBody(block.getHash());
+    verify(storage, never()).getTransactionReceipts(block.getHash());
+    verify(storage, never()).getBlockHash(block.getHeader().getNumber());
+  }
+
+  @Test
+  public void rolledBackBlockIsNotCached() {
+    final CachedBlockchainStorage cachedStorage = createCachedStorage(4);
+    final Block block = gen.block();
+
+    putBlock(cachedStorage.updater(), block, gen.receipts(block)).rollback();
+
+    assertThat(cachedStorage.getBlockHeader(block.getHash())).isEmpty();
+    assertThat(cachedStorage.getBlockHash(block.getHeader().getNumber())).isEmpty();
+    verify(storage).getBlockHeader(block.getHash());
+  }
+
+  @Test
+  public void canonicalMappingFollowsReorgs() {
+    final CachedBlockchainStorage cachedStorage = createCachedStorage(4);
+    final Block block = gen.block();
+    final Block fork =
+        gen.block(
+            new BlockDataGenerator.BlockOptions()
+                .setBlockNumber(block.getHeader().getNumber())
+                .setParentHash(block.getHeader().getParentHash()));
+    putBlock(cachedStorage.updater(), block, gen.receipts(block)).commit();
+
+    final BlockchainStorage.Updater reorg = putBlock(cachedStorage.updater(), fork, List.of());
+    assertThat(cachedStorage.getBlockHash(block.getHeader().getNumber()))
+        .contains(block.getHash());
+    reorg.commit();
+    assertThat(cachedStorage.getBlockHash(block.getHeader().getNumber())).contains(fork.getHash());
+
+    final BlockchainStorage.Updater rewind = cachedStorage.updater();
+    rewind.removeBlockHash(block.getHeader().getNumber());
+    rewind.commit();
+    assertThat(cachedStorage.getBlockHash(block.getHeader().getNumber())).isEmpty();
+
+    // the replaced block itself is still cached under its hash
+    assertThat(cachedStorage.getBlockHeader(block.getHash())).contains(block.getHeader());
+  }
+
+  @Test
+  public void cacheIsBoundedBySize() {
+    final CachedBlockchainStorage cachedStorage = createCachedStorage(1);
+    final Block first = gen.block();
+    final Block second = gen.block();
+    putBlock(cachedStorage.updater(), first, gen.receipts(first)).commit();
+    putBlock(cachedStorage.updater(), second, gen.receipts(second)).commit();
+
+    assertThat(cachedStorage.getBlockBody(second.getHash())).contains(second.getBody());
+    assertThat(cachedStorage.getBlockBody(first.getHash())).contains(first.getBody());
+
+    verify(storage, never()).getBlockBody(second.getHash());
+    verify(storage).getBlockBody(first.getHash());
+  }
+
+  private CachedBlockchainStorage createCachedStorage(final int cacheSize) {
+    return new CachedBlockchainStorage(storage, cacheSize, new NoOpMetricsSystem());
+  }
+
+  private BlockchainStorage.Updater putBlock(
+      final BlockchainStorage.Updater updater,
+      final Block block,
+      final List<TransactionReceipt> receipts) {
+    updater.putBlockHeader(block.getHash(), block.getHeader());
+    updater.putBlockBody(block.getHash(), block.getBody());
+    updater.putTransactionReceipts(block.getHash(), receipts);
+    updater.putBlockHash(block.getHeader().getNumber(), block.getHash());
+    return updater;
+  }
+}
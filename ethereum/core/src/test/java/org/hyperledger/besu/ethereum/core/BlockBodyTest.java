@@ -0,0 +1,60 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.mainnet.ValidationTestUtils;
+import org.hyperledger.besu.ethereum.rlp.LazyRLPList;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+
+import java.io.IOException;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.Test;
+
+public class BlockBodyTest {
+
+  private final BlockHeaderFunctions blockHeaderFunctions = new MainnetBlockHeaderFunctions();
+
+  @Test
+  public void lazilyReadBodyEqualsEagerlyReadBody() throws IOException {
+    final BlockBody mainnetBody = ValidationTestUtils.readBody(4400001);
+    final BlockBody generatedBody = new BlockDataGenerator().body();
+
+    for (final BlockBody body : new BlockBody[] {mainnetBody, generatedBody}) {
+      final Bytes encoded = RLP.encode(body::writeTo);
+
+      final BlockBody lazyBody = BlockBody.readLazilyFrom(RLP.input(encoded), blockHeaderFunctions);
+
+      assertThat(lazyBody).isEqualTo(BlockBody.readFrom(RLP.input(encoded), blockHeaderFunctions));
+      assertThat(lazyBody.getTransactions()).isEqualTo(body.getTransactions());
+      assertThat(lazyBody.getOmmers()).isEqualTo(body.getOmmers());
+    }
+  }
+
+  @Test
+  public void lazilyReadBodyIsWrittenBackAsRead() throws IOException {
+    final Bytes encoded = RLP.encode(ValidationTestUtils.readBody(4400001)::writeTo);
+
+    final BlockBody lazyBody = BlockBody.readLazilyFrom(RLP.input(encoded), blockHeaderFunctions);
+
+    assertThat(lazyBody.getTransactions()).isInstanceOf(LazyRLPList.class);
+    assertThat(RLP.encode(lazyBody::writeTo)).isEqualTo(encoded);
+    assertThat(lazyBody.getTransactions().get(3))
+        .isEqualTo(ValidationTestUtils.readBody(4400001).getTransactions().get(3));
+  }
+}
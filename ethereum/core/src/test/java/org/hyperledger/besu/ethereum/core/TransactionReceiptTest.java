@@ -17,6 +17,9 @@ package org.hyperledger.besu.ethereum.core;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.evm.log.LogsBloomFilter;
+
+import java.util.Optional;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.junit.Test;
@@ -40,4 +43,45 @@ public class TransactionReceiptTest {
         TransactionReceipt.readFrom(RLP.input(RLP.encode(receipt::writeToWithRevertReason)));
     assertThat(copy).isEqualTo(receipt);
   }
+
+  @Test
+  public void toFromStorageRlp() {
+    final BlockDataGenerator gen = new BlockDataGenerator();
+    final TransactionReceipt receipt = gen.receipt();
+    final TransactionReceipt copy =
+        TransactionReceipt.readFromStorage(RLP.input(RLP.encode(receipt::writeToForStorage)));
+    assertThat(copy).isEqualTo(receipt);
+    assertThat(copy.getBloomFilter()).isEqualTo(receipt.getBloomFilter());
+    assertThat(RLP.encode(copy::writeTo)).isEqualTo(RLP.encode(receipt::writeTo));
+  }
+
+  @Test
+  public void toFromStorageRlpWithReason() {
+    final BlockDataGenerator gen = new BlockDataGenerator();
+    final TransactionReceipt receipt = gen.receipt(Bytes.fromHexString("0x1122334455667788"));
+    final TransactionReceipt copy =
+        TransactionReceipt.readFromStorage(RLP.input(RLP.encode(receipt::writeToForStorage)));
+    assertThat(copy).isEqualTo(receipt);
+    assertThat(copy.getRevertReason()).isEqualTo(receipt.getRevertReason());
+    assertThat(RLP.encode(copy::writeToWithRevertReason))
+        .isEqualTo(RLP.encode(receipt::writeToWithRevertReason));
+  }
+
+  @Test
+  public void toFromStorageRlpWithStateRoot() {
+    final BlockDataGenerator gen = new BlockDataGenerator();
+    final TransactionReceipt receipt =
+        new TransactionReceipt(gen.hash(), 21_000L, gen.logs(2, 3), Optional.empty());
+    final TransactionReceipt copy =
+        TransactionReceipt.readFromStorage(RLP.input(RLP.encode(receipt::writeToForStorage)));
+    assertThat(copy).isEqualTo(receipt);
+    assertThat(RLP.encode(copy::writeTo)).isEqualTo(RLP.encode(receipt::writeTo));
+  }
+
+  @Test
+  public void storageRlpIsSmallerThanNetworkRlp() {
+    final TransactionReceipt receipt = new BlockDataGenerator().receipt();
+    assertThat(RLP.encode(receipt::writeToForStorage).size())
+        .isLessThan(RLP.encode(receipt::writeTo).size() - LogsBloomFilter.BYTE_SIZE);
+  }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.crypto.KeyPair;
+import org.hyperledger.besu.crypto.SignatureAlgorithmFactory;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class TransactionSenderCacheTest {
+
+  private static final KeyPair KEY_PAIR = SignatureAlgorithmFactory.getInstance().generateKeyPair();
+
+  private final TransactionSenderCache sharedCache = TransactionSenderCache.getInstance();
+
+  @After
+  public void clearSharedCache() {
+    sharedCache.clear();
+  }
+
+  @Test
+  public void cachedSenderIsUsedInsteadOfRecovery() {
+    final Transaction transaction = new TransactionTestFixture().createTransaction(KEY_PAIR);
+    // recovery could never produce this address, so getting it back proves the cache was used
+    final Address cachedSender = Address.fromHexString("0xdeadbeef");
+    sharedCache.put(transaction.getHash(), cachedSender);
+
+    assertThat(decodedCopy(transaction).getSender()).isEqualTo(cachedSender);
+  }
+
+  @Test
+  public void senderIsRecoveredOnCacheMiss() {
+    final Transaction transaction = new TransactionTestFixture().createTransaction(KEY_PAIR);
+
+    assertThat(decodedCopy(transaction).getSender())
+        .isEqualTo(Address.extract(KEY_PAIR.getPublicKey()));
+  }
+
+  @Test
+  public void cacheIsBoundedByCapacity() {
+    final TransactionSenderCache cache = new TransactionSenderCache(1);
+    final Hash first = Hash.hash(Address.fromHexString("0x01"));
+    final Hash second = Hash.hash(Address.fromHexString("0x02"));
+
+    cache.put(first, Address.fromHexString("0x01"));
+    cache.put(second, Address.fromHexString("0x02"));
+
+    assertThat(cache.get(first)).isEmpty();
+    assertThat(cache.get(second)).contains(Address.fromHexString("0x02"));
+  }
+
+  private static Transaction decodedCopy(final Transaction transaction) {
+    return Transaction.readFrom(RLP.encode(transaction::writeTo));
+  }
+}
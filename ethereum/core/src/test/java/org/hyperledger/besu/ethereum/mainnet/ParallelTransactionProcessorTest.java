@@ -0,0 +1,279 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider.createBonsaiInMemoryWorldStateArchive;
+import static org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider.createInMemoryBlockchain;
+import static org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider.createInMemoryWorldStateArchive;
+
+import org.hyperledger.besu.config.GenesisConfigFile;
+import org.hyperledger.besu.crypto.KeyPair;
+import org.hyperledger.besu.crypto.SignatureAlgorithm;
+import org.hyperledger.besu.crypto.SignatureAlgorithmFactory;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.ProtocolContext;
+import org.hyperledger.besu.ethereum.chain.GenesisState;
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
+import org.hyperledger.besu.ethereum.core.Util;
+import org.hyperledger.besu.ethereum.util.RawBlockIterator;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageFormat;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+import org.hyperledger.besu.testutil.BlockTestUtil;
+import org.hyperledger.besu.testutil.BlockTestUtil.ChainResources;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.google.common.io.Resources;
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelTransactionProcessorTest {
+
+  private static final SignatureAlgorithm SIGNATURE_ALGORITHM =
+      SignatureAlgorithmFactory.getInstance();
+  private static final List<KeyPair> SENDERS =
+      IntStream.rangeClosed(1, 8)
+          .mapToObj(
+              i ->
+                  SIGNATURE_ALGORITHM.createKeyPair(
+                      SIGNATURE_ALGORITHM.createPrivateKey(BigInteger.valueOf(1000 + i))))
+          .collect(Collectors.toList());
+  private static final List<Address> RECIPIENTS =
+      IntStream.rangeClosed(1, 8)
+          .mapToObj(i -> Address.fromHexString(String.format("0x%040x", 0x1000 + i)))
+          .collect(Collectors.toList());
+  private static final Address COINBASE = Address.fromHexString("0x" + "c0".repeat(20));
+
+  private final ExecutorService executor = ParallelTransactionProcessor.createExecutor(4);
+
+  @After
+  public void shutdownExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void importsTestChainOnForest() throws Exception {
+    assertImportsChain(BlockTestUtil.getTestChainResources(), DataStorageFormat.FOREST);
+  }
+
+  @Test
+  public void importsTestChainOnBonsai() throws Exception {
+    assertImportsChain(BlockTestUtil.getTestChainResources(), DataStorageFormat.BONSAI);
+  }
+
+  @Test
+  public void importsLondonTestChainOnForest() throws Exception {
+    assertImportsChain(BlockTestUtil.getTestChainLondonResources(), DataStorageFormat.FOREST);
+  }
+
+  @Test
+  public void importsLondonTestChainOnBonsai() throws Exception {
+    assertImportsChain(BlockTestUtil.getTestChainLondonResources(), DataStorageFormat.BONSAI);
+  }
+
+  @Test
+  public void appliesSpeculativeResultsWithSameStateAsSequentialExecution() {
+    final List<Transaction> transactions =
+        List.of(
+            transfer(0, 0, 0),
+            transfer(1, 0, 1),
+            transfer(2, 0, 2),
+            transfer(3, 0, 3),
+            transfer(4, 0, 4),
+            transfer(5, 0, 5),
+            // pays the recipient of the first transaction
+            transfer(6, 0, 0),
+            // the second transaction of the sender of the first transaction
+            transfer(0, 1, 7),
+            transfer(7, 0, 6));
+
+    final ProtocolSchedule sequentialSchedule = protocolSchedule();
+    final GenesisState genesisState = genesisState(sequentialSchedule);
+    final MutableBlockchain blockchain = createInMemoryBlockchain(genesisState.getBlock());
+    final BlockHeader blockHeader = blockHeader(genesisState);
+    final MutableWorldState sequentialWorldState = worldState(genesisState);
+    final BlockProcessor.Result sequentialResult =
+        sequentialSchedule
+            .getByBlockNumber(1)
+            .getBlockProcessor()
+            .processBlock(
+                blockchain, sequentialWorldState, blockHeader, transactions, List.of());
+
+    final ProtocolSpec parallelSpec = protocolSchedule().getByBlockNumber(1);
+    final ParallelTransactionProcessor parallelTransactionProcessor =
+        new ParallelTransactionProcessor(parallelSpec.getTransactionProcessor(), executor);
+    ((AbstractBlockProcessor) parallelSpec.getBlockProcessor())
+        .setParallelTransactionProcessor(parallelTransactionProcessor);
+    final MutableWorldState parallelWorldState = worldState(genesisState);
+    final BlockProcessor.Result parallelResult =
+        parallelSpec
+            .getBlockProcessor()
+            .processBlock(blockchain, parallelWorldState, blockHeader, transactions, List.of());
+
+    assertThat(sequentialResult.isSuccessful()).isTrue();
+    assertThat(parallelResult.isSuccessful()).isTrue();
+    assertThat(parallelResult.getReceipts()).isEqualTo(sequentialResult.getReceipts());
+    assertThat(parallelWorldState.rootHash()).isEqualTo(sequentialWorldState.rootHash());
+    assertThat(parallelTransactionProcessor.getAppliedTransactionCount()).isEqualTo(7);
+    assertThat(parallelTransactionProcessor.getExecutedAgainTransactionCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void executesAgainTransactionUsingAccountWrittenByPrecedingTransaction() {
+    final ProtocolSchedule protocolSchedule = protocolSchedule();
+    final GenesisState genesisState = genesisState(protocolSchedule);
+    final MutableBlockchain blockchain = createInMemoryBlockchain(genesisState.getBlock());
+    final MutableWorldState worldState = worldState(genesisState);
+    final ParallelTransactionProcessor parallelTransactionProcessor =
+        new ParallelTransactionProcessor(
+            protocolSchedule.getByBlockNumber(1).getTransactionProcessor(), executor);
+
+    // both transactions pay the same recipient
+    final ParallelTransactionProcessor.BlockExecution blockExecution =
+        parallelTransactionProcessor.execute(
+            blockchain,
+            worldState,
+            blockHeader(genesisState),
+            List.of(transfer(0, 0, 0), transfer(1, 0, 0)),
+            COINBASE);
+
+    final WorldUpdater firstUpdater = worldState.updater();
+    assertThat(blockExecution.apply(0, firstUpdater)).isPresent();
+    firstUpdater.commit();
+    assertThat(blockExecution.apply(1, worldState.updater())).isEmpty();
+    assertThat(parallelTransactionProcessor.getAppliedTransactionCount()).isEqualTo(1);
+    assertThat(parallelTransactionProcessor.getExecutedAgainTransactionCount()).isEqualTo(1);
+  }
+
+  // Importing validates the state root, receipts root and gas used of every block, which must be
+  // the same as when the transactions are executed sequentially.
+  private void assertImportsChain(
+      final ChainResources chainResources, final DataStorageFormat storageFormat)
+      throws Exception {
+    final String genesisJson =
+        Resources.toString(chainResources.getGenesisURL(), StandardCharsets.UTF_8);
+    final ProtocolSchedule protocolSchedule =
+        MainnetProtocolSchedule.fromConfig(
+            GenesisConfigFile.fromConfig(genesisJson).getConfigOptions(), EvmConfiguration.DEFAULT);
+    protocolSchedule.setParallelTransactionExecutor(executor);
+    final GenesisState genesisState = GenesisState.fromJson(genesisJson, protocolSchedule);
+    final MutableBlockchain blockchain = createInMemoryBlockchain(genesisState.getBlock());
+    final WorldStateArchive worldStateArchive =
+        storageFormat == DataStorageFormat.BONSAI
+            ? createBonsaiInMemoryWorldStateArchive(blockchain)
+            : createInMemoryWorldStateArchive();
+    genesisState.writeStateTo(worldStateArchive.getMutable());
+    final ProtocolContext protocolContext =
+        new ProtocolContext(blockchain, worldStateArchive, null);
+    final BlockHeaderFunctions blockHeaderFunctions =
+        ScheduleBasedBlockHeaderFunctions.create(protocolSchedule);
+
+    int transactionCount = 0;
+    try (final RawBlockIterator blocks =
+        new RawBlockIterator(
+            Path.of(chainResources.getBlocksURL().toURI()),
+            rlp -> BlockHeader.readFrom(rlp, blockHeaderFunctions))) {
+      while (blocks.hasNext()) {
+        final Block block = blocks.next();
+        if (block.getHeader().getNumber() == 0) {
+          continue;
+        }
+        assertThat(
+                protocolSchedule
+                    .getByBlockNumber(block.getHeader().getNumber())
+                    .getBlockImporter()
+                    .importBlock(protocolContext, block, HeaderValidationMode.FULL))
+            .describedAs("import of block %d", block.getHeader().getNumber())
+            .isTrue();
+        transactionCount += block.getBody().getTransactions().size();
+      }
+    }
+    assertThat(transactionCount).isPositive();
+  }
+
+  private static Transaction transfer(final int sender, final long nonce, final int recipient) {
+    return new TransactionTestFixture()
+        .nonce(nonce)
+        .gasLimit(21_000)
+        .to(Optional.of(RECIPIENTS.get(recipient)))
+        .value(Wei.of(1_000))
+        .createTransaction(SENDERS.get(sender));
+  }
+
+  private static String genesisJson() {
+    final String alloc =
+        SENDERS.stream()
+            .map(
+                keyPair ->
+                    String.format(
+                        "\"%s\": {\"balance\": \"0xad78ebc5ac6200000\"}",
+                        Util.publicKeyToAddress(keyPair.getPublicKey()).toUnprefixedHexString()))
+            .collect(Collectors.joining(", "));
+    return "{\"config\": {\"chainId\": 1337, \"petersburgBlock\": 0,"
+        + " \"ethash\": {\"fixeddifficulty\": 100}},"
+        + " \"gasLimit\": \"0x1fffffffffffff\", \"difficulty\": \"0x10000\","
+        + " \"mixHash\": \""
+        + Hash.ZERO.toHexString()
+        + "\", \"nonce\": \"0x42\","
+        + " \"alloc\": {"
+        + alloc
+        + "}}";
+  }
+
+  private static ProtocolSchedule protocolSchedule() {
+    return MainnetProtocolSchedule.fromConfig(
+        GenesisConfigFile.fromConfig(genesisJson()).getConfigOptions(), EvmConfiguration.DEFAULT);
+  }
+
+  private static GenesisState genesisState(final ProtocolSchedule protocolSchedule) {
+    return GenesisState.fromJson(genesisJson(), protocolSchedule);
+  }
+
+  private static MutableWorldState worldState(final GenesisState genesisState) {
+    final MutableWorldState worldState = createInMemoryWorldStateArchive().getMutable();
+    genesisState.writeStateTo(worldState);
+    return worldState;
+  }
+
+  private static BlockHeader blockHeader(final GenesisState genesisState) {
+    return new BlockHeaderTestFixture()
+        .parentHash(genesisState.getBlock().getHash())
+        .number(1)
+        .difficulty(Difficulty.of(100))
+        .gasLimit(genesisState.getBlock().getHeader().getGasLimit())
+        .coinbase(COINBASE)
+        .buildHeader();
+  }
+}
@@ -15,12 +15,14 @@
 package org.hyperledger.besu.ethereum.mainnet;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.core.PrivacyParameters.DEFAULT_PRIVACY;
 import static org.hyperledger.besu.ethereum.core.PrivateTransactionDataFixture.VALID_BASE64_ENCLAVE_KEY;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,6 +36,7 @@ import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.PrivateTransactionDataFixture;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.privacy.EnclavePayloadPrefetcher;
 import org.hyperledger.besu.ethereum.privacy.PrivateStateGenesisAllocator;
 import org.hyperledger.besu.ethereum.privacy.PrivateStateRootResolver;
 import org.hyperledger.besu.ethereum.privacy.PrivateTransactionProcessor;
@@ -46,13 +49,16 @@ import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 import org.hyperledger.besu.evm.account.MutableAccount;
 import org.hyperledger.besu.evm.worldstate.WorldUpdater;
 import org.hyperledger.besu.evm.worldstate.WrappedEvmAccount;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
 
 import java.util.Collections;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -68,6 +74,7 @@ public class PrivacyBlockProcessorTest {
   private Enclave enclave;
   private ProtocolSchedule protocolSchedule;
   private WorldStateArchive publicWorldStateArchive;
+  private ExecutorService prefetchExecutor;
 
   @Before
   public void setUp() {
@@ -76,11 +83,15 @@ public class PrivacyBlockProcessorTest {
     privateWorldStateArchive = mock(WorldStateArchive.class);
     enclave = mock(Enclave.class);
     protocolSchedule = mock(ProtocolSchedule.class);
+    prefetchExecutor = EnclavePayloadPrefetcher.createExecutor(1);
     this.privacyBlockProcessor =
         new PrivacyBlockProcessor(
             blockProcessor,
             protocolSchedule,
             enclave,
+            Optional.of(
+                new EnclavePayloadPrefetcher(
+                    enclave, DEFAULT_PRIVACY, prefetchExecutor, new NoOpMetricsSystem())),
             privateStateStorage,
             privateWorldStateArchive,
             new PrivateStateRootResolver(privateStateStorage),
@@ -90,6 +101,11 @@ public class PrivacyBlockProcessorTest {
     privacyBlockProcessor.setPublicWorldStateArchive(publicWorldStateArchive);
   }
 
+  @After
+  public void tearDown() {
+    prefetchExecutor.shutdownNow();
+  }
+
   @Test
   public void mustCopyPreviousPrivacyGroupBlockHeadMap() {
     final BlockDataGenerator blockDataGenerator = new BlockDataGenerator();
@@ -182,6 +198,21 @@ public class PrivacyBlockProcessorTest {
             any());
   }
 
+  @Test
+  public void mustPrefetchPrivatePayloadsOfBlock() {
+    final BlockDataGenerator blockDataGenerator = new BlockDataGenerator();
+    final Blockchain blockchain = mock(Blockchain.class);
+    final MutableWorldState mutableWorldState = mock(MutableWorldState.class);
+    final Block block =
+        blockDataGenerator.block(
+            BlockDataGenerator.BlockOptions.create()
+                .addTransaction(PrivateTransactionDataFixture.privateMarkerTransaction()));
+
+    privacyBlockProcessor.processBlock(blockchain, mutableWorldState, block);
+
+    verify(enclave, timeout(1000)).receive(VALID_BASE64_ENCLAVE_KEY.toBase64String());
+  }
+
   private MutableWorldState mockPrivateStateArchive() {
     final MutableWorldState mockPrivateState = mock(MutableWorldState.class);
     final WorldUpdater mockWorldUpdater = mock(WorldUpdater.class);
@@ -0,0 +1,152 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.privacy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hyperledger.besu.ethereum.core.PrivacyParameters.DEFAULT_PRIVACY;
+import static org.hyperledger.besu.ethereum.core.PrivacyParameters.FLEXIBLE_PRIVACY;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.enclave.EnclaveClientException;
+import org.hyperledger.besu.enclave.types.ReceiveResponse;
+import org.hyperledger.besu.ethereum.core.PrivateTransactionDataFixture;
+import org.hyperledger.besu.ethereum.core.StubEnclave;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.After;
+import org.junit.Test;
+
+public class EnclavePayloadPrefetcherTest {
+
+  private static final ReceiveResponse RESPONSE =
+      new ReceiveResponse("payload".getBytes(StandardCharsets.UTF_8), "group", "sender");
+
+  private final ExecutorService executor = EnclavePayloadPrefetcher.createExecutor(4);
+
+  @After
+  public void shutdownExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void prefetchedPayloadIsServedWithoutFurtherEnclaveRequest() {
+    final StubEnclave enclave = new StubEnclave();
+    final Transaction pmt = PrivateTransactionDataFixture.privateMarkerTransaction();
+    final String key = pmt.getPayload().toBase64String();
+    enclave.put(key, RESPONSE);
+    final EnclavePayloadPrefetcher prefetcher = prefetcher(enclave, DEFAULT_PRIVACY);
+
+    final List<String> keys = prefetcher.prefetch(List.of(pmt));
+
+    assertThat(keys).containsExactly(key);
+    assertThat(prefetcher.receive(key)).isSameAs(RESPONSE);
+    assertThat(prefetcher.receive(key)).isSameAs(RESPONSE);
+    assertThat(enclave.getReceiveRequests()).isEqualTo(1);
+  }
+
+  @Test
+  public void flexiblePrivacyKeyIsTheFirst32BytesOfThePayload() {
+    final StubEnclave enclave = new StubEnclave();
+    final Transaction pmt = PrivateTransactionDataFixture.privateMarkerTransactionOnchainAdd();
+    final String key = pmt.getPayload().slice(0, 32).toBase64String();
+    enclave.put(key, RESPONSE);
+    final EnclavePayloadPrefetcher prefetcher = prefetcher(enclave, FLEXIBLE_PRIVACY);
+
+    assertThat(prefetcher.prefetch(List.of(pmt))).containsExactly(key);
+    assertThat(prefetcher.receive(key)).isSameAs(RESPONSE);
+  }
+
+  @Test
+  public void transactionsToOtherAddressesAreIgnored() {
+    final StubEnclave enclave = new StubEnclave();
+    final EnclavePayloadPrefetcher prefetcher = prefetcher(enclave, DEFAULT_PRIVACY);
+
+    final List<String> keys =
+        prefetcher.prefetch(
+            List.of(
+                new TransactionTestFixture()
+                    .createTransaction(PrivateTransactionDataFixture.KEY_PAIR),
+                PrivateTransactionDataFixture.privateMarkerTransactionOnchain()));
+
+    assertThat(keys).isEmpty();
+    assertThat(enclave.getReceiveRequests()).isZero();
+  }
+
+  @Test
+  public void payloadsAreFetchedConcurrently() {
+    final StubEnclave enclave = new StubEnclave(Duration.ofMillis(200));
+    final List<Transaction> pmts = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      final Transaction pmt = privateMarkerTransaction(i);
+      enclave.put(pmt.getPayload().toBase64String(), RESPONSE);
+      pmts.add(pmt);
+    }
+    final EnclavePayloadPrefetcher prefetcher = prefetcher(enclave, DEFAULT_PRIVACY);
+
+    final List<String> keys = prefetcher.prefetch(pmts);
+    keys.forEach(key -> assertThat(prefetcher.receive(key)).isSameAs(RESPONSE));
+
+    assertThat(enclave.getReceiveRequests()).isEqualTo(4);
+    assertThat(enclave.getMaxInFlightRequests()).isGreaterThan(1).isLessThanOrEqualTo(4);
+  }
+
+  @Test
+  public void enclaveErrorsAreRethrownUnwrapped() {
+    final StubEnclave enclave = new StubEnclave();
+    final Transaction pmt = PrivateTransactionDataFixture.privateMarkerTransaction();
+    final EnclavePayloadPrefetcher prefetcher = prefetcher(enclave, DEFAULT_PRIVACY);
+
+    final List<String> keys = prefetcher.prefetch(List.of(pmt));
+
+    assertThatThrownBy(() -> prefetcher.receive(keys.get(0)))
+        .isInstanceOf(EnclaveClientException.class);
+  }
+
+  @Test
+  public void releasedPayloadIsFetchedAgainOnDemand() {
+    final StubEnclave enclave = new StubEnclave();
+    final Transaction pmt = PrivateTransactionDataFixture.privateMarkerTransaction();
+    final String key = pmt.getPayload().toBase64String();
+    enclave.put(key, RESPONSE);
+    final EnclavePayloadPrefetcher prefetcher = prefetcher(enclave, DEFAULT_PRIVACY);
+
+    prefetcher.release(prefetcher.prefetch(List.of(pmt)));
+
+    assertThat(prefetcher.receive(key)).isSameAs(RESPONSE);
+  }
+
+  private EnclavePayloadPrefetcher prefetcher(final StubEnclave enclave, final Address address) {
+    return new EnclavePayloadPrefetcher(enclave, address, executor, new NoOpMetricsSystem());
+  }
+
+  private Transaction privateMarkerTransaction(final int index) {
+    return new TransactionTestFixture()
+        .to(Optional.of(DEFAULT_PRIVACY))
+        .payload(Bytes32.leftPad(Bytes.of(index + 1)))
+        .createTransaction(PrivateTransactionDataFixture.KEY_PAIR);
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.Test;
+
+public class KeyValueStoragePrefixedKeyBlockchainStorageTest {
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final InMemoryKeyValueStorage storage = new InMemoryKeyValueStorage();
+  private final KeyValueStoragePrefixedKeyBlockchainStorage legacyStorage =
+      new KeyValueStoragePrefixedKeyBlockchainStorage(storage, new MainnetBlockHeaderFunctions());
+  private final KeyValueStoragePrefixedKeyBlockchainStorage compactStorage =
+      new KeyValueStoragePrefixedKeyBlockchainStorage(
+          storage, new MainnetBlockHeaderFunctions(), true);
+
+  @Test
+  public void receiptsAreStoredWithTheirLogsBloomFilterByDefault() {
+    final Hash blockHash = gen.hash();
+    final List<TransactionReceipt> receipts = receipts();
+
+    putTransactionReceipts(legacyStorage, blockHash, receipts);
+
+    assertThat(storedReceipts(blockHash))
+        .isEqualTo(
+            RLP.encode(
+                out -> out.writeList(receipts, TransactionReceipt::writeToWithRevertReason)));
+    assertThat(legacyStorage.getTransactionReceipts(blockHash)).contains(receipts);
+  }
+
+  @Test
+  public void receiptsStoredWithTheirLogsBloomFilterAreReadWhenCompactReceiptsAreEnabled() {
+    final Hash blockHash = gen.hash();
+    final List<TransactionReceipt> receipts = receipts();
+
+    putTransactionReceipts(legacyStorage, blockHash, receipts);
+
+    assertThat(compactStorage.getTransactionReceipts(blockHash)).contains(receipts);
+  }
+
+  @Test
+  public void compactReceiptsAreReadWhenCompactReceiptsAreDisabledAgain() {
+    final Hash blockHash = gen.hash();
+    final List<TransactionReceipt> receipts = receipts();
+
+    putTransactionReceipts(compactStorage, blockHash, receipts);
+
+    assertThat(storedReceipts(blockHash))
+        .isEqualTo(KeyValueStoragePrefixedKeyBlockchainStorage.compactReceipts(receipts));
+    assertThat(legacyStorage.getTransactionReceipts(blockHash)).contains(receipts);
+  }
+
+  @Test
+  public void receiptsAreReadInTheNetworkEncodingWithoutTheirRevertReason() {
+    final Hash legacyBlockHash = gen.hash();
+    final Hash compactBlockHash = gen.hash();
+    final List<TransactionReceipt> receipts = receipts();
+
+    putTransactionReceipts(legacyStorage, legacyBlockHash, receipts);
+    putTransactionReceipts(compactStorage, compactBlockHash, receipts);
+
+    final Bytes networkEncoding =
+        RLP.encode(out -> out.writeList(receipts, TransactionReceipt::writeTo));
+    assertThat(legacyStorage.getTransactionReceiptsRlp(legacyBlockHash)).contains(networkEncoding);
+    assertThat(legacyStorage.getTransactionReceiptsRlp(compactBlockHash)).contains(networkEncoding);
+  }
+
+  @Test
+  public void receiptsWithoutRevertReasonAreReadAsTheyAreStored() {
+    final Hash blockHash = gen.hash();
+    final List<TransactionReceipt> receipts = List.of(gen.receipt(), gen.receipt());
+
+    putTransactionReceipts(legacyStorage, blockHash, receipts);
+
+    assertThat(legacyStorage.getTransactionReceiptsRlp(blockHash))
+        .contains(storedReceipts(blockHash));
+  }
+
+  private List<TransactionReceipt> receipts() {
+    return List.of(gen.receipt(), gen.receipt(Bytes.fromHexString("0x1122")), gen.receipt());
+  }
+
+  private static void putTransactionReceipts(
+      final KeyValueStoragePrefixedKeyBlockchainStorage blockchainStorage,
+      final Hash blockHash,
+      final List<TransactionReceipt> receipts) {
+    final KeyValueStoragePrefixedKeyBlockchainStorage.Updater updater = blockchainStorage.updater();
+    updater.putTransactionReceipts(blockHash, receipts);
+    updater.commit();
+  }
+
+  private Bytes storedReceipts(final Hash blockHash) {
+    return storage
+        .get(
+            Bytes.concatenate(
+                    KeyValueStoragePrefixedKeyBlockchainStorage.TRANSACTION_RECEIPTS_PREFIX,
+                    blockHash)
+                .toArrayUnsafe())
+        .map(Bytes::wrap)
+        .orElseThrow();
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.Test;
+
+public class TransactionReceiptsCompactorTest {
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final InMemoryKeyValueStorage storage = new InMemoryKeyValueStorage();
+  private final KeyValueStoragePrefixedKeyBlockchainStorage blockchainStorage =
+      new KeyValueStoragePrefixedKeyBlockchainStorage(
+          storage, new MainnetBlockHeaderFunctions(), true);
+  private final TransactionReceiptsCompactor compactor =
+      new TransactionReceiptsCompactor(storage, new NoOpMetricsSystem());
+
+  @Test
+  public void receiptsAreStoredInTheCompactEncoding() {
+    final Hash blockHash = gen.hash();
+    final List<TransactionReceipt> receipts = receipts();
+
+    final KeyValueStoragePrefixedKeyBlockchainStorage.Updater updater = blockchainStorage.updater();
+    updater.putTransactionReceipts(blockHash, receipts);
+    updater.commit();
+
+    assertThat(storedReceipts(blockHash)).isEqualTo(compactEncoding(receipts));
+    assertThat(blockchainStorage.getTransactionReceipts(blockHash)).contains(receipts);
+    assertThat(blockchainStorage.getTransactionReceiptsRlp(blockHash))
+        .contains(networkEncoding(receipts));
+  }
+
+  @Test
+  public void receiptsInTheLegacyEncodingCanStillBeRead() {
+    final Hash blockHash = gen.hash();
+    final List<TransactionReceipt> receipts = receipts();
+    storeLegacyReceipts(storage, blockHash, receipts);
+
+    assertThat(blockchainStorage.getTransactionReceipts(blockHash)).contains(receipts);
+    assertThat(blockchainStorage.getTransactionReceiptsRlp(blockHash))
+        .contains(networkEncoding(receipts));
+  }
+
+  @Test
+  public void legacyReceiptsOfTheCanonicalChainAreRewrittenInTheCompactEncoding() {
+    final Hash legacyBlockHash = gen.hash();
+    final List<TransactionReceipt> legacyReceipts = receipts();
+    storeLegacyReceipts(storage, legacyBlockHash, legacyReceipts);
+
+    final Hash compactBlockHash = gen.hash();
+    final List<TransactionReceipt> compactReceipts = receipts();
+    final KeyValueStoragePrefixedKeyBlockchainStorage.Updater updater = blockchainStorage.updater();
+    updater.putTransactionReceipts(compactBlockHash, compactReceipts);
+    updater.putBlockHash(0, legacyBlockHash);
+    updater.putBlockHash(1, compactBlockHash);
+    updater.commit();
+
+    assertThat(compactor.getCompactedUpTo()).isEmpty();
+
+    final long bytesSaved = compactor.compact();
+
+    assertThat(bytesSaved)
+        .isEqualTo(
+            legacyEncoding(legacyReceipts).size() - compactEncoding(legacyReceipts).size());
+    assertThat(storedReceipts(legacyBlockHash)).isEqualTo(compactEncoding(legacyReceipts));
+    assertThat(storedReceipts(compactBlockHash)).isEqualTo(compactEncoding(compactReceipts));
+    assertThat(blockchainStorage.getTransactionReceipts(legacyBlockHash))
+        .contains(legacyReceipts);
+    assertThat(compactor.getCompactedUpTo()).contains(1L);
+  }
+
+  @Test
+  public void receiptsOfBlocksNotOnTheCanonicalChainAreLeftAsStored() {
+    final Hash forkBlockHash = gen.hash();
+    final List<TransactionReceipt> receipts = receipts();
+    storeLegacyReceipts(storage, forkBlockHash, receipts);
+
+    assertThat(compactor.compact()).isZero();
+    assertThat(storedReceipts(forkBlockHash)).isEqualTo(legacyEncoding(receipts));
+  }
+
+  @Test
+  public void compactionResumesAfterTheLastBlockGoneThrough() {
+    final Hash firstBlockHash = gen.hash();
+    final List<TransactionReceipt> firstReceipts = receipts();
+    storeLegacyReceipts(storage, firstBlockHash, firstReceipts);
+    putBlockHash(0, firstBlockHash);
+
+    assertThat(compactor.compact()).isPositive();
+    assertThat(compactor.getCompactedUpTo()).contains(0L);
+
+    // stored again in the legacy encoding, but already gone through
+    storeLegacyReceipts(storage, firstBlockHash, firstReceipts);
+    final Hash secondBlockHash = gen.hash();
+    final List<TransactionReceipt> secondReceipts = receipts();
+    storeLegacyReceipts(storage, secondBlockHash, secondReceipts);
+    putBlockHash(1, secondBlockHash);
+
+    final long bytesSaved = compactor.compact();
+
+    assertThat(bytesSaved)
+        .isEqualTo(
+            legacyEncoding(secondReceipts).size() - compactEncoding(secondReceipts).size());
+    assertThat(storedReceipts(firstBlockHash)).isEqualTo(legacyEncoding(firstReceipts));
+    assertThat(storedReceipts(secondBlockHash)).isEqualTo(compactEncoding(secondReceipts));
+    assertThat(compactor.getCompactedUpTo()).contains(1L);
+  }
+
+  @Test
+  public void compactingTwiceSavesNothingMore() {
+    final Hash blockHash = gen.hash();
+    storeLegacyReceipts(storage, blockHash, receipts());
+    putBlockHash(0, blockHash);
+
+    assertThat(compactor.compact()).isPositive();
+    assertThat(compactor.compact()).isZero();
+  }
+
+  @Test
+  public void receiptsStoredAgainWhileBeingRewrittenAreNotOverwritten() {
+    final Hash blockHash = gen.hash();
+    final List<TransactionReceipt> storedAgain = receipts();
+    final byte[] key = receiptsKey(blockHash);
+    final InMemoryKeyValueStorage racingStorage =
+        new InMemoryKeyValueStorage() {
+          private boolean stored;
+
+          @Override
+          public Optional<byte[]> get(final byte[] requested) {
+            final Optional<byte[]> value = super.get(requested);
+            if (!stored && Arrays.equals(requested, key)) {
+              stored = true;
+              storeLegacyReceipts(this, blockHash, storedAgain);
+            }
+            return value;
+          }
+        };
+    storeLegacyReceipts(racingStorage, blockHash, receipts());
+    final KeyValueStoragePrefixedKeyBlockchainStorage.Updater updater =
+        new KeyValueStoragePrefixedKeyBlockchainStorage(
+                racingStorage, new MainnetBlockHeaderFunctions(), true)
+            .updater();
+    updater.putBlockHash(0, blockHash);
+    updater.commit();
+
+    final TransactionReceiptsCompactor racingCompactor =
+        new TransactionReceiptsCompactor(racingStorage, new NoOpMetricsSystem());
+
+    assertThat(racingCompactor.compact()).isZero();
+    assertThat(racingStorage.get(key).map(Bytes::wrap)).contains(legacyEncoding(storedAgain));
+    assertThat(racingCompactor.getCompactedUpTo()).contains(0L);
+  }
+
+  private List<TransactionReceipt> receipts() {
+    return List.of(gen.receipt(), gen.receipt(Bytes.fromHexString("0x1122")), gen.receipt());
+  }
+
+  private void putBlockHash(final long blockNumber, final Hash blockHash) {
+    final KeyValueStoragePrefixedKeyBlockchainStorage.Updater updater = blockchainStorage.updater();
+    updater.putBlockHash(blockNumber, blockHash);
+    updater.commit();
+  }
+
+  private static void storeLegacyReceipts(
+      final InMemoryKeyValueStorage storage,
+      final Hash blockHash,
+      final List<TransactionReceipt> receipts) {
+    final KeyValueStorageTransaction transaction = storage.startTransaction();
+    transaction.put(receiptsKey(blockHash), legacyEncoding(receipts).toArrayUnsafe());
+    transaction.commit();
+  }
+
+  private Bytes storedReceipts(final Hash blockHash) {
+    return storage.get(receiptsKey(blockHash)).map(Bytes::wrap).orElseThrow();
+  }
+
+  private static byte[] receiptsKey(final Hash blockHash) {
+    return Bytes.concatenate(
+            KeyValueStoragePrefixedKeyBlockchainStorage.TRANSACTION_RECEIPTS_PREFIX, blockHash)
+        .toArrayUnsafe();
+  }
+
+  private static Bytes legacyEncoding(final List<TransactionReceipt> receipts) {
+    return RLP.encode(out -> out.writeList(receipts, TransactionReceipt::writeToWithRevertReason));
+  }
+
+  private static Bytes networkEncoding(final List<TransactionReceipt> receipts) {
+    return RLP.encode(out -> out.writeList(receipts, TransactionReceipt::writeTo));
+  }
+
+  private static Bytes compactEncoding(final List<TransactionReceipt> receipts) {
+    return KeyValueStoragePrefixedKeyBlockchainStorage.compactReceipts(receipts);
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.worldstate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.trie.NodeLoader;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+
+public class TrieNodeCacheTest {
+
+  private static final Bytes NODE = Bytes.repeat((byte) 1, 100);
+  private static final Bytes32 NODE_HASH = Hash.hash(NODE);
+
+  private final AtomicInteger loads = new AtomicInteger();
+  private final NodeLoader storage =
+      (location, hash) -> {
+        loads.incrementAndGet();
+        return hash.equals(NODE_HASH) ? Optional.of(NODE) : Optional.empty();
+      };
+
+  @Test
+  public void upperLevelNodeIsLoadedOnce() {
+    final NodeLoader loader = new TrieNodeCache(1024 * 1024, 2).wrap(storage);
+
+    assertThat(loader.getNode(Bytes.of(1), NODE_HASH)).contains(NODE);
+    assertThat(loader.getNode(Bytes.of(1), NODE_HASH)).contains(NODE);
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  public void disabledCacheLoadsEveryNode() {
+    final NodeLoader loader = TrieNodeCache.disabled().wrap(storage);
+
+    assertThat(loader).isSameAs(storage);
+    loader.getNode(Bytes.of(1), NODE_HASH);
+    loader.getNode(Bytes.of(1), NODE_HASH);
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  public void deeperNodesAreNotCached() {
+    final NodeLoader loader = new TrieNodeCache(1024 * 1024, 2).wrap(storage);
+
+    loader.getNode(Bytes.of(1, 2, 3), NODE_HASH);
+    loader.getNode(Bytes.of(1, 2, 3), NODE_HASH);
+    loader.getNode(null, NODE_HASH);
+    loader.getNode(null, NODE_HASH);
+
+    assertThat(loads).hasValue(4);
+  }
+
+  @Test
+  public void nodeNotMatchingItsHashIsNotCached() {
+    final Bytes32 otherHash = Bytes32.fromHexStringLenient("0x01");
+    final NodeLoader locationKeyedStorage =
+        (location, hash) -> {
+          loads.incrementAndGet();
+          return Optional.of(NODE);
+        };
+    final NodeLoader loader = new TrieNodeCache(1024 * 1024, 2).wrap(locationKeyedStorage);
+
+    assertThat(loader.getNode(Bytes.EMPTY, otherHash)).contains(NODE);
+    assertThat(loader.getNode(Bytes.EMPTY, otherHash)).contains(NODE);
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  public void missingNodeIsNotCached() {
+    final TrieNodeCache cache = new TrieNodeCache(1024 * 1024, 2);
+    final NodeLoader loader = cache.wrap(storage);
+
+    assertThat(loader.getNode(Bytes.EMPTY, Hash.ZERO)).isEmpty();
+    assertThat(loader.getNode(Bytes.EMPTY, Hash.ZERO)).isEmpty();
+    assertThat(loads).hasValue(2);
+    assertThat(cache.getCachedBytes()).isZero();
+  }
+
+  @Test
+  public void cacheIsBoundedByNodeSize() {
+    final TrieNodeCache cache = new TrieNodeCache(2_000, 2);
+    final NodeLoader loader = cache.wrap(storage);
+
+    for (int i = 0; i < 16; i++) {
+      loader.getNode(Bytes.of(i), NODE_HASH);
+    }
+
+    assertThat(cache.getCachedBytes()).isPositive().isLessThanOrEqualTo(2_000);
+
+    cache.clear();
+    assertThat(cache.getCachedBytes()).isZero();
+  }
+}
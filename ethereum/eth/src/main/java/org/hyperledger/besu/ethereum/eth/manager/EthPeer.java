@@ -48,7 +48,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -64,6 +66,16 @@ public class EthPeer {
   private static final Logger LOG = LoggerFactory.getLogger(EthPeer.class);
 
   private static final int MAX_OUTSTANDING_REQUESTS = 5;
+  // requests expected to take longer than this are made smaller, well below the request timeout
+  private static final long TARGET_RESPONSE_TIME_MILLIS = 2_000;
+
+  static final Map<Integer, String> REQUEST_TYPES =
+      Map.ofEntries(
+          Map.entry(EthPV62.GET_BLOCK_HEADERS, "headers"),
+          Map.entry(EthPV62.GET_BLOCK_BODIES, "bodies"),
+          Map.entry(EthPV63.GET_RECEIPTS, "receipts"),
+          Map.entry(EthPV63.GET_NODE_DATA, "node_data"),
+          Map.entry(EthPV65.GET_POOLED_TRANSACTIONS, "pooled_transactions"));
 
   private final PeerConnection connection;
 
@@ -142,17 +154,19 @@ public class EthPeer {
         Map.ofEntries(
             Map.entry(
                 EthPV62.GET_BLOCK_HEADERS,
-                new RequestManager(this, supportsRequestId, protocolName)),
+                new RequestManager(this, supportsRequestId, protocolName, clock)),
             Map.entry(
                 EthPV62.GET_BLOCK_BODIES,
-                new RequestManager(this, supportsRequestId, protocolName)),
+                new RequestManager(this, supportsRequestId, protocolName, clock)),
             Map.entry(
-                EthPV63.GET_RECEIPTS, new RequestManager(this, supportsRequestId, protocolName)),
+                EthPV63.GET_RECEIPTS,
+                new RequestManager(this, supportsRequestId, protocolName, clock)),
             Map.entry(
-                EthPV63.GET_NODE_DATA, new RequestManager(this, supportsRequestId, protocolName)),
+                EthPV63.GET_NODE_DATA,
+                new RequestManager(this, supportsRequestId, protocolName, clock)),
             Map.entry(
                 EthPV65.GET_POOLED_TRANSACTIONS,
-                new RequestManager(this, supportsRequestId, protocolName))));
+                new RequestManager(this, supportsRequestId, protocolName, clock))));
   }
 
   private void initSnapRequestManagers() {
@@ -160,10 +174,14 @@ public class EthPeer {
     requestManagers.put(
         SnapProtocol.NAME,
         Map.ofEntries(
-            Map.entry(SnapV1.GET_ACCOUNT_RANGE, new RequestManager(this, true, SnapProtocol.NAME)),
-            Map.entry(SnapV1.GET_STORAGE_RANGE, new RequestManager(this, true, SnapProtocol.NAME)),
-            Map.entry(SnapV1.GET_BYTECODES, new RequestManager(this, true, SnapProtocol.NAME)),
-            Map.entry(SnapV1.GET_TRIE_NODES, new RequestManager(this, true, SnapProtocol.NAME))));
+            Map.entry(
+                SnapV1.GET_ACCOUNT_RANGE, new RequestManager(this, true, SnapProtocol.NAME, clock)),
+            Map.entry(
+                SnapV1.GET_STORAGE_RANGE, new RequestManager(this, true, SnapProtocol.NAME, clock)),
+            Map.entry(
+                SnapV1.GET_BYTECODES, new RequestManager(this, true, SnapProtocol.NAME, clock)),
+            Map.entry(
+                SnapV1.GET_TRIE_NODES, new RequestManager(this, true, SnapProtocol.NAME, clock))));
   }
 
   public void markValidated(final PeerValidator validator) {
@@ -197,6 +215,7 @@ public class EthPeer {
 
   public void recordRequestTimeout(final int requestCode) {
     LOG.debug("Timed out while waiting for response from peer {}", this);
+    getRequestManagerForRequest(requestCode).ifPresent(RequestManager::recordTimeout);
     reputation.recordRequestTimeout(requestCode).ifPresent(this::disconnect);
   }
 
@@ -371,6 +390,66 @@ public class EthPeer {
     return Optional.empty();
   }
 
+  private Optional<RequestManager> getRequestManagerForRequest(final int requestCode) {
+    return Optional.ofNullable(requestManagers.get(protocolName).get(requestCode))
+        .or(() -> Optional.ofNullable(requestManagers.get(SnapProtocol.NAME).get(requestCode)));
+  }
+
+  public Optional<PeerResponseStats> getResponseStats(final int requestCode) {
+    return getRequestManagerForRequest(requestCode).map(RequestManager::getResponseStats);
+  }
+
+  /**
+   * Return the response statistics of this peer for the eth requests, by request type.
+   *
+   * @return the response statistics of this peer for the eth requests, by request type
+   */
+  public Map<String, PeerResponseStats> getResponseStatsByRequestType() {
+    final Map<String, PeerResponseStats> stats = new TreeMap<>();
+    REQUEST_TYPES.forEach(
+        (requestCode, requestType) ->
+            getResponseStats(requestCode).ifPresent(s -> stats.put(requestType, s)));
+    return stats;
+  }
+
+  /**
+   * Estimates how long a new request of the given type would take to be answered by this peer,
+   * taking into account the requests it is already serving. Peers that have not answered such a
+   * request yet are assumed to be fast, so that they get measured.
+   *
+   * @param requestCode the message code of the request
+   * @return the expected response time in milliseconds
+   */
+  public double expectedResponseTimeMillis(final int requestCode) {
+    final OptionalDouble latency =
+        getResponseStats(requestCode)
+            .map(PeerResponseStats::getLatencyMillis)
+            .orElse(OptionalDouble.empty());
+    return latency.orElse(0) * (outstandingRequests() + 1);
+  }
+
+  /**
+   * Scales down the number of items to ask for in a single request for peers that are slow to
+   * respond to this type of request, so that they answer before the request times out instead of
+   * holding up the whole batch.
+   *
+   * @param requestCode the message code of the request
+   * @param requestedSize the number of items the caller would like to request
+   * @return the number of items to request from this peer, between 1 and {@code requestedSize}
+   */
+  public int recommendedRequestSize(final int requestCode, final int requestedSize) {
+    final OptionalDouble latency =
+        getResponseStats(requestCode)
+            .map(PeerResponseStats::getLatencyMillis)
+            .orElse(OptionalDouble.empty());
+    if (latency.isEmpty() || latency.getAsDouble() <= TARGET_RESPONSE_TIME_MILLIS) {
+      return requestedSize;
+    }
+    final int scaledSize =
+        (int) (requestedSize * TARGET_RESPONSE_TIME_MILLIS / latency.getAsDouble());
+    return Math.max(1, Math.min(requestedSize, scaledSize));
+  }
+
   public Map<Integer, AtomicInteger> timeoutCounts() {
     return reputation.timeoutCounts();
   }
@@ -19,6 +19,7 @@ import org.hyperledger.besu.ethereum.eth.peervalidation.PeerValidator;
 import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.LabelledGauge;
 import org.hyperledger.besu.plugin.services.permissioning.NodeMessagePermissioningProvider;
 import org.hyperledger.besu.util.Subscribers;
 
@@ -30,8 +31,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -49,6 +52,12 @@ public class EthPeers {
       Comparator.comparing(EthPeer::outstandingRequests)
           .thenComparing(EthPeer::getLastRequestTimestamp);
 
+  public static Comparator<EthPeer> fastestToSlowest(final int requestCode) {
+    return Comparator.comparingDouble(
+            (final EthPeer p) -> p.expectedResponseTimeMillis(requestCode))
+        .thenComparing(LEAST_TO_MOST_BUSY);
+  }
+
   private final Map<PeerConnection, EthPeer> connections = new ConcurrentHashMap<>();
   private final String protocolName;
   private final Clock clock;
@@ -81,6 +90,40 @@ public class EthPeers {
         "pending_peer_requests_current",
         "Number of peer requests currently pending because peers are busy",
         pendingRequests::size);
+
+    final LabelledGauge responseLatency =
+        metricsSystem.createLabelledGauge(
+            BesuMetricCategory.PEERS,
+            "response_latency_milliseconds_average",
+            "Average over connected peers of their smoothed response latency, by request type",
+            "request");
+    final LabelledGauge responseThroughput =
+        metricsSystem.createLabelledGauge(
+            BesuMetricCategory.PEERS,
+            "response_throughput_bytes_per_second_average",
+            "Average over connected peers of their smoothed response throughput, by request type",
+            "request");
+    EthPeer.REQUEST_TYPES.forEach(
+        (requestCode, requestType) -> {
+          responseLatency.labels(
+              () -> averageResponseStat(requestCode, PeerResponseStats::getLatencyMillis),
+              requestType);
+          responseThroughput.labels(
+              () ->
+                  averageResponseStat(
+                      requestCode, PeerResponseStats::getThroughputBytesPerSecond),
+              requestType);
+        });
+  }
+
+  private double averageResponseStat(
+      final int requestCode, final Function<PeerResponseStats, OptionalDouble> stat) {
+    return streamAllPeers()
+        .map(peer -> peer.getResponseStats(requestCode).map(stat).orElse(OptionalDouble.empty()))
+        .filter(OptionalDouble::isPresent)
+        .mapToDouble(OptionalDouble::getAsDouble)
+        .average()
+        .orElse(0);
   }
 
   public void registerConnection(
@@ -124,8 +167,28 @@ public class EthPeers {
 
   public PendingPeerRequest executePeerRequest(
       final PeerRequest request, final long minimumBlockNumber, final Optional<EthPeer> peer) {
+    return executePeerRequest(request, minimumBlockNumber, peer, LEAST_TO_MOST_BUSY);
+  }
+
+  /**
+   * Sends a request of the given type to the peer expected to answer it the fastest, or to the
+   * given peer if any.
+   */
+  public PendingPeerRequest executePeerRequest(
+      final PeerRequest request,
+      final long minimumBlockNumber,
+      final Optional<EthPeer> peer,
+      final int requestCode) {
+    return executePeerRequest(request, minimumBlockNumber, peer, fastestToSlowest(requestCode));
+  }
+
+  private PendingPeerRequest executePeerRequest(
+      final PeerRequest request,
+      final long minimumBlockNumber,
+      final Optional<EthPeer> peer,
+      final Comparator<EthPeer> peerPreference) {
     final PendingPeerRequest pendingPeerRequest =
-        new PendingPeerRequest(this, request, minimumBlockNumber, peer);
+        new PendingPeerRequest(this, request, minimumBlockNumber, peer, peerPreference);
     synchronized (this) {
       if (!pendingPeerRequest.attemptExecution()) {
         pendingRequests.add(pendingPeerRequest);
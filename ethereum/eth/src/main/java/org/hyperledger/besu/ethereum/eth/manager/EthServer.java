@@ -16,10 +16,8 @@ package org.hyperledger.besu.ethereum.eth.manager;
 
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
-import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.Transaction;
-import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.ethereum.eth.EthProtocolConfiguration;
 import org.hyperledger.besu.ethereum.eth.messages.BlockBodiesMessage;
 import org.hyperledger.besu.ethereum.eth.messages.BlockHeadersMessage;
@@ -48,6 +46,12 @@ import com.google.common.collect.Lists;
 import org.apache.tuweni.bytes.Bytes;
 
 class EthServer {
+  /**
+   * Block bodies and receipts are served until the response reaches this size, so that a response
+   * stays well within the maximum message size however large the requested blocks are.
+   */
+  static final int MAX_RESPONSE_SIZE_BYTES = 2 * 1024 * 1024;
+
   private final Blockchain blockchain;
   private final WorldStateArchive worldStateArchive;
   private final TransactionPool transactionPool;
@@ -144,20 +148,23 @@ class EthServer {
     final GetBlockBodiesMessage getBlockBodiesMessage = GetBlockBodiesMessage.readFrom(message);
     final Iterable<Hash> hashes = getBlockBodiesMessage.hashes();
 
-    final Collection<BlockBody> bodies = new ArrayList<>();
+    // bodies are stored in the same encoding they are sent in, so they are passed on as they are
+    final List<Bytes> bodies = new ArrayList<>();
     int count = 0;
+    int responseSize = 0;
     for (final Hash hash : hashes) {
-      if (count >= requestLimit) {
+      if (count >= requestLimit || responseSize >= MAX_RESPONSE_SIZE_BYTES) {
         break;
       }
       count++;
-      final Optional<BlockBody> maybeBody = blockchain.getBlockBody(hash);
+      final Optional<Bytes> maybeBody = blockchain.getBlockBodyRlp(hash);
       if (!maybeBody.isPresent()) {
         continue;
       }
       bodies.add(maybeBody.get());
+      responseSize += maybeBody.get().size();
     }
-    return BlockBodiesMessage.create(bodies);
+    return BlockBodiesMessage.createFromRlp(bodies);
   }
 
   static MessageData constructGetReceiptsResponse(
@@ -165,20 +172,23 @@ class EthServer {
     final GetReceiptsMessage getReceipts = GetReceiptsMessage.readFrom(message);
     final Iterable<Hash> hashes = getReceipts.hashes();
 
-    final List<List<TransactionReceipt>> receipts = new ArrayList<>();
+    // receipts are read in the encoding they are sent in, so they are passed on as they are
+    final List<Bytes> receipts = new ArrayList<>();
     int count = 0;
+    int responseSize = 0;
     for (final Hash hash : hashes) {
-      if (count >= requestLimit) {
+      if (count >= requestLimit || responseSize >= MAX_RESPONSE_SIZE_BYTES) {
         break;
       }
       count++;
-      final Optional<List<TransactionReceipt>> maybeReceipts = blockchain.getTxReceipts(hash);
+      final Optional<Bytes> maybeReceipts = blockchain.getTxReceiptsRlp(hash);
       if (!maybeReceipts.isPresent()) {
         continue;
       }
       receipts.add(maybeReceipts.get());
+      responseSize += maybeReceipts.get().size();
     }
-    return ReceiptsMessage.create(receipts);
+    return ReceiptsMessage.createFromRlp(receipts);
   }
 
   static MessageData constructGetPooledTransactionsResponse(
@@ -0,0 +1,78 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.manager;
+
+import java.util.OptionalDouble;
+
+/**
+ * Exponentially weighted moving averages of the response latency and throughput of a peer for a
+ * single request type.
+ */
+public class PeerResponseStats {
+
+  private static final double SMOOTHING_FACTOR = 0.2;
+
+  private double latencyMillis = Double.NaN;
+  private double throughputBytesPerSecond = Double.NaN;
+
+  /**
+   * Records a response to a request.
+   *
+   * @param latencyMillis the time between sending the request and receiving the response
+   * @param responseSize the size of the response message in bytes
+   */
+  public synchronized void recordResponse(final long latencyMillis, final int responseSize) {
+    final long elapsedMillis = Math.max(1, latencyMillis);
+    this.latencyMillis = smooth(this.latencyMillis, elapsedMillis);
+    this.throughputBytesPerSecond =
+        smooth(this.throughputBytesPerSecond, responseSize * 1000.0 / elapsedMillis);
+  }
+
+  /**
+   * Records a request the peer did not respond to in time, as a response that took at least the
+   * given time and delivered nothing.
+   *
+   * @param elapsedMillis the time the request was outstanding for
+   */
+  public void recordTimeout(final long elapsedMillis) {
+    recordResponse(elapsedMillis, 0);
+  }
+
+  public synchronized OptionalDouble getLatencyMillis() {
+    return Double.isNaN(latencyMillis) ? OptionalDouble.empty() : OptionalDouble.of(latencyMillis);
+  }
+
+  public synchronized OptionalDouble getThroughputBytesPerSecond() {
+    return Double.isNaN(throughputBytesPerSecond)
+        ? OptionalDouble.empty()
+        : OptionalDouble.of(throughputBytesPerSecond);
+  }
+
+  private static double smooth(final double average, final double sample) {
+    return Double.isNaN(average)
+        ? sample
+        : SMOOTHING_FACTOR * sample + (1 - SMOOTHING_FACTOR) * average;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "PeerResponseStats{"
+        + "latencyMillis="
+        + latencyMillis
+        + ", throughputBytesPerSecond="
+        + throughputBytesPerSecond
+        + '}';
+  }
+}
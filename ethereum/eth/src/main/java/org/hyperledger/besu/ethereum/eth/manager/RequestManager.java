@@ -19,13 +19,16 @@ import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage;
 
 import java.math.BigInteger;
+import java.time.Clock;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -35,14 +38,27 @@ public class RequestManager {
   private final EthPeer peer;
   private final boolean supportsRequestId;
   private final String protocolName;
+  private final Clock clock;
+  // send time of the requests awaiting a response, in the order they were sent
+  private final NavigableMap<BigInteger, Long> requestTimestamps = new ConcurrentSkipListMap<>();
+  private final PeerResponseStats responseStats = new PeerResponseStats();
 
   private final AtomicInteger outstandingRequests = new AtomicInteger(0);
 
   public RequestManager(
       final EthPeer peer, final boolean supportsRequestId, final String protocolName) {
+    this(peer, supportsRequestId, protocolName, Clock.systemUTC());
+  }
+
+  public RequestManager(
+      final EthPeer peer,
+      final boolean supportsRequestId,
+      final String protocolName,
+      final Clock clock) {
     this.peer = peer;
     this.supportsRequestId = supportsRequestId;
     this.protocolName = protocolName;
+    this.clock = clock;
   }
 
   public int outstandingRequests() {
@@ -53,11 +69,22 @@ public class RequestManager {
     return protocolName;
   }
 
+  public PeerResponseStats getResponseStats() {
+    return responseStats;
+  }
+
+  /** Records that the oldest request awaiting a response from the peer has timed out. */
+  public void recordTimeout() {
+    Optional.ofNullable(requestTimestamps.pollFirstEntry())
+        .ifPresent(sent -> responseStats.recordTimeout(clock.millis() - sent.getValue()));
+  }
+
   public ResponseStream dispatchRequest(final RequestSender sender, final MessageData messageData)
       throws PeerNotConnected {
     outstandingRequests.incrementAndGet();
     final BigInteger requestId = BigInteger.valueOf(requestIdCounter.getAndIncrement());
     final ResponseStream stream = createStream(requestId);
+    requestTimestamps.put(requestId, clock.millis());
     sender.send(supportsRequestId ? messageData.wrapMessageData(requestId) : messageData);
     return stream;
   }
@@ -69,13 +96,19 @@ public class RequestManager {
       // If there's a requestId, find the specific stream it belongs to
       final Map.Entry<BigInteger, MessageData> requestIdAndEthMessage =
           ethMessage.getData().unwrapMessageData();
+      recordResponse(
+          requestTimestamps.remove(requestIdAndEthMessage.getKey()),
+          requestIdAndEthMessage.getValue());
       Optional.ofNullable(responseStreams.get(requestIdAndEthMessage.getKey()))
           .ifPresentOrElse(
               responseStream -> responseStream.processMessage(requestIdAndEthMessage.getValue()),
               // disconnect on incorrect requestIds
               () -> peer.disconnect(DisconnectMessage.DisconnectReason.BREACH_OF_PROTOCOL));
     } else {
-      // otherwise iterate through all of them
+      // otherwise responses arrive in the order of the requests
+      Optional.ofNullable(requestTimestamps.pollFirstEntry())
+          .ifPresent(sent -> recordResponse(sent.getValue(), ethMessage.getData()));
+      // and we iterate through all of them
       streams.forEach(stream -> stream.processMessage(ethMessage.getData()));
     }
     if (count == 0) {
@@ -84,6 +117,12 @@ public class RequestManager {
     }
   }
 
+  private void recordResponse(final Long sentTimestamp, final MessageData response) {
+    if (sentTimestamp != null) {
+      responseStats.recordResponse(clock.millis() - sentTimestamp, response.getSize());
+    }
+  }
+
   public void close() {
     closeOutstandingStreams(responseStreams.values());
   }
@@ -101,6 +140,7 @@ public class RequestManager {
 
   private void deregisterStream(final BigInteger id) {
     responseStreams.remove(id);
+    requestTimestamps.remove(id);
   }
 
   @FunctionalInterface
@@ -51,6 +51,7 @@ public class GetBodiesFromPeerTask extends AbstractPeerRequestTask<List<Block>>
   private final ProtocolSchedule protocolSchedule;
   private final List<BlockHeader> headers;
   private final Map<BodyIdentifier, List<BlockHeader>> bodyToHeaders = new HashMap<>();
+  private volatile long responseSize;
 
   private GetBodiesFromPeerTask(
       final ProtocolSchedule protocolSchedule,
@@ -86,8 +87,12 @@ public class GetBodiesFromPeerTask extends AbstractPeerRequestTask<List<Block>>
 
     return sendRequestToPeer(
         peer -> {
-          LOG.debug("Requesting {} bodies from peer {}.", blockHashes.size(), peer);
-          return peer.getBodies(blockHashes);
+          // slow peers are asked for fewer bodies, the rest are requested again by the caller
+          final List<Hash> requestedHashes =
+              blockHashes.subList(
+                  0, peer.recommendedRequestSize(EthPV62.GET_BLOCK_BODIES, blockHashes.size()));
+          LOG.debug("Requesting {} bodies from peer {}.", requestedHashes.size(), peer);
+          return peer.getBodies(requestedHashes);
         },
         minimumRequiredBlockNumber);
   }
@@ -126,9 +131,19 @@ public class GetBodiesFromPeerTask extends AbstractPeerRequestTask<List<Block>>
       // Clear processed headers
       headers.clear();
     }
+    responseSize = message.getSize();
     return Optional.of(blocks);
   }
 
+  /**
+   * The size of the message the bodies were received in.
+   *
+   * @return the number of bytes of the response, or 0 if no response was received
+   */
+  public long getResponseSize() {
+    return responseSize;
+  }
+
   private static class BodyIdentifier {
     private final Bytes32 transactionsRoot;
     private final Bytes32 ommersHash;
@@ -83,8 +83,12 @@ public class GetReceiptsFromPeerTask
             .collect(toList());
     return sendRequestToPeer(
         peer -> {
-          LOG.debug("Requesting {} receipts from peer {}.", blockHeaders.size(), peer);
-          return peer.getReceipts(blockHashes);
+          // slow peers are asked for fewer receipts, the rest are requested again by the caller
+          final List<Hash> requestedHashes =
+              blockHashes.subList(
+                  0, peer.recommendedRequestSize(EthPV63.GET_RECEIPTS, blockHashes.size()));
+          LOG.debug("Requesting {} receipts from peer {}.", requestedHashes.size(), peer);
+          return peer.getReceipts(requestedHashes);
         },
         maximumRequiredBlockNumber);
   }
@@ -47,6 +47,19 @@ public final class BlockBodiesMessage extends AbstractMessageData {
     return new BlockBodiesMessage(tmp.encoded());
   }
 
+  /**
+   * Creates the message from RLP encoded block bodies, such as they are stored, without decoding
+   * them. The encodings are not validated.
+   *
+   * @param encodedBodies the RLP encoded block bodies
+   * @return the message
+   */
+  public static BlockBodiesMessage createFromRlp(final Iterable<Bytes> encodedBodies) {
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.writeList(encodedBodies, (body, out) -> out.writeRaw(body));
+    return new BlockBodiesMessage(tmp.encoded());
+  }
+
   private BlockBodiesMessage(final Bytes data) {
     super(data);
   }
@@ -21,7 +21,7 @@ import org.hyperledger.besu.ethereum.mainnet.ScheduleBasedBlockHeaderFunctions;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractMessageData;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.StreamingRLPEncoder;
 
 import java.util.Arrays;
 import java.util.List;
@@ -47,13 +47,9 @@ public final class BlockHeadersMessage extends AbstractMessageData {
   }
 
   public static BlockHeadersMessage create(final Iterable<BlockHeader> headers) {
-    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
-    tmp.startList();
-    for (final BlockHeader header : headers) {
-      header.writeTo(tmp);
-    }
-    tmp.endList();
-    return new BlockHeadersMessage(tmp.encoded());
+    // Headers are cheap to write, so encode them in two passes instead of buffering every field.
+    return new BlockHeadersMessage(
+        StreamingRLPEncoder.create(out -> out.writeList(headers, BlockHeader::writeTo)).encoded());
   }
 
   private BlockHeadersMessage(final Bytes data) {
@@ -17,8 +17,8 @@ package org.hyperledger.besu.ethereum.eth.messages;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractMessageData;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
 import org.hyperledger.besu.ethereum.rlp.RLPInput;
+import org.hyperledger.besu.ethereum.rlp.StreamingRLPEncoder;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -40,11 +40,9 @@ public final class NodeDataMessage extends AbstractMessageData {
   }
 
   public static NodeDataMessage create(final Iterable<Bytes> nodeData) {
-    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
-    tmp.startList();
-    nodeData.forEach(tmp::writeBytes);
-    tmp.endList();
-    return new NodeDataMessage(tmp.encoded());
+    return new NodeDataMessage(
+        StreamingRLPEncoder.create(out -> out.writeList(nodeData, (node, o) -> o.writeBytes(node)))
+            .encoded());
   }
 
   private NodeDataMessage(final Bytes data) {
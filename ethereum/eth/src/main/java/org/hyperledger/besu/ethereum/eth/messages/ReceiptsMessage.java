@@ -53,6 +53,19 @@ public final class ReceiptsMessage extends AbstractMessageData {
     return new ReceiptsMessage(tmp.encoded());
   }
 
+  /**
+   * Creates the message from the RLP encoded receipt lists of the requested blocks without decoding
+   * them. The encodings are not validated, and must not include revert reasons.
+   *
+   * @param encodedReceipts the RLP encoded list of receipts of each block
+   * @return the message
+   */
+  public static ReceiptsMessage createFromRlp(final Iterable<Bytes> encodedReceipts) {
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.writeList(encodedReceipts, (receipts, out) -> out.writeRaw(receipts));
+    return new ReceiptsMessage(tmp.encoded());
+  }
+
   private ReceiptsMessage(final Bytes data) {
     super(data);
   }
@@ -0,0 +1,175 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.sync;
+
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.LabelledGauge;
+import org.hyperledger.besu.services.pipeline.AdaptiveLimit;
+import org.hyperledger.besu.util.ExceptionUtils;
+
+import java.time.Clock;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+
+/**
+ * The request sizes and parallelism used by the stages of a chain download pipeline.
+ *
+ * <p>The configured header request size and downloader parallelism are the starting points, and
+ * each limit can grow to twice its configured value. Every download a stage completes is reported
+ * back here: downloads that take longer than {@link #TARGET_RESPONSE_TIME_MILLIS}, or bodies that
+ * add up to more than {@link #TARGET_RESPONSE_BYTES}, shrink the limits of that stage while fast,
+ * small ones grow them. Stages also back off when the next stage can't keep up with their output.
+ *
+ * <p>The limits outlive the pipelines created for each sync target, so a new target starts from
+ * the values learned so far.
+ */
+public class ChainDownloadLimits {
+
+  static final long TARGET_RESPONSE_TIME_MILLIS = 2_000;
+  static final long TARGET_RESPONSE_BYTES = 2 * 1024 * 1024;
+
+  private final AdaptiveLimit headersParallelism;
+  private final AdaptiveLimit bodiesBatchSize;
+  private final AdaptiveLimit bodiesParallelism;
+  private final AdaptiveLimit receiptsBatchSize;
+  private final AdaptiveLimit receiptsParallelism;
+  private final Clock clock;
+
+  public ChainDownloadLimits(
+      final SynchronizerConfiguration syncConfig,
+      final MetricsSystem metricsSystem,
+      final String syncMode) {
+    this(syncConfig, metricsSystem, syncMode, Clock.systemUTC());
+  }
+
+  ChainDownloadLimits(
+      final SynchronizerConfiguration syncConfig,
+      final MetricsSystem metricsSystem,
+      final String syncMode,
+      final Clock clock) {
+    final int parallelism = syncConfig.getDownloaderParallelism();
+    final int requestSize = syncConfig.getDownloaderHeaderRequestSize();
+    this.headersParallelism = createLimit(parallelism);
+    this.bodiesBatchSize = createLimit(requestSize);
+    this.bodiesParallelism = createLimit(parallelism);
+    this.receiptsBatchSize = createLimit(requestSize);
+    this.receiptsParallelism = createLimit(parallelism);
+    this.clock = clock;
+
+    final LabelledGauge limitGauge =
+        metricsSystem.createLabelledGauge(
+            BesuMetricCategory.SYNCHRONIZER,
+            syncMode + "_download_limit",
+            "Current request size and parallelism of each chain download pipeline stage",
+            "stage",
+            "limit");
+    limitGauge.labels(headersParallelism::getAsInt, "downloadHeaders", "parallelism");
+    limitGauge.labels(bodiesBatchSize::getAsInt, "downloadBodies", "batch_size");
+    limitGauge.labels(bodiesParallelism::getAsInt, "downloadBodies", "parallelism");
+    limitGauge.labels(receiptsBatchSize::getAsInt, "downloadReceipts", "batch_size");
+    limitGauge.labels(receiptsParallelism::getAsInt, "downloadReceipts", "parallelism");
+  }
+
+  private static AdaptiveLimit createLimit(final int configuredLimit) {
+    return new AdaptiveLimit(1, configuredLimit * 2, configuredLimit);
+  }
+
+  public AdaptiveLimit getHeadersParallelism() {
+    return headersParallelism;
+  }
+
+  public AdaptiveLimit getBodiesBatchSize() {
+    return bodiesBatchSize;
+  }
+
+  public AdaptiveLimit getBodiesParallelism() {
+    return bodiesParallelism;
+  }
+
+  public AdaptiveLimit getReceiptsBatchSize() {
+    return receiptsBatchSize;
+  }
+
+  public AdaptiveLimit getReceiptsParallelism() {
+    return receiptsParallelism;
+  }
+
+  public void recordHeadersDownload(final CompletableFuture<?> download) {
+    recordDownload(
+        download,
+        (result, withinTime) -> headersParallelism.recordResult(withinTime),
+        headersParallelism::recordFailure);
+  }
+
+  /**
+   * Records a bodies download.
+   *
+   * @param download the download, completed when all bodies have been received
+   * @param downloadedBytes the size of the responses the bodies were received in, read once the
+   *     download completes
+   */
+  public void recordBodiesDownload(
+      final CompletableFuture<?> download, final LongSupplier downloadedBytes) {
+    recordDownload(
+        download,
+        (result, withinTime) -> {
+          // Large blocks make for large responses, so the batch size has to account for the size of
+          // what was downloaded as well as how long it took.
+          bodiesBatchSize.recordResult(
+              withinTime && downloadedBytes.getAsLong() <= TARGET_RESPONSE_BYTES);
+          bodiesParallelism.recordResult(withinTime);
+        },
+        () -> {
+          bodiesBatchSize.recordFailure();
+          bodiesParallelism.recordFailure();
+        });
+  }
+
+  public void recordReceiptsDownload(final CompletableFuture<?> download) {
+    recordDownload(
+        download,
+        (result, withinTime) -> {
+          receiptsBatchSize.recordResult(withinTime);
+          receiptsParallelism.recordResult(withinTime);
+        },
+        () -> {
+          receiptsBatchSize.recordFailure();
+          receiptsParallelism.recordFailure();
+        });
+  }
+
+  private <T> void recordDownload(
+      final CompletableFuture<T> download,
+      final DownloadResultHandler<T> resultHandler,
+      final Runnable failureHandler) {
+    final long startTime = clock.millis();
+    download.whenComplete(
+        (result, error) -> {
+          if (error == null) {
+            resultHandler.accept(result, clock.millis() - startTime <= TARGET_RESPONSE_TIME_MILLIS);
+          } else if (!(ExceptionUtils.rootCause(error) instanceof CancellationException)) {
+            // Cancelled downloads say nothing about how the peers are performing.
+            failureHandler.run();
+          }
+        });
+  }
+
+  @FunctionalInterface
+  private interface DownloadResultHandler<T> {
+    void accept(T result, boolean withinTime);
+  }
+}
@@ -33,6 +33,7 @@ import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.data.SyncStatus;
 import org.hyperledger.besu.plugin.services.BesuEvents.SyncStatusListener;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.services.pipeline.PipelineMetrics;
 import org.hyperledger.besu.util.ExceptionUtils;
 
 import java.nio.file.Path;
@@ -89,9 +90,17 @@ public class DefaultSynchronizer implements Synchronizer {
             metricsSystem,
             blockBroadcaster);
 
+    // shared by the sync pipelines, as the metrics may only be registered once
+    final PipelineMetrics pipelineMetrics = new PipelineMetrics(metricsSystem);
     this.fullSyncDownloader =
         new FullSyncDownloader(
-            syncConfig, protocolSchedule, protocolContext, ethContext, syncState, metricsSystem);
+            syncConfig,
+            protocolSchedule,
+            protocolContext,
+            ethContext,
+            syncState,
+            pipelineMetrics,
+            metricsSystem);
     this.fastSyncDownloader =
         FastDownloaderFactory.create(
             syncConfig,
@@ -99,6 +108,7 @@ public class DefaultSynchronizer implements Synchronizer {
             protocolSchedule,
             protocolContext,
             metricsSystem,
+            pipelineMetrics,
             ethContext,
             worldStateStorage,
             syncState,
@@ -30,20 +30,26 @@ public class DownloadBodiesStep
 
   private final ProtocolSchedule protocolSchedule;
   private final EthContext ethContext;
+  private final ChainDownloadLimits limits;
   private final MetricsSystem metricsSystem;
 
   public DownloadBodiesStep(
       final ProtocolSchedule protocolSchedule,
       final EthContext ethContext,
+      final ChainDownloadLimits limits,
       final MetricsSystem metricsSystem) {
     this.protocolSchedule = protocolSchedule;
     this.ethContext = ethContext;
+    this.limits = limits;
     this.metricsSystem = metricsSystem;
   }
 
   @Override
   public CompletableFuture<List<Block>> apply(final List<BlockHeader> blockHeaders) {
-    return CompleteBlocksTask.forHeaders(protocolSchedule, ethContext, blockHeaders, metricsSystem)
-        .run();
+    final CompleteBlocksTask task =
+        CompleteBlocksTask.forHeaders(protocolSchedule, ethContext, blockHeaders, metricsSystem);
+    final CompletableFuture<List<Block>> download = task.run();
+    limits.recordBodiesDownload(download, task::getDownloadedBytes);
+    return download;
   }
 }
@@ -43,6 +43,7 @@ public class DownloadHeadersStep
   private final EthContext ethContext;
   private final ValidationPolicy validationPolicy;
   private final int headerRequestSize;
+  private final ChainDownloadLimits limits;
   private final MetricsSystem metricsSystem;
 
   public DownloadHeadersStep(
@@ -51,18 +52,21 @@ public class DownloadHeadersStep
       final EthContext ethContext,
       final ValidationPolicy validationPolicy,
       final int headerRequestSize,
+      final ChainDownloadLimits limits,
       final MetricsSystem metricsSystem) {
     this.protocolSchedule = protocolSchedule;
     this.protocolContext = protocolContext;
     this.ethContext = ethContext;
     this.validationPolicy = validationPolicy;
     this.headerRequestSize = headerRequestSize;
+    this.limits = limits;
     this.metricsSystem = metricsSystem;
   }
 
   @Override
   public CompletableFuture<CheckpointRangeHeaders> apply(final CheckpointRange checkpointRange) {
     final CompletableFuture<List<BlockHeader>> taskFuture = downloadHeaders(checkpointRange);
+    limits.recordHeadersDownload(taskFuture);
     final CompletableFuture<CheckpointRangeHeaders> processedFuture =
         taskFuture.thenApply(headers -> processHeaders(checkpointRange, headers));
     FutureUtils.propagateCancellation(processedFuture, taskFuture);
@@ -22,37 +22,65 @@ import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.BlockWithReceipts;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
+import org.hyperledger.besu.ethereum.eth.sync.ChainDownloadLimits;
 import org.hyperledger.besu.ethereum.eth.sync.tasks.GetReceiptsForHeadersTask;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.util.FutureUtils;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
+import com.google.common.collect.Lists;
+
 public class DownloadReceiptsStep
     implements Function<List<Block>, CompletableFuture<List<BlockWithReceipts>>> {
   private final EthContext ethContext;
+  private final ChainDownloadLimits limits;
   private final MetricsSystem metricsSystem;
 
-  public DownloadReceiptsStep(final EthContext ethContext, final MetricsSystem metricsSystem) {
+  public DownloadReceiptsStep(
+      final EthContext ethContext,
+      final ChainDownloadLimits limits,
+      final MetricsSystem metricsSystem) {
     this.ethContext = ethContext;
+    this.limits = limits;
     this.metricsSystem = metricsSystem;
   }
 
   @Override
   public CompletableFuture<List<BlockWithReceipts>> apply(final List<Block> blocks) {
     final List<BlockHeader> headers = blocks.stream().map(Block::getHeader).collect(toList());
-    final CompletableFuture<Map<BlockHeader, List<TransactionReceipt>>> getReceipts =
-        GetReceiptsForHeadersTask.forHeaders(ethContext, headers, metricsSystem).run();
+    // Blocks arrive in batches sized for body requests, so split them into receipt requests of the
+    // size that is currently working best for receipts.
+    final List<CompletableFuture<Map<BlockHeader, List<TransactionReceipt>>>> getReceipts =
+        Lists.partition(headers, limits.getReceiptsBatchSize().getAsInt()).stream()
+            .map(this::downloadReceipts)
+            .collect(toList());
     final CompletableFuture<List<BlockWithReceipts>> combineWithBlocks =
-        getReceipts.thenApply(
-            receiptsByHeader -> combineBlocksAndReceipts(blocks, receiptsByHeader));
-    FutureUtils.propagateCancellation(combineWithBlocks, getReceipts);
+        CompletableFuture.allOf(getReceipts.toArray(CompletableFuture<?>[]::new))
+            .thenApply(done -> combineBlocksAndReceipts(blocks, mergeReceipts(getReceipts)));
+    getReceipts.forEach(request -> FutureUtils.propagateCancellation(combineWithBlocks, request));
     return combineWithBlocks;
   }
 
+  private CompletableFuture<Map<BlockHeader, List<TransactionReceipt>>> downloadReceipts(
+      final List<BlockHeader> headers) {
+    final CompletableFuture<Map<BlockHeader, List<TransactionReceipt>>> download =
+        GetReceiptsForHeadersTask.forHeaders(ethContext, headers, metricsSystem).run();
+    limits.recordReceiptsDownload(download);
+    return download;
+  }
+
+  private Map<BlockHeader, List<TransactionReceipt>> mergeReceipts(
+      final List<CompletableFuture<Map<BlockHeader, List<TransactionReceipt>>>> getReceipts) {
+    final Map<BlockHeader, List<TransactionReceipt>> receiptsByHeader = new HashMap<>();
+    getReceipts.forEach(request -> receiptsByHeader.putAll(request.join()));
+    return receiptsByHeader;
+  }
+
   private List<BlockWithReceipts> combineBlocksAndReceipts(
       final List<Block> blocks, final Map<BlockHeader, List<TransactionReceipt>> receiptsByHeader) {
     return blocks.stream()
@@ -29,6 +29,7 @@ import org.hyperledger.besu.ethereum.mainnet.ScheduleBasedBlockHeaderFunctions;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.services.pipeline.PipelineMetrics;
 import org.hyperledger.besu.services.tasks.InMemoryTasksPriorityQueues;
 
 import java.io.File;
@@ -54,6 +55,7 @@ public class FastDownloaderFactory {
       final ProtocolSchedule protocolSchedule,
       final ProtocolContext protocolContext,
       final MetricsSystem metricsSystem,
+      final PipelineMetrics pipelineMetrics,
       final EthContext ethContext,
       final WorldStateStorage worldStateStorage,
       final SyncState syncState,
@@ -106,6 +108,7 @@ public class FastDownloaderFactory {
             syncConfig.getWorldStateMaxRequestsWithoutProgress(),
             syncConfig.getWorldStateMinMillisBeforeStalling(),
             clock,
+            pipelineMetrics,
             metricsSystem);
     final FastSyncDownloader fastSyncDownloader =
         new FastSyncDownloader(
@@ -115,6 +118,7 @@ public class FastDownloaderFactory {
                 protocolContext,
                 ethContext,
                 syncState,
+                pipelineMetrics,
                 metricsSystem),
             worldStateStorage,
             worldStateDownloader,
@@ -22,6 +22,7 @@ import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
 import org.hyperledger.besu.ethereum.eth.manager.EthPeer;
 import org.hyperledger.besu.ethereum.eth.manager.task.WaitForPeersTask;
+import org.hyperledger.besu.ethereum.eth.sync.ChainDownloadLimits;
 import org.hyperledger.besu.ethereum.eth.sync.ChainDownloader;
 import org.hyperledger.besu.ethereum.eth.sync.SynchronizerConfiguration;
 import org.hyperledger.besu.ethereum.eth.sync.state.SyncState;
@@ -29,6 +30,7 @@ import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.services.pipeline.PipelineMetrics;
 import org.hyperledger.besu.util.ExceptionUtils;
 
 import java.time.Duration;
@@ -48,7 +50,9 @@ public class FastSyncActions {
   private final ProtocolContext protocolContext;
   private final EthContext ethContext;
   private final SyncState syncState;
+  private final PipelineMetrics pipelineMetrics;
   private final MetricsSystem metricsSystem;
+  private final ChainDownloadLimits chainDownloadLimits;
   private final Counter pivotBlockSelectionCounter;
   private final AtomicLong pivotBlockGauge = new AtomicLong(0);
 
@@ -58,13 +62,16 @@ public class FastSyncActions {
       final ProtocolContext protocolContext,
       final EthContext ethContext,
       final SyncState syncState,
+      final PipelineMetrics pipelineMetrics,
       final MetricsSystem metricsSystem) {
     this.syncConfig = syncConfig;
     this.protocolSchedule = protocolSchedule;
     this.protocolContext = protocolContext;
     this.ethContext = ethContext;
     this.syncState = syncState;
+    this.pipelineMetrics = pipelineMetrics;
     this.metricsSystem = metricsSystem;
+    this.chainDownloadLimits = new ChainDownloadLimits(syncConfig, metricsSystem, "fast_sync");
 
     pivotBlockSelectionCounter =
         metricsSystem.createCounter(
@@ -198,6 +205,8 @@ public class FastSyncActions {
         ethContext,
         syncState,
         metricsSystem,
-        currentState);
+        currentState,
+        chainDownloadLimits,
+        pipelineMetrics);
   }
 }
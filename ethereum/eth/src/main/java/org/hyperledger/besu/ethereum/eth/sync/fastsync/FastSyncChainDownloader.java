@@ -16,12 +16,14 @@ package org.hyperledger.besu.ethereum.eth.sync.fastsync;
 
 import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
+import org.hyperledger.besu.ethereum.eth.sync.ChainDownloadLimits;
 import org.hyperledger.besu.ethereum.eth.sync.ChainDownloader;
 import org.hyperledger.besu.ethereum.eth.sync.PipelineChainDownloader;
 import org.hyperledger.besu.ethereum.eth.sync.SynchronizerConfiguration;
 import org.hyperledger.besu.ethereum.eth.sync.state.SyncState;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.services.pipeline.PipelineMetrics;
 
 public class FastSyncChainDownloader {
 
@@ -34,7 +36,9 @@ public class FastSyncChainDownloader {
       final EthContext ethContext,
       final SyncState syncState,
       final MetricsSystem metricsSystem,
-      final FastSyncState fastSyncState) {
+      final FastSyncState fastSyncState,
+      final ChainDownloadLimits limits,
+      final PipelineMetrics pipelineMetrics) {
 
     final FastSyncTargetManager syncTargetManager =
         new FastSyncTargetManager(
@@ -44,7 +48,14 @@ public class FastSyncChainDownloader {
         syncState,
         syncTargetManager,
         new FastSyncDownloadPipelineFactory(
-            config, protocolSchedule, protocolContext, ethContext, fastSyncState, metricsSystem),
+            config,
+            protocolSchedule,
+            protocolContext,
+            ethContext,
+            fastSyncState,
+            limits,
+            pipelineMetrics,
+            metricsSystem),
         ethContext.getScheduler(),
         metricsSystem);
   }
@@ -25,6 +25,7 @@ import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
 import org.hyperledger.besu.ethereum.eth.manager.EthPeer;
+import org.hyperledger.besu.ethereum.eth.sync.ChainDownloadLimits;
 import org.hyperledger.besu.ethereum.eth.sync.CheckpointHeaderFetcher;
 import org.hyperledger.besu.ethereum.eth.sync.CheckpointHeaderValidationStep;
 import org.hyperledger.besu.ethereum.eth.sync.CheckpointRange;
@@ -41,6 +42,8 @@ import org.hyperledger.besu.plugin.services.metrics.Counter;
 import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
 import org.hyperledger.besu.services.pipeline.Pipeline;
 import org.hyperledger.besu.services.pipeline.PipelineBuilder;
+import org.hyperledger.besu.services.pipeline.PipelineMetrics;
+import org.hyperledger.besu.services.pipeline.PipelineOptions;
 
 public class FastSyncDownloadPipelineFactory implements DownloadPipelineFactory {
   private final SynchronizerConfiguration syncConfig;
@@ -48,6 +51,8 @@ public class FastSyncDownloadPipelineFactory implements DownloadPipelineFactory
   private final ProtocolContext protocolContext;
   private final EthContext ethContext;
   private final FastSyncState fastSyncState;
+  private final ChainDownloadLimits limits;
+  private final PipelineMetrics pipelineMetrics;
   private final MetricsSystem metricsSystem;
   private final FastSyncValidationPolicy attachedValidationPolicy;
   private final FastSyncValidationPolicy detachedValidationPolicy;
@@ -59,12 +64,16 @@ public class FastSyncDownloadPipelineFactory implements DownloadPipelineFactory
       final ProtocolContext protocolContext,
       final EthContext ethContext,
       final FastSyncState fastSyncState,
+      final ChainDownloadLimits limits,
+      final PipelineMetrics pipelineMetrics,
       final MetricsSystem metricsSystem) {
     this.syncConfig = syncConfig;
     this.protocolSchedule = protocolSchedule;
     this.protocolContext = protocolContext;
     this.ethContext = ethContext;
     this.fastSyncState = fastSyncState;
+    this.limits = limits;
+    this.pipelineMetrics = pipelineMetrics;
     this.metricsSystem = metricsSystem;
     final LabelledMetric<Counter> fastSyncValidationCounter =
         metricsSystem.createLabelledCounter(
@@ -113,14 +122,15 @@ public class FastSyncDownloadPipelineFactory implements DownloadPipelineFactory
             ethContext,
             detachedValidationPolicy,
             headerRequestSize,
+            limits,
             metricsSystem);
     final CheckpointHeaderValidationStep validateHeadersJoinUpStep =
         new CheckpointHeaderValidationStep(
             protocolSchedule, protocolContext, detachedValidationPolicy);
     final DownloadBodiesStep downloadBodiesStep =
-        new DownloadBodiesStep(protocolSchedule, ethContext, metricsSystem);
+        new DownloadBodiesStep(protocolSchedule, ethContext, limits, metricsSystem);
     final DownloadReceiptsStep downloadReceiptsStep =
-        new DownloadReceiptsStep(ethContext, metricsSystem);
+        new DownloadReceiptsStep(ethContext, limits, metricsSystem);
     final FastImportBlocksStep importBlockStep =
         new FastImportBlocksStep(
             protocolSchedule,
@@ -140,12 +150,16 @@ public class FastSyncDownloadPipelineFactory implements DownloadPipelineFactory
                 "step",
                 "action"),
             true,
-            "fastSync")
-        .thenProcessAsyncOrdered("downloadHeaders", downloadHeadersStep, downloaderParallelism)
+            "fastSync",
+            PipelineOptions.DEFAULT.withMetrics(pipelineMetrics))
+        .thenProcessAsyncOrdered(
+            "downloadHeaders", downloadHeadersStep, limits.getHeadersParallelism())
         .thenFlatMap("validateHeadersJoin", validateHeadersJoinUpStep, singleHeaderBufferSize)
-        .inBatches(headerRequestSize)
-        .thenProcessAsyncOrdered("downloadBodies", downloadBodiesStep, downloaderParallelism)
-        .thenProcessAsyncOrdered("downloadReceipts", downloadReceiptsStep, downloaderParallelism)
+        .inBatches(limits.getBodiesBatchSize())
+        .thenProcessAsyncOrdered(
+            "downloadBodies", downloadBodiesStep, limits.getBodiesParallelism())
+        .thenProcessAsyncOrdered(
+            "downloadReceipts", downloadReceiptsStep, limits.getReceiptsParallelism())
         .andFinishWith("importBlock", importBlockStep);
   }
 
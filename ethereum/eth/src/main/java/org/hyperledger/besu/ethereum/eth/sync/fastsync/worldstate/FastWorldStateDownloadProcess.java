@@ -28,6 +28,8 @@ import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
 import org.hyperledger.besu.services.pipeline.Pipe;
 import org.hyperledger.besu.services.pipeline.Pipeline;
 import org.hyperledger.besu.services.pipeline.PipelineBuilder;
+import org.hyperledger.besu.services.pipeline.PipelineMetrics;
+import org.hyperledger.besu.services.pipeline.PipelineOptions;
 import org.hyperledger.besu.services.pipeline.WritePipe;
 import org.hyperledger.besu.services.tasks.Task;
 import org.hyperledger.besu.util.ExceptionUtils;
@@ -99,6 +101,7 @@ public class FastWorldStateDownloadProcess implements WorldStateDownloadProcess
     private LoadLocalDataStep loadLocalDataStep;
     private FastWorldDownloadState downloadState;
     private MetricsSystem metricsSystem;
+    private PipelineMetrics pipelineMetrics;
     private RequestDataStep requestDataStep;
     private BlockHeader pivotBlockHeader;
     private PersistDataStep persistDataStep;
@@ -149,6 +152,11 @@ public class FastWorldStateDownloadProcess implements WorldStateDownloadProcess
       return this;
     }
 
+    public Builder pipelineMetrics(final PipelineMetrics pipelineMetrics) {
+      this.pipelineMetrics = pipelineMetrics;
+      return this;
+    }
+
     public FastWorldStateDownloadProcess build() {
       checkNotNull(loadLocalDataStep);
       checkNotNull(requestDataStep);
@@ -157,6 +165,7 @@ public class FastWorldStateDownloadProcess implements WorldStateDownloadProcess
       checkNotNull(downloadState);
       checkNotNull(pivotBlockHeader);
       checkNotNull(metricsSystem);
+      checkNotNull(pipelineMetrics);
 
       // Room for the requests we expect to do in parallel plus some buffer but not unlimited.
       final int bufferCapacity = hashCountPerRequest * 2;
@@ -167,10 +176,16 @@ public class FastWorldStateDownloadProcess implements WorldStateDownloadProcess
               "Number of entries processed by each world state download pipeline stage",
               "step",
               "action");
+      final PipelineOptions options = PipelineOptions.DEFAULT.withMetrics(pipelineMetrics);
 
       final Pipeline<Task<NodeDataRequest>> completionPipeline =
           PipelineBuilder.<Task<NodeDataRequest>>createPipeline(
-                  "requestDataAvailable", bufferCapacity, outputCounter, true, "node_data_request")
+                  "requestDataAvailable",
+                  bufferCapacity,
+                  outputCounter,
+                  true,
+                  "node_data_request",
+                  options)
               .andFinishWith(
                   "requestCompleteTask",
                   task ->
@@ -185,7 +200,8 @@ public class FastWorldStateDownloadProcess implements WorldStateDownloadProcess
                   bufferCapacity,
                   outputCounter,
                   true,
-                  "world_state_download")
+                  "world_state_download",
+                  options)
               .thenFlatMapInParallel(
                   "requestLoadLocalData",
                   task -> loadLocalDataStep.loadLocalData(task, requestsToComplete),
@@ -23,6 +23,7 @@ import org.hyperledger.besu.ethereum.eth.sync.worldstate.WorldStateDownloader;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.services.pipeline.PipelineMetrics;
 import org.hyperledger.besu.services.tasks.InMemoryTasksPriorityQueues;
 
 import java.time.Clock;
@@ -41,6 +42,7 @@ public class FastWorldStateDownloader implements WorldStateDownloader {
 
   private final long minMillisBeforeStalling;
   private final Clock clock;
+  private final PipelineMetrics pipelineMetrics;
   private final MetricsSystem metricsSystem;
 
   private final EthContext ethContext;
@@ -63,6 +65,7 @@ public class FastWorldStateDownloader implements WorldStateDownloader {
       final int maxNodeRequestsWithoutProgress,
       final long minMillisBeforeStalling,
       final Clock clock,
+      final PipelineMetrics pipelineMetrics,
       final MetricsSystem metricsSystem) {
     this.ethContext = ethContext;
     this.worldStateStorage = worldStateStorage;
@@ -72,6 +75,7 @@ public class FastWorldStateDownloader implements WorldStateDownloader {
     this.maxNodeRequestsWithoutProgress = maxNodeRequestsWithoutProgress;
     this.minMillisBeforeStalling = minMillisBeforeStalling;
     this.clock = clock;
+    this.pipelineMetrics = pipelineMetrics;
     this.metricsSystem = metricsSystem;
 
     metricsSystem.createIntegerGauge(
@@ -156,6 +160,7 @@ public class FastWorldStateDownloader implements WorldStateDownloader {
               .downloadState(newDownloadState)
               .pivotBlockHeader(header)
               .metricsSystem(metricsSystem)
+              .pipelineMetrics(pipelineMetrics)
               .build();
 
       newDownloadState.setWorldStateDownloadProcess(downloadProcess);
@@ -16,12 +16,14 @@ package org.hyperledger.besu.ethereum.eth.sync.fullsync;
 
 import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
+import org.hyperledger.besu.ethereum.eth.sync.ChainDownloadLimits;
 import org.hyperledger.besu.ethereum.eth.sync.ChainDownloader;
 import org.hyperledger.besu.ethereum.eth.sync.PipelineChainDownloader;
 import org.hyperledger.besu.ethereum.eth.sync.SynchronizerConfiguration;
 import org.hyperledger.besu.ethereum.eth.sync.state.SyncState;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.services.pipeline.PipelineMetrics;
 
 public class FullSyncChainDownloader {
   private FullSyncChainDownloader() {}
@@ -32,6 +34,8 @@ public class FullSyncChainDownloader {
       final ProtocolContext protocolContext,
       final EthContext ethContext,
       final SyncState syncState,
+      final ChainDownloadLimits limits,
+      final PipelineMetrics pipelineMetrics,
       final MetricsSystem metricsSystem) {
 
     final FullSyncTargetManager syncTargetManager =
@@ -42,7 +46,13 @@ public class FullSyncChainDownloader {
         syncState,
         syncTargetManager,
         new FullSyncDownloadPipelineFactory(
-            config, protocolSchedule, protocolContext, ethContext, metricsSystem),
+            config,
+            protocolSchedule,
+            protocolContext,
+            ethContext,
+            limits,
+            pipelineMetrics,
+            metricsSystem),
         ethContext.getScheduler(),
         metricsSystem);
   }
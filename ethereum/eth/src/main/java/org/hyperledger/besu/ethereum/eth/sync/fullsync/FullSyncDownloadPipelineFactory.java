@@ -15,9 +15,14 @@
 package org.hyperledger.besu.ethereum.eth.sync.fullsync;
 
 import org.hyperledger.besu.ethereum.ProtocolContext;
+import org.hyperledger.besu.ethereum.bonsai.BonsaiWorldStateArchive;
+import org.hyperledger.besu.ethereum.bonsai.BonsaiWorldStatePrefetcher;
+import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
 import org.hyperledger.besu.ethereum.eth.manager.EthPeer;
+import org.hyperledger.besu.ethereum.eth.sync.ChainDownloadLimits;
+import org.hyperledger.besu.ethereum.eth.sync.CheckpointRange;
 import org.hyperledger.besu.ethereum.eth.sync.CheckpointHeaderFetcher;
 import org.hyperledger.besu.ethereum.eth.sync.CheckpointHeaderValidationStep;
 import org.hyperledger.besu.ethereum.eth.sync.CheckpointRangeSource;
@@ -33,6 +38,10 @@ import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.services.pipeline.Pipeline;
 import org.hyperledger.besu.services.pipeline.PipelineBuilder;
+import org.hyperledger.besu.services.pipeline.PipelineMetrics;
+import org.hyperledger.besu.services.pipeline.PipelineOptions;
+
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,23 +53,44 @@ public class FullSyncDownloadPipelineFactory implements DownloadPipelineFactory
   private final ProtocolSchedule protocolSchedule;
   private final ProtocolContext protocolContext;
   private final EthContext ethContext;
+  private final ChainDownloadLimits limits;
+  private final PipelineMetrics pipelineMetrics;
   private final MetricsSystem metricsSystem;
   private final ValidationPolicy detachedValidationPolicy =
       () -> HeaderValidationMode.DETACHED_ONLY;
   private final BetterSyncTargetEvaluator betterSyncTargetEvaluator;
+  private final Optional<BonsaiWorldStatePrefetcher> statePrefetcher;
 
   public FullSyncDownloadPipelineFactory(
       final SynchronizerConfiguration syncConfig,
       final ProtocolSchedule protocolSchedule,
       final ProtocolContext protocolContext,
       final EthContext ethContext,
+      final ChainDownloadLimits limits,
+      final PipelineMetrics pipelineMetrics,
       final MetricsSystem metricsSystem) {
     this.syncConfig = syncConfig;
     this.protocolSchedule = protocolSchedule;
     this.protocolContext = protocolContext;
     this.ethContext = ethContext;
+    this.limits = limits;
+    this.pipelineMetrics = pipelineMetrics;
     this.metricsSystem = metricsSystem;
     betterSyncTargetEvaluator = new BetterSyncTargetEvaluator(syncConfig, ethContext.getEthPeers());
+    // reading ahead only pays off with the flat database of Bonsai. The state is read by as many
+    // threads as blocks are downloaded by, and for at most as many transactions as headers are
+    // buffered, as reading further ahead than the blocks waiting to be imported is wasted.
+    statePrefetcher =
+        protocolContext.getWorldStateArchive() instanceof BonsaiWorldStateArchive
+            ? Optional.of(
+                new BonsaiWorldStatePrefetcher(
+                    ((BonsaiWorldStateArchive) protocolContext.getWorldStateArchive())
+                        .getWorldStateStorage(),
+                    syncConfig.getDownloaderParallelism(),
+                    syncConfig.getDownloaderHeaderRequestSize()
+                        * syncConfig.getDownloaderParallelism(),
+                    metricsSystem))
+            : Optional.empty();
   }
 
   @Override
@@ -83,33 +113,45 @@ public class FullSyncDownloadPipelineFactory implements DownloadPipelineFactory
             ethContext,
             detachedValidationPolicy,
             headerRequestSize,
+            limits,
             metricsSystem);
     final CheckpointHeaderValidationStep validateHeadersJoinUpStep =
         new CheckpointHeaderValidationStep(
             protocolSchedule, protocolContext, detachedValidationPolicy);
     final DownloadBodiesStep downloadBodiesStep =
-        new DownloadBodiesStep(protocolSchedule, ethContext, metricsSystem);
+        new DownloadBodiesStep(protocolSchedule, ethContext, limits, metricsSystem);
     final ExtractTxSignaturesStep extractTxSignaturesStep = new ExtractTxSignaturesStep();
     final FullImportBlockStep importBlockStep =
         new FullImportBlockStep(protocolSchedule, protocolContext, ethContext);
 
-    return PipelineBuilder.createPipelineFrom(
-            "fetchCheckpoints",
-            checkpointRangeSource,
-            downloaderParallelism,
-            metricsSystem.createLabelledCounter(
-                BesuMetricCategory.SYNCHRONIZER,
-                "chain_download_pipeline_processed_total",
-                "Number of entries process by each chain download pipeline stage",
-                "step",
-                "action"),
-            true,
-            "fullSync")
-        .thenProcessAsyncOrdered("downloadHeaders", downloadHeadersStep, downloaderParallelism)
-        .thenFlatMap("validateHeadersJoin", validateHeadersJoinUpStep, singleHeaderBufferSize)
-        .inBatches(headerRequestSize)
-        .thenProcessAsyncOrdered("downloadBodies", downloadBodiesStep, downloaderParallelism)
-        .thenFlatMap("extractTxSignatures", extractTxSignaturesStep, singleHeaderBufferSize)
+    final PipelineBuilder<CheckpointRange, Block> downloadPipeline =
+        PipelineBuilder.createPipelineFrom(
+                "fetchCheckpoints",
+                checkpointRangeSource,
+                downloaderParallelism,
+                metricsSystem.createLabelledCounter(
+                    BesuMetricCategory.SYNCHRONIZER,
+                    "chain_download_pipeline_processed_total",
+                    "Number of entries process by each chain download pipeline stage",
+                    "step",
+                    "action"),
+                true,
+                "fullSync",
+                PipelineOptions.DEFAULT.withMetrics(pipelineMetrics))
+            .thenProcessAsyncOrdered(
+                "downloadHeaders", downloadHeadersStep, limits.getHeadersParallelism())
+            .thenFlatMap("validateHeadersJoin", validateHeadersJoinUpStep, singleHeaderBufferSize)
+            .inBatches(limits.getBodiesBatchSize())
+            .thenProcessAsyncOrdered(
+                "downloadBodies", downloadBodiesStep, limits.getBodiesParallelism())
+            .thenFlatMap("extractTxSignatures", extractTxSignaturesStep, singleHeaderBufferSize);
+
+    return statePrefetcher
+        .map(
+            prefetcher ->
+                downloadPipeline.thenProcess(
+                    "prefetchState", new PrefetchBlockStateStep(prefetcher)))
+        .orElse(downloadPipeline)
         .andFinishWith("importBlock", importBlockStep);
   }
 
@@ -16,12 +16,14 @@ package org.hyperledger.besu.ethereum.eth.sync.fullsync;
 
 import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
+import org.hyperledger.besu.ethereum.eth.sync.ChainDownloadLimits;
 import org.hyperledger.besu.ethereum.eth.sync.ChainDownloader;
 import org.hyperledger.besu.ethereum.eth.sync.SynchronizerConfiguration;
 import org.hyperledger.besu.ethereum.eth.sync.TrailingPeerRequirements;
 import org.hyperledger.besu.ethereum.eth.sync.state.SyncState;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.services.pipeline.PipelineMetrics;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +42,7 @@ public class FullSyncDownloader {
       final ProtocolContext protocolContext,
       final EthContext ethContext,
       final SyncState syncState,
+      final PipelineMetrics pipelineMetrics,
       final MetricsSystem metricsSystem) {
     this.syncConfig = syncConfig;
     this.protocolContext = protocolContext;
@@ -47,7 +50,14 @@ public class FullSyncDownloader {
 
     this.chainDownloader =
         FullSyncChainDownloader.create(
-            syncConfig, protocolSchedule, protocolContext, ethContext, syncState, metricsSystem);
+            syncConfig,
+            protocolSchedule,
+            protocolContext,
+            ethContext,
+            syncState,
+            new ChainDownloadLimits(syncConfig, metricsSystem, "full_sync"),
+            pipelineMetrics,
+            metricsSystem);
   }
 
   public void start() {
@@ -0,0 +1,39 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.sync.fullsync;
+
+import org.hyperledger.besu.ethereum.bonsai.BonsaiWorldStatePrefetcher;
+import org.hyperledger.besu.ethereum.core.Block;
+
+import java.util.function.Function;
+
+/**
+ * Starts prefetching the state of each block as soon as its body is downloaded, so that it is read
+ * while the blocks queued before it are imported.
+ */
+public class PrefetchBlockStateStep implements Function<Block, Block> {
+
+  private final BonsaiWorldStatePrefetcher prefetcher;
+
+  public PrefetchBlockStateStep(final BonsaiWorldStatePrefetcher prefetcher) {
+    this.prefetcher = prefetcher;
+  }
+
+  @Override
+  public Block apply(final Block block) {
+    prefetcher.prefetch(block);
+    return block;
+  }
+}
@@ -25,7 +25,6 @@ import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
 import org.hyperledger.besu.ethereum.eth.manager.EthPeer;
-import org.hyperledger.besu.ethereum.eth.manager.task.AbstractPeerTask.PeerTaskResult;
 import org.hyperledger.besu.ethereum.eth.manager.task.AbstractRetryingPeerTask;
 import org.hyperledger.besu.ethereum.eth.manager.task.GetBodiesFromPeerTask;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
@@ -36,6 +35,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -57,6 +57,7 @@ public class CompleteBlocksTask extends AbstractRetryingPeerTask<List<Block>> {
   private final List<BlockHeader> headers;
   private final Map<Long, Block> blocks;
   private final MetricsSystem metricsSystem;
+  private final AtomicLong downloadedBytes = new AtomicLong();
 
   private CompleteBlocksTask(
       final ProtocolSchedule protocolSchedule,
@@ -120,10 +121,24 @@ public class CompleteBlocksTask extends AbstractRetryingPeerTask<List<Block>> {
               GetBodiesFromPeerTask.forHeaders(
                   protocolSchedule, ethContext, incompleteHeaders, metricsSystem);
           assignedPeer.ifPresent(task::assignPeer);
-          return task.run().thenApply(PeerTaskResult::getResult);
+          return task.run()
+              .thenApply(
+                  result -> {
+                    downloadedBytes.addAndGet(task.getResponseSize());
+                    return result.getResult();
+                  });
         });
   }
 
+  /**
+   * The size of the messages the bodies of this task were received in so far.
+   *
+   * @return the number of bytes received
+   */
+  public long getDownloadedBytes() {
+    return downloadedBytes.get();
+  }
+
   private CompletableFuture<List<Block>> processBodiesResult(final List<Block> blocksResult) {
     blocksResult.forEach((block) -> blocks.put(block.getHeader().getNumber(), block));
 
@@ -27,6 +27,7 @@ import org.hyperledger.besu.ethereum.chain.BlockAddedObserver;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionSenderCache;
 import org.hyperledger.besu.ethereum.eth.EthProtocol;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
 import org.hyperledger.besu.ethereum.eth.manager.EthPeer;
@@ -78,6 +79,7 @@ public class TransactionPool implements BlockAddedObserver {
   private final PeerTransactionTracker peerTransactionTracker;
   private final PeerPendingTransactionTracker peerPendingTransactionTracker;
   private final TransactionPoolConfiguration configuration;
+  private final TransactionSenderCache senderCache = TransactionSenderCache.getInstance();
 
   public TransactionPool(
       final AbstractPendingTransactionsSorter pendingTransactions,
@@ -109,6 +111,7 @@ public class TransactionPool implements BlockAddedObserver {
             "transactions_duplicates_total",
             "Total number of duplicate transactions received",
             "source");
+    senderCache.registerMetrics(metricsSystem);
 
     ethContext.getEthPeers().subscribeConnect(this::handleConnect);
   }
@@ -144,6 +147,7 @@ public class TransactionPool implements BlockAddedObserver {
         duplicateTransactionCounter.labels(LOCAL).inc();
         return ValidationResult.invalid(transactionAddedStatus.getInvalidReason().orElseThrow());
       }
+      cacheSender(transaction);
       final Collection<Transaction> txs = singletonList(transaction);
       transactionBatchAddedListener.onTransactionsAdded(txs);
       pendingTransactionBatchAddedListener.onTransactionsAdded(txs);
@@ -173,6 +177,7 @@ public class TransactionPool implements BlockAddedObserver {
       if (validationResult.isValid()) {
         final boolean added = pendingTransactions.addRemoteTransaction(transaction);
         if (added) {
+          cacheSender(transaction);
           addedTransactions.add(transaction);
         } else {
           duplicateTransactionCounter.labels(REMOTE).inc();
@@ -189,6 +194,12 @@ public class TransactionPool implements BlockAddedObserver {
     }
   }
 
+  private void cacheSender(final Transaction transaction) {
+    // The sender was recovered during validation, so keep it for when the transaction is included
+    // in a block and decoded again.
+    senderCache.put(transaction.getHash(), transaction.getSender());
+  }
+
   public long subscribePendingTransactions(final PendingTransactionListener listener) {
     return pendingTransactions.subscribePendingTransactions(listener);
   }
@@ -18,6 +18,7 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
@@ -29,6 +30,8 @@ import static org.mockito.Mockito.when;
 import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
 import org.hyperledger.besu.ethereum.eth.messages.BlockBodiesMessage;
 import org.hyperledger.besu.ethereum.eth.messages.BlockHeadersMessage;
+import org.hyperledger.besu.ethereum.eth.messages.EthPV62;
+import org.hyperledger.besu.ethereum.eth.messages.EthPV63;
 import org.hyperledger.besu.ethereum.eth.messages.NodeDataMessage;
 import org.hyperledger.besu.ethereum.eth.messages.ReceiptsMessage;
 import org.hyperledger.besu.ethereum.eth.peervalidation.PeerValidator;
@@ -152,6 +155,64 @@ public class EthPeerTest {
     assertThat(peer.getLastRequestTimestamp()).isEqualTo(clock.millis());
   }
 
+  @Test
+  public void shouldTrackResponseLatencyAndThroughputPerRequestType() throws PeerNotConnected {
+    final EthPeer peer = createPeer();
+    final MessageData response = BlockBodiesMessage.create(asList(gen.body(), gen.body()));
+
+    peer.getBodies(asList(gen.hash(), gen.hash()));
+    clock.stepMillis(500);
+    peer.dispatch(new EthMessage(peer, response));
+
+    final PeerResponseStats stats = peer.getResponseStats(EthPV62.GET_BLOCK_BODIES).orElseThrow();
+    assertThat(stats.getLatencyMillis()).hasValue(500);
+    assertThat(stats.getThroughputBytesPerSecond()).hasValue(response.getSize() * 2.0);
+    assertThat(peer.getResponseStats(EthPV62.GET_BLOCK_HEADERS).orElseThrow().getLatencyMillis())
+        .isEmpty();
+  }
+
+  @Test
+  public void shouldSmoothResponseLatency() throws PeerNotConnected {
+    final EthPeer peer = createPeer();
+
+    peer.getNodeData(singletonList(gen.hash()));
+    clock.stepMillis(1_000);
+    peer.dispatch(new EthMessage(peer, NodeDataMessage.create(emptyList())));
+    peer.getNodeData(singletonList(gen.hash()));
+    clock.stepMillis(2_000);
+    peer.dispatch(new EthMessage(peer, NodeDataMessage.create(emptyList())));
+
+    assertThat(peer.getResponseStats(EthPV63.GET_NODE_DATA).orElseThrow().getLatencyMillis())
+        .hasValueCloseTo(1_200, within(0.001));
+  }
+
+  @Test
+  public void shouldRecordTimedOutRequestAsSlowResponse() throws PeerNotConnected {
+    final EthPeer peer = createPeer();
+
+    peer.getReceipts(singletonList(gen.hash()));
+    clock.stepMillis(5_000);
+    peer.recordRequestTimeout(EthPV63.GET_RECEIPTS);
+
+    final PeerResponseStats stats = peer.getResponseStats(EthPV63.GET_RECEIPTS).orElseThrow();
+    assertThat(stats.getLatencyMillis()).hasValue(5_000);
+    assertThat(stats.getThroughputBytesPerSecond()).hasValue(0);
+  }
+
+  @Test
+  public void shouldRecommendSmallerRequestsForSlowPeers() throws PeerNotConnected {
+    final EthPeer peer = createPeer();
+    assertThat(peer.recommendedRequestSize(EthPV62.GET_BLOCK_BODIES, 100)).isEqualTo(100);
+
+    peer.getBodies(singletonList(gen.hash()));
+    clock.stepMillis(4_000);
+    peer.dispatch(new EthMessage(peer, BlockBodiesMessage.create(emptyList())));
+
+    assertThat(peer.recommendedRequestSize(EthPV62.GET_BLOCK_BODIES, 100)).isEqualTo(50);
+    assertThat(peer.recommendedRequestSize(EthPV62.GET_BLOCK_BODIES, 1)).isEqualTo(1);
+    assertThat(peer.recommendedRequestSize(EthPV62.GET_BLOCK_HEADERS, 100)).isEqualTo(100);
+  }
+
   @Test
   public void closeStreamsOnPeerDisconnect() throws PeerNotConnected {
     final EthPeer peer = createPeer();
@@ -28,6 +28,7 @@ import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.ethereum.core.Difficulty;
 import org.hyperledger.besu.ethereum.eth.manager.exceptions.NoAvailablePeersException;
 import org.hyperledger.besu.ethereum.eth.manager.exceptions.PeerDisconnectedException;
+import org.hyperledger.besu.ethereum.eth.messages.EthPV63;
 import org.hyperledger.besu.ethereum.eth.messages.NodeDataMessage;
 import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection.PeerNotConnected;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
@@ -131,6 +132,39 @@ public class EthPeersTest {
     assertRequestSuccessful(pendingRequest);
   }
 
+  @Test
+  public void shouldUsePeerExpectedToRespondFastestForRequestType() throws Exception {
+    final RespondingEthPeer slowPeer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, 1000);
+    final RespondingEthPeer fastPeer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, 1000);
+    recordResponse(slowPeer.getEthPeer(), EthPV63.GET_NODE_DATA, 2_000);
+    recordResponse(fastPeer.getEthPeer(), EthPV63.GET_NODE_DATA, 100);
+    // the slow peer is the least busy one
+    useRequestSlot(fastPeer.getEthPeer());
+
+    final PendingPeerRequest pendingRequest =
+        ethPeers.executePeerRequest(peerRequest, 10, Optional.empty(), EthPV63.GET_NODE_DATA);
+
+    verify(peerRequest).sendRequest(fastPeer.getEthPeer());
+    assertRequestSuccessful(pendingRequest);
+  }
+
+  @Test
+  public void shouldPreferUnmeasuredPeerForRequestType() throws Exception {
+    final RespondingEthPeer measuredPeer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, 1000);
+    final RespondingEthPeer newPeer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, 1000);
+    recordResponse(measuredPeer.getEthPeer(), EthPV63.GET_NODE_DATA, 100);
+
+    final PendingPeerRequest pendingRequest =
+        ethPeers.executePeerRequest(peerRequest, 10, Optional.empty(), EthPV63.GET_NODE_DATA);
+
+    verify(peerRequest).sendRequest(newPeer.getEthPeer());
+    assertRequestSuccessful(pendingRequest);
+  }
+
   @Test
   public void shouldUseLeastRecentlyUsedPeerWhenBothHaveSameNumberOfOutstandingRequests()
       throws Exception {
@@ -275,6 +309,10 @@ public class EthPeersTest {
     assertThat(peer.hasAvailableRequestCapacity()).isFalse();
   }
 
+  private void recordResponse(final EthPeer peer, final int requestCode, final long latencyMillis) {
+    peer.getResponseStats(requestCode).orElseThrow().recordResponse(latencyMillis, 1_000);
+  }
+
   private void useRequestSlot(final EthPeer peer) throws PeerNotConnected {
     peer.getNodeData(singletonList(Hash.ZERO));
   }
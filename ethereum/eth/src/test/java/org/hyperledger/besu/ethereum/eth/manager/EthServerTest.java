@@ -22,12 +22,25 @@ import static org.mockito.Mockito.when;
 
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.chain.BlockchainStorage;
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.ethereum.eth.EthProtocolConfiguration;
+import org.hyperledger.besu.ethereum.eth.messages.BlockBodiesMessage;
+import org.hyperledger.besu.ethereum.eth.messages.GetBlockBodiesMessage;
 import org.hyperledger.besu.ethereum.eth.messages.GetNodeDataMessage;
+import org.hyperledger.besu.ethereum.eth.messages.GetReceiptsMessage;
 import org.hyperledger.besu.ethereum.eth.messages.NodeDataMessage;
+import org.hyperledger.besu.ethereum.eth.messages.ReceiptsMessage;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPool;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -47,6 +60,7 @@ public class EthServerTest {
   private final TransactionPool transactionPool = mock(TransactionPool.class);
   private final EthPeer ethPeer = mock(EthPeer.class);
   private final EthMessages ethMessages = new EthMessages();
+  private final BlockDataGenerator gen = new BlockDataGenerator();
 
   @Before
   public void setUp() {
@@ -89,4 +103,71 @@ public class EthServerTest {
                 new EthMessage(ethPeer, GetNodeDataMessage.create(asList(HASH1, HASH2, HASH3)))))
         .contains(NodeDataMessage.create(singletonList(VALUE1)));
   }
+
+  @Test
+  public void shouldRespondToBlockBodiesRequestsWithStoredBodies() throws Exception {
+    final BlockBody body = gen.body();
+    when(blockchain.getBlockBodyRlp(HASH1)).thenReturn(Optional.of(RLP.encode(body::writeTo)));
+    when(blockchain.getBlockBodyRlp(HASH2)).thenReturn(Optional.empty());
+    assertThat(
+            ethMessages.dispatch(
+                new EthMessage(ethPeer, GetBlockBodiesMessage.create(asList(HASH1, HASH2)))))
+        .contains(BlockBodiesMessage.create(singletonList(body)));
+  }
+
+  @Test
+  public void shouldLimitTheSizeOfBlockBodiesResponses() throws Exception {
+    final Bytes largeBody =
+        RLP.encode(out -> out.writeBytes(Bytes.wrap(new byte[EthServer.MAX_RESPONSE_SIZE_BYTES])));
+    when(blockchain.getBlockBodyRlp(HASH1)).thenReturn(Optional.of(largeBody));
+    when(blockchain.getBlockBodyRlp(HASH2)).thenReturn(Optional.of(largeBody));
+    assertThat(
+            ethMessages.dispatch(
+                new EthMessage(ethPeer, GetBlockBodiesMessage.create(asList(HASH1, HASH2)))))
+        .contains(BlockBodiesMessage.createFromRlp(singletonList(largeBody)));
+  }
+
+  @Test
+  public void shouldRespondToReceiptsRequestsWithStoredReceipts() throws Exception {
+    final List<TransactionReceipt> receipts = List.of(gen.receipt(), gen.receipt());
+    storeReceipts(false, receipts);
+    assertThat(
+            ethMessages.dispatch(
+                new EthMessage(ethPeer, GetReceiptsMessage.create(singletonList(HASH1)))))
+        .contains(ReceiptsMessage.create(singletonList(receipts)));
+  }
+
+  @Test
+  public void shouldNotSendRevertReasonsOfStoredReceipts() throws Exception {
+    final List<TransactionReceipt> receipts =
+        List.of(gen.receipt(), gen.receipt(Bytes.fromHexString("0x08c379a0")));
+    storeReceipts(false, receipts);
+    assertThat(
+            ethMessages.dispatch(
+                new EthMessage(ethPeer, GetReceiptsMessage.create(singletonList(HASH1)))))
+        .contains(ReceiptsMessage.create(singletonList(receipts)));
+  }
+
+  @Test
+  public void shouldRespondToReceiptsRequestsWithCompactStoredReceipts() throws Exception {
+    final List<TransactionReceipt> receipts =
+        List.of(gen.receipt(), gen.receipt(Bytes.fromHexString("0x08c379a0")), gen.receipt());
+    storeReceipts(true, receipts);
+    assertThat(
+            ethMessages.dispatch(
+                new EthMessage(ethPeer, GetReceiptsMessage.create(singletonList(HASH1)))))
+        .contains(ReceiptsMessage.create(singletonList(receipts)));
+  }
+
+  private void storeReceipts(
+      final boolean compactReceipts, final List<TransactionReceipt> receipts) {
+    final KeyValueStoragePrefixedKeyBlockchainStorage blockchainStorage =
+        new KeyValueStoragePrefixedKeyBlockchainStorage(
+            new InMemoryKeyValueStorage(), new MainnetBlockHeaderFunctions(), compactReceipts);
+    final BlockchainStorage.Updater updater = blockchainStorage.updater();
+    updater.putTransactionReceipts(HASH1, receipts);
+    updater.commit();
+    when(blockchain.getTxReceiptsRlp(HASH1))
+        .thenReturn(blockchainStorage.getTransactionReceiptsRlp(HASH1));
+  }
 }
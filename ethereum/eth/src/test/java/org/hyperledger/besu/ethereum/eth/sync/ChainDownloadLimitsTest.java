@@ -0,0 +1,104 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.sync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.testutil.TestClock;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+public class ChainDownloadLimitsTest {
+
+  private final TestClock clock = new TestClock();
+  private final ChainDownloadLimits limits =
+      new ChainDownloadLimits(
+          SynchronizerConfiguration.builder()
+              .downloaderParallelism(4)
+              .downloaderHeadersRequestSize(100)
+              .build(),
+          new NoOpMetricsSystem(),
+          "test",
+          clock);
+
+  @Test
+  public void shouldStartFromConfiguredValues() {
+    assertThat(limits.getHeadersParallelism().getAsInt()).isEqualTo(4);
+    assertThat(limits.getBodiesParallelism().getAsInt()).isEqualTo(4);
+    assertThat(limits.getBodiesBatchSize().getAsInt()).isEqualTo(100);
+    assertThat(limits.getReceiptsParallelism().getAsInt()).isEqualTo(4);
+    assertThat(limits.getReceiptsBatchSize().getAsInt()).isEqualTo(100);
+    assertThat(limits.getBodiesBatchSize().getMaximum()).isEqualTo(200);
+  }
+
+  @Test
+  public void shouldGrowLimitsWhenDownloadsAreFast() {
+    final CompletableFuture<List<Object>> download = new CompletableFuture<>();
+    limits.recordBodiesDownload(download, () -> 1_000);
+
+    clock.stepMillis(100);
+    download.complete(List.of());
+
+    assertThat(limits.getBodiesBatchSize().getAsInt()).isEqualTo(101);
+    assertThat(limits.getBodiesParallelism().getAsInt()).isEqualTo(5);
+  }
+
+  @Test
+  public void shouldShrinkLimitsWhenDownloadsAreSlow() {
+    final CompletableFuture<Object> download = new CompletableFuture<>();
+    limits.recordReceiptsDownload(download);
+
+    clock.stepMillis(ChainDownloadLimits.TARGET_RESPONSE_TIME_MILLIS + 1);
+    download.complete(new Object());
+
+    assertThat(limits.getReceiptsBatchSize().getAsInt()).isEqualTo(75);
+    assertThat(limits.getReceiptsParallelism().getAsInt()).isEqualTo(3);
+  }
+
+  @Test
+  public void shouldShrinkOnlyBatchSizeWhenBodiesAreLarge() {
+    final CompletableFuture<List<Object>> download = new CompletableFuture<>();
+    limits.recordBodiesDownload(download, () -> ChainDownloadLimits.TARGET_RESPONSE_BYTES + 1);
+
+    download.complete(List.of());
+
+    assertThat(limits.getBodiesBatchSize().getAsInt()).isEqualTo(75);
+    assertThat(limits.getBodiesParallelism().getAsInt()).isEqualTo(5);
+  }
+
+  @Test
+  public void shouldHalveLimitsWhenDownloadsFail() {
+    final CompletableFuture<Object> download = new CompletableFuture<>();
+    limits.recordHeadersDownload(download);
+
+    download.completeExceptionally(new RuntimeException("timeout"));
+
+    assertThat(limits.getHeadersParallelism().getAsInt()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldIgnoreCancelledDownloads() {
+    final CompletableFuture<Object> download = new CompletableFuture<>();
+    limits.recordHeadersDownload(download);
+
+    download.cancel(true);
+
+    assertThat(limits.getHeadersParallelism().getAsInt()).isEqualTo(4);
+  }
+}
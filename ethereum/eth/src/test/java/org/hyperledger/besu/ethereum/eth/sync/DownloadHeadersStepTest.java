@@ -71,6 +71,8 @@ public class DownloadHeadersStepTest {
             ethProtocolManager.ethContext(),
             () -> HeaderValidationMode.DETACHED_ONLY,
             HEADER_REQUEST_SIZE,
+            new ChainDownloadLimits(
+                SynchronizerConfiguration.builder().build(), new NoOpMetricsSystem(), "test"),
             new NoOpMetricsSystem());
 
     checkpointRange =
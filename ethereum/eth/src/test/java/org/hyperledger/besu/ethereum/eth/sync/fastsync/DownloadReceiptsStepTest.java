@@ -29,6 +29,8 @@ import org.hyperledger.besu.ethereum.eth.EthProtocolConfiguration;
 import org.hyperledger.besu.ethereum.eth.manager.EthProtocolManager;
 import org.hyperledger.besu.ethereum.eth.manager.EthProtocolManagerTestUtil;
 import org.hyperledger.besu.ethereum.eth.manager.RespondingEthPeer;
+import org.hyperledger.besu.ethereum.eth.sync.ChainDownloadLimits;
+import org.hyperledger.besu.ethereum.eth.sync.SynchronizerConfiguration;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPool;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageFormat;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
@@ -67,7 +69,11 @@ public class DownloadReceiptsStepTest {
             transactionPool,
             EthProtocolConfiguration.defaultConfig());
     downloadReceiptsStep =
-        new DownloadReceiptsStep(ethProtocolManager.ethContext(), new NoOpMetricsSystem());
+        new DownloadReceiptsStep(
+            ethProtocolManager.ethContext(),
+            new ChainDownloadLimits(
+                SynchronizerConfiguration.builder().build(), new NoOpMetricsSystem(), "test"),
+            new NoOpMetricsSystem());
   }
 
   @Test
@@ -88,6 +94,28 @@ public class DownloadReceiptsStepTest {
                 blockWithReceipts(4)));
   }
 
+  @Test
+  public void shouldSplitReceiptRequestsByBatchSize() {
+    final DownloadReceiptsStep smallBatchStep =
+        new DownloadReceiptsStep(
+            ethProtocolManager.ethContext(),
+            new ChainDownloadLimits(
+                SynchronizerConfiguration.builder().downloaderHeadersRequestSize(2).build(),
+                new NoOpMetricsSystem(),
+                "test"),
+            new NoOpMetricsSystem());
+    final RespondingEthPeer peer = EthProtocolManagerTestUtil.createPeer(ethProtocolManager, 1000);
+
+    final List<Block> blocks = asList(block(1), block(2), block(3));
+    final CompletableFuture<List<BlockWithReceipts>> result = smallBatchStep.apply(blocks);
+
+    peer.respondWhile(RespondingEthPeer.blockchainResponder(blockchain), () -> !result.isDone());
+
+    assertThat(result)
+        .isCompletedWithValue(
+            asList(blockWithReceipts(1), blockWithReceipts(2), blockWithReceipts(3)));
+  }
+
   private Block block(final long number) {
     final BlockHeader header = blockchain.getBlockHeader(number).get();
     return new Block(header, blockchain.getBlockBody(header.getHash()).get());
@@ -30,6 +30,7 @@ import org.hyperledger.besu.ethereum.eth.sync.state.SyncState;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.services.pipeline.PipelineMetrics;
 
 import java.io.File;
 import java.io.IOException;
@@ -70,6 +71,7 @@ public class FastDownloaderFactoryTest {
         protocolSchedule,
         protocolContext,
         metricsSystem,
+        new PipelineMetrics(metricsSystem),
         ethContext,
         worldStateStorage,
         syncState,
@@ -89,6 +91,7 @@ public class FastDownloaderFactoryTest {
             protocolSchedule,
             protocolContext,
             metricsSystem,
+            new PipelineMetrics(metricsSystem),
             ethContext,
             worldStateStorage,
             syncState,
@@ -112,6 +115,7 @@ public class FastDownloaderFactoryTest {
         protocolSchedule,
         protocolContext,
         metricsSystem,
+        new PipelineMetrics(metricsSystem),
         ethContext,
         worldStateStorage,
         syncState,
@@ -141,6 +145,7 @@ public class FastDownloaderFactoryTest {
         protocolSchedule,
         protocolContext,
         metricsSystem,
+        new PipelineMetrics(metricsSystem),
         ethContext,
         worldStateStorage,
         syncState,
@@ -172,6 +177,7 @@ public class FastDownloaderFactoryTest {
                     protocolSchedule,
                     protocolContext,
                     metricsSystem,
+                    new PipelineMetrics(metricsSystem),
                     ethContext,
                     worldStateStorage,
                     syncState,
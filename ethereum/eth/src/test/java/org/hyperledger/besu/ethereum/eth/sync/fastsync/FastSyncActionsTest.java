@@ -39,6 +39,7 @@ import org.hyperledger.besu.ethereum.eth.sync.state.SyncState;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageFormat;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.services.pipeline.PipelineMetrics;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -416,6 +417,7 @@ public class FastSyncActionsTest {
         protocolContext,
         ethContext,
         new SyncState(blockchain, ethContext.getEthPeers()),
+        new PipelineMetrics(new NoOpMetricsSystem()),
         new NoOpMetricsSystem());
   }
 }
@@ -31,12 +31,14 @@ import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
 import org.hyperledger.besu.ethereum.eth.manager.RespondingEthPeer;
 import org.hyperledger.besu.ethereum.eth.messages.EthPV62;
 import org.hyperledger.besu.ethereum.eth.messages.GetBlockHeadersMessage;
+import org.hyperledger.besu.ethereum.eth.sync.ChainDownloadLimits;
 import org.hyperledger.besu.ethereum.eth.sync.ChainDownloader;
 import org.hyperledger.besu.ethereum.eth.sync.SynchronizerConfiguration;
 import org.hyperledger.besu.ethereum.eth.sync.state.SyncState;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageFormat;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.services.pipeline.PipelineMetrics;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -101,14 +103,17 @@ public class FastSyncChainDownloaderTest {
 
   private ChainDownloader downloader(
       final SynchronizerConfiguration syncConfig, final long pivotBlockNumber) {
+    final NoOpMetricsSystem metricsSystem = new NoOpMetricsSystem();
     return FastSyncChainDownloader.create(
         syncConfig,
         protocolSchedule,
         protocolContext,
         ethContext,
         syncState,
-        new NoOpMetricsSystem(),
-        new FastSyncState(otherBlockchain.getBlockHeader(pivotBlockNumber).get()));
+        metricsSystem,
+        new FastSyncState(otherBlockchain.getBlockHeader(pivotBlockNumber).get()),
+        new ChainDownloadLimits(syncConfig, metricsSystem, "fast_sync"),
+        new PipelineMetrics(metricsSystem));
   }
 
   @Test
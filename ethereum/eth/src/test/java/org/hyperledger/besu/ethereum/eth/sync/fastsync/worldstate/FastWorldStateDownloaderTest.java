@@ -66,6 +66,7 @@ import org.hyperledger.besu.evm.account.AccountStorageEntry;
 import org.hyperledger.besu.evm.worldstate.WorldState;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+import org.hyperledger.besu.services.pipeline.PipelineMetrics;
 import org.hyperledger.besu.services.tasks.InMemoryTasksPriorityQueues;
 import org.hyperledger.besu.testutil.MockExecutorService;
 import org.hyperledger.besu.testutil.TestClock;
@@ -1003,6 +1004,7 @@ public class FastWorldStateDownloaderTest {
         config.getWorldStateMaxRequestsWithoutProgress(),
         config.getWorldStateMinMillisBeforeStalling(),
         TestClock.fixed(),
+        new PipelineMetrics(new NoOpMetricsSystem()),
         new NoOpMetricsSystem());
   }
 
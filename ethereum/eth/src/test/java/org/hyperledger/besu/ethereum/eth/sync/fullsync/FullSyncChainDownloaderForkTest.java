@@ -27,6 +27,7 @@ import org.hyperledger.besu.ethereum.eth.manager.EthProtocolManager;
 import org.hyperledger.besu.ethereum.eth.manager.EthProtocolManagerTestUtil;
 import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
 import org.hyperledger.besu.ethereum.eth.manager.RespondingEthPeer;
+import org.hyperledger.besu.ethereum.eth.sync.ChainDownloadLimits;
 import org.hyperledger.besu.ethereum.eth.sync.ChainDownloader;
 import org.hyperledger.besu.ethereum.eth.sync.SynchronizerConfiguration;
 import org.hyperledger.besu.ethereum.eth.sync.state.SyncState;
@@ -34,6 +35,7 @@ import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.services.pipeline.PipelineMetrics;
 
 import org.junit.After;
 import org.junit.Before;
@@ -80,7 +82,14 @@ public class FullSyncChainDownloaderForkTest {
 
   private ChainDownloader downloader(final SynchronizerConfiguration syncConfig) {
     return FullSyncChainDownloader.create(
-        syncConfig, protocolSchedule, protocolContext, ethContext, syncState, metricsSystem);
+        syncConfig,
+        protocolSchedule,
+        protocolContext,
+        ethContext,
+        syncState,
+        new ChainDownloadLimits(syncConfig, metricsSystem, "full_sync"),
+        new PipelineMetrics(metricsSystem),
+        metricsSystem);
   }
 
   private ChainDownloader downloader() {
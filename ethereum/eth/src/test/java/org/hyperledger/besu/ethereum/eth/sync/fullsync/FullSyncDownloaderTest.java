@@ -32,6 +32,7 @@ import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageFormat;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.services.pipeline.PipelineMetrics;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -92,7 +93,13 @@ public class FullSyncDownloaderTest {
 
   private FullSyncDownloader downloader(final SynchronizerConfiguration syncConfig) {
     return new FullSyncDownloader(
-        syncConfig, protocolSchedule, protocolContext, ethContext, syncState, metricsSystem);
+        syncConfig,
+        protocolSchedule,
+        protocolContext,
+        ethContext,
+        syncState,
+        new PipelineMetrics(metricsSystem),
+        metricsSystem);
   }
 
   @Test
@@ -17,6 +17,7 @@ package org.hyperledger.besu.ethereum.eth.sync.tasks;
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -27,6 +28,7 @@ import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
 import org.hyperledger.besu.ethereum.eth.manager.PeerRequest;
 import org.hyperledger.besu.ethereum.eth.manager.ethtaskutils.RetryingMessageTaskTest;
 import org.hyperledger.besu.ethereum.eth.manager.task.EthTask;
+import org.hyperledger.besu.ethereum.eth.messages.EthPV62;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 
 import java.util.ArrayList;
@@ -93,7 +95,10 @@ public class CompleteBlocksTaskTest extends RetryingMessageTaskTest<List<Block>>
 
     verify(ethPeers, times(4))
         .executePeerRequest(
-            any(PeerRequest.class), blockNumbersCaptor.capture(), any(Optional.class));
+            any(PeerRequest.class),
+            blockNumbersCaptor.capture(),
+            any(Optional.class),
+            eq(EthPV62.GET_BLOCK_BODIES));
 
     assertThat(future.isDone()).isFalse();
     assertThat(blockNumbersCaptor.getAllValues().get(0)).isEqualTo(19);
@@ -116,7 +121,10 @@ public class CompleteBlocksTaskTest extends RetryingMessageTaskTest<List<Block>>
 
     verify(ethPeers, times(4))
         .executePeerRequest(
-            any(PeerRequest.class), blockNumbersCaptor.capture(), any(Optional.class));
+            any(PeerRequest.class),
+            blockNumbersCaptor.capture(),
+            any(Optional.class),
+            eq(EthPV62.GET_BLOCK_BODIES));
 
     assertThat(future.isDone()).isFalse();
     assertThat(blockNumbersCaptor.getAllValues().get(0)).isEqualTo(10);
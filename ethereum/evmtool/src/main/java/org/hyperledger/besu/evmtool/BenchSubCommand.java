@@ -0,0 +1,282 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.besu.evmtool;
+
+import static org.hyperledger.besu.ethereum.referencetests.ReferenceTestProtocolSchedules.shouldClearEmptyAccounts;
+import static org.hyperledger.besu.evmtool.BenchSubCommand.COMMAND_NAME;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionProcessor;
+import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
+import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
+import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
+import org.hyperledger.besu.ethereum.referencetests.GeneralStateTestCaseEipSpec;
+import org.hyperledger.besu.ethereum.referencetests.GeneralStateTestCaseSpec;
+import org.hyperledger.besu.ethereum.referencetests.ReferenceTestBlockchain;
+import org.hyperledger.besu.ethereum.referencetests.ReferenceTestProtocolSchedules;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
+import org.hyperledger.besu.ethereum.worldstate.DefaultMutableWorldState;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.log.Log;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+import org.hyperledger.besu.evmtool.exception.UnsupportedForkException;
+import org.hyperledger.besu.util.Log4j2ConfiguratorUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonParser.Feature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.management.ThreadMXBean;
+import org.apache.logging.log4j.Level;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+/**
+ * Repeatedly executes the transactions of Ethereum State Tests and reports, for every test, the
+ * average execution time, the gas executed per second and the bytes allocated per execution. Only
+ * the transaction processing itself is measured; every execution starts from a fresh copy of the
+ * pre-state.
+ */
+@Command(
+    name = COMMAND_NAME,
+    description = "Benchmark the execution of Ethereum State Tests.",
+    mixinStandardHelpOptions = true,
+    versionProvider = VersionProvider.class)
+public class BenchSubCommand implements Runnable {
+  private static final Logger LOG = LoggerFactory.getLogger(BenchSubCommand.class);
+
+  public static final String COMMAND_NAME = "bench";
+
+  @SuppressWarnings({"FieldCanBeFinal", "FieldMayBeFinal"})
+  @Option(
+      names = {"--fork"},
+      description = "Force the state tests to run on a specific fork.")
+  private String fork = null;
+
+  @SuppressWarnings({"FieldCanBeFinal", "FieldMayBeFinal"})
+  @Option(
+      names = {"--warmup"},
+      description = "Number of unmeasured executions of each test (default: ${DEFAULT-VALUE}).")
+  private int warmup = 3;
+
+  @SuppressWarnings({"FieldCanBeFinal", "FieldMayBeFinal"})
+  @Option(
+      names = {"--iterations"},
+      description = "Number of measured executions of each test (default: ${DEFAULT-VALUE}).")
+  private int iterations = 10;
+
+  @SuppressWarnings("MismatchedQueryAndUpdateOfCollection") // picocli does it magically
+  @Parameters(description = "State test files, or directories to search for them.")
+  private final List<File> stateTestPaths = new ArrayList<>();
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+  private final PrintStream out;
+
+  public BenchSubCommand() {
+    this(System.out);
+  }
+
+  public BenchSubCommand(final PrintStream out) {
+    this.out = out;
+  }
+
+  @Override
+  public void run() {
+    objectMapper.disable(Feature.AUTO_CLOSE_SOURCE);
+    final JavaType javaType =
+        objectMapper
+            .getTypeFactory()
+            .constructParametricType(Map.class, String.class, GeneralStateTestCaseSpec.class);
+
+    Log4j2ConfiguratorUtil.setLevel(
+        "org.hyperledger.besu.ethereum.mainnet.ProtocolScheduleBuilder", Level.OFF);
+    final var referenceTestProtocolSchedules = ReferenceTestProtocolSchedules.create();
+    Log4j2ConfiguratorUtil.setLevel(
+        "org.hyperledger.besu.ethereum.mainnet.ProtocolScheduleBuilder", null);
+
+    try {
+      for (final File stateTestFile : findStateTestFiles()) {
+        final Map<String, GeneralStateTestCaseSpec> generalStateTests =
+            objectMapper.readValue(stateTestFile, javaType);
+        for (final var generalStateTestEntry : generalStateTests.entrySet()) {
+          for (final List<GeneralStateTestCaseEipSpec> specs :
+              generalStateTestEntry.getValue().finalStateSpecs().values()) {
+            for (final GeneralStateTestCaseEipSpec spec : specs) {
+              benchmark(generalStateTestEntry.getKey(), spec, referenceTestProtocolSchedules);
+            }
+          }
+        }
+      }
+    } catch (final IOException e) {
+      LOG.error("Unable to read state file", e);
+    }
+  }
+
+  private List<File> findStateTestFiles() throws IOException {
+    final List<File> files = new ArrayList<>();
+    for (final File path : stateTestPaths) {
+      if (path.isDirectory()) {
+        try (final Stream<Path> walk = Files.walk(path.toPath())) {
+          files.addAll(
+              walk.filter(p -> p.toString().endsWith(".json"))
+                  .filter(Files::isRegularFile)
+                  .sorted()
+                  .map(Path::toFile)
+                  .collect(Collectors.toList()));
+        }
+      } else {
+        files.add(path);
+      }
+    }
+    return files;
+  }
+
+  private void benchmark(
+      final String test,
+      final GeneralStateTestCaseEipSpec spec,
+      final ReferenceTestProtocolSchedules referenceTestProtocolSchedules) {
+    final BlockHeader blockHeader = spec.getBlockHeader();
+    final Transaction transaction = spec.getTransaction();
+    // Transactions that do not fit in the block are rejected by the block importer, not the
+    // transaction processor, so these tests are skipped like in the state-test command.
+    if (transaction.getGasLimit() > blockHeader.getGasLimit() - blockHeader.getGasUsed()) {
+      return;
+    }
+
+    final String forkName = fork == null ? spec.getFork() : fork;
+    final ProtocolSchedule protocolSchedule = referenceTestProtocolSchedules.getByName(forkName);
+    if (protocolSchedule == null) {
+      throw new UnsupportedForkException(forkName);
+    }
+    final MainnetTransactionProcessor processor =
+        protocolSchedule.getByBlockNumber(0).getTransactionProcessor();
+
+    for (int i = 0; i < warmup; i++) {
+      new Execution(spec, processor).run();
+    }
+
+    long totalNanos = 0;
+    long totalAllocatedBytes = 0;
+    Execution execution = null;
+    for (int i = 0; i < iterations; i++) {
+      execution = new Execution(spec, processor);
+      final long threadId = Thread.currentThread().getId();
+      final long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+      final long start = System.nanoTime();
+      execution.run();
+      totalNanos += System.nanoTime() - start;
+      totalAllocatedBytes += threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+    }
+    if (execution == null) {
+      return;
+    }
+
+    final TransactionProcessingResult result = execution.result;
+    final long gasUsed = transaction.getGasLimit() - result.getGasRemaining();
+    final long nanosPerOp = totalNanos / iterations;
+
+    final ObjectNode summaryLine = objectMapper.createObjectNode();
+    summaryLine.put("test", test);
+    summaryLine.put("fork", spec.getFork());
+    summaryLine.put("d", spec.getDataIndex());
+    summaryLine.put("g", spec.getGasIndex());
+    summaryLine.put("v", spec.getValueIndex());
+    summaryLine.put("gasUsed", gasUsed);
+    summaryLine.put("iterations", iterations);
+    summaryLine.put("nsPerOp", nanosPerOp);
+    summaryLine.put("gasPerSecond", nanosPerOp == 0 ? 0 : gasUsed * 1_000_000_000L / nanosPerOp);
+    summaryLine.put("allocatedBytesPerOp", totalAllocatedBytes / iterations);
+    summaryLine.put("pass", execution.matchesExpectedState());
+    if (result.isInvalid()) {
+      summaryLine.put("validationError", result.getValidationResult().getErrorMessage());
+    }
+    out.println(summaryLine);
+  }
+
+  /** A single execution of a state test transaction against a fresh copy of its pre-state. */
+  private static class Execution {
+    private final GeneralStateTestCaseEipSpec spec;
+    private final MainnetTransactionProcessor processor;
+    private final MutableWorldState worldState;
+    private final WorldUpdater worldStateUpdater;
+    private final ReferenceTestBlockchain blockchain;
+    private final BlockHashLookup blockHashLookup;
+    private TransactionProcessingResult result;
+
+    private Execution(
+        final GeneralStateTestCaseEipSpec spec, final MainnetTransactionProcessor processor) {
+      this.spec = spec;
+      this.processor = processor;
+      this.worldState = new DefaultMutableWorldState(spec.getInitialWorldState());
+      this.worldStateUpdater = worldState.updater();
+      this.blockchain = new ReferenceTestBlockchain(spec.getBlockHeader().getNumber());
+      this.blockHashLookup = new BlockHashLookup(spec.getBlockHeader(), blockchain);
+    }
+
+    private void run() {
+      result =
+          processor.processTransaction(
+              blockchain,
+              worldStateUpdater,
+              spec.getBlockHeader(),
+              spec.getTransaction(),
+              spec.getBlockHeader().getCoinbase(),
+              blockHashLookup,
+              false,
+              TransactionValidationParams.processingBlock(),
+              OperationTracer.NO_TRACING);
+    }
+
+    private boolean matchesExpectedState() {
+      if (shouldClearEmptyAccounts(spec.getFork())) {
+        final Account coinbase = worldStateUpdater.getOrCreate(spec.getBlockHeader().getCoinbase());
+        if (coinbase != null && coinbase.isEmpty()) {
+          worldStateUpdater.deleteAccount(coinbase.getAddress());
+        }
+        final Account sender = worldStateUpdater.getAccount(spec.getTransaction().getSender());
+        if (sender != null && sender.isEmpty()) {
+          worldStateUpdater.deleteAccount(sender.getAddress());
+        }
+      }
+      worldStateUpdater.commit();
+      final List<Log> logs = result.getLogs();
+      final Hash actualLogsHash = Hash.hash(RLP.encode(o -> o.writeList(logs, Log::writeTo)));
+      return worldState.rootHash().equals(spec.getExpectedRootHash())
+          && actualLogsHash.equals(spec.getExpectedLogsHash());
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evmtool;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import picocli.CommandLine;
+
+public class BenchSubCommandTest {
+
+  @Test
+  public void shouldReportMeasurementsForEachStateTest() throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final BenchSubCommand benchSubCommand =
+        new BenchSubCommand(new PrintStream(output, true, UTF_8));
+    final CommandLine cmd = new CommandLine(benchSubCommand);
+    cmd.parseArgs(
+        "--warmup",
+        "1",
+        "--iterations",
+        "2",
+        BenchSubCommandTest.class.getResource("valid-state-test.json").getPath());
+    benchSubCommand.run();
+
+    final String[] lines = output.toString(UTF_8).split("\n");
+    assertThat(lines).isNotEmpty();
+    for (final String summaryLine : lines) {
+      final JsonNode line = new ObjectMapper().readTree(summaryLine);
+      assertThat(line.get("pass").asBoolean()).isTrue();
+      assertThat(line.get("iterations").asInt()).isEqualTo(2);
+      assertThat(line.get("gasUsed").asLong()).isPositive();
+      assertThat(line.get("nsPerOp").asLong()).isPositive();
+      assertThat(line.get("allocatedBytesPerOp").asLong()).isPositive();
+    }
+  }
+
+  @Test
+  public void shouldFindStateTestsInDirectories() {
+    // the directory also holds a test for an unknown fork, so force a known one
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final BenchSubCommand benchSubCommand =
+        new BenchSubCommand(new PrintStream(output, true, UTF_8));
+    final CommandLine cmd = new CommandLine(benchSubCommand);
+    cmd.parseArgs(
+        "--fork",
+        "Berlin",
+        "--warmup",
+        "0",
+        "--iterations",
+        "1",
+        new File(BenchSubCommandTest.class.getResource("access-list.json").getPath())
+            .getParent());
+    benchSubCommand.run();
+
+    assertThat(output.toString(UTF_8)).contains("\"test\":\"accessList\"");
+  }
+}
@@ -24,6 +24,7 @@ import org.hyperledger.besu.crypto.NodeKey;
 import org.hyperledger.besu.crypto.SignatureAlgorithm;
 import org.hyperledger.besu.crypto.SignatureAlgorithmFactory;
 import org.hyperledger.besu.ethereum.p2p.config.DiscoveryConfiguration;
+import org.hyperledger.besu.ethereum.p2p.discovery.internal.NodeDatabase;
 import org.hyperledger.besu.ethereum.p2p.discovery.internal.Packet;
 import org.hyperledger.besu.ethereum.p2p.discovery.internal.PeerDiscoveryController;
 import org.hyperledger.besu.ethereum.p2p.discovery.internal.PeerDiscoveryController.AsyncExecutor;
@@ -270,6 +271,10 @@ public abstract class PeerDiscoveryAgent {
         .peerRequirement(PeerRequirement.combine(peerRequirements))
         .peerPermissions(peerPermissions)
         .peerBondedObservers(peerBondedObservers)
+        .nodeDatabase(
+            NodeDatabase.load(
+                storageProvider.getStorageBySegmentIdentifier(
+                    KeyValueSegmentIdentifier.BLOCKCHAIN)))
         .metricsSystem(metricsSystem)
         .build();
   }
@@ -0,0 +1,308 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.p2p.discovery.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import org.hyperledger.besu.ethereum.p2p.discovery.DiscoveryPeer;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPException;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
+import org.hyperledger.besu.ethereum.rlp.RLPOutput;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt64;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Remembers the nodes we have bonded with across restarts, so that the peer table can be seeded
+ * with them at startup instead of being rebuilt from the bootnodes.
+ *
+ * <p>For every node the time we last heard from it, the time of its last PONG, its last advertised
+ * ENR sequence number and a reputation are kept. The reputation goes up with every completed bond
+ * and down with every failed one, and a node is forgotten once it drops to zero. Nodes that have
+ * not answered a PING for longer than {@link #NODE_EXPIRATION_MILLIS} are removed on compaction,
+ * as are the least reputable nodes once there are more than {@link #MAX_NODES}.
+ *
+ * <p>Changes are kept in memory and only written to storage by {@link #persist()}.
+ */
+public class NodeDatabase {
+  private static final Logger LOG = LoggerFactory.getLogger(NodeDatabase.class);
+
+  static final long NODE_EXPIRATION_MILLIS = TimeUnit.HOURS.toMillis(24);
+  static final int MAX_NODES = 1000;
+  static final int MAX_REPUTATION = 10;
+  private static final byte[] NODES_KEY = "discovery-nodes".getBytes(UTF_8);
+
+  private final Optional<KeyValueStorage> storage;
+  private final Map<Bytes, Node> nodes = new ConcurrentHashMap<>();
+  private final AtomicBoolean dirty = new AtomicBoolean(false);
+
+  private NodeDatabase(final Optional<KeyValueStorage> storage) {
+    this.storage = storage;
+  }
+
+  /**
+   * Creates a node database backed by the given storage, loading the nodes stored in it.
+   *
+   * @param storage the storage to load the nodes from and persist them to
+   * @return the node database
+   */
+  public static NodeDatabase load(final KeyValueStorage storage) {
+    final NodeDatabase nodeDatabase = new NodeDatabase(Optional.of(storage));
+    storage.get(NODES_KEY).map(Bytes::wrap).ifPresent(nodeDatabase::decode);
+    return nodeDatabase;
+  }
+
+  /**
+   * Creates a node database that is not persisted.
+   *
+   * @return the node database
+   */
+  public static NodeDatabase inMemory() {
+    return new NodeDatabase(Optional.empty());
+  }
+
+  /**
+   * Returns the nodes that answered a PING within {@link #NODE_EXPIRATION_MILLIS}, most recently
+   * bonded first. New {@link DiscoveryPeer} instances are created on every call.
+   *
+   * @param now the current time in milliseconds
+   * @return the recently bonded nodes
+   */
+  public List<DiscoveryPeer> recentlyBondedPeers(final long now) {
+    return nodes.values().stream()
+        .filter(node -> !node.isExpired(now))
+        .sorted(Comparator.comparingLong(Node::getLastPong).reversed())
+        .map(Node::toPeer)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Records a message received from a node we have bonded with before.
+   *
+   * @param peer the sender
+   * @param now the current time in milliseconds
+   */
+  public void onSeen(final DiscoveryPeer peer, final long now) {
+    final Node node = nodes.get(peer.getId());
+    if (node != null) {
+      node.lastSeen = now;
+      dirty.set(true);
+    }
+  }
+
+  /**
+   * Records a completed bond with a node.
+   *
+   * @param peer the node that answered our PING
+   * @param enrSeq the ENR sequence number advertised in the PONG, if any
+   * @param now the current time in milliseconds
+   */
+  public void onBonded(final DiscoveryPeer peer, final Optional<UInt64> enrSeq, final long now) {
+    nodes.compute(
+        peer.getId(),
+        (id, existing) -> {
+          final Node node = new Node(peer, now, now, UInt64.ZERO, 0);
+          if (existing != null) {
+            node.enrSeq = existing.enrSeq;
+            node.reputation = existing.reputation;
+          }
+          enrSeq.ifPresent(seq -> node.enrSeq = seq);
+          node.reputation = Math.min(MAX_REPUTATION, node.reputation + 1);
+          return node;
+        });
+    dirty.set(true);
+  }
+
+  /**
+   * Records a node that did not answer any of our PINGs, forgetting it once its reputation is used
+   * up.
+   *
+   * @param id the id of the node
+   */
+  public void onBondingFailed(final Bytes id) {
+    if (!nodes.containsKey(id)) {
+      return;
+    }
+    final Node remaining =
+        nodes.computeIfPresent(
+            id,
+            (nodeId, node) -> {
+              node.reputation--;
+              return node.reputation > 0 ? node : null;
+            });
+    if (remaining == null) {
+      LOG.trace("Removed unresponsive node {} from the node database", id);
+    }
+    dirty.set(true);
+  }
+
+  /**
+   * Removes expired nodes, and the least reputable and least recently bonded nodes beyond {@link
+   * #MAX_NODES}.
+   *
+   * @param now the current time in milliseconds
+   */
+  public void compact(final long now) {
+    final int sizeBefore = nodes.size();
+    nodes.values().removeIf(node -> node.isExpired(now));
+    if (nodes.size() > MAX_NODES) {
+      nodes.values().stream()
+          .sorted(
+              Comparator.comparingInt(Node::getReputation).thenComparingLong(Node::getLastPong))
+          .limit(nodes.size() - MAX_NODES)
+          .map(Node::getId)
+          .collect(Collectors.toList())
+          .forEach(nodes::remove);
+    }
+    if (nodes.size() != sizeBefore) {
+      LOG.debug("Compacted node database from {} to {} nodes", sizeBefore, nodes.size());
+      dirty.set(true);
+    }
+  }
+
+  /** Writes the nodes to storage if they have changed since they were last written. */
+  public void persist() {
+    if (storage.isEmpty() || !dirty.compareAndSet(true, false)) {
+      return;
+    }
+    final KeyValueStorageTransaction transaction = storage.get().startTransaction();
+    transaction.put(NODES_KEY, encode().toArrayUnsafe());
+    transaction.commit();
+  }
+
+  public int size() {
+    return nodes.size();
+  }
+
+  @VisibleForTesting
+  Optional<Node> getNode(final Bytes id) {
+    return Optional.ofNullable(nodes.get(id));
+  }
+
+  private Bytes encode() {
+    final List<Node> snapshot = new ArrayList<>(nodes.values());
+    return RLP.encode(
+        out -> {
+          out.startList();
+          snapshot.forEach(node -> node.writeTo(out));
+          out.endList();
+        });
+  }
+
+  private void decode(final Bytes encoded) {
+    try {
+      final RLPInput in = RLP.input(encoded);
+      in.enterList();
+      while (!in.isEndOfCurrentList()) {
+        final Node node = Node.readFrom(in);
+        nodes.put(node.getId(), node);
+      }
+      in.leaveList();
+      LOG.debug("Loaded {} nodes from the node database", nodes.size());
+    } catch (final RLPException e) {
+      LOG.warn("Ignoring unreadable node database: {}", e.getMessage());
+      nodes.clear();
+    }
+  }
+
+  static class Node {
+    private final DiscoveryPeer peer;
+    private long lastSeen;
+    private final long lastPong;
+    private UInt64 enrSeq;
+    private int reputation;
+
+    private Node(
+        final DiscoveryPeer peer,
+        final long lastSeen,
+        final long lastPong,
+        final UInt64 enrSeq,
+        final int reputation) {
+      this.peer = peer;
+      this.lastSeen = lastSeen;
+      this.lastPong = lastPong;
+      this.enrSeq = enrSeq;
+      this.reputation = reputation;
+    }
+
+    private static Node readFrom(final RLPInput in) {
+      in.enterList();
+      final DiscoveryPeer peer = DiscoveryPeer.readFrom(in);
+      final long lastSeen = in.readLongScalar();
+      final long lastPong = in.readLongScalar();
+      final UInt64 enrSeq = UInt64.fromBytes(in.readBytes());
+      final int reputation = in.readIntScalar();
+      in.leaveList();
+      return new Node(peer, lastSeen, lastPong, enrSeq, reputation);
+    }
+
+    private void writeTo(final RLPOutput out) {
+      out.startList();
+      peer.writeTo(out);
+      out.writeLongScalar(lastSeen);
+      out.writeLongScalar(lastPong);
+      out.writeBytes(enrSeq.toBytes().trimLeadingZeros());
+      out.writeIntScalar(reputation);
+      out.endList();
+    }
+
+    Bytes getId() {
+      return peer.getId();
+    }
+
+    long getLastSeen() {
+      return lastSeen;
+    }
+
+    long getLastPong() {
+      return lastPong;
+    }
+
+    UInt64 getEnrSeq() {
+      return enrSeq;
+    }
+
+    int getReputation() {
+      return reputation;
+    }
+
+    private boolean isExpired(final long now) {
+      return now - lastPong > NODE_EXPIRATION_MILLIS;
+    }
+
+    private DiscoveryPeer toPeer() {
+      final DiscoveryPeer discoveryPeer =
+          DiscoveryPeer.fromIdAndEndpoint(peer.getId(), peer.getEndpoint());
+      discoveryPeer.setLastSeen(lastSeen);
+      return discoveryPeer;
+    }
+  }
+}
@@ -18,6 +18,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 import org.hyperledger.besu.crypto.NodeKey;
@@ -42,8 +43,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
@@ -56,6 +59,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt64;
 import org.ethereum.beacon.discovery.schema.NodeRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -102,11 +106,19 @@ import org.slf4j.LoggerFactory;
  *
  * <p>If an expectation to receive a message was unmet, following the evaluation of a failure
  * condition, the peer will be physically dropped (eliminated) from the table.
+ *
+ * <p>Bonded peers are also recorded in a {@link NodeDatabase}. On start, the peers that were bonded
+ * recently are put in the table as bonded straight away, so they can be connected to without
+ * waiting for the bootnodes, and are re-validated with a PING a few at a time in the background.
  */
 public class PeerDiscoveryController {
   private static final Logger LOG = LoggerFactory.getLogger(PeerDiscoveryController.class);
   private static final long REFRESH_CHECK_INTERVAL_MILLIS = MILLISECONDS.convert(30, SECONDS);
   private static final int PEER_REFRESH_ROUND_TIMEOUT_IN_SECONDS = 5;
+  private static final long REVALIDATION_INTERVAL_MILLIS = MILLISECONDS.convert(5, SECONDS);
+  private static final int MAX_REVALIDATIONS_PER_INTERVAL = 4;
+  private static final long PERSIST_NODE_DATABASE_INTERVAL_MILLIS =
+      MILLISECONDS.convert(5, MINUTES);
   protected final TimerUtil timerUtil;
   private final PeerTable peerTable;
   private final Cache<Bytes, DiscoveryPeer> bondingPeers =
@@ -141,6 +153,12 @@ public class PeerDiscoveryController {
   private final AtomicBoolean peerTableIsDirty = new AtomicBoolean(false);
   private OptionalLong cleanTableTimerId = OptionalLong.empty();
 
+  private final NodeDatabase nodeDatabase;
+  // Peers seeded from the node database that have not been re-validated yet
+  private final Queue<DiscoveryPeer> peersToRevalidate = new ConcurrentLinkedQueue<>();
+  private OptionalLong revalidationTimerId = OptionalLong.empty();
+  private OptionalLong persistNodeDatabaseTimerId = OptionalLong.empty();
+
   // Observers for "peer bonded" discovery events.
   private final Subscribers<PeerBondedObserver> peerBondedObservers;
 
@@ -159,6 +177,7 @@ public class PeerDiscoveryController {
       final PeerRequirement peerRequirement,
       final PeerPermissions peerPermissions,
       final Subscribers<PeerBondedObserver> peerBondedObservers,
+      final NodeDatabase nodeDatabase,
       final MetricsSystem metricsSystem) {
     this.timerUtil = timerUtil;
     this.nodeKey = nodeKey;
@@ -171,6 +190,7 @@ public class PeerDiscoveryController {
     this.peerRequirement = peerRequirement;
     this.outboundMessageHandler = outboundMessageHandler;
     this.peerBondedObservers = peerBondedObservers;
+    this.nodeDatabase = nodeDatabase;
     this.discoveryProtocolLogger = new DiscoveryProtocolLogger(metricsSystem);
 
     this.peerPermissions = new PeerDiscoveryPermissions(localPeer, peerPermissions);
@@ -181,6 +201,12 @@ public class PeerDiscoveryController {
         "Current number of inflight discovery interactions",
         inflightInteractions::size);
 
+    metricsSystem.createIntegerGauge(
+        BesuMetricCategory.NETWORK,
+        "discovery_node_database_nodes_current",
+        "Current number of nodes in the discovery node database",
+        nodeDatabase::size);
+
     interactionCounter =
         metricsSystem.createLabelledCounter(
             BesuMetricCategory.NETWORK,
@@ -210,6 +236,7 @@ public class PeerDiscoveryController {
             .filter(peerPermissions::isAllowedInPeerTable)
             .collect(Collectors.toList());
     initialDiscoveryPeers.forEach(peerTable::tryAdd);
+    final List<DiscoveryPeer> storedPeers = seedPeerTable();
 
     recursivePeerRefreshState =
         new RecursivePeerRefreshState(
@@ -224,7 +251,9 @@ public class PeerDiscoveryController {
 
     peerPermissions.subscribeUpdate(this::handlePermissionsUpdate);
 
-    recursivePeerRefreshState.start(initialDiscoveryPeers, localPeer.getId());
+    final List<DiscoveryPeer> initialSearchPeers = new ArrayList<>(initialDiscoveryPeers);
+    initialSearchPeers.addAll(storedPeers);
+    recursivePeerRefreshState.start(initialSearchPeers, localPeer.getId());
 
     final long refreshTimerId =
         timerUtil.setPeriodic(
@@ -235,6 +264,67 @@ public class PeerDiscoveryController {
     cleanTableTimerId =
         OptionalLong.of(
             timerUtil.setPeriodic(cleanPeerTableIntervalMs, this::cleanPeerTableIfRequired));
+
+    revalidationTimerId =
+        OptionalLong.of(
+            timerUtil.setPeriodic(REVALIDATION_INTERVAL_MILLIS, this::revalidateStoredPeers));
+    persistNodeDatabaseTimerId =
+        OptionalLong.of(
+            timerUtil.setPeriodic(
+                PERSIST_NODE_DATABASE_INTERVAL_MILLIS,
+                () ->
+                    workerExecutor
+                        .execute(
+                            () -> {
+                              persistNodeDatabase();
+                              return null;
+                            })
+                        .exceptionally(
+                            error -> {
+                              LOG.warn("Failed to persist the node database", error);
+                              return null;
+                            })));
+  }
+
+  // Puts the peers that were bonded recently in the table as bonded, queueing them for
+  // re-validation, and returns the ones that were added.
+  private List<DiscoveryPeer> seedPeerTable() {
+    final List<DiscoveryPeer> seededPeers = new ArrayList<>();
+    for (final DiscoveryPeer peer : nodeDatabase.recentlyBondedPeers(System.currentTimeMillis())) {
+      if (peerPermissions.isAllowedInPeerTable(peer)
+          && peerTable.tryAdd(peer).getOutcome() == PeerTable.AddResult.AddOutcome.ADDED) {
+        peer.setStatus(PeerDiscoveryStatus.BONDED);
+        peersToRevalidate.add(peer);
+        seededPeers.add(peer);
+      }
+    }
+    if (!seededPeers.isEmpty()) {
+      LOG.info("Seeded peer table with {} nodes from the node database", seededPeers.size());
+    }
+    return seededPeers;
+  }
+
+  private void revalidateStoredPeers() {
+    for (int i = 0; i < MAX_REVALIDATIONS_PER_INTERVAL; i++) {
+      final DiscoveryPeer peer = peersToRevalidate.poll();
+      if (peer == null) {
+        return;
+      }
+      if (peer.getStatus() != PeerDiscoveryStatus.BONDED || peerTable.get(peer).isEmpty()) {
+        continue;
+      }
+      if (inflightInteractions.containsKey(peer.getId())) {
+        // don't cancel an ongoing interaction, try again next time
+        peersToRevalidate.add(peer);
+      } else {
+        revalidate(peer);
+      }
+    }
+  }
+
+  private void persistNodeDatabase() {
+    nodeDatabase.compact(System.currentTimeMillis());
+    nodeDatabase.persist();
   }
 
   public CompletableFuture<?> stop() {
@@ -246,8 +336,14 @@ public class PeerDiscoveryController {
     tableRefreshTimerId = OptionalLong.empty();
     cleanTableTimerId.ifPresent(timerUtil::cancelTimer);
     cleanTableTimerId = OptionalLong.empty();
+    revalidationTimerId.ifPresent(timerUtil::cancelTimer);
+    revalidationTimerId = OptionalLong.empty();
+    persistNodeDatabaseTimerId.ifPresent(timerUtil::cancelTimer);
+    persistNodeDatabaseTimerId = OptionalLong.empty();
     inflightInteractions.values().forEach(PeerInteractionState::cancelTimers);
     inflightInteractions.clear();
+    peersToRevalidate.clear();
+    persistNodeDatabase();
     return CompletableFuture.completedFuture(null);
   }
 
@@ -302,6 +398,7 @@ public class PeerDiscoveryController {
       case PING:
         if (peerPermissions.allowInboundBonding(peer)) {
           peer.setLastSeen(System.currentTimeMillis());
+          nodeDatabase.onSeen(peer, peer.getLastSeen());
           final PingPacketData ping = packet.getPacketData(PingPacketData.class).get();
           if (!PeerDiscoveryStatus.BONDED.equals(peer.getStatus())
               && (bondingPeers.getIfPresent(sender.getId()) == null)) {
@@ -315,7 +412,13 @@ public class PeerDiscoveryController {
             .ifPresent(
                 interaction -> {
                   bondingPeers.invalidate(peer.getId());
-                  addToPeerTable(peer);
+                  if (addToPeerTable(peer)) {
+                    final Optional<UInt64> enrSeq =
+                        packet
+                            .getPacketData(PongPacketData.class)
+                            .flatMap(PongPacketData::getEnrSeq);
+                    nodeDatabase.onBonded(peer, enrSeq, peer.getLastSeen());
+                  }
                   recursivePeerRefreshState.onBondingComplete(peer);
                 });
         break;
@@ -463,6 +566,27 @@ public class PeerDiscoveryController {
     peer.setStatus(PeerDiscoveryStatus.BONDING);
     bondingPeers.put(peer.getId(), peer);
 
+    ping(peer, () -> nodeDatabase.onBondingFailed(peer.getId()));
+  }
+
+  /**
+   * Checks that a peer we consider bonded still answers a PING, dropping it from the table if it
+   * doesn't.
+   *
+   * @param peer The targeted peer.
+   */
+  private void revalidate(final DiscoveryPeer peer) {
+    ping(
+        peer,
+        () -> {
+          LOG.trace("Dropping stored peer {} that did not respond to PING", peer.getId());
+          peerTable.tryEvict(peer);
+          peer.setStatus(PeerDiscoveryStatus.KNOWN);
+          nodeDatabase.onBondingFailed(peer.getId());
+        });
+  }
+
+  private void ping(final DiscoveryPeer peer, final Runnable onNoResponse) {
     final Consumer<PeerInteractionState> action =
         interaction -> {
           final PingPacketData data =
@@ -491,7 +615,8 @@ public class PeerDiscoveryController {
 
     // The filter condition will be updated as soon as the action is performed.
     final PeerInteractionState peerInteractionState =
-        new PeerInteractionState(action, peer.getId(), PacketType.PONG, packet -> false, true);
+        new PeerInteractionState(
+            action, peer.getId(), PacketType.PONG, packet -> false, true, onNoResponse);
     dispatchInteraction(peer, peerInteractionState);
   }
 
@@ -664,6 +789,8 @@ public class PeerDiscoveryController {
     private Predicate<Packet> filter;
     /** Whether the action associated to this state is retryable or not. */
     private final boolean retryable;
+    /** Called when the action has been retried as often as allowed without a response. */
+    private final Runnable onNoResponse;
     /** Timers associated with this entry. */
     private OptionalLong timerId = OptionalLong.empty();
 
@@ -673,11 +800,22 @@ public class PeerDiscoveryController {
         final PacketType expectedType,
         final Predicate<Packet> filter,
         final boolean retryable) {
+      this(action, peerId, expectedType, filter, retryable, () -> {});
+    }
+
+    PeerInteractionState(
+        final Consumer<PeerInteractionState> action,
+        final Bytes peerId,
+        final PacketType expectedType,
+        final Predicate<Packet> filter,
+        final boolean retryable,
+        final Runnable onNoResponse) {
       this.action = action;
       this.peerId = peerId;
       this.expectedType = expectedType;
       this.filter = filter;
       this.retryable = retryable;
+      this.onNoResponse = onNoResponse;
       interactionCounter.labels(expectedType.name()).inc();
       retryCounter = interactionRetryCounter.labels(expectedType.name());
     }
@@ -712,6 +850,9 @@ public class PeerDiscoveryController {
                     }));
       } else {
         inflightInteractions.remove(peerId);
+        if (retryable) {
+          onNoResponse.run();
+        }
       }
     }
 
@@ -735,6 +876,7 @@ public class PeerDiscoveryController {
     private final List<DiscoveryPeer> bootstrapNodes = new ArrayList<>();
     private PeerTable peerTable;
     private Subscribers<PeerBondedObserver> peerBondedObservers = Subscribers.create();
+    private NodeDatabase nodeDatabase = NodeDatabase.inMemory();
 
     // Required dependencies
     private NodeKey nodeKey;
@@ -765,6 +907,7 @@ public class PeerDiscoveryController {
           peerRequirement,
           peerPermissions,
           peerBondedObservers,
+          nodeDatabase,
           metricsSystem);
     }
 
@@ -852,6 +995,12 @@ public class PeerDiscoveryController {
       return this;
     }
 
+    public Builder nodeDatabase(final NodeDatabase nodeDatabase) {
+      checkNotNull(nodeDatabase);
+      this.nodeDatabase = nodeDatabase;
+      return this;
+    }
+
     public Builder metricsSystem(final MetricsSystem metricsSystem) {
       checkNotNull(metricsSystem);
       this.metricsSystem = metricsSystem;
@@ -140,6 +140,7 @@ public class DefaultP2PNetwork implements P2PNetwork {
   private final MaintainedPeers maintainedPeers;
 
   private final NatService natService;
+  private final TimeToPeersMetrics timeToPeersMetrics;
 
   private OptionalLong peerBondedObserverId = OptionalLong.empty();
 
@@ -167,6 +168,7 @@ public class DefaultP2PNetwork implements P2PNetwork {
    * @param maintainedPeers A collection of peers for which we are expected to maintain connections
    * @param reputationManager An object that inspect disconnections for misbehaving peers that can
    *     then be blacklisted.
+   * @param metricsSystem The metrics system to report the time taken to find peers to.
    */
   DefaultP2PNetwork(
       final MutableLocalNode localNode,
@@ -177,7 +179,8 @@ public class DefaultP2PNetwork implements P2PNetwork {
       final PeerPermissions peerPermissions,
       final NatService natService,
       final MaintainedPeers maintainedPeers,
-      final PeerReputationManager reputationManager) {
+      final PeerReputationManager reputationManager,
+      final MetricsSystem metricsSystem) {
     this.localNode = localNode;
     this.peerDiscoveryAgent = peerDiscoveryAgent;
     this.rlpxAgent = rlpxAgent;
@@ -191,6 +194,9 @@ public class DefaultP2PNetwork implements P2PNetwork {
     final int maxPeers = config.getRlpx().getMaxPeers();
     peerDiscoveryAgent.addPeerRequirement(() -> rlpxAgent.getConnectionCount() >= maxPeers);
     subscribeDisconnect(reputationManager);
+
+    this.timeToPeersMetrics = new TimeToPeersMetrics(metricsSystem, maxPeers);
+    subscribeConnect(connection -> timeToPeersMetrics.onPeerCount(rlpxAgent.getConnectionCount()));
   }
 
   public static Builder builder() {
@@ -229,6 +235,7 @@ public class DefaultP2PNetwork implements P2PNetwork {
               dnsDaemon.start();
             });
 
+    timeToPeersMetrics.start();
     final int listeningPort = rlpxAgent.start().join();
     final int discoveryPort =
         peerDiscoveryAgent
@@ -515,7 +522,8 @@ public class DefaultP2PNetwork implements P2PNetwork {
           peerPermissions,
           natService,
           maintainedPeers,
-          reputationManager);
+          reputationManager,
+          metricsSystem);
     }
 
     private void validate() {
@@ -0,0 +1,89 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.p2p.network;
+
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.LabelledGauge;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Reports how long after the network was started the number of connected peers first reached one
+ * peer, half of the maximum number of peers and the maximum number of peers. Each gauge reads NaN
+ * until its number of peers has been reached.
+ */
+class TimeToPeersMetrics {
+
+  private final LongSupplier nanoClock;
+  private final Map<String, Milestone> milestones = new LinkedHashMap<>();
+  private volatile long startNanos = -1;
+
+  TimeToPeersMetrics(final MetricsSystem metricsSystem, final int maxPeers) {
+    this(metricsSystem, maxPeers, System::nanoTime);
+  }
+
+  TimeToPeersMetrics(
+      final MetricsSystem metricsSystem, final int maxPeers, final LongSupplier nanoClock) {
+    this.nanoClock = nanoClock;
+    milestones.put("first", new Milestone(1));
+    milestones.put("half", new Milestone(Math.max(1, maxPeers / 2)));
+    milestones.put("max", new Milestone(Math.max(1, maxPeers)));
+
+    final LabelledGauge gauge =
+        metricsSystem.createLabelledGauge(
+            BesuMetricCategory.NETWORK,
+            "peers_time_to_reach_seconds",
+            "Time after startup until the number of connected peers first reached one peer, half"
+                + " of the maximum peers and the maximum peers",
+            "peers");
+    milestones.forEach((label, milestone) -> gauge.labels(milestone::getSeconds, label));
+  }
+
+  void start() {
+    startNanos = nanoClock.getAsLong();
+  }
+
+  void onPeerCount(final int peerCount) {
+    if (startNanos < 0) {
+      return;
+    }
+    final long elapsedNanos = nanoClock.getAsLong() - startNanos;
+    milestones.values().forEach(milestone -> milestone.onPeerCount(peerCount, elapsedNanos));
+  }
+
+  private static class Milestone {
+    private final int peerCount;
+    private volatile long elapsedNanos = -1;
+
+    private Milestone(final int peerCount) {
+      this.peerCount = peerCount;
+    }
+
+    private void onPeerCount(final int currentPeerCount, final long elapsedNanos) {
+      if (this.elapsedNanos < 0 && currentPeerCount >= peerCount) {
+        this.elapsedNanos = elapsedNanos;
+      }
+    }
+
+    private double getSeconds() {
+      final long elapsed = elapsedNanos;
+      return elapsed < 0 ? Double.NaN : elapsed / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+  }
+}
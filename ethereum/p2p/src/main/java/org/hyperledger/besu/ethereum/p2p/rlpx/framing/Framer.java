@@ -335,13 +335,15 @@ public class Framer {
   public synchronized void frame(final MessageData message, final ByteBuf output) {
     Preconditions.checkArgument(
         message.getSize() < LENGTH_MAX_MESSAGE_FRAME, "Message size in excess of maximum length.");
-    // Compress message
     if (compressionEnabled) {
-      // Extract data from message
-      // Compress data
-      final byte[] compressed = compressor.compress(message.getData().toArrayUnsafe());
-      // Construct new, compressed message
-      frameMessage(new RawMessage(message.getCode(), Bytes.wrap(compressed)), output);
+      // Compress straight into the frame, after the message id, so the compressed data is neither
+      // trimmed nor copied again before being encrypted in place.
+      final byte[] uncompressed = message.getData().toArrayUnsafe();
+      final int maxFrameSize =
+          LENGTH_MESSAGE_ID + compressor.maxCompressedLength(uncompressed.length);
+      final byte[] frame = new byte[maxFrameSize + padding16(maxFrameSize)];
+      final int compressedSize = compressor.compress(uncompressed, frame, LENGTH_MESSAGE_ID);
+      frameMessage(message.getCode(), frame, LENGTH_MESSAGE_ID + compressedSize, output);
     } else {
       frameMessage(message, output);
     }
@@ -350,9 +352,26 @@ public class Framer {
   @VisibleForTesting
   void frameMessage(final MessageData message, final ByteBuf buf) {
     final int frameSize = message.getSize() + LENGTH_MESSAGE_ID;
-    final int pad = padding16(frameSize);
+    final byte[] frame = new byte[frameSize + padding16(frameSize)];
+    message.getData().copyTo(MutableBytes.wrap(frame), LENGTH_MESSAGE_ID);
+    frameMessage(message.getCode(), frame, frameSize, buf);
+  }
+
+  /**
+   * Encrypts and writes a frame whose message data has already been written to {@code frame},
+   * right after the room left for the message id.
+   *
+   * @param code The message code.
+   * @param frame The frame to encrypt in place. It must be large enough to hold the frame padded to
+   *     a 16-byte boundary. Whatever it holds past {@code frameSize} is overwritten by the padding.
+   * @param frameSize The size of the frame, that is the message id and the message data.
+   * @param buf The {@link ByteBuf} to write the framed data to.
+   */
+  private void frameMessage(
+      final int code, final byte[] frame, final int frameSize, final ByteBuf buf) {
+    final int paddedFrameSize = frameSize + padding16(frameSize);
 
-    final byte id = (byte) message.getCode();
+    final byte id = (byte) code;
 
     // Generate the header data.
     final byte[] h = new byte[LENGTH_HEADER_DATA];
@@ -370,25 +389,22 @@ public class Framer {
     hMac = Arrays.copyOf(hMac, LENGTH_MAC);
     buf.writeBytes(h).writeBytes(hMac);
 
-    // Encrypt payload.
-    final MutableBytes f = MutableBytes.create(frameSize + pad);
-
+    // Encrypt payload, zero-padded to 16-byte boundary. The compressor may have left data past the
+    // end of the frame, so the padding is cleared here rather than relying on a fresh array.
+    Arrays.fill(frame, frameSize, paddedFrameSize, (byte) 0);
     final Bytes bv = id == 0 ? RLP.NULL : RLP.encodeOne(Bytes.of(id));
     assert bv.size() == 1;
-    f.set(0, bv.get(0));
-
-    // Zero-padded to 16-byte boundary.
-    message.getData().copyTo(f, 1);
-    encryptor.processBytes(f.toArrayUnsafe(), 0, f.size(), f.toArrayUnsafe(), 0);
+    frame[0] = bv.get(0);
+    encryptor.processBytes(frame, 0, paddedFrameSize, frame, 0);
 
     // Calculate the frame MAC.
     final byte[] fMacSeed =
-        Arrays.copyOf(secrets.updateEgress(f.toArrayUnsafe()).getEgressMac(), LENGTH_MAC);
+        Arrays.copyOf(secrets.updateEgress(frame, 0, paddedFrameSize).getEgressMac(), LENGTH_MAC);
     byte[] fMac = new byte[16];
     macEncryptor.processBlock(fMacSeed, 0, fMac, 0);
     fMac = Arrays.copyOf(secrets.updateEgress(xor(fMac, fMacSeed)).getEgressMac(), LENGTH_MAC);
 
-    buf.writeBytes(f.toArrayUnsafe()).writeBytes(fMac);
+    buf.writeBytes(frame, 0, paddedFrameSize).writeBytes(fMac);
   }
 
   private static int padding16(final int size) {
@@ -36,6 +36,28 @@ public class SnappyCompressor {
     }
   }
 
+  /**
+   * Compresses data into a range of an existing array.
+   *
+   * @param uncompressed the data to compress
+   * @param output the array to write the compressed data to, which must have at least {@link
+   *     #maxCompressedLength(int)} bytes after {@code outputOffset}
+   * @param outputOffset the offset in {@code output} at which to write the compressed data
+   * @return the size of the compressed data
+   */
+  public int compress(final byte[] uncompressed, final byte[] output, final int outputOffset) {
+    checkNotNull(uncompressed, "input data must not be null");
+    try {
+      return Snappy.compress(uncompressed, 0, uncompressed.length, output, outputOffset);
+    } catch (final IOException e) {
+      throw new FramingException("Snappy compression failed", e);
+    }
+  }
+
+  public int maxCompressedLength(final int uncompressedLength) {
+    return Snappy.maxCompressedLength(uncompressedLength);
+  }
+
   public byte[] decompress(final byte[] compressed) {
     checkNotNull(compressed, "input data must not be null");
     try {
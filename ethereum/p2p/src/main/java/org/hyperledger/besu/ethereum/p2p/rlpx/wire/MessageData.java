@@ -14,9 +14,9 @@
  */
 package org.hyperledger.besu.ethereum.p2p.rlpx.wire;
 
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.rlp.RLPInput;
+import org.hyperledger.besu.ethereum.rlp.StreamingRLPEncoder;
 
 import java.math.BigInteger;
 import java.util.AbstractMap;
@@ -49,12 +49,18 @@ public interface MessageData {
   Bytes getData();
 
   default MessageData wrapMessageData(final BigInteger requestId) {
-    final BytesValueRLPOutput rlpOutput = new BytesValueRLPOutput();
-    rlpOutput.startList();
-    rlpOutput.writeBigIntegerScalar(requestId);
-    rlpOutput.writeRaw(getData());
-    rlpOutput.endList();
-    return new RawMessage(getCode(), rlpOutput.encoded());
+    final Bytes data = getData();
+    // The message data is copied once, straight to its place in the wrapped message.
+    final Bytes wrapped =
+        StreamingRLPEncoder.create(
+                rlpOutput -> {
+                  rlpOutput.startList();
+                  rlpOutput.writeBigIntegerScalar(requestId);
+                  rlpOutput.writeRaw(data);
+                  rlpOutput.endList();
+                })
+            .encoded();
+    return new RawMessage(getCode(), wrapped);
   }
 
   default Map.Entry<BigInteger, MessageData> unwrapMessageData() {
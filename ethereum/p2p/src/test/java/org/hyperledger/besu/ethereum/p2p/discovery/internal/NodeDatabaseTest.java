@@ -0,0 +1,130 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.p2p.discovery.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.p2p.discovery.DiscoveryPeer;
+import org.hyperledger.besu.ethereum.p2p.discovery.PeerDiscoveryTestHelper;
+import org.hyperledger.besu.ethereum.p2p.peers.Peer;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.tuweni.units.bigints.UInt64;
+import org.junit.Test;
+
+public class NodeDatabaseTest {
+
+  private static final long NOW = 1_000_000_000L;
+
+  private final PeerDiscoveryTestHelper helper = new PeerDiscoveryTestHelper();
+  private final KeyValueStorage storage =
+      new InMemoryKeyValueStorageProvider()
+          .getStorageBySegmentIdentifier(KeyValueSegmentIdentifier.BLOCKCHAIN);
+
+  @Test
+  public void bondedNodesArePersistedAndLoaded() {
+    final List<DiscoveryPeer> peers = helper.createDiscoveryPeers(2);
+    final NodeDatabase nodeDatabase = NodeDatabase.load(storage);
+    nodeDatabase.onBonded(peers.get(0), Optional.of(UInt64.valueOf(7)), NOW - 1000);
+    nodeDatabase.onBonded(peers.get(1), Optional.empty(), NOW);
+    nodeDatabase.onSeen(peers.get(0), NOW);
+    nodeDatabase.persist();
+
+    final NodeDatabase loaded = NodeDatabase.load(storage);
+
+    assertThat(loaded.recentlyBondedPeers(NOW))
+        .containsExactly(peers.get(1), peers.get(0))
+        .allMatch(peer -> peer.getLastSeen() == NOW);
+    final NodeDatabase.Node node = loaded.getNode(peers.get(0).getId()).orElseThrow();
+    assertThat(node.getLastPong()).isEqualTo(NOW - 1000);
+    assertThat(node.getLastSeen()).isEqualTo(NOW);
+    assertThat(node.getEnrSeq()).isEqualTo(UInt64.valueOf(7));
+    assertThat(node.getReputation()).isEqualTo(1);
+  }
+
+  @Test
+  public void onlyNodesWeBondedWithAreRecorded() {
+    final DiscoveryPeer peer = helper.createDiscoveryPeer();
+    final NodeDatabase nodeDatabase = NodeDatabase.load(storage);
+
+    nodeDatabase.onSeen(peer, NOW);
+    nodeDatabase.onBondingFailed(peer.getId());
+
+    assertThat(nodeDatabase.size()).isZero();
+  }
+
+  @Test
+  public void nodesAreForgottenOnceTheirReputationIsUsedUp() {
+    final DiscoveryPeer peer = helper.createDiscoveryPeer();
+    final NodeDatabase nodeDatabase = NodeDatabase.inMemory();
+    nodeDatabase.onBonded(peer, Optional.empty(), NOW);
+    nodeDatabase.onBonded(peer, Optional.empty(), NOW);
+
+    nodeDatabase.onBondingFailed(peer.getId());
+    assertThat(nodeDatabase.getNode(peer.getId()))
+        .hasValueSatisfying(node -> assertThat(node.getReputation()).isEqualTo(1));
+
+    nodeDatabase.onBondingFailed(peer.getId());
+    assertThat(nodeDatabase.getNode(peer.getId())).isEmpty();
+  }
+
+  @Test
+  public void reputationIsCapped() {
+    final DiscoveryPeer peer = helper.createDiscoveryPeer();
+    final NodeDatabase nodeDatabase = NodeDatabase.inMemory();
+    for (int i = 0; i < NodeDatabase.MAX_REPUTATION + 5; i++) {
+      nodeDatabase.onBonded(peer, Optional.empty(), NOW);
+    }
+
+    assertThat(nodeDatabase.getNode(peer.getId()).orElseThrow().getReputation())
+        .isEqualTo(NodeDatabase.MAX_REPUTATION);
+  }
+
+  @Test
+  public void compactionRemovesExpiredNodes() {
+    final List<DiscoveryPeer> peers = helper.createDiscoveryPeers(2);
+    final NodeDatabase nodeDatabase = NodeDatabase.load(storage);
+    nodeDatabase.onBonded(peers.get(0), Optional.empty(), NOW);
+    nodeDatabase.onBonded(
+        peers.get(1), Optional.empty(), NOW - NodeDatabase.NODE_EXPIRATION_MILLIS - 1);
+
+    assertThat(nodeDatabase.recentlyBondedPeers(NOW)).containsExactly(peers.get(0));
+    assertThat(nodeDatabase.size()).isEqualTo(2);
+
+    nodeDatabase.compact(NOW);
+    nodeDatabase.persist();
+
+    assertThat(NodeDatabase.load(storage).recentlyBondedPeers(NOW))
+        .extracting(Peer::getId)
+        .containsExactly(peers.get(0).getId());
+    assertThat(nodeDatabase.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void unreadableDatabaseIsIgnored() {
+    final KeyValueStorageTransaction transaction = storage.startTransaction();
+    transaction.put("discovery-nodes".getBytes(UTF_8), new byte[] {1, 2, 3});
+    transaction.commit();
+
+    assertThat(NodeDatabase.load(storage).size()).isZero();
+  }
+}
@@ -1370,6 +1370,72 @@ public class PeerDiscoveryControllerTest {
         .send(eq(peers.get(0)), matchPacketOfType(PacketType.ENR_REQUEST));
   }
 
+  @Test
+  public void shouldSeedPeerTableWithRecentlyBondedPeersFromNodeDatabase() {
+    final List<NodeKey> nodeKeys = PeerDiscoveryTestHelper.generateNodeKeys(2);
+    final List<DiscoveryPeer> peers = helper.createDiscoveryPeers(nodeKeys);
+    final long now = System.currentTimeMillis();
+    final NodeDatabase nodeDatabase = NodeDatabase.inMemory();
+    nodeDatabase.onBonded(peers.get(0), Optional.empty(), now);
+    nodeDatabase.onBonded(peers.get(1), Optional.empty(), now - TimeUnit.DAYS.toMillis(2));
+    final OutboundMessageHandler outboundMessageHandler = mock(OutboundMessageHandler.class);
+    controller =
+        getControllerBuilder()
+            .nodeDatabase(nodeDatabase)
+            .outboundMessageHandler(outboundMessageHandler)
+            .build();
+
+    controller.start();
+
+    assertThat(controller.streamDiscoveredPeers())
+        .extracting(Peer::getId)
+        .containsExactly(peers.get(0).getId());
+    assertThat(controller.streamDiscoveredPeers())
+        .allMatch(peer -> peer.getStatus() == PeerDiscoveryStatus.BONDED);
+    // the seeded peer is used for the initial search without bonding with it first
+    verify(outboundMessageHandler, never()).send(any(), matchPacketOfType(PacketType.PING));
+    verify(outboundMessageHandler).send(any(), matchPacketOfType(PacketType.FIND_NEIGHBORS));
+  }
+
+  @Test
+  public void shouldRevalidateSeededPeersAndDropUnresponsiveOnes() {
+    final List<NodeKey> nodeKeys = PeerDiscoveryTestHelper.generateNodeKeys(1);
+    final DiscoveryPeer storedPeer = helper.createDiscoveryPeers(nodeKeys).get(0);
+    final NodeDatabase nodeDatabase = NodeDatabase.inMemory();
+    nodeDatabase.onBonded(storedPeer, Optional.empty(), System.currentTimeMillis());
+    final MockTimerUtil timer = new MockTimerUtil();
+    final OutboundMessageHandler outboundMessageHandler = mock(OutboundMessageHandler.class);
+    controller =
+        getControllerBuilder()
+            .nodeDatabase(nodeDatabase)
+            .timerUtil(timer)
+            .outboundMessageHandler(outboundMessageHandler)
+            .build();
+    controller.setRetryDelayFunction(PeerDiscoveryControllerTest::shortDelayFunction);
+    controller.start();
+
+    // The peer is not pinged while it is being asked for neighbours, by the initial search and by
+    // the first table refresh, so answer those first.
+    final Packet neighbors =
+        Packet.create(
+            PacketType.NEIGHBORS,
+            NeighborsPacketData.create(Collections.emptyList()),
+            nodeKeys.get(0));
+    controller.onMessage(neighbors, storedPeer);
+    timer.runPeriodicHandlers();
+    verify(outboundMessageHandler, never()).send(any(), matchPacketOfType(PacketType.PING));
+    controller.onMessage(neighbors, storedPeer);
+    timer.runPeriodicHandlers();
+    verify(outboundMessageHandler).send(any(), matchPacketOfType(PacketType.PING));
+
+    for (int i = 0; i < 5; i++) {
+      timer.runTimerHandlers();
+    }
+
+    assertThat(controller.streamDiscoveredPeers()).isEmpty();
+    assertThat(nodeDatabase.size()).isZero();
+  }
+
   private static Packet mockPingPacket(final DiscoveryPeer from, final DiscoveryPeer to) {
     final Packet packet = mock(Packet.class);
 
@@ -1439,6 +1505,7 @@ public class PeerDiscoveryControllerTest {
     private static final PeerDiscoveryTestHelper helper = new PeerDiscoveryTestHelper();
     private final Subscribers<PeerBondedObserver> peerBondedObservers = Subscribers.create();
     private PeerPermissions peerPermissions = PeerPermissions.noop();
+    private NodeDatabase nodeDatabase = NodeDatabase.inMemory();
 
     public static ControllerBuilder create() {
       return new ControllerBuilder();
@@ -1484,6 +1551,11 @@ public class PeerDiscoveryControllerTest {
       return this;
     }
 
+    ControllerBuilder nodeDatabase(final NodeDatabase nodeDatabase) {
+      this.nodeDatabase = nodeDatabase;
+      return this;
+    }
+
     PeerDiscoveryController build() {
       checkNotNull(nodeKey);
       if (localPeer == null) {
@@ -1505,6 +1577,7 @@ public class PeerDiscoveryControllerTest {
               .peerRequirement(PEER_REQUIREMENT)
               .peerPermissions(peerPermissions)
               .peerBondedObservers(peerBondedObservers)
+              .nodeDatabase(nodeDatabase)
               .metricsSystem(new NoOpMetricsSystem())
               .build());
     }
@@ -0,0 +1,77 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.p2p.network;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.LabelledGauge;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+import org.junit.Test;
+
+public class TimeToPeersMetricsTest {
+
+  private final AtomicLong nanoTime = new AtomicLong();
+  private final Map<String, DoubleSupplier> gauges = new HashMap<>();
+
+  private TimeToPeersMetrics createMetrics(final int maxPeers) {
+    final MetricsSystem metricsSystem = mock(MetricsSystem.class);
+    final LabelledGauge gauge =
+        (valueSupplier, labelValues) -> gauges.put(labelValues[0], valueSupplier);
+    when(metricsSystem.createLabelledGauge(any(), anyString(), anyString(), any()))
+        .thenReturn(gauge);
+    return new TimeToPeersMetrics(metricsSystem, maxPeers, nanoTime::get);
+  }
+
+  @Test
+  public void recordsTimeUntilEachNumberOfPeersIsFirstReached() {
+    final TimeToPeersMetrics metrics = createMetrics(10);
+    metrics.start();
+
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(2));
+    metrics.onPeerCount(1);
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(3));
+    metrics.onPeerCount(5);
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(5));
+    metrics.onPeerCount(4);
+
+    assertThat(gauges.get("first").getAsDouble()).isEqualTo(2.0);
+    assertThat(gauges.get("half").getAsDouble()).isEqualTo(5.0);
+    assertThat(gauges.get("max").getAsDouble()).isNaN();
+
+    metrics.onPeerCount(10);
+    assertThat(gauges.get("max").getAsDouble()).isEqualTo(10.0);
+  }
+
+  @Test
+  public void peersAreIgnoredBeforeStart() {
+    final TimeToPeersMetrics metrics = createMetrics(1);
+
+    metrics.onPeerCount(1);
+
+    assertThat(gauges.get("first").getAsDouble()).isNaN();
+    assertThat(gauges.get("max").getAsDouble()).isNaN();
+  }
+}
@@ -32,6 +32,7 @@ public abstract class AbstractNodeSmartContractPermissioningController
 
   protected final Address contractAddress;
   protected final TransactionSimulator transactionSimulator;
+  protected final PermissioningDecisionCache decisionCache;
 
   private final Counter checkCounter;
   private final Counter checkCounterPermitted;
@@ -48,8 +49,30 @@ public abstract class AbstractNodeSmartContractPermissioningController
       final Address contractAddress,
       final TransactionSimulator transactionSimulator,
       final MetricsSystem metricsSystem) {
+    this(
+        contractAddress,
+        transactionSimulator,
+        metricsSystem,
+        PermissioningDecisionCache.disabled(transactionSimulator));
+  }
+
+  /**
+   * Creates a permissioning controller attached to a blockchain that reuses the results of earlier
+   * contract calls while the state they read is unchanged
+   *
+   * @param contractAddress The address at which the permissioning smart contract resides
+   * @param transactionSimulator A transaction simulator with attached blockchain and world state
+   * @param metricsSystem The metrics provider that is to be reported to
+   * @param decisionCache The cache of contract call results
+   */
+  protected AbstractNodeSmartContractPermissioningController(
+      final Address contractAddress,
+      final TransactionSimulator transactionSimulator,
+      final MetricsSystem metricsSystem,
+      final PermissioningDecisionCache decisionCache) {
     this.contractAddress = contractAddress;
     this.transactionSimulator = transactionSimulator;
+    this.decisionCache = decisionCache;
 
     this.checkCounter =
         metricsSystem.createCounter(
@@ -128,20 +128,32 @@ public class NodePermissioningControllerFactory {
     final Address nodePermissioningSmartContractAddress =
         smartContractPermissioningConfig.getNodeSmartContractAddress();
 
+    final PermissioningDecisionCache decisionCache =
+        new PermissioningDecisionCache(
+            transactionSimulator,
+            PermissioningDecisionCache.DEFAULT_MAX_SIZE,
+            metricsSystem,
+            "node_smart_contract");
     final NodeConnectionPermissioningProvider smartContractProvider;
     switch (smartContractPermissioningConfig.getNodeSmartContractInterfaceVersion()) {
       case 1:
         {
           smartContractProvider =
               new NodeSmartContractPermissioningController(
-                  nodePermissioningSmartContractAddress, transactionSimulator, metricsSystem);
+                  nodePermissioningSmartContractAddress,
+                  transactionSimulator,
+                  metricsSystem,
+                  decisionCache);
           break;
         }
       case 2:
         {
           smartContractProvider =
               new NodeSmartContractV2PermissioningController(
-                  nodePermissioningSmartContractAddress, transactionSimulator, metricsSystem);
+                  nodePermissioningSmartContractAddress,
+                  transactionSimulator,
+                  metricsSystem,
+                  decisionCache);
           break;
         }
       default:
@@ -62,13 +62,20 @@ public class NodeSmartContractPermissioningController
     super(contractAddress, transactionSimulator, metricsSystem);
   }
 
+  public NodeSmartContractPermissioningController(
+      final Address contractAddress,
+      final TransactionSimulator transactionSimulator,
+      final MetricsSystem metricsSystem,
+      final PermissioningDecisionCache decisionCache) {
+    super(contractAddress, transactionSimulator, metricsSystem, decisionCache);
+  }
+
   @Override
   boolean checkSmartContractRules(final EnodeURL sourceEnode, final EnodeURL destinationEnode) {
     final Bytes payload = createPayload(sourceEnode, destinationEnode);
     final CallParameter callParams = buildCallParameters(payload);
 
-    final Optional<TransactionSimulatorResult> result =
-        transactionSimulator.processAtHead(callParams);
+    final Optional<TransactionSimulatorResult> result = decisionCache.processAtHead(callParams);
 
     if (result.isPresent()) {
       switch (result.get().getResult().getStatus()) {
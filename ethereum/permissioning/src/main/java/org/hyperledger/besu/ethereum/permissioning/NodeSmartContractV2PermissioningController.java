@@ -55,6 +55,14 @@ public class NodeSmartContractV2PermissioningController
     super(contractAddress, transactionSimulator, metricsSystem);
   }
 
+  public NodeSmartContractV2PermissioningController(
+      final Address contractAddress,
+      final TransactionSimulator transactionSimulator,
+      final MetricsSystem metricsSystem,
+      final PermissioningDecisionCache decisionCache) {
+    super(contractAddress, transactionSimulator, metricsSystem, decisionCache);
+  }
+
   @Override
   boolean checkSmartContractRules(final EnodeURL sourceEnode, final EnodeURL destinationEnode) {
     return isPermitted(sourceEnode) && isPermitted(destinationEnode);
@@ -72,7 +80,7 @@ public class NodeSmartContractV2PermissioningController
 
   @NotNull
   private Boolean getCallResult(final EnodeURL enode) {
-    return transactionSimulator
+    return decisionCache
         .processAtHead(buildCallParameters(createPayload(enode)))
         .map(this::parseResult)
         .orElse(false);
@@ -0,0 +1,203 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.permissioning;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.permissioning.StateDependencyTracer.StateDependencies;
+import org.hyperledger.besu.ethereum.transaction.CallParameter;
+import org.hyperledger.besu.ethereum.transaction.TransactionSimulator;
+import org.hyperledger.besu.ethereum.transaction.TransactionSimulatorResult;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Caches the results of permissioning smart contract calls, keyed by the call payload, which
+ * encodes the function called together with the enode or transaction being checked.
+ *
+ * <p>While a call is simulated, the storage slots it reads and the code of the contracts it runs
+ * are recorded, always including the code of the contract called. A cached result is reused as
+ * long as the chain head does not change. Once it does, the result is reused only if those slots
+ * and that code are unchanged in the new head state, and is dropped otherwise. Permissioning
+ * contracts commonly keep their rules in separate contracts behind an ingress contract, so checking
+ * what the call actually read also catches rule updates that leave the configured contract
+ * untouched. Unsuccessful calls, calls that read state which cannot be checked this way and calls
+ * that read more than {@link #MAX_DEPENDENCIES} values are never cached. Results are simulated
+ * again once they are older than the maximum age, however long they stay valid.
+ */
+public class PermissioningDecisionCache {
+
+  public static final int DEFAULT_MAX_SIZE = 1_000;
+  public static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(10);
+  // checking that many values against a new head costs about as much as simulating the call
+  static final int MAX_DEPENDENCIES = 1_024;
+
+  private final TransactionSimulator transactionSimulator;
+  private final boolean enabled;
+  private final Cache<Bytes, CachedResult> results;
+
+  private final LabelledMetric<Counter> lookupCounter;
+  private final Counter simulationsAvoidedCounter;
+
+  /**
+   * Creates a decision cache
+   *
+   * @param transactionSimulator the simulator used to run calls that are not cached
+   * @param maxSize the maximum number of call results to keep, or zero to disable caching
+   * @param metricsSystem the metrics provider that is to be reported to
+   * @param metricPrefix the prefix of the metric names, identifying the permissioning provider
+   */
+  public PermissioningDecisionCache(
+      final TransactionSimulator transactionSimulator,
+      final int maxSize,
+      final MetricsSystem metricsSystem,
+      final String metricPrefix) {
+    this(
+        transactionSimulator,
+        maxSize,
+        DEFAULT_MAX_AGE,
+        Ticker.systemTicker(),
+        metricsSystem,
+        metricPrefix);
+  }
+
+  PermissioningDecisionCache(
+      final TransactionSimulator transactionSimulator,
+      final int maxSize,
+      final Duration maxAge,
+      final Ticker ticker,
+      final MetricsSystem metricsSystem,
+      final String metricPrefix) {
+    this.transactionSimulator = transactionSimulator;
+    this.enabled = maxSize > 0;
+    this.results =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(maxAge)
+            .ticker(ticker)
+            .build();
+    this.lookupCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.PERMISSIONING,
+            metricPrefix + "_decision_cache_lookups_total",
+            "Number of permissioning contract calls looked up in the decision cache",
+            "result");
+    this.simulationsAvoidedCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.PERMISSIONING,
+            metricPrefix + "_decision_cache_simulations_avoided_total",
+            "Number of permissioning contract calls answered without simulating them");
+  }
+
+  /**
+   * Creates a cache that simulates every call.
+   *
+   * @param transactionSimulator the simulator used to run calls
+   * @return a cache that never stores anything
+   */
+  public static PermissioningDecisionCache disabled(
+      final TransactionSimulator transactionSimulator) {
+    return new PermissioningDecisionCache(
+        transactionSimulator, 0, new NoOpMetricsSystem(), "disabled");
+  }
+
+  /**
+   * Returns the result of the call at the current chain head, from the cache if it is still valid
+   * there, or by simulating it.
+   *
+   * @param callParams the permissioning contract call
+   * @return the result of the call, or empty if the chain head state is not available
+   */
+  public Optional<TransactionSimulatorResult> processAtHead(final CallParameter callParams) {
+    if (!enabled) {
+      return transactionSimulator.processAtHead(callParams);
+    }
+
+    final Bytes key = callParams.getPayload();
+    final CachedResult cached = results.getIfPresent(key);
+    if (cached == null) {
+      lookupCounter.labels("miss").inc();
+    } else if (cached.isValidAtHead()) {
+      simulationsAvoidedCounter.inc();
+      return Optional.of(cached.result);
+    } else {
+      lookupCounter.labels("stale").inc();
+      results.asMap().remove(key, cached);
+    }
+
+    final Hash headBefore = transactionSimulator.getChainHeadHash();
+    final StateDependencyTracer tracer = new StateDependencyTracer();
+    final Optional<TransactionSimulatorResult> result =
+        transactionSimulator.processAtHead(callParams, tracer);
+    if (result.isPresent() && result.get().isSuccessful()) {
+      tracer.recordCallTarget(callParams.getTo());
+      tracer
+          .getDependencies()
+          .filter(dependencies -> dependencies.size() <= MAX_DEPENDENCIES)
+          .ifPresent(
+              dependencies -> {
+                // if the head moved while simulating, the head the call ran against is unknown
+                final Hash headAfter = transactionSimulator.getChainHeadHash();
+                final Hash validAt = headBefore.equals(headAfter) ? headBefore : null;
+                results.put(key, new CachedResult(result.get(), dependencies, validAt));
+              });
+    }
+    return result;
+  }
+
+  private class CachedResult {
+
+    private final TransactionSimulatorResult result;
+    private final StateDependencies dependencies;
+    private volatile Hash validAt;
+
+    private CachedResult(
+        final TransactionSimulatorResult result,
+        final StateDependencies dependencies,
+        final Hash validAt) {
+      this.result = result;
+      this.dependencies = dependencies;
+      this.validAt = validAt;
+    }
+
+    private boolean isValidAtHead() {
+      final Hash head = transactionSimulator.getChainHeadHash();
+      if (validAt != null && validAt.equals(head)) {
+        lookupCounter.labels("hit").inc();
+        return true;
+      }
+      final boolean unchanged =
+          transactionSimulator.readWorldStateAtHead(dependencies::areUnchangedIn).orElse(false);
+      if (!unchanged) {
+        return false;
+      }
+      if (head.equals(transactionSimulator.getChainHeadHash())) {
+        validAt = head;
+      }
+      lookupCounter.labels("revalidated").inc();
+      return true;
+    }
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.permissioning;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.internal.Words;
+import org.hyperledger.besu.evm.operation.Operation.OperationResult;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.WorldView;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * Records the parts of the world state a simulated call depends on: the storage slots it reads and
+ * the code of the contracts it executes or calls. Calls that read state which cannot be checked
+ * this way, such as balances, block values or the code of other accounts, or that modify storage,
+ * have no recorded dependencies.
+ */
+class StateDependencyTracer implements OperationTracer {
+
+  private static final int SLOAD = 0x54;
+  private static final Set<Integer> CALL_OPCODES = Set.of(0xF1, 0xF2, 0xF4, 0xFA);
+  private static final Set<Integer> UNTRACKED_OPCODES =
+      Set.of(
+          0x31, // BALANCE
+          0x3B, // EXTCODESIZE
+          0x3C, // EXTCODECOPY
+          0x3F, // EXTCODEHASH
+          0x40, // BLOCKHASH
+          0x41, // COINBASE
+          0x42, // TIMESTAMP
+          0x43, // NUMBER
+          0x44, // DIFFICULTY
+          0x45, // GASLIMIT
+          0x47, // SELFBALANCE
+          0x48, // BASEFEE
+          0x55, // SSTORE
+          0xF0, // CREATE
+          0xF5, // CREATE2
+          0xFF); // SELFDESTRUCT
+
+  private final Map<Address, Map<UInt256, UInt256>> storageReads = new HashMap<>();
+  private final Map<Address, Hash> codeHashes = new HashMap<>();
+  private boolean tracked = true;
+
+  @Override
+  public void traceExecution(final MessageFrame frame, final ExecuteOperation executeOperation) {
+    if (!tracked) {
+      executeOperation.execute();
+      return;
+    }
+    final int opcode = frame.getCurrentOperation().getOpcode();
+    codeHashes.putIfAbsent(frame.getContractAddress(), frame.getCode().getCodeHash());
+    if (UNTRACKED_OPCODES.contains(opcode)) {
+      tracked = false;
+      executeOperation.execute();
+    } else if (opcode == SLOAD && frame.stackSize() > 0) {
+      final Address address = frame.getRecipientAddress();
+      final UInt256 key = UInt256.fromBytes(frame.getStackItem(0));
+      final OperationResult result = executeOperation.execute();
+      if (result.getHaltReason().isEmpty()) {
+        recordStorageRead(address, key, UInt256.fromBytes(frame.getStackItem(0)));
+      }
+    } else {
+      if (CALL_OPCODES.contains(opcode) && frame.stackSize() > 1) {
+        final Address target = Words.toAddress(frame.getStackItem(1));
+        recordCode(target, codeHash(frame.getWorldUpdater().get(target)));
+      }
+      executeOperation.execute();
+    }
+  }
+
+  void recordStorageRead(final Address address, final UInt256 key, final UInt256 value) {
+    storageReads.computeIfAbsent(address, a -> new HashMap<>()).putIfAbsent(key, value);
+  }
+
+  void recordCode(final Address address, final Hash codeHash) {
+    codeHashes.putIfAbsent(address, codeHash);
+  }
+
+  /**
+   * Records the target of the traced call once it has run, so that the call depends on the code of
+   * its target even if it ran none because the target had no code.
+   *
+   * @param target the account the traced call was sent to
+   */
+  void recordCallTarget(final Address target) {
+    // the code of a target that ran anything has been recorded already
+    codeHashes.putIfAbsent(target, Hash.EMPTY);
+  }
+
+  /**
+   * Returns the state the traced call depended on.
+   *
+   * @return the dependencies of the call, or empty if it read state that is not tracked
+   */
+  Optional<StateDependencies> getDependencies() {
+    return tracked
+        ? Optional.of(new StateDependencies(Map.copyOf(storageReads), Map.copyOf(codeHashes)))
+        : Optional.empty();
+  }
+
+  private static Hash codeHash(final Account account) {
+    return account == null ? Hash.EMPTY : account.getCodeHash();
+  }
+
+  /** The storage values and code hashes a call read, as they were when it was simulated. */
+  static class StateDependencies {
+
+    private final Map<Address, Map<UInt256, UInt256>> storageReads;
+    private final Map<Address, Hash> codeHashes;
+
+    private StateDependencies(
+        final Map<Address, Map<UInt256, UInt256>> storageReads,
+        final Map<Address, Hash> codeHashes) {
+      this.storageReads = storageReads;
+      this.codeHashes = codeHashes;
+    }
+
+    /**
+     * Returns the number of storage values and code hashes the call read.
+     *
+     * @return the number of dependencies
+     */
+    int size() {
+      int size = codeHashes.size();
+      for (final Map<UInt256, UInt256> reads : storageReads.values()) {
+        size += reads.size();
+      }
+      return size;
+    }
+
+    /**
+     * Checks whether every storage value and code hash the call read is the same in the given
+     * world state, in which case simulating the call against it would give the same result.
+     *
+     * @param worldView the world state to check against
+     * @return true if none of the dependencies changed
+     */
+    boolean areUnchangedIn(final WorldView worldView) {
+      for (final Map.Entry<Address, Hash> code : codeHashes.entrySet()) {
+        if (!code.getValue().equals(codeHash(worldView.get(code.getKey())))) {
+          return false;
+        }
+      }
+      for (final Map.Entry<Address, Map<UInt256, UInt256>> reads : storageReads.entrySet()) {
+        final Account account = worldView.get(reads.getKey());
+        for (final Map.Entry<UInt256, UInt256> read : reads.getValue().entrySet()) {
+          final UInt256 current =
+              account == null ? UInt256.ZERO : account.getStorageValue(read.getKey());
+          if (!read.getValue().equals(current)) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -48,6 +48,7 @@ public class TransactionSmartContractPermissioningController
 
   private final Address contractAddress;
   private final TransactionSimulator transactionSimulator;
+  private final PermissioningDecisionCache decisionCache;
 
   // full function signature for connection allowed call
   private static final String FUNCTION_SIGNATURE =
@@ -81,8 +82,30 @@ public class TransactionSmartContractPermissioningController
       final Address contractAddress,
       final TransactionSimulator transactionSimulator,
       final MetricsSystem metricsSystem) {
+    this(
+        contractAddress,
+        transactionSimulator,
+        metricsSystem,
+        PermissioningDecisionCache.disabled(transactionSimulator));
+  }
+
+  /**
+   * Creates a permissioning controller attached to a blockchain that reuses the results of earlier
+   * contract calls while the state they read is unchanged
+   *
+   * @param contractAddress The address at which the permissioning smart contract resides
+   * @param transactionSimulator A transaction simulator with attached blockchain and world state
+   * @param metricsSystem The metrics provider that is to be reported to
+   * @param decisionCache The cache of contract call results
+   */
+  public TransactionSmartContractPermissioningController(
+      final Address contractAddress,
+      final TransactionSimulator transactionSimulator,
+      final MetricsSystem metricsSystem,
+      final PermissioningDecisionCache decisionCache) {
     this.contractAddress = contractAddress;
     this.transactionSimulator = transactionSimulator;
+    this.decisionCache = decisionCache;
 
     this.checkCounter =
         metricsSystem.createCounter(
@@ -130,8 +153,7 @@ public class TransactionSmartContractPermissioningController
       return true;
     }
 
-    final Optional<TransactionSimulatorResult> result =
-        transactionSimulator.processAtHead(callParams);
+    final Optional<TransactionSimulatorResult> result = decisionCache.processAtHead(callParams);
 
     if (result.isPresent()) {
       switch (result.get().getResult().getStatus()) {
@@ -24,6 +24,7 @@ import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.permissioning.AccountLocalConfigPermissioningController;
 import org.hyperledger.besu.ethereum.permissioning.GoQuorumQip714Gate;
 import org.hyperledger.besu.ethereum.permissioning.LocalPermissioningConfiguration;
+import org.hyperledger.besu.ethereum.permissioning.PermissioningDecisionCache;
 import org.hyperledger.besu.ethereum.permissioning.PermissioningConfiguration;
 import org.hyperledger.besu.ethereum.permissioning.SmartContractPermissioningConfiguration;
 import org.hyperledger.besu.ethereum.permissioning.TransactionSmartContractPermissioningController;
@@ -107,7 +108,14 @@ public class AccountPermissioningControllerFactory {
             transactionSmartContractPermissioningController =
                 Optional.of(
                     new TransactionSmartContractPermissioningController(
-                        accountSmartContractAddress, transactionSimulator, metricsSystem));
+                        accountSmartContractAddress,
+                        transactionSimulator,
+                        metricsSystem,
+                        new PermissioningDecisionCache(
+                            transactionSimulator,
+                            PermissioningDecisionCache.DEFAULT_MAX_SIZE,
+                            metricsSystem,
+                            "transaction_smart_contract")));
         validatePermissioningContract(transactionSmartContractPermissioningController.get());
 
         return transactionSmartContractPermissioningController;
@@ -0,0 +1,309 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.permissioning;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.mainnet.ValidationResult;
+import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
+import org.hyperledger.besu.ethereum.transaction.CallParameter;
+import org.hyperledger.besu.ethereum.transaction.TransactionSimulator;
+import org.hyperledger.besu.ethereum.transaction.TransactionSimulatorResult;
+import org.hyperledger.besu.evm.Code;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.operation.Operation;
+import org.hyperledger.besu.evm.operation.Operation.OperationResult;
+import org.hyperledger.besu.evm.worldstate.WorldView;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.google.common.base.Ticker;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PermissioningDecisionCacheTest {
+
+  private static final Address CONTRACT = Address.fromHexString("0x1234");
+  private static final Address RULES_CONTRACT = Address.fromHexString("0x5678");
+  private static final Hash RULES_CODE_HASH = Hash.hash(Bytes.of(1));
+  private static final UInt256 SLOT = UInt256.ONE;
+
+  private final BlockDataGenerator blockDataGenerator = new BlockDataGenerator();
+  private final TransactionSimulator transactionSimulator = mock(TransactionSimulator.class);
+  private final Map<UInt256, UInt256> rulesStorage = new HashMap<>();
+  private final CallParameter callParams = callParams(Bytes.of(1, 2, 3));
+
+  private PermissioningDecisionCache cache;
+
+  @Before
+  public void setUp() {
+    cache =
+        new PermissioningDecisionCache(
+            transactionSimulator, 16, new NoOpMetricsSystem(), "test_smart_contract");
+    setHead(Hash.hash(Bytes.of(0)));
+    rulesStorage.put(SLOT, UInt256.valueOf(7));
+    when(transactionSimulator.readWorldStateAtHead(any()))
+        .thenAnswer(
+            invocation -> {
+              final Function<WorldView, ?> reader = invocation.getArgument(0);
+              return Optional.of(reader.apply(this::account));
+            });
+  }
+
+  @Test
+  public void repeatedCallAtSameHeadIsNotSimulatedAgain() {
+    final TransactionSimulatorResult result = successfulResult();
+    simulateReadingRulesStorage(result);
+
+    assertThat(cache.processAtHead(callParams)).contains(result);
+    assertThat(cache.processAtHead(callParams)).contains(result);
+
+    verify(transactionSimulator, times(1)).processAtHead(any(), any());
+    verify(transactionSimulator, never()).readWorldStateAtHead(any());
+  }
+
+  @Test
+  public void callsWithDifferentPayloadsAreCachedSeparately() {
+    simulateReadingRulesStorage(successfulResult());
+
+    cache.processAtHead(callParams);
+    cache.processAtHead(callParams(Bytes.of(4, 5, 6)));
+    cache.processAtHead(callParams(Bytes.of(4, 5, 6)));
+
+    verify(transactionSimulator, times(2)).processAtHead(any(), any());
+  }
+
+  @Test
+  public void resultIsReusedAfterNewBlockThatDoesNotChangeReadState() {
+    final TransactionSimulatorResult result = successfulResult();
+    simulateReadingRulesStorage(result);
+
+    cache.processAtHead(callParams);
+    setHead(Hash.hash(Bytes.of(1)));
+    rulesStorage.put(UInt256.valueOf(2), UInt256.valueOf(9));
+
+    assertThat(cache.processAtHead(callParams)).contains(result);
+    assertThat(cache.processAtHead(callParams)).contains(result);
+
+    verify(transactionSimulator, times(1)).processAtHead(any(), any());
+    verify(transactionSimulator, times(1)).readWorldStateAtHead(any());
+  }
+
+  @Test
+  public void resultIsDiscardedWhenReadStorageChangesInNewBlock() {
+    simulateReadingRulesStorage(successfulResult());
+
+    cache.processAtHead(callParams);
+    setHead(Hash.hash(Bytes.of(1)));
+    rulesStorage.put(SLOT, UInt256.valueOf(8));
+    cache.processAtHead(callParams);
+
+    verify(transactionSimulator, times(2)).processAtHead(any(), any());
+  }
+
+  @Test
+  public void resultIsDiscardedWhenCalledCodeChangesInNewBlock() {
+    simulateReadingRulesStorage(successfulResult());
+
+    cache.processAtHead(callParams);
+    setHead(Hash.hash(Bytes.of(1)));
+    when(transactionSimulator.readWorldStateAtHead(any()))
+        .thenAnswer(
+            invocation -> {
+              final Function<WorldView, ?> reader = invocation.getArgument(0);
+              return Optional.of(reader.apply(address -> null));
+            });
+    cache.processAtHead(callParams);
+
+    verify(transactionSimulator, times(2)).processAtHead(any(), any());
+  }
+
+  @Test
+  public void resultOfCallRunningNoCodeIsDiscardedWhenCodeIsDeployedToTarget() {
+    when(transactionSimulator.processAtHead(any(), any()))
+        .thenReturn(Optional.of(successfulResult()));
+
+    cache.processAtHead(callParams);
+    setHead(Hash.hash(Bytes.of(1)));
+    final Account deployed = mock(Account.class);
+    when(deployed.getCodeHash()).thenReturn(RULES_CODE_HASH);
+    when(transactionSimulator.readWorldStateAtHead(any()))
+        .thenAnswer(
+            invocation -> {
+              final Function<WorldView, ?> reader = invocation.getArgument(0);
+              return Optional.of(
+                  reader.apply(address -> address.equals(CONTRACT) ? deployed : null));
+            });
+    cache.processAtHead(callParams);
+
+    verify(transactionSimulator, times(2)).processAtHead(any(), any());
+  }
+
+  @Test
+  public void resultIsSimulatedAgainOnceOlderThanMaxAge() {
+    final AtomicLong nanos = new AtomicLong();
+    final Ticker ticker =
+        new Ticker() {
+          @Override
+          public long read() {
+            return nanos.get();
+          }
+        };
+    cache =
+        new PermissioningDecisionCache(
+            transactionSimulator,
+            16,
+            Duration.ofMinutes(1),
+            ticker,
+            new NoOpMetricsSystem(),
+            "test_smart_contract");
+    simulateReadingRulesStorage(successfulResult());
+
+    cache.processAtHead(callParams);
+    nanos.addAndGet(Duration.ofSeconds(59).toNanos());
+    cache.processAtHead(callParams);
+    verify(transactionSimulator, times(1)).processAtHead(any(), any());
+
+    nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+    cache.processAtHead(callParams);
+    verify(transactionSimulator, times(2)).processAtHead(any(), any());
+  }
+
+  @Test
+  public void callsReadingTooManyValuesAreNotCached() {
+    when(transactionSimulator.processAtHead(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              final StateDependencyTracer tracer = invocation.getArgument(1);
+              for (int i = 0; i < PermissioningDecisionCache.MAX_DEPENDENCIES; i++) {
+                tracer.recordStorageRead(RULES_CONTRACT, UInt256.valueOf(i), UInt256.ZERO);
+              }
+              return Optional.of(successfulResult());
+            });
+
+    cache.processAtHead(callParams);
+    cache.processAtHead(callParams);
+
+    verify(transactionSimulator, times(2)).processAtHead(any(), any());
+  }
+
+  @Test
+  public void unsuccessfulCallsAreNotCached() {
+    simulateReadingRulesStorage(
+        new TransactionSimulatorResult(
+            blockDataGenerator.transaction(),
+            TransactionProcessingResult.failed(
+                0L, 0L, ValidationResult.valid(), Optional.empty())));
+
+    cache.processAtHead(callParams);
+    cache.processAtHead(callParams);
+
+    verify(transactionSimulator, times(2)).processAtHead(any(), any());
+  }
+
+  @Test
+  public void callsReadingUntrackedStateAreNotCached() {
+    final Operation balance = mock(Operation.class);
+    when(balance.getOpcode()).thenReturn(0x31);
+    final MessageFrame frame = mock(MessageFrame.class);
+    when(frame.getCurrentOperation()).thenReturn(balance);
+    when(frame.getContractAddress()).thenReturn(CONTRACT);
+    when(frame.getCode()).thenReturn(Code.EMPTY);
+    final TransactionSimulatorResult result = successfulResult();
+    when(transactionSimulator.processAtHead(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              final StateDependencyTracer tracer = invocation.getArgument(1);
+              tracer.traceExecution(
+                  frame, () -> new OperationResult(Optional.empty(), Optional.empty()));
+              return Optional.of(result);
+            });
+
+    cache.processAtHead(callParams);
+    cache.processAtHead(callParams);
+
+    verify(transactionSimulator, times(2)).processAtHead(any(), any());
+  }
+
+  @Test
+  public void disabledCacheSimulatesEveryCallWithoutTracing() {
+    final TransactionSimulatorResult result = successfulResult();
+    when(transactionSimulator.processAtHead(callParams)).thenReturn(Optional.of(result));
+    final PermissioningDecisionCache disabled =
+        PermissioningDecisionCache.disabled(transactionSimulator);
+
+    assertThat(disabled.processAtHead(callParams)).contains(result);
+    assertThat(disabled.processAtHead(callParams)).contains(result);
+
+    verify(transactionSimulator, times(2)).processAtHead(callParams);
+    verify(transactionSimulator, never()).processAtHead(any(), any());
+  }
+
+  private void simulateReadingRulesStorage(final TransactionSimulatorResult result) {
+    when(transactionSimulator.processAtHead(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              final StateDependencyTracer tracer = invocation.getArgument(1);
+              tracer.recordCode(RULES_CONTRACT, RULES_CODE_HASH);
+              tracer.recordStorageRead(RULES_CONTRACT, SLOT, rulesStorage.get(SLOT));
+              return Optional.of(result);
+            });
+  }
+
+  private Account account(final Address address) {
+    if (!address.equals(RULES_CONTRACT)) {
+      return null;
+    }
+    final Account account = mock(Account.class);
+    when(account.getCodeHash()).thenReturn(RULES_CODE_HASH);
+    when(account.getStorageValue(any()))
+        .thenAnswer(
+            invocation -> rulesStorage.getOrDefault(invocation.getArgument(0), UInt256.ZERO));
+    return account;
+  }
+
+  private void setHead(final Hash head) {
+    when(transactionSimulator.getChainHeadHash()).thenReturn(head);
+  }
+
+  private CallParameter callParams(final Bytes payload) {
+    return new CallParameter(null, CONTRACT, -1, null, null, payload);
+  }
+
+  private TransactionSimulatorResult successfulResult() {
+    return new TransactionSimulatorResult(
+        blockDataGenerator.transaction(),
+        TransactionProcessingResult.successful(
+            blockDataGenerator.logs(1, 1), 0L, 0L, Bytes.of(1), ValidationResult.valid()));
+  }
+}
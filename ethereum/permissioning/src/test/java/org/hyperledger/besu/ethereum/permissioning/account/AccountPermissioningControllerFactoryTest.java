@@ -135,7 +135,7 @@ public class AccountPermissioningControllerFactoryTest {
         new PermissioningConfiguration(
             Optional.empty(), Optional.of(onchainConfig), Optional.empty());
 
-    when(transactionSimulator.processAtHead(any())).thenThrow(new RuntimeException());
+    when(transactionSimulator.processAtHead(any(), any())).thenThrow(new RuntimeException());
 
     final Throwable thrown =
         catchThrowable(
@@ -266,7 +266,7 @@ public class NodePermissioningControllerFactoryTest {
             Optional.of(smartContractPermissioningConfiguration),
             Optional.empty());
 
-    when(transactionSimulator.processAtHead(any())).thenThrow(new RuntimeException());
+    when(transactionSimulator.processAtHead(any(), any())).thenThrow(new RuntimeException());
 
     final Throwable thrown =
         catchThrowable(
@@ -28,6 +28,7 @@ import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 
 import java.math.BigInteger;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 
 public class NoRewardProtocolScheduleWrapper implements ProtocolSchedule {
@@ -102,4 +103,9 @@ public class NoRewardProtocolScheduleWrapper implements ProtocolSchedule {
       final WorldStateArchive publicWorldStateArchive) {
     delegate.setPublicWorldStateArchiveForPrivacyBlockProcessor(publicWorldStateArchive);
   }
+
+  @Override
+  public void setParallelTransactionExecutor(final Executor executor) {
+    delegate.setParallelTransactionExecutor(executor);
+  }
 }
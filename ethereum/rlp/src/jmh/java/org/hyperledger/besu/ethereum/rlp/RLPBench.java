@@ -16,6 +16,7 @@ package org.hyperledger.besu.ethereum.rlp;
 
 import org.hyperledger.besu.ethereum.rlp.util.RLPTestUtil;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,6 +28,10 @@ import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 
+/**
+ * Compares RLP encoding through {@link BytesValueRLPOutput} and {@link StreamingRLPEncoder}, and
+ * RLP decoding. Run with {@code -Pprof=gc} to also compare the memory allocated by each encoding.
+ */
 @State(Scope.Benchmark)
 public class RLPBench {
 
@@ -61,11 +66,13 @@ public class RLPBench {
 
   volatile Object toEncode;
   volatile Bytes toDecode;
+  private ByteBuffer encodingBuffer;
 
   @Setup(Level.Trial)
   public void prepare() {
     toEncode = generate(depth, width, size);
     toDecode = RLPTestUtil.encode(toEncode);
+    encodingBuffer = ByteBuffer.allocate(toDecode.size());
   }
 
   @Benchmark
@@ -73,6 +80,20 @@ public class RLPBench {
     return RLPTestUtil.encode(toEncode);
   }
 
+  @Benchmark
+  public Bytes getBenchmarkStreamingEncoding() {
+    final Object value = toEncode;
+    return StreamingRLPEncoder.create(out -> RLPTestUtil.encode(value, out)).encoded();
+  }
+
+  @Benchmark
+  public ByteBuffer getBenchmarkStreamingEncodingToBuffer() {
+    final Object value = toEncode;
+    encodingBuffer.clear();
+    StreamingRLPEncoder.create(out -> RLPTestUtil.encode(value, out)).writeTo(encodingBuffer);
+    return encodingBuffer;
+  }
+
   @Benchmark
   public Object getBenchmarkDecoding() {
     return RLPTestUtil.decode(toDecode);
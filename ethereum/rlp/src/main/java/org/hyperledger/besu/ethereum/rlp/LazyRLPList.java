@@ -0,0 +1,129 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.rlp;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * An unmodifiable list read from an RLP list that keeps the encoded items and only decodes an item
+ * the first time it is accessed.
+ *
+ * <p>Reading the list only splits it into its items, which are slices of the input and so share
+ * its bytes. This makes reading cheap when only some of the items are needed, and the list can be
+ * written back to an {@link RLPOutput} without decoding or re-encoding anything, see {@link
+ * #writeTo(RLPOutput)}. Items are decoded at most once, even when the list is shared between
+ * threads.
+ *
+ * <p>Since items are only decoded when accessed, malformed items are only detected then. This is
+ * meant for input that has already been validated, such as data read back from the node's own
+ * storage.
+ *
+ * @param <T> The type of the list items.
+ */
+public final class LazyRLPList<T> extends AbstractList<T> implements RandomAccess {
+
+  private final Bytes encoded;
+  private final List<Bytes> encodedItems;
+  private final Function<RLPInput, T> itemReader;
+  private final AtomicReferenceArray<T> items;
+
+  private LazyRLPList(
+      final Bytes encoded, final List<Bytes> encodedItems, final Function<RLPInput, T> itemReader) {
+    this.encoded = encoded;
+    this.encodedItems = encodedItems;
+    this.itemReader = itemReader;
+    this.items = new AtomicReferenceArray<>(encodedItems.size());
+  }
+
+  /**
+   * Reads the next item of the provided input, which must be a list, without decoding its items.
+   *
+   * @param input The input to read the list from.
+   * @param itemReader A method that decodes a list item from an {@link RLPInput} positioned on it.
+   * @param <T> The type of the list items.
+   * @return A list whose items are decoded with {@code itemReader} when first accessed.
+   */
+  public static <T> LazyRLPList<T> readFrom(
+      final RLPInput input, final Function<RLPInput, T> itemReader) {
+    final RLPInput listInput = input.readAsRlp();
+    final int size = listInput.enterList();
+    final List<Bytes> encodedItems = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      encodedItems.add(listInput.readAsRlp().raw());
+    }
+    listInput.leaveList();
+    return new LazyRLPList<>(listInput.raw(), encodedItems, itemReader);
+  }
+
+  @Override
+  public T get(final int index) {
+    final T item = items.get(index);
+    if (item != null) {
+      return item;
+    }
+    final T decoded;
+    try {
+      decoded = itemReader.apply(RLP.input(encodedItems.get(index)));
+    } catch (final Exception e) {
+      throw new RLPException(
+          String.format(
+              "Error applying element decoding function on element %d of the list", index),
+          e);
+    }
+    // If another thread decoded the item concurrently, keep the first one so every caller sees
+    // the same instance.
+    return items.compareAndSet(index, null, decoded) ? decoded : items.get(index);
+  }
+
+  @Override
+  public int size() {
+    return encodedItems.size();
+  }
+
+  /**
+   * Returns the RLP encoding of an item, without decoding it.
+   *
+   * @param index The index of the item.
+   * @return The RLP encoded item.
+   */
+  public Bytes getEncoded(final int index) {
+    return encodedItems.get(index);
+  }
+
+  /**
+   * Returns the RLP encoding of the whole list.
+   *
+   * @return The RLP encoded list, as it was read.
+   */
+  public Bytes encoded() {
+    return encoded;
+  }
+
+  /**
+   * Writes the list, as it was read, to the provided output.
+   *
+   * @param output The output to write the list to.
+   */
+  public void writeTo(final RLPOutput output) {
+    output.writeRaw(encoded);
+  }
+}
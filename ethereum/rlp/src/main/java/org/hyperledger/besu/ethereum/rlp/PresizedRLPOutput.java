@@ -0,0 +1,81 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.rlp;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.MutableBytes;
+
+/**
+ * An {@link RLPOutput} that encodes what is written to it directly into a destination, using list
+ * payload sizes computed beforehand by a {@link RLPSizeCalculator} over the same data.
+ */
+class PresizedRLPOutput implements RLPOutput {
+
+  private final MutableBytes destination;
+  private final int[] payloadSizes;
+
+  private int offset;
+  private int listIndex;
+  private int depth;
+
+  PresizedRLPOutput(final MutableBytes destination, final int[] payloadSizes) {
+    this.destination = destination;
+    this.payloadSizes = payloadSizes;
+  }
+
+  @Override
+  public void writeBytes(final Bytes v) {
+    offset = RLPEncodingHelpers.writeElement(v, destination, offset);
+  }
+
+  @Override
+  public void writeRaw(final Bytes v) {
+    v.copyTo(destination, offset);
+    offset += v.size();
+  }
+
+  @Override
+  public void startList() {
+    checkState(
+        ++listIndex < payloadSizes.length,
+        "More lists written than when the encoded size was computed");
+    offset = RLPEncodingHelpers.writeListHeader(payloadSizes[listIndex], destination, offset);
+    ++depth;
+  }
+
+  @Override
+  public void endList() {
+    checkState(depth > 0, "LeaveList() called with no prior matching startList()");
+    --depth;
+  }
+
+  /**
+   * Checks that exactly the data that was sized has been written.
+   *
+   * @throws IllegalStateException if the written data does not match the computed sizes, which
+   *     happens when the data changes between the sizing and the writing pass.
+   */
+  void checkComplete() {
+    checkState(
+        depth == 0 && listIndex == payloadSizes.length - 1 && offset == destination.size(),
+        "Expected RLP encoding to be of size %s with %s lists but was of size %s with %s lists",
+        destination.size(),
+        payloadSizes.length - 1,
+        offset,
+        listIndex);
+  }
+}
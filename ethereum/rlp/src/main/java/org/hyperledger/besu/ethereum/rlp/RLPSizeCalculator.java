@@ -0,0 +1,98 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.rlp;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * An {@link RLPOutput} that only computes the encoded size of what is written to it, without
+ * retaining any of the written values.
+ *
+ * <p>The sizes are tracked the same way {@link AbstractRLPOutput} tracks them: the first element
+ * of 'payloadSizes' is the total encoded size and the following ones are the payload sizes of
+ * every list, in the order the lists were started. That is exactly the information needed to
+ * write the list headers on a second pass over the same data, see {@link StreamingRLPEncoder}.
+ */
+class RLPSizeCalculator implements RLPOutput {
+
+  private int[] payloadSizes = new int[8];
+  private int listsCount = 1; // number of lists written so far + 1.
+
+  private int[] parentListStack = new int[4];
+  private int stackSize = 1;
+
+  private int currentList() {
+    return parentListStack[stackSize - 1];
+  }
+
+  @Override
+  public void writeBytes(final Bytes v) {
+    checkNotTerminated();
+    payloadSizes[currentList()] += RLPEncodingHelpers.elementSize(v);
+  }
+
+  @Override
+  public void writeRaw(final Bytes v) {
+    checkNotTerminated();
+    payloadSizes[currentList()] += v.size();
+  }
+
+  private void checkNotTerminated() {
+    // Nothing written at the top level has a zero encoded size, so a non-zero total means the
+    // single top-level item has already been written.
+    checkState(
+        stackSize > 1 || payloadSizes[0] == 0, "Terminated RLP output, cannot add more elements");
+  }
+
+  @Override
+  public void startList() {
+    ++listsCount;
+    ++stackSize;
+
+    if (listsCount > payloadSizes.length) {
+      payloadSizes = Arrays.copyOf(payloadSizes, (payloadSizes.length * 3) / 2);
+    }
+    if (stackSize > parentListStack.length) {
+      parentListStack = Arrays.copyOf(parentListStack, (parentListStack.length * 3) / 2);
+    }
+
+    parentListStack[stackSize - 1] = listsCount - 1;
+  }
+
+  @Override
+  public void endList() {
+    checkState(stackSize > 1, "LeaveList() called with no prior matching startList()");
+
+    final int finishedListSize = RLPEncodingHelpers.listSize(payloadSizes[currentList()]);
+    --stackSize;
+    payloadSizes[currentList()] += finishedListSize;
+  }
+
+  /**
+   * Returns the total encoded size followed by the payload size of every list written, in the
+   * order they were started.
+   *
+   * @return the sizes computed for what was written to this output.
+   * @throws IllegalStateException if some opened list haven't been closed.
+   */
+  int[] payloadSizes() {
+    checkState(stackSize == 1, "A list has been entered (startList()) but not left (endList())");
+    return Arrays.copyOf(payloadSizes, listsCount);
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.rlp;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.MutableBytes;
+
+/**
+ * Encodes data to RLP in two passes over a writer, so it can be written straight into a buffer
+ * provided by the caller.
+ *
+ * <p>Unlike {@link BytesValueRLPOutput}, which keeps every written value until the final encoding
+ * is requested and then copies them all into a new array, the first pass only computes the size of
+ * every list and the second pass encodes the values as they are written into the destination. The
+ * writer is therefore called twice and must write exactly the same data both times. This is a good
+ * fit for data that is cheap to traverse, such as already encoded items written with {@link
+ * RLPOutput#writeRaw(Bytes)}, but not for writers that encode nested items on every call.
+ *
+ * <pre>{@code
+ * StreamingRLPEncoder encoder = StreamingRLPEncoder.create(f::writeTo);
+ * ByteBuffer buffer = ByteBuffer.allocate(encoder.encodedSize());
+ * encoder.writeTo(buffer);
+ * }</pre>
+ */
+public final class StreamingRLPEncoder {
+
+  private final Consumer<RLPOutput> writer;
+  // The total encoded size followed by the payload size of every list, in order.
+  private final int[] payloadSizes;
+
+  private StreamingRLPEncoder(final Consumer<RLPOutput> writer, final int[] payloadSizes) {
+    this.writer = writer;
+    this.payloadSizes = payloadSizes;
+  }
+
+  /**
+   * Creates an encoder for the data written by the provided writer, calling it once to compute the
+   * encoded size.
+   *
+   * @param writer A method that given an {@link RLPOutput}, writes some data to it. It is called
+   *     again by every write of this encoder.
+   * @return An encoder for the data written by {@code writer}.
+   */
+  public static StreamingRLPEncoder create(final Consumer<RLPOutput> writer) {
+    final RLPSizeCalculator sizeCalculator = new RLPSizeCalculator();
+    writer.accept(sizeCalculator);
+    return new StreamingRLPEncoder(writer, sizeCalculator.payloadSizes());
+  }
+
+  /**
+   * The size of the encoded data.
+   *
+   * @return The number of bytes written by {@link #writeTo(MutableBytes, int)}.
+   */
+  public int encodedSize() {
+    return payloadSizes[0];
+  }
+
+  /**
+   * Writes the encoded data to the provided destination.
+   *
+   * @param destination The value to which the RLP encoded data will be written.
+   * @param offset The offset in {@code destination} at which to start writing.
+   * @throws IllegalArgumentException if {@code destination} has less than {@link #encodedSize()}
+   *     bytes after {@code offset}.
+   * @throws IllegalStateException if the writer does not write the same data it wrote when this
+   *     encoder was created.
+   */
+  public void writeTo(final MutableBytes destination, final int offset) {
+    checkArgument(
+        offset >= 0 && destination.size() - offset >= encodedSize(),
+        "Cannot write %s bytes at offset %s of a value of size %s",
+        encodedSize(),
+        offset,
+        destination.size());
+    final PresizedRLPOutput out =
+        new PresizedRLPOutput(destination.mutableSlice(offset, encodedSize()), payloadSizes);
+    writer.accept(out);
+    out.checkComplete();
+  }
+
+  /**
+   * Writes the encoded data to the provided buffer, starting at its current position and advancing
+   * it past the written data.
+   *
+   * @param destination The buffer to which the RLP encoded data will be written.
+   * @throws IllegalArgumentException if {@code destination} has less than {@link #encodedSize()}
+   *     bytes remaining.
+   * @throws IllegalStateException if the writer does not write the same data it wrote when this
+   *     encoder was created.
+   */
+  public void writeTo(final ByteBuffer destination) {
+    final int size = encodedSize();
+    checkArgument(
+        destination.remaining() >= size,
+        "Cannot write %s bytes to a buffer with %s bytes remaining",
+        size,
+        destination.remaining());
+    final int position = destination.position();
+    if (destination.hasArray()) {
+      writeTo(
+          MutableBytes.wrap(destination.array(), destination.arrayOffset() + position, size), 0);
+    } else {
+      writeTo(MutableBytes.wrapByteBuffer(destination, position, size), 0);
+    }
+    destination.position(position + size);
+  }
+
+  /**
+   * Encodes the data to a new value.
+   *
+   * @return A value of exactly {@link #encodedSize()} bytes containing the RLP encoded data.
+   */
+  public Bytes encoded() {
+    final int size = encodedSize();
+    if (size == 0) {
+      return Bytes.EMPTY;
+    }
+    final MutableBytes output = MutableBytes.create(size);
+    writeTo(output, 0);
+    return output;
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.rlp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.Test;
+
+public class LazyRLPListTest {
+
+  private static final List<Long> VALUES = List.of(1L, 200L, 70_000L, 0L);
+  private static final Bytes ENCODED =
+      RLP.encode(out -> out.writeList(VALUES, (v, o) -> o.writeLongScalar(v)));
+
+  private final AtomicInteger decodedItems = new AtomicInteger();
+  private final Function<RLPInput, Long> countingReader =
+      in -> {
+        decodedItems.incrementAndGet();
+        return in.readLongScalar();
+      };
+
+  @Test
+  public void itemsAreOnlyDecodedWhenFirstAccessed() {
+    final LazyRLPList<Long> list = LazyRLPList.readFrom(RLP.input(ENCODED), countingReader);
+
+    assertThat(list).hasSize(VALUES.size());
+    assertThat(decodedItems).hasValue(0);
+
+    assertThat(list.get(2)).isEqualTo(70_000L);
+    assertThat(list.get(2)).isEqualTo(70_000L);
+    assertThat(decodedItems).hasValue(1);
+
+    assertThat(list).isEqualTo(VALUES);
+    assertThat(decodedItems).hasValue(VALUES.size());
+  }
+
+  @Test
+  public void isWrittenBackAsReadWithoutDecoding() {
+    final Bytes enclosing =
+        RLP.encode(
+            out -> {
+              out.startList();
+              out.writeLongScalar(5);
+              out.writeRaw(ENCODED);
+              out.endList();
+            });
+    final RLPInput in = RLP.input(enclosing);
+    in.enterList();
+    in.skipNext();
+    final LazyRLPList<Long> list = LazyRLPList.readFrom(in, countingReader);
+    in.leaveList();
+
+    assertThat(list.encoded()).isEqualTo(ENCODED);
+    assertThat(list.getEncoded(1)).isEqualTo(RLP.encodeOne(Bytes.minimalBytes(200L)));
+    assertThat(RLP.encode(list::writeTo)).isEqualTo(ENCODED);
+    assertThat(decodedItems).hasValue(0);
+  }
+
+  @Test
+  public void malformedItemIsReportedWhenAccessed() {
+    final Bytes encoded =
+        RLP.encode(
+            out -> {
+              out.startList();
+              out.writeLongScalar(1);
+              out.writeBytes(Bytes.fromHexString("0x0001"));
+              out.endList();
+            });
+    final LazyRLPList<Long> list =
+        LazyRLPList.readFrom(RLP.input(encoded), RLPInput::readLongScalar);
+
+    assertThat(list.get(0)).isEqualTo(1L);
+    assertThatThrownBy(() -> list.get(1)).isInstanceOf(RLPException.class);
+  }
+
+  @Test
+  public void isUnmodifiable() {
+    final LazyRLPList<Long> list = LazyRLPList.readFrom(RLP.input(ENCODED), countingReader);
+
+    assertThatThrownBy(() -> list.add(3L)).isInstanceOf(UnsupportedOperationException.class);
+  }
+}
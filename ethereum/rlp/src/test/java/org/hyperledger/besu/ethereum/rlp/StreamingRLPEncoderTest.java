@@ -0,0 +1,126 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.rlp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.hyperledger.besu.ethereum.rlp.util.RLPTestUtil;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.MutableBytes;
+import org.junit.Test;
+
+public class StreamingRLPEncoderTest {
+
+  @Test
+  public void encodesLikeBytesValueRLPOutput() {
+    for (int seed = 0; seed < 100; seed++) {
+      final Bytes expected = RLPTestUtil.randomRLPValue(seed).encoded();
+      final Object value = RLPTestUtil.decode(expected);
+
+      final StreamingRLPEncoder encoder =
+          StreamingRLPEncoder.create(out -> RLPTestUtil.encode(value, out));
+
+      assertThat(encoder.encodedSize()).isEqualTo(expected.size());
+      assertThat(encoder.encoded()).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  public void encodesSingleElementsAndRawValues() {
+    final Bytes longValue = Bytes.wrap(new byte[100]);
+    final Bytes rawItem = RLP.encodeOne(Bytes.fromHexString("0x0102"));
+
+    assertThat(StreamingRLPEncoder.create(out -> {}).encoded()).isEqualTo(Bytes.EMPTY);
+    assertThat(StreamingRLPEncoder.create(out -> out.writeBytes(longValue)).encoded())
+        .isEqualTo(RLP.encodeOne(longValue));
+    assertThat(StreamingRLPEncoder.create(out -> out.writeRaw(rawItem)).encoded())
+        .isEqualTo(rawItem);
+    final Consumer<RLPOutput> rawList =
+        out -> out.writeList(List.of(rawItem, rawItem), (v, o) -> o.writeRaw(v));
+    assertThat(StreamingRLPEncoder.create(rawList).encoded()).isEqualTo(RLP.encode(rawList));
+  }
+
+  @Test
+  public void writesAtOffsetOfDestination() {
+    final Bytes expected = RLPTestUtil.randomRLPValue(7).encoded();
+    final Object value = RLPTestUtil.decode(expected);
+    final StreamingRLPEncoder encoder =
+        StreamingRLPEncoder.create(out -> RLPTestUtil.encode(value, out));
+
+    final MutableBytes destination = MutableBytes.create(expected.size() + 4);
+    encoder.writeTo(destination, 2);
+
+    assertThat(destination.slice(2, expected.size())).isEqualTo(expected);
+    assertThat(destination.slice(0, 2)).isEqualTo(Bytes.of(0, 0));
+  }
+
+  @Test
+  public void writesToHeapAndDirectByteBuffers() {
+    final Bytes expected = RLPTestUtil.randomRLPValue(42).encoded();
+    final Object value = RLPTestUtil.decode(expected);
+    final StreamingRLPEncoder encoder =
+        StreamingRLPEncoder.create(out -> RLPTestUtil.encode(value, out));
+
+    for (final ByteBuffer buffer :
+        List.of(
+            ByteBuffer.allocate(expected.size() + 3),
+            ByteBuffer.allocateDirect(expected.size() + 3))) {
+      buffer.put((byte) 1);
+      encoder.writeTo(buffer);
+
+      assertThat(buffer.position()).isEqualTo(expected.size() + 1);
+      assertThat(Bytes.wrapByteBuffer(buffer, 1, expected.size())).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  public void rejectsTooSmallDestination() {
+    final StreamingRLPEncoder encoder =
+        StreamingRLPEncoder.create(out -> out.writeBytes(Bytes.wrap(new byte[10])));
+
+    assertThatThrownBy(() -> encoder.writeTo(MutableBytes.create(20), 10))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> encoder.writeTo(ByteBuffer.allocate(10)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void detectsWriterChangingBetweenPasses() {
+    final AtomicInteger calls = new AtomicInteger();
+    final StreamingRLPEncoder encoder =
+        StreamingRLPEncoder.create(
+            out -> {
+              out.startList();
+              // writes less on the second pass than what was sized on the first one
+              out.writeBytes(Bytes.wrap(new byte[3 - calls.incrementAndGet()]));
+              out.endList();
+            });
+
+    assertThatThrownBy(encoder::encoded).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void rejectsUnterminatedList() {
+    assertThatThrownBy(() -> StreamingRLPEncoder.create(RLPOutput::startList))
+        .isInstanceOf(IllegalStateException.class);
+  }
+}
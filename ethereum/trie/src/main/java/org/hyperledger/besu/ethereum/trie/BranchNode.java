@@ -19,8 +19,6 @@ import static org.hyperledger.besu.crypto.Hash.keccak256;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 
-import java.lang.ref.SoftReference;
-import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -43,8 +41,10 @@ class BranchNode<V> implements Node<V> {
   private final Optional<V> value;
   private final NodeFactory<V> nodeFactory;
   private final Function<V, Bytes> valueSerializer;
-  private WeakReference<Bytes> rlp;
-  private SoftReference<Bytes32> hash;
+  // Branch nodes make up the upper levels of a trie that every lookup goes through, so their
+  // encoding and hash are kept for as long as the node is rather than recomputed after a GC.
+  private Bytes rlp;
+  private Bytes32 hash;
   private boolean dirty = false;
 
   BranchNode(
@@ -116,10 +116,7 @@ class BranchNode<V> implements Node<V> {
   @Override
   public Bytes getRlp() {
     if (rlp != null) {
-      final Bytes encoded = rlp.get();
-      if (encoded != null) {
-        return encoded;
-      }
+      return rlp;
     }
     final BytesValueRLPOutput out = new BytesValueRLPOutput();
     out.startList();
@@ -133,7 +130,7 @@ class BranchNode<V> implements Node<V> {
     }
     out.endList();
     final Bytes encoded = out.encoded();
-    rlp = new WeakReference<>(encoded);
+    rlp = encoded;
     return encoded;
   }
 
@@ -148,15 +145,10 @@ class BranchNode<V> implements Node<V> {
 
   @Override
   public Bytes32 getHash() {
-    if (hash != null) {
-      final Bytes32 hashed = hash.get();
-      if (hashed != null) {
-        return hashed;
-      }
+    if (hash == null) {
+      hash = keccak256(getRlp());
     }
-    final Bytes32 hashed = keccak256(getRlp());
-    hash = new SoftReference<>(hashed);
-    return hashed;
+    return hash;
   }
 
   @Override
@@ -0,0 +1,97 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes the hashes of the dirty nodes of a trie concurrently, by hashing the subtries of the
+ * dirty branch nodes at the top of the trie on a fork-join pool.
+ *
+ * <p>Nodes cache their hash once computed, so hashing the trie ahead of a {@link CommitVisitor}
+ * leaves it with almost nothing to hash, while the nodes are still stored in the same order.
+ * Subtries are disjoint, so the tasks never touch the same node. Hashing may still resolve stored
+ * nodes of a subtrie through its node loader, so the loader must be safe to call from several
+ * threads at once.
+ */
+class ParallelTrieHasher {
+
+  // Forking at the first two levels of branch nodes gives up to 256 subtries, which balances well
+  // since keys are hashes and so spread evenly across the trie.
+  private static final int MAX_FORK_DEPTH = 2;
+
+  private ParallelTrieHasher() {}
+
+  private static class PoolHolder {
+    private static final ForkJoinPool POOL =
+        new ForkJoinPool(
+            Runtime.getRuntime().availableProcessors(),
+            pool -> {
+              final ForkJoinWorkerThread thread =
+                  ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+              thread.setName("TrieHasher-" + thread.getPoolIndex());
+              return thread;
+            },
+            null,
+            false);
+  }
+
+  /**
+   * Computes and caches the hashes of all the dirty nodes of the trie starting at {@code root}.
+   *
+   * @param root the root node of the trie.
+   * @param <V> the type of values stored in the trie.
+   */
+  static <V> void hashDirtyNodes(final Node<V> root) {
+    if (root.isDirty()) {
+      PoolHolder.POOL.invoke(new HashTask<>(root, 0));
+    }
+  }
+
+  private static class HashTask<V> extends RecursiveAction {
+    private final Node<V> node;
+    private final int depth;
+
+    private HashTask(final Node<V> node, final int depth) {
+      this.node = node;
+      this.depth = depth;
+    }
+
+    @Override
+    protected void compute() {
+      if (depth < MAX_FORK_DEPTH) {
+        final List<HashTask<V>> subtries = new ArrayList<>(BranchNode.RADIX);
+        if (node instanceof BranchNode) {
+          for (final Node<V> child : node.getChildren()) {
+            if (child.isDirty()) {
+              subtries.add(new HashTask<>(child, depth + 1));
+            }
+          }
+        } else if (node instanceof ExtensionNode) {
+          final Node<V> child = ((ExtensionNode<V>) node).getChild();
+          if (child.isDirty()) {
+            subtries.add(new HashTask<>(child, depth));
+          }
+        }
+        invokeAll(subtries);
+      }
+      node.getHash();
+    }
+  }
+}
@@ -38,11 +38,19 @@ import org.apache.tuweni.bytes.Bytes32;
  */
 public class StoredMerklePatriciaTrie<K extends Bytes, V> implements MerklePatriciaTrie<K, V> {
 
+  /**
+   * The default number of updates since the last commit from which a commit hashes the dirty
+   * subtries concurrently.
+   */
+  public static final int DEFAULT_PARALLEL_COMMIT_THRESHOLD = 1_000;
+
   private final GetVisitor<V> getVisitor = new GetVisitor<>();
   private final RemoveVisitor<V> removeVisitor = new RemoveVisitor<>();
   private final StoredNodeFactory<V> nodeFactory;
+  private final int parallelCommitThreshold;
 
   private Node<V> root;
+  private int updatesSinceCommit;
 
   /**
    * Create a trie.
@@ -72,7 +80,34 @@ public class StoredMerklePatriciaTrie<K extends Bytes, V> implements MerklePatri
       final Bytes32 rootHash,
       final Function<V, Bytes> valueSerializer,
       final Function<Bytes, V> valueDeserializer) {
+    this(
+        nodeLoader,
+        rootHash,
+        valueSerializer,
+        valueDeserializer,
+        DEFAULT_PARALLEL_COMMIT_THRESHOLD);
+  }
+
+  /**
+   * Create a trie.
+   *
+   * @param nodeLoader The {@link NodeLoader} to retrieve node data from.
+   * @param rootHash The initial root has for the trie, which should be already present in {@code
+   *     storage}.
+   * @param valueSerializer A function for serializing values to bytes.
+   * @param valueDeserializer A function for deserializing values from bytes.
+   * @param parallelCommitThreshold The number of updates since the last commit from which {@link
+   *     #commit(NodeUpdater)} hashes the dirty subtries concurrently, or {@link Integer#MAX_VALUE}
+   *     to always commit on the calling thread only.
+   */
+  public StoredMerklePatriciaTrie(
+      final NodeLoader nodeLoader,
+      final Bytes32 rootHash,
+      final Function<V, Bytes> valueSerializer,
+      final Function<Bytes, V> valueDeserializer,
+      final int parallelCommitThreshold) {
     this.nodeFactory = new StoredNodeFactory<>(nodeLoader, valueSerializer, valueDeserializer);
+    this.parallelCommitThreshold = parallelCommitThreshold;
     this.root =
         rootHash.equals(EMPTY_TRIE_NODE_HASH)
             ? NullNode.instance()
@@ -100,16 +135,24 @@ public class StoredMerklePatriciaTrie<K extends Bytes, V> implements MerklePatri
     checkNotNull(key);
     checkNotNull(value);
     this.root = root.accept(new PutVisitor<>(nodeFactory, value), bytesToPath(key));
+    updatesSinceCommit++;
   }
 
   @Override
   public void remove(final K key) {
     checkNotNull(key);
     this.root = root.accept(removeVisitor, bytesToPath(key));
+    updatesSinceCommit++;
   }
 
   @Override
   public void commit(final NodeUpdater nodeUpdater) {
+    if (updatesSinceCommit >= parallelCommitThreshold) {
+      // Hashing is most of the work of a commit. Nodes keep their hash once computed, so the
+      // visitor below stores them in the usual order without hashing them again.
+      ParallelTrieHasher.hashDirtyNodes(root);
+    }
+    updatesSinceCommit = 0;
     final CommitVisitor<V> commitVisitor = new CommitVisitor<>(nodeUpdater);
     root.accept(Bytes.EMPTY, commitVisitor);
     // Make sure root node was stored
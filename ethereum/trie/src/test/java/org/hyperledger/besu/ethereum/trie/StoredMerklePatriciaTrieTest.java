@@ -20,7 +20,10 @@ import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 import java.util.function.Function;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -120,4 +123,38 @@ public class StoredMerklePatriciaTrieTest extends AbstractMerklePatriciaTrieTest
     assertThat(trie.get(key2)).isEqualTo(Optional.of("value2"));
     assertThat(trie.get(key3)).isEqualTo(Optional.of("value3"));
   }
+
+  @Test
+  public void parallelCommitStoresSameNodesInSameOrder() {
+    final StoredMerklePatriciaTrie<Bytes, String> sequential =
+        new StoredMerklePatriciaTrie<>(
+            merkleStorage::get,
+            MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH,
+            valueSerializer,
+            valueDeserializer,
+            Integer.MAX_VALUE);
+    final StoredMerklePatriciaTrie<Bytes, String> parallel =
+        new StoredMerklePatriciaTrie<>(
+            merkleStorage::get,
+            MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH,
+            valueSerializer,
+            valueDeserializer,
+            1);
+
+    final Random random = new Random(1);
+    for (int i = 0; i < 2_000; i++) {
+      final Bytes key = Bytes32.random(random);
+      sequential.put(key, "value" + i);
+      parallel.put(key, "value" + i);
+    }
+
+    final List<List<Bytes>> sequentialUpdates = new ArrayList<>();
+    final List<List<Bytes>> parallelUpdates = new ArrayList<>();
+    sequential.commit(
+        (location, hash, value) -> sequentialUpdates.add(List.of(location, hash, value)));
+    parallel.commit((location, hash, value) -> parallelUpdates.add(List.of(location, hash, value)));
+
+    assertThat(parallel.getRootHash()).isEqualTo(sequential.getRootHash());
+    assertThat(parallelUpdates).isNotEmpty().isEqualTo(sequentialUpdates);
+  }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm;
+
+import static org.hyperledger.besu.evm.CodeBuilder.DUP1;
+import static org.hyperledger.besu.evm.CodeBuilder.JUMPI;
+import static org.hyperledger.besu.evm.CodeBuilder.MSTORE;
+import static org.hyperledger.besu.evm.CodeBuilder.POP;
+import static org.hyperledger.besu.evm.CodeBuilder.STOP;
+import static org.hyperledger.besu.evm.CodeBuilder.SWAP1;
+
+import org.hyperledger.besu.evm.frame.MessageFrame;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the cost of nested message calls by having the contract call itself until the depth
+ * passed in the call data is reached. At the deepest level the call fails on the call depth limit
+ * instead, which is also a case worth measuring.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CallDepthBenchmark {
+
+  private static final int SUB = 0x03;
+  private static final int ISZERO = 0x15;
+  private static final int ADDRESS = 0x30;
+  private static final int CALLDATALOAD = 0x35;
+  private static final int GAS = 0x5A;
+  private static final int CALL = 0xF1;
+
+  @Param({"1", "16", "256", "1024"})
+  public int depth;
+
+  private EvmBenchmarkHelper helper;
+  private Bytes input;
+
+  @Setup
+  public void prepare() {
+    // n = calldata[0]; if (n != 0) call(gas, address, 0, mstore(0, n - 1), 32, 0, 0)
+    final Bytes code =
+        new CodeBuilder()
+            .push(0)
+            .op(CALLDATALOAD)
+            .op(DUP1)
+            .op(ISZERO)
+            .pushLabel("end")
+            .op(JUMPI)
+            .push(1)
+            .op(SWAP1)
+            .op(SUB)
+            .push(0)
+            .op(MSTORE)
+            .push(0)
+            .push(0)
+            .push(32)
+            .push(0)
+            .push(0)
+            .op(ADDRESS)
+            .op(GAS)
+            .op(CALL)
+            .op(POP)
+            .label("end")
+            .op(STOP)
+            .build();
+    helper = new EvmBenchmarkHelper(code);
+    input = Bytes32.leftPad(Bytes.ofUnsignedInt(depth));
+    helper.verify(input);
+  }
+
+  @Benchmark
+  public MessageFrame call() {
+    return helper.execute(input);
+  }
+}
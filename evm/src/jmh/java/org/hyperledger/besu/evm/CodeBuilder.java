@@ -0,0 +1,117 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.MutableBytes;
+
+/** Assembles the EVM programs run by the benchmarks. */
+public class CodeBuilder {
+
+  public static final int STOP = 0x00;
+  public static final int POP = 0x50;
+  public static final int MSTORE = 0x52;
+  public static final int JUMP = 0x56;
+  public static final int JUMPI = 0x57;
+  public static final int JUMPDEST = 0x5B;
+  public static final int PUSH1 = 0x60;
+  public static final int DUP1 = 0x80;
+  public static final int SWAP1 = 0x90;
+  public static final int RETURN = 0xF3;
+
+  private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+  private final Map<String, Integer> labels = new HashMap<>();
+  private final Map<Integer, String> labelReferences = new HashMap<>();
+
+  public CodeBuilder op(final int opcode) {
+    code.write(opcode);
+    return this;
+  }
+
+  public CodeBuilder op(final int opcode, final int times) {
+    for (int i = 0; i < times; i++) {
+      op(opcode);
+    }
+    return this;
+  }
+
+  /** Pushes the value with the smallest PUSH instruction that holds it. */
+  public CodeBuilder push(final long value) {
+    return push(Bytes.minimalBytes(value));
+  }
+
+  /** Pushes the value as is, so that a 32 byte value is always pushed with PUSH32. */
+  public CodeBuilder push(final Bytes value) {
+    final Bytes data = value.isEmpty() ? Bytes.of(0) : value;
+    if (data.size() > 32) {
+      throw new IllegalArgumentException("Cannot push more than 32 bytes");
+    }
+    code.write(PUSH1 + data.size() - 1);
+    code.writeBytes(data.toArrayUnsafe());
+    return this;
+  }
+
+  /** Pushes the position of a label, which may be defined later. */
+  public CodeBuilder pushLabel(final String label) {
+    code.write(PUSH1 + 1);
+    labelReferences.put(code.size(), label);
+    code.writeBytes(new byte[2]);
+    return this;
+  }
+
+  /** Defines a label at the current position, marked by a JUMPDEST. */
+  public CodeBuilder label(final String label) {
+    labels.put(label, code.size());
+    return op(JUMPDEST);
+  }
+
+  public CodeBuilder append(final Bytes bytes) {
+    code.writeBytes(bytes.toArrayUnsafe());
+    return this;
+  }
+
+  /** Appends code that returns the given bytes from memory. */
+  public CodeBuilder returnBytes(final Bytes bytes) {
+    for (int offset = 0; offset < bytes.size(); offset += 32) {
+      final Bytes word = bytes.slice(offset, Math.min(32, bytes.size() - offset));
+      push(Bytes.concatenate(word, Bytes.wrap(new byte[32 - word.size()])));
+      push(offset);
+      op(MSTORE);
+    }
+    return push(bytes.size()).push(0).op(RETURN);
+  }
+
+  public int size() {
+    return code.size();
+  }
+
+  public Bytes build() {
+    final MutableBytes result = MutableBytes.wrap(code.toByteArray());
+    labelReferences.forEach(
+        (position, label) -> {
+          final Integer target = labels.get(label);
+          if (target == null) {
+            throw new IllegalStateException("Undefined label " + label);
+          }
+          result.set(position, (byte) (target >> 8));
+          result.set(position + 1, (byte) (int) target);
+        });
+    return result;
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm;
+
+import static org.hyperledger.besu.evm.CodeBuilder.MSTORE;
+import static org.hyperledger.besu.evm.CodeBuilder.POP;
+import static org.hyperledger.besu.evm.CodeBuilder.STOP;
+
+import org.hyperledger.besu.evm.frame.MessageFrame;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the cost of contract creation by running the given number of CREATEs, each deploying
+ * an empty contract, from a single call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CreateBenchmark {
+
+  private static final int CREATE = 0xF0;
+
+  // PUSH1 0 PUSH1 0 RETURN
+  private static final Bytes INIT_CODE = Bytes.fromHexString("0x60006000F3");
+
+  @Param({"1", "64"})
+  public int creates;
+
+  private EvmBenchmarkHelper helper;
+
+  @Setup
+  public void prepare() {
+    final CodeBuilder code =
+        new CodeBuilder().push(Bytes32.rightPad(INIT_CODE)).push(0).op(MSTORE);
+    for (int i = 0; i < creates; i++) {
+      code.push(INIT_CODE.size()).push(0).push(0).op(CREATE).op(POP);
+    }
+    helper = new EvmBenchmarkHelper(code.op(STOP).build());
+    helper.verify(Bytes.EMPTY);
+  }
+
+  @Benchmark
+  public MessageFrame create() {
+    return helper.execute(Bytes.EMPTY);
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.evm.contractvalidation.MaxCodeSizeRule;
+import org.hyperledger.besu.evm.fluent.SimpleBlockValues;
+import org.hyperledger.besu.evm.fluent.SimpleWorld;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.precompile.MainnetPrecompiledContracts;
+import org.hyperledger.besu.evm.precompile.PrecompileContractRegistry;
+import org.hyperledger.besu.evm.processor.AbstractMessageProcessor;
+import org.hyperledger.besu.evm.processor.ContractCreationProcessor;
+import org.hyperledger.besu.evm.processor.MessageCallProcessor;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Runs a message call to a contract with the London EVM and precompiles against an in-memory
+ * world, the way a transaction would after its intrinsic costs were charged. Every call runs
+ * against a freshly created world holding only the sender and the contract, so benchmark
+ * iterations do not see each other's storage changes.
+ */
+public class EvmBenchmarkHelper {
+
+  public static final Address SENDER = Address.fromHexString("0x1000");
+  public static final Address CONTRACT = Address.fromHexString("0x2000");
+  public static final Gas GAS_LIMIT = Gas.of(1_000_000_000_000L);
+
+  private final EVM evm;
+  private final PrecompileContractRegistry precompiles;
+  private final MessageCallProcessor messageCallProcessor;
+  private final ContractCreationProcessor contractCreationProcessor;
+  private final Code code;
+
+  public EvmBenchmarkHelper(final Bytes code) {
+    this.evm = MainnetEVMs.london(EvmConfiguration.DEFAULT);
+    this.precompiles = new PrecompileContractRegistry();
+    MainnetPrecompiledContracts.populateForBLS12(precompiles, evm.getGasCalculator());
+    this.messageCallProcessor = new MessageCallProcessor(evm, precompiles);
+    this.contractCreationProcessor =
+        new ContractCreationProcessor(
+            evm.getGasCalculator(), evm, true, List.of(MaxCodeSizeRule.of(0x6000)), 1);
+    this.code = new Code(code, Hash.hash(code));
+  }
+
+  public PrecompileContractRegistry getPrecompiles() {
+    return precompiles;
+  }
+
+  /**
+   * Executes the contract code.
+   *
+   * @param inputData the call data
+   * @return the completed frame of the call
+   */
+  public MessageFrame execute(final Bytes inputData) {
+    final Deque<MessageFrame> messageFrameStack = new ArrayDeque<>();
+    final MessageFrame initialFrame =
+        MessageFrame.builder()
+            .type(MessageFrame.Type.MESSAGE_CALL)
+            .messageFrameStack(messageFrameStack)
+            .worldUpdater(createWorld())
+            .initialGas(GAS_LIMIT)
+            .contract(CONTRACT)
+            .address(CONTRACT)
+            .originator(SENDER)
+            .sender(SENDER)
+            .gasPrice(Wei.ZERO)
+            .inputData(inputData)
+            .value(Wei.ZERO)
+            .apparentValue(Wei.ZERO)
+            .code(code)
+            .blockValues(new SimpleBlockValues())
+            .depth(0)
+            .completer(c -> {})
+            .miningBeneficiary(Address.ZERO)
+            .blockHashLookup(n -> Hash.ZERO)
+            .build();
+    messageFrameStack.add(initialFrame);
+
+    while (!messageFrameStack.isEmpty()) {
+      final MessageFrame messageFrame = messageFrameStack.peek();
+      processorFor(messageFrame).process(messageFrame, OperationTracer.NO_TRACING);
+    }
+    return initialFrame;
+  }
+
+  /**
+   * Executes the contract code once and checks that it completes successfully, so that a
+   * benchmark does not silently measure a program that halts early.
+   *
+   * @param inputData the call data
+   * @return the gas used by the call
+   */
+  public Gas verify(final Bytes inputData) {
+    final MessageFrame frame = execute(inputData);
+    if (frame.getState() != MessageFrame.State.COMPLETED_SUCCESS) {
+      throw new IllegalStateException(
+          "Benchmark program did not complete: "
+              + frame.getExceptionalHaltReason().map(Object::toString).orElse("reverted"));
+    }
+    return GAS_LIMIT.minus(frame.getRemainingGas());
+  }
+
+  /** Creates a frame to pass to precompiles, which only use it to report revert reasons. */
+  public MessageFrame createPrecompileFrame() {
+    return MessageFrame.builder()
+        .type(MessageFrame.Type.MESSAGE_CALL)
+        .messageFrameStack(new ArrayDeque<>())
+        .worldUpdater(createWorld())
+        .initialGas(GAS_LIMIT)
+        .contract(Address.ZERO)
+        .address(Address.ZERO)
+        .originator(SENDER)
+        .sender(SENDER)
+        .gasPrice(Wei.ZERO)
+        .inputData(Bytes.EMPTY)
+        .value(Wei.ZERO)
+        .apparentValue(Wei.ZERO)
+        .code(new Code(Bytes.EMPTY, Hash.EMPTY))
+        .blockValues(new SimpleBlockValues())
+        .depth(1)
+        .completer(c -> {})
+        .miningBeneficiary(Address.ZERO)
+        .blockHashLookup(n -> Hash.ZERO)
+        .build();
+  }
+
+  private WorldUpdater createWorld() {
+    final SimpleWorld world = new SimpleWorld();
+    world.createAccount(SENDER, 0, Wei.fromEth(1_000_000));
+    world.createAccount(CONTRACT, 1, Wei.ZERO).getMutable().setCode(code.getBytes());
+    return world;
+  }
+
+  private AbstractMessageProcessor processorFor(final MessageFrame frame) {
+    return frame.getType() == MessageFrame.Type.CONTRACT_CREATION
+        ? contractCreationProcessor
+        : messageCallProcessor;
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm;
+
+import static org.hyperledger.besu.evm.CodeBuilder.DUP1;
+import static org.hyperledger.besu.evm.CodeBuilder.JUMPI;
+import static org.hyperledger.besu.evm.CodeBuilder.MSTORE;
+import static org.hyperledger.besu.evm.CodeBuilder.STOP;
+
+import org.hyperledger.besu.evm.frame.MessageFrame;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the cost of expanding memory to the given size, either in one step by storing the last
+ * word, or one word at a time by storing every word in order.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemoryExpansionBenchmark {
+
+  private static final int DUP2 = 0x81;
+  private static final int ADD = 0x01;
+  private static final int GT = 0x11;
+
+  @Param({"32", "1024", "32768", "1048576"})
+  public int size;
+
+  private EvmBenchmarkHelper single;
+  private EvmBenchmarkHelper sequential;
+
+  @Setup
+  public void prepare() {
+    single =
+        new EvmBenchmarkHelper(
+            new CodeBuilder().push(0).push(size - 32).op(MSTORE).op(STOP).build());
+    single.verify(Bytes.EMPTY);
+
+    // offset = 0; do { mstore(offset, 0); offset += 32 } while (size > offset)
+    sequential =
+        new EvmBenchmarkHelper(
+            new CodeBuilder()
+                .push(0)
+                .label("loop")
+                .push(0)
+                .op(DUP2)
+                .op(MSTORE)
+                .push(32)
+                .op(ADD)
+                .op(DUP1)
+                .push(size)
+                .op(GT)
+                .pushLabel("loop")
+                .op(JUMPI)
+                .op(STOP)
+                .build());
+    sequential.verify(Bytes.EMPTY);
+  }
+
+  @Benchmark
+  public MessageFrame expandOnce() {
+    return single.execute(Bytes.EMPTY);
+  }
+
+  @Benchmark
+  public MessageFrame expandByWord() {
+    return sequential.execute(Bytes.EMPTY);
+  }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.operation;
+
+import static org.hyperledger.besu.evm.CodeBuilder.DUP1;
+import static org.hyperledger.besu.evm.CodeBuilder.JUMP;
+import static org.hyperledger.besu.evm.CodeBuilder.JUMPI;
+import static org.hyperledger.besu.evm.CodeBuilder.POP;
+import static org.hyperledger.besu.evm.CodeBuilder.SWAP1;
+
+import org.hyperledger.besu.evm.CodeBuilder;
+import org.hyperledger.besu.evm.EvmBenchmarkHelper;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the execution time of each class of operation by running a program that repeats it
+ * {@value #REPETITIONS} times through the interpreter. Every repetition also pushes the operands
+ * the operation consumes and pops the results it produces, so the {@code PUSH32} and {@code PUSH1}
+ * cases give the overhead to subtract from the others. Calls, creates and memory expansion are
+ * covered by their own benchmarks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OperationBenchmark {
+
+  static final int REPETITIONS = 1_000;
+
+  @Param({
+    // stack
+    "PUSH1", "PUSH32", "DUP1", "DUP16", "SWAP1", "SWAP16",
+    // arithmetic
+    "ADD", "MUL", "SUB", "DIV", "SDIV", "MOD", "SMOD", "ADDMOD", "MULMOD", "EXP", "SIGNEXTEND",
+    // comparison and bitwise
+    "LT", "GT", "SLT", "SGT", "EQ", "ISZERO", "AND", "OR", "XOR", "NOT", "BYTE", "SHL", "SHR",
+    "SAR",
+    // hashing
+    "SHA3",
+    // environment and block
+    "ADDRESS", "BALANCE", "ORIGIN", "CALLER", "CALLVALUE", "CALLDATALOAD", "CALLDATASIZE",
+    "CALLDATACOPY", "CODESIZE", "CODECOPY", "GASPRICE", "EXTCODESIZE", "EXTCODECOPY",
+    "RETURNDATASIZE", "EXTCODEHASH", "BLOCKHASH", "COINBASE", "TIMESTAMP", "NUMBER",
+    "DIFFICULTY", "GASLIMIT", "CHAINID", "SELFBALANCE", "BASEFEE",
+    // memory, storage and flow
+    "MLOAD", "MSTORE", "MSTORE8", "SLOAD", "SSTORE", "JUMP", "JUMPI", "PC", "MSIZE", "GAS",
+    // logging
+    "LOG0", "LOG2", "LOG4"
+  })
+  public String operation;
+
+  private EvmBenchmarkHelper helper;
+  private Bytes input;
+
+  @Setup
+  public void prepare() {
+    final CodeBuilder code = new CodeBuilder();
+    if (operation.startsWith("DUP") || operation.startsWith("SWAP")) {
+      // give DUP16 and SWAP16 enough items to work on
+      for (int i = 0; i < 17; i++) {
+        code.push(i);
+      }
+    }
+    for (int i = 0; i < REPETITIONS; i++) {
+      repetition(operation, i).accept(code);
+    }
+    helper = new EvmBenchmarkHelper(code.build());
+    input = Bytes32.random(new Random(1));
+    helper.verify(input);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(REPETITIONS)
+  public MessageFrame execute() {
+    return helper.execute(input);
+  }
+
+  private static Consumer<CodeBuilder> repetition(final String operation, final int index) {
+    final Bytes32 a = Bytes32.random(new Random(index));
+    final Bytes32 b = Bytes32.random(new Random(-index - 1));
+    final Bytes contract = EvmBenchmarkHelper.CONTRACT;
+    switch (operation) {
+      case "PUSH1":
+        return code -> code.push(1).op(POP);
+      case "PUSH32":
+        return code -> code.push(a).op(POP);
+      case "DUP1":
+      case "DUP16":
+        return code -> code.op(DUP1 + Integer.parseInt(operation.substring(3)) - 1).op(POP);
+      case "SWAP1":
+      case "SWAP16":
+        return code -> code.op(SWAP1 + Integer.parseInt(operation.substring(4)) - 1);
+      case "ADD":
+        return binary(0x01, a, b);
+      case "MUL":
+        return binary(0x02, a, b);
+      case "SUB":
+        return binary(0x03, a, b);
+      case "DIV":
+        return binary(0x04, a, b);
+      case "SDIV":
+        return binary(0x05, a, b);
+      case "MOD":
+        return binary(0x06, a, b);
+      case "SMOD":
+        return binary(0x07, a, b);
+      case "ADDMOD":
+        return code -> code.push(b).push(b).push(a).op(0x08).op(POP);
+      case "MULMOD":
+        return code -> code.push(b).push(b).push(a).op(0x09).op(POP);
+      case "EXP":
+        // a full 32 byte exponent is the most expensive case
+        return binary(0x0A, b, a);
+      case "SIGNEXTEND":
+        return binary(0x0B, Bytes.of(index % 32), a);
+      case "LT":
+        return binary(0x10, a, b);
+      case "GT":
+        return binary(0x11, a, b);
+      case "SLT":
+        return binary(0x12, a, b);
+      case "SGT":
+        return binary(0x13, a, b);
+      case "EQ":
+        return binary(0x14, a, b);
+      case "ISZERO":
+        return unary(0x15, a);
+      case "AND":
+        return binary(0x16, a, b);
+      case "OR":
+        return binary(0x17, a, b);
+      case "XOR":
+        return binary(0x18, a, b);
+      case "NOT":
+        return unary(0x19, a);
+      case "BYTE":
+        return binary(0x1A, Bytes.of(index % 32), a);
+      case "SHL":
+        return binary(0x1B, Bytes.of(index % 256), a);
+      case "SHR":
+        return binary(0x1C, Bytes.of(index % 256), a);
+      case "SAR":
+        return binary(0x1D, Bytes.of(index % 256), a);
+      case "SHA3":
+        return code -> code.push(64).push(0).op(0x20).op(POP);
+      case "ADDRESS":
+        return nullary(0x30);
+      case "BALANCE":
+        return unary(0x31, contract);
+      case "ORIGIN":
+        return nullary(0x32);
+      case "CALLER":
+        return nullary(0x33);
+      case "CALLVALUE":
+        return nullary(0x34);
+      case "CALLDATALOAD":
+        return unary(0x35, Bytes.of(0));
+      case "CALLDATASIZE":
+        return nullary(0x36);
+      case "CALLDATACOPY":
+        return code -> code.push(32).push(0).push(0).op(0x37);
+      case "CODESIZE":
+        return nullary(0x38);
+      case "CODECOPY":
+        return code -> code.push(32).push(index).push(0).op(0x39);
+      case "GASPRICE":
+        return nullary(0x3A);
+      case "EXTCODESIZE":
+        return unary(0x3B, contract);
+      case "EXTCODECOPY":
+        return code -> code.push(32).push(index).push(0).push(contract).op(0x3C);
+      case "RETURNDATASIZE":
+        return nullary(0x3D);
+      case "EXTCODEHASH":
+        return unary(0x3F, contract);
+      case "BLOCKHASH":
+        return unary(0x40, Bytes.of(0));
+      case "COINBASE":
+        return nullary(0x41);
+      case "TIMESTAMP":
+        return nullary(0x42);
+      case "NUMBER":
+        return nullary(0x43);
+      case "DIFFICULTY":
+        return nullary(0x44);
+      case "GASLIMIT":
+        return nullary(0x45);
+      case "CHAINID":
+        return nullary(0x46);
+      case "SELFBALANCE":
+        return nullary(0x47);
+      case "BASEFEE":
+        return nullary(0x48);
+      case "MLOAD":
+        return unary(0x51, Bytes.of(index % 32));
+      case "MSTORE":
+        return code -> code.push(a).push(index % 32).op(0x52);
+      case "MSTORE8":
+        return code -> code.push(a).push(index % 32).op(0x53);
+      case "SLOAD":
+        return unary(0x54, Bytes.of(index % 16));
+      case "SSTORE":
+        return code -> code.push(a).push(index % 16).op(0x55);
+      case "JUMP":
+        return code -> code.pushLabel("jump" + index).op(JUMP).label("jump" + index);
+      case "JUMPI":
+        return code -> code.push(1).pushLabel("jump" + index).op(JUMPI).label("jump" + index);
+      case "PC":
+        return nullary(0x58);
+      case "MSIZE":
+        return nullary(0x59);
+      case "GAS":
+        return nullary(0x5A);
+      case "LOG0":
+        return code -> code.push(32).push(0).op(0xA0);
+      case "LOG2":
+        return code -> code.push(a).push(b).push(32).push(0).op(0xA2);
+      case "LOG4":
+        return code -> code.push(a).push(b).push(a).push(b).push(32).push(0).op(0xA4);
+      default:
+        throw new IllegalArgumentException("Unknown operation " + operation);
+    }
+  }
+
+  private static Consumer<CodeBuilder> nullary(final int opcode) {
+    return code -> code.op(opcode).op(POP);
+  }
+
+  private static Consumer<CodeBuilder> unary(final int opcode, final Bytes operand) {
+    return code -> code.push(operand).op(opcode).op(POP);
+  }
+
+  /** Pushes the second operand and then the first, which ends up on top of the stack. */
+  private static Consumer<CodeBuilder> binary(
+      final int opcode, final Bytes first, final Bytes second) {
+    return code -> code.push(second).push(first).op(opcode).op(POP);
+  }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.precompile;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import org.hyperledger.besu.crypto.Hash;
+import org.hyperledger.besu.crypto.KeyPair;
+import org.hyperledger.besu.crypto.SECPSignature;
+import org.hyperledger.besu.crypto.SignatureAlgorithm;
+import org.hyperledger.besu.crypto.SignatureAlgorithmFactory;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.evm.EvmBenchmarkHelper;
+import org.hyperledger.besu.evm.Gas;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.bytes.MutableBytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the execution time of the precompiled contracts for a representative valid input. The
+ * BLS12-381 inputs are the first cases of the precompile test vectors. Dividing the gas
+ * requirement of the input, printed by the {@code gas} benchmark, by the time per operation gives
+ * the gas per second each precompile is priced at.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PrecompileBenchmark {
+
+  @Param({
+    "ECREC",
+    "SHA256",
+    "RIPEMD160",
+    "ID",
+    "MODEXP_32",
+    "MODEXP_256",
+    "ALTBN128_ADD",
+    "ALTBN128_MUL",
+    "ALTBN128_PAIRING",
+    "BLAKE2F",
+    "BLS12_G1ADD",
+    "BLS12_G1MUL",
+    "BLS12_G1MULTIEXP",
+    "BLS12_G2ADD",
+    "BLS12_G2MUL",
+    "BLS12_G2MULTIEXP",
+    "BLS12_PAIRING",
+    "BLS12_MAP_FP_TO_G1",
+    "BLS12_MAP_FP2_TO_G2"
+  })
+  public String precompile;
+
+  private PrecompiledContract contract;
+  private Bytes input;
+  private MessageFrame frame;
+
+  @Setup
+  public void prepare() throws IOException {
+    final EvmBenchmarkHelper helper = new EvmBenchmarkHelper(Bytes.EMPTY);
+    final Random random = new Random(1);
+    final Address address;
+    switch (precompile) {
+      case "ECREC":
+        address = Address.ECREC;
+        input = ecrecInput();
+        break;
+      case "SHA256":
+        address = Address.SHA256;
+        input = Bytes.random(128, random);
+        break;
+      case "RIPEMD160":
+        address = Address.RIPEMD160;
+        input = Bytes.random(128, random);
+        break;
+      case "ID":
+        address = Address.ID;
+        input = Bytes.random(128, random);
+        break;
+      case "MODEXP_32":
+        address = Address.MODEXP;
+        input = modExpInput(32, random);
+        break;
+      case "MODEXP_256":
+        address = Address.MODEXP;
+        input = modExpInput(256, random);
+        break;
+      case "ALTBN128_ADD":
+        address = Address.ALTBN128_ADD;
+        input = Bytes.concatenate(ALTBN128_G1, ALTBN128_G1);
+        break;
+      case "ALTBN128_MUL":
+        address = Address.ALTBN128_MUL;
+        input = Bytes.concatenate(ALTBN128_G1, Bytes32.random(random));
+        break;
+      case "ALTBN128_PAIRING":
+        address = Address.ALTBN128_PAIRING;
+        input =
+            Bytes.concatenate(ALTBN128_G1, ALTBN128_G2, ALTBN128_NEGATED_G1, ALTBN128_G2);
+        break;
+      case "BLAKE2F":
+        address = Address.BLAKE2B_F_COMPRESSION;
+        input = blake2fInput(random);
+        break;
+      case "BLS12_G1ADD":
+        address = Address.BLS12_G1ADD;
+        input = testVector("g1_add.csv");
+        break;
+      case "BLS12_G1MUL":
+        address = Address.BLS12_G1MUL;
+        input = testVector("g1_mul.csv");
+        break;
+      case "BLS12_G1MULTIEXP":
+        address = Address.BLS12_G1MULTIEXP;
+        input = testVector("g1_multiexp.csv");
+        break;
+      case "BLS12_G2ADD":
+        address = Address.BLS12_G2ADD;
+        input = testVector("g2_add.csv");
+        break;
+      case "BLS12_G2MUL":
+        address = Address.BLS12_G2MUL;
+        input = testVector("g2_mul.csv");
+        break;
+      case "BLS12_G2MULTIEXP":
+        address = Address.BLS12_G2MULTIEXP;
+        input = testVector("g2_multiexp.csv");
+        break;
+      case "BLS12_PAIRING":
+        address = Address.BLS12_PAIRING;
+        input = testVector("pairing.csv");
+        break;
+      case "BLS12_MAP_FP_TO_G1":
+        address = Address.BLS12_MAP_FP_TO_G1;
+        input = testVector("fp_to_g1.csv");
+        break;
+      case "BLS12_MAP_FP2_TO_G2":
+        address = Address.BLS12_MAP_FP2_TO_G2;
+        input = testVector("fp2_to_g2.csv");
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown precompile " + precompile);
+    }
+    contract = helper.getPrecompiles().get(address);
+    frame = helper.createPrecompileFrame();
+    if (contract.compute(input, frame) == null) {
+      throw new IllegalStateException("Invalid benchmark input for " + precompile);
+    }
+  }
+
+  @Benchmark
+  public Bytes compute() {
+    return contract.compute(input, frame);
+  }
+
+  @Benchmark
+  public Gas gas() {
+    return contract.gasRequirement(input);
+  }
+
+  private static final Bytes ALTBN128_G1 =
+      Bytes.concatenate(Bytes32.leftPad(Bytes.of(1)), Bytes32.leftPad(Bytes.of(2)));
+  private static final Bytes ALTBN128_NEGATED_G1 =
+      Bytes.concatenate(
+          Bytes32.leftPad(Bytes.of(1)),
+          Bytes.fromHexString(
+              "0x30644e72e131a029b85045b68181585d97816a916871ca8d3c208c16d87cfd45"));
+  private static final Bytes ALTBN128_G2 =
+      Bytes.fromHexString(
+          "0x198e9393920d483a7260bfb731fb5d25f1aa493335a9e71297e485b7aef312c2"
+              + "1800deef121f1e76426a00665e5c4479674322d4f75edadd46debd5cd992f6ed"
+              + "090689d0585ff075ec9e99ad690c3395bc4b313370b38ef355acdadcd122975b"
+              + "12c85ea5db8c6deb4aab71808dcb408fe3d1e7690c43d37b4ce6cc0166fa7daa");
+
+  private static Bytes ecrecInput() {
+    final SignatureAlgorithm signatureAlgorithm = SignatureAlgorithmFactory.getInstance();
+    final KeyPair keyPair = signatureAlgorithm.generateKeyPair();
+    final Bytes32 dataHash = Hash.keccak256(Bytes.wrap("benchmark".getBytes(UTF_8)));
+    final SECPSignature signature = signatureAlgorithm.sign(dataHash, keyPair);
+    return Bytes.concatenate(
+        dataHash,
+        Bytes32.leftPad(Bytes.of(signature.getRecId() + 27)),
+        Bytes32.leftPad(Bytes.wrap(signature.getR().toByteArray()).trimLeadingZeros()),
+        Bytes32.leftPad(Bytes.wrap(signature.getS().toByteArray()).trimLeadingZeros()));
+  }
+
+  private static Bytes modExpInput(final int size, final Random random) {
+    final MutableBytes modulus = Bytes.random(size, random).mutableCopy();
+    // a full length, odd modulus
+    modulus.set(0, (byte) 0xFF);
+    modulus.set(size - 1, (byte) (modulus.get(size - 1) | 1));
+    return Bytes.concatenate(
+        Bytes32.leftPad(Bytes.ofUnsignedInt(size)),
+        Bytes32.leftPad(Bytes.ofUnsignedInt(size)),
+        Bytes32.leftPad(Bytes.ofUnsignedInt(size)),
+        Bytes.random(size, random),
+        Bytes.random(size, random),
+        modulus);
+  }
+
+  private static Bytes blake2fInput(final Random random) {
+    // 12 rounds, state, message block, offset counter, final block flag
+    return Bytes.concatenate(
+        Bytes.ofUnsignedInt(12), Bytes.random(64 + 128 + 16, random), Bytes.of(1));
+  }
+
+  private static Bytes testVector(final String file) throws IOException {
+    try (final InputStream in = PrecompileBenchmark.class.getResourceAsStream(file)) {
+      if (in == null) {
+        throw new IOException("Missing test vectors " + file);
+      }
+      final BufferedReader reader = new BufferedReader(new InputStreamReader(in, UTF_8));
+      // skip the header row
+      reader.readLine();
+      return Bytes.fromHexString(reader.readLine().split(",", 2)[0]);
+    }
+  }
+}
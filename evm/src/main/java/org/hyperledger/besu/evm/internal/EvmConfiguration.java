@@ -18,9 +18,16 @@ package org.hyperledger.besu.evm.internal;
 public class EvmConfiguration {
   public static final EvmConfiguration DEFAULT = new EvmConfiguration(32_000L);
   private final long jumpDestCacheWeightKB;
+  private final boolean parallelTransactionExecutionEnabled;
 
   public EvmConfiguration(final long jumpDestCacheWeightKB) {
+    this(jumpDestCacheWeightKB, false);
+  }
+
+  public EvmConfiguration(
+      final long jumpDestCacheWeightKB, final boolean parallelTransactionExecutionEnabled) {
     this.jumpDestCacheWeightKB = jumpDestCacheWeightKB;
+    this.parallelTransactionExecutionEnabled = parallelTransactionExecutionEnabled;
   }
 
   public long getJumpDestCacheWeightBytes() {
@@ -30,4 +37,8 @@ public class EvmConfiguration {
   public long getJumpDestCacheWeightKB() {
     return jumpDestCacheWeightKB;
   }
+
+  public boolean isParallelTransactionExecutionEnabled() {
+    return parallelTransactionExecutionEnabled;
+  }
 }
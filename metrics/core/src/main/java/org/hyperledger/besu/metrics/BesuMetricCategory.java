@@ -33,6 +33,7 @@ public enum BesuMetricCategory implements MetricCategory {
   KVSTORE_PRIVATE_ROCKSDB("private_rocksdb"),
   KVSTORE_ROCKSDB_STATS("rocksdb", false),
   KVSTORE_PRIVATE_ROCKSDB_STATS("private_rocksdb", false),
+  PRIVACY("privacy"),
   PRUNER("pruner"),
   RPC("rpc"),
   SYNCHRONIZER("synchronizer"),
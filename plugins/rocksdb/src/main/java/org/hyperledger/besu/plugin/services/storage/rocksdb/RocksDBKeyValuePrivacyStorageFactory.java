@@ -101,7 +101,12 @@ public class RocksDBKeyValuePrivacyStorageFactory implements PrivacyKeyValueStor
           dataDir,
           privacyDatabaseVersion);
       Files.createDirectories(dataDir);
-      new DatabaseMetadata(publicFactory.getDefaultVersion(), privacyDatabaseVersion)
+      // keep the version of an existing public database, which may have been upgraded
+      final int publicDatabaseVersion =
+          commonConfiguration.getStoragePath().toFile().exists()
+              ? DatabaseMetadata.lookUpFrom(dataDir).getVersion()
+              : publicFactory.getDefaultVersion();
+      new DatabaseMetadata(publicDatabaseVersion, privacyDatabaseVersion)
           .writeToDirectory(dataDir);
     }
 
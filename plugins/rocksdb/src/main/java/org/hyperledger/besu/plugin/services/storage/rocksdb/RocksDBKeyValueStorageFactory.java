@@ -35,6 +35,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -46,7 +47,11 @@ public class RocksDBKeyValueStorageFactory implements KeyValueStorageFactory {
 
   private static final Logger LOG = LoggerFactory.getLogger(RocksDBKeyValueStorageFactory.class);
   private static final int DEFAULT_VERSION = 1;
-  private static final Set<Integer> SUPPORTED_VERSIONS = Set.of(0, 1, 2);
+  private static final Set<Integer> SUPPORTED_VERSIONS = Set.of(0, 1, 2, 3, 4);
+  // Versions 3 and 4 are versions 1 and 2 whose transaction receipts may be stored in the compact
+  // encoding. A database is upgraded to them when that encoding is enabled, but never downgraded,
+  // as receipts already stored that way cannot be read by versions of Besu that only know 1 and 2.
+  private static final Map<Integer, Integer> COMPACT_RECEIPTS_UPGRADES = Map.of(1, 3, 2, 4);
   private static final String NAME = "rocksdb";
   private final RocksDBMetricsFactory rocksDBMetricsFactory;
 
@@ -114,6 +119,8 @@ public class RocksDBKeyValueStorageFactory implements KeyValueStorageFactory {
         }
       case 1:
       case 2:
+      case 3:
+      case 4:
         {
           unsegmentedStorage = null;
           if (segmentedStorage == null) {
@@ -163,8 +170,32 @@ public class RocksDBKeyValueStorageFactory implements KeyValueStorageFactory {
     final boolean databaseExists = commonConfiguration.getStoragePath().toFile().exists();
     final int databaseVersion;
     if (databaseExists) {
-      databaseVersion = DatabaseMetadata.lookUpFrom(dataDir).getVersion();
-      LOG.info("Existing database detected at {}. Version {}", dataDir, databaseVersion);
+      final DatabaseMetadata existingMetadata = DatabaseMetadata.lookUpFrom(dataDir);
+      final int existingVersion = existingMetadata.getVersion();
+      LOG.info("Existing database detected at {}. Version {}", dataDir, existingVersion);
+      final int configuredVersion = commonConfiguration.getDatabaseVersion();
+      if (existingVersion == configuredVersion
+          || !COMPACT_RECEIPTS_UPGRADES.containsValue(configuredVersion)) {
+        databaseVersion = existingVersion;
+      } else if (Integer.valueOf(configuredVersion)
+          .equals(COMPACT_RECEIPTS_UPGRADES.get(existingVersion))) {
+        LOG.info(
+            "Upgrading database at {} from version {} to {} to store compact receipts",
+            dataDir,
+            existingVersion,
+            configuredVersion);
+        // the version of the private database is kept
+        new DatabaseMetadata(configuredVersion, existingMetadata.maybePrivacyVersion())
+            .writeToDirectory(dataDir);
+        databaseVersion = configuredVersion;
+      } else {
+        final String message =
+            String.format(
+                "Cannot upgrade RocksDB Metadata version %d to %d to store compact receipts",
+                existingVersion, configuredVersion);
+        LOG.error(message);
+        throw new StorageException(message);
+      }
     } else {
       databaseVersion = commonConfiguration.getDatabaseVersion();
       LOG.info("No existing database detected at {}. Using version {}", dataDir, databaseVersion);
@@ -130,6 +130,91 @@ public class RocksDBKeyValueStorageFactoryTest {
     rolledbackStorageFactory.create(segment, commonConfiguration, metricsSystem);
   }
 
+  @Test
+  public void shouldUpgradeExistingDatabaseToStoreCompactReceipts() throws Exception {
+    final Path tempDataDir = temporaryFolder.newFolder().toPath().resolve("data");
+    final Path tempDatabaseDir = temporaryFolder.newFolder().toPath().resolve("db");
+    Files.createDirectories(tempDatabaseDir);
+    Files.createDirectories(tempDataDir);
+    when(commonConfiguration.getStoragePath()).thenReturn(tempDatabaseDir);
+    when(commonConfiguration.getDataPath()).thenReturn(tempDataDir);
+    when(commonConfiguration.getDatabaseVersion()).thenReturn(3);
+    new DatabaseMetadata(DEFAULT_VERSION).writeToDirectory(tempDataDir);
+
+    final RocksDBKeyValueStorageFactory storageFactory =
+        new RocksDBKeyValueStorageFactory(
+            () -> rocksDbConfiguration, segments, RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+
+    storageFactory.create(segment, commonConfiguration, metricsSystem);
+
+    assertThat(DatabaseMetadata.lookUpFrom(tempDataDir).getVersion()).isEqualTo(3);
+  }
+
+  @Test
+  public void shouldKeepPrivacyVersionWhenUpgradingToStoreCompactReceipts() throws Exception {
+    final Path tempDataDir = temporaryFolder.newFolder().toPath().resolve("data");
+    final Path tempDatabaseDir = temporaryFolder.newFolder().toPath().resolve("db");
+    Files.createDirectories(tempDatabaseDir);
+    Files.createDirectories(tempDataDir);
+    when(commonConfiguration.getStoragePath()).thenReturn(tempDatabaseDir);
+    when(commonConfiguration.getDataPath()).thenReturn(tempDataDir);
+    when(commonConfiguration.getDatabaseVersion()).thenReturn(3);
+    new DatabaseMetadata(DEFAULT_VERSION, 1).writeToDirectory(tempDataDir);
+
+    final RocksDBKeyValueStorageFactory storageFactory =
+        new RocksDBKeyValueStorageFactory(
+            () -> rocksDbConfiguration, segments, RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+
+    storageFactory.create(segment, commonConfiguration, metricsSystem);
+
+    final DatabaseMetadata metadata = DatabaseMetadata.lookUpFrom(tempDataDir);
+    assertThat(metadata.getVersion()).isEqualTo(3);
+    assertThat(metadata.maybePrivacyVersion()).contains(1);
+  }
+
+  @Test
+  public void shouldKeepCompactReceiptsVersionWhenCompactReceiptsAreDisabled() throws Exception {
+    final Path tempDataDir = temporaryFolder.newFolder().toPath().resolve("data");
+    final Path tempDatabaseDir = temporaryFolder.newFolder().toPath().resolve("db");
+    Files.createDirectories(tempDatabaseDir);
+    Files.createDirectories(tempDataDir);
+    when(commonConfiguration.getStoragePath()).thenReturn(tempDatabaseDir);
+    when(commonConfiguration.getDataPath()).thenReturn(tempDataDir);
+    when(commonConfiguration.getDatabaseVersion()).thenReturn(DEFAULT_VERSION);
+    new DatabaseMetadata(3).writeToDirectory(tempDataDir);
+
+    final RocksDBKeyValueStorageFactory storageFactory =
+        new RocksDBKeyValueStorageFactory(
+            () -> rocksDbConfiguration, segments, RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+
+    storageFactory.create(segment, commonConfiguration, metricsSystem);
+
+    assertThat(DatabaseMetadata.lookUpFrom(tempDataDir).getVersion()).isEqualTo(3);
+  }
+
+  @Test
+  public void shouldThrowExceptionWhenUpgradingToCompactReceiptsOfAnotherFormat()
+      throws Exception {
+    final Path tempDataDir = temporaryFolder.newFolder().toPath().resolve("data");
+    final Path tempDatabaseDir = temporaryFolder.newFolder().toPath().resolve("db");
+    Files.createDirectories(tempDatabaseDir);
+    Files.createDirectories(tempDataDir);
+    when(commonConfiguration.getStoragePath()).thenReturn(tempDatabaseDir);
+    when(commonConfiguration.getDataPath()).thenReturn(tempDataDir);
+    when(commonConfiguration.getDatabaseVersion()).thenReturn(3);
+    new DatabaseMetadata(2).writeToDirectory(tempDataDir);
+
+    assertThatThrownBy(
+            () ->
+                new RocksDBKeyValueStorageFactory(
+                        () -> rocksDbConfiguration,
+                        segments,
+                        RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS)
+                    .create(segment, commonConfiguration, metricsSystem))
+        .isInstanceOf(StorageException.class);
+    assertThat(DatabaseMetadata.lookUpFrom(tempDataDir).getVersion()).isEqualTo(2);
+  }
+
   @Test
   public void shouldThrowExceptionWhenVersionNumberIsInvalid() throws Exception {
     final Path tempDataDir = temporaryFolder.newFolder().toPath().resolve("data");
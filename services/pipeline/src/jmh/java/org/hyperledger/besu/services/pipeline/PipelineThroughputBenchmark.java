@@ -0,0 +1,116 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import static org.hyperledger.besu.metrics.noop.NoOpMetricsSystem.NO_OP_COUNTER;
+import static org.hyperledger.besu.metrics.noop.NoOpMetricsSystem.NO_OP_LABELLED_2_COUNTER;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the pipes backed by an {@link java.util.concurrent.ArrayBlockingQueue} with the ring
+ * buffer pipes, and dedicated stage threads with shared workers. {@code pipeline} runs items
+ * through a pipeline shaped like the sync pipelines (a source, serial and parallel map stages, a
+ * batching stage and a completer); {@code pipe} measures the non-blocking hand-off through a
+ * single pipe between two producers and two consumers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PipelineThroughputBenchmark {
+
+  private static final int ITEMS = 100_000;
+
+  @Param({"false", "true"})
+  public boolean ringBufferPipes;
+
+  @Param({"0", "2"})
+  public int sharedWorkers;
+
+  private PipelineOptions options;
+  private ExecutorService executorService;
+  private Pipe<Integer> pipe;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    options =
+        ringBufferPipes ? PipelineOptions.DEFAULT.withRingBufferPipes() : PipelineOptions.DEFAULT;
+    if (sharedWorkers > 0) {
+      options = options.withSharedWorkers(sharedWorkers);
+    }
+    executorService = Executors.newCachedThreadPool();
+    pipe = new Pipe<>(options.createQueue(128), NO_OP_COUNTER, NO_OP_COUNTER, NO_OP_COUNTER);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ITEMS)
+  public long pipeline() throws Exception {
+    final LongAdder sum = new LongAdder();
+    final Pipeline<Integer> pipeline =
+        PipelineBuilder.createPipelineFrom(
+                "source",
+                IntStream.range(0, ITEMS).iterator(),
+                200,
+                NO_OP_LABELLED_2_COUNTER,
+                false,
+                "benchmark",
+                options)
+            .thenProcess("increment", value -> value + 1)
+            .thenProcessInParallel("square", value -> value * value, 4)
+            .inBatches(50)
+            .thenFlatMap("flatten", List::stream, 200)
+            .andFinishWith("sum", sum::add);
+    pipeline.start(executorService).get(1, TimeUnit.MINUTES);
+    return sum.sum();
+  }
+
+  @Benchmark
+  @Group("pipe")
+  @GroupThreads(2)
+  public boolean offer() {
+    return pipe.offer(1);
+  }
+
+  @Benchmark
+  @Group("pipe")
+  @GroupThreads(2)
+  public Integer poll() {
+    return pipe.poll();
+  }
+}
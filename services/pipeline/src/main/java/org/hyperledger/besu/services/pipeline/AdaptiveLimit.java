@@ -0,0 +1,99 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.function.IntSupplier;
+
+/**
+ * A limit, such as the number of items in a batch or the number of operations in flight, that
+ * adapts to how the work it bounds is performing.
+ *
+ * <p>The limit grows by one for each result that arrives within its target and shrinks by a
+ * quarter for each one that doesn't, halves on failures and steps down by one when the next stage
+ * can't accept more output. This additive increase, multiplicative decrease settles the limit just
+ * below the point where the work starts to time out or back up, and keeps it within the configured
+ * minimum and maximum.
+ */
+public class AdaptiveLimit implements IntSupplier {
+
+  private static final double SLOW_RESULT_DECREASE_FACTOR = 0.75;
+  private static final double FAILURE_DECREASE_FACTOR = 0.5;
+
+  private final int minimum;
+  private final int maximum;
+  private double limit;
+
+  public AdaptiveLimit(final int minimum, final int maximum, final int initial) {
+    checkArgument(minimum > 0, "Minimum limit must be greater than 0");
+    checkArgument(
+        minimum <= initial && initial <= maximum,
+        "Initial limit must be between the minimum and maximum");
+    this.minimum = minimum;
+    this.maximum = maximum;
+    this.limit = initial;
+  }
+
+  /**
+   * Creates a limit that never changes.
+   *
+   * @param limit the value of the limit
+   * @return the fixed limit
+   */
+  public static AdaptiveLimit fixed(final int limit) {
+    return new AdaptiveLimit(limit, limit, limit);
+  }
+
+  /**
+   * Records a successful result.
+   *
+   * @param withinTarget whether the result met its target, for example arriving quickly enough
+   */
+  public synchronized void recordResult(final boolean withinTarget) {
+    if (withinTarget) {
+      limit = Math.min(maximum, limit + 1);
+    } else {
+      decrease(SLOW_RESULT_DECREASE_FACTOR);
+    }
+  }
+
+  /** Records an operation that failed or timed out. */
+  public synchronized void recordFailure() {
+    decrease(FAILURE_DECREASE_FACTOR);
+  }
+
+  /** Records that output had to wait for the next stage to free up capacity. */
+  public synchronized void recordBackpressure() {
+    limit = Math.max(minimum, limit - 1);
+  }
+
+  private void decrease(final double factor) {
+    limit = Math.max(minimum, limit * factor);
+  }
+
+  @Override
+  public synchronized int getAsInt() {
+    return (int) limit;
+  }
+
+  public int getMinimum() {
+    return minimum;
+  }
+
+  public int getMaximum() {
+    return maximum;
+  }
+}
@@ -34,21 +34,28 @@ class AsyncOperationProcessor<I, O> implements Processor<I, O> {
   private final List<CompletableFuture<O>> inProgress;
   private CompletableFuture<?> nextOutputAvailableFuture = completedFuture(null);
   private final boolean preserveOrder;
-  private final int maxConcurrency;
+  private final AdaptiveLimit maxConcurrency;
 
   public AsyncOperationProcessor(
       final Function<I, CompletableFuture<O>> processor,
       final int maxConcurrency,
       final boolean preserveOrder) {
+    this(processor, AdaptiveLimit.fixed(maxConcurrency), preserveOrder);
+  }
+
+  public AsyncOperationProcessor(
+      final Function<I, CompletableFuture<O>> processor,
+      final AdaptiveLimit maxConcurrency,
+      final boolean preserveOrder) {
     this.processor = processor;
     this.maxConcurrency = maxConcurrency;
-    this.inProgress = new ArrayList<>(maxConcurrency);
+    this.inProgress = new ArrayList<>(maxConcurrency.getMaximum());
     this.preserveOrder = preserveOrder;
   }
 
   @Override
   public void processNextInput(final ReadPipe<I> inputPipe, final WritePipe<O> outputPipe) {
-    if (inProgress.size() < maxConcurrency) {
+    if (inProgress.size() < maxConcurrency.getAsInt()) {
       final I value = inputPipe.get();
       if (value != null) {
         final CompletableFuture<O> future = processor.apply(value);
@@ -101,6 +108,10 @@ class AsyncOperationProcessor<I, O> implements Processor<I, O> {
       final O result = process.getNow(null);
       if (result != null) {
         inProgressChanged = true;
+        if (!outputPipe.hasRemainingCapacity()) {
+          // Starting more operations won't help while the next stage can't keep up.
+          maxConcurrency.recordBackpressure();
+        }
         outputPipe.put(result);
         i.remove();
       } else if (preserveOrder) {
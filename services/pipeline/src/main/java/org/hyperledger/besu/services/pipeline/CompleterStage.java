@@ -22,9 +22,19 @@ class CompleterStage<T> implements Stage {
   private final Consumer<T> completer;
   private final String name;
   private final CompletableFuture<?> future = new CompletableFuture<>();
+  private final StageStatistics.Recorder recorder;
 
   CompleterStage(final String name, final ReadPipe<T> input, final Consumer<T> completer) {
-    this.input = input;
+    this(name, input, completer, new StageStatistics(name));
+  }
+
+  CompleterStage(
+      final String name,
+      final ReadPipe<T> input,
+      final Consumer<T> completer,
+      final StageStatistics statistics) {
+    this.recorder = statistics.newRecorder();
+    this.input = recorder.timeInput(input);
     this.completer = completer;
     this.name = name;
   }
@@ -32,9 +42,14 @@ class CompleterStage<T> implements Stage {
   @Override
   public void run() {
     while (input.hasMore()) {
-      final T value = input.get();
-      if (value != null) {
-        completer.accept(value);
+      recorder.beginCall();
+      try {
+        final T value = input.get();
+        if (value != null) {
+          completer.accept(value);
+        }
+      } finally {
+        recorder.endCall();
       }
     }
     future.complete(null);
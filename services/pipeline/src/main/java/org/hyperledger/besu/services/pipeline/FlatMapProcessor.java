@@ -32,4 +32,9 @@ class FlatMapProcessor<I, O> implements Processor<I, O> {
       mapper.apply(value).forEach(outputPipe::put);
     }
   }
+
+  @Override
+  public boolean canRunOnSharedWorker() {
+    return true;
+  }
 }
@@ -18,21 +18,37 @@ import java.util.Iterator;
 
 class IteratorSourceStage<T> implements Stage {
   private final Iterator<T> source;
-  private final Pipe<T> pipe;
+  private final WritePipe<T> pipe;
   private final String name;
+  private final StageStatistics.Recorder recorder;
 
   IteratorSourceStage(final String name, final Iterator<T> source, final Pipe<T> pipe) {
+    this(name, source, pipe, new StageStatistics(name));
+  }
+
+  IteratorSourceStage(
+      final String name,
+      final Iterator<T> source,
+      final Pipe<T> pipe,
+      final StageStatistics statistics) {
     this.source = source;
-    this.pipe = pipe;
+    this.recorder = statistics.newRecorder();
+    this.pipe = recorder.timeOutput(pipe);
     this.name = name;
   }
 
   @Override
   public void run() {
     while (pipe.isOpen() && source.hasNext()) {
-      final T value = source.next();
-      if (value != null) {
-        pipe.put(value);
+      recorder.beginCall();
+      try {
+        recorder.itemTaken();
+        final T value = source.next();
+        if (value != null) {
+          pipe.put(value);
+        }
+      } finally {
+        recorder.endCall();
       }
     }
     pipe.close();
@@ -31,4 +31,9 @@ class MapProcessor<I, O> implements Processor<I, O> {
       outputPipe.put(processor.apply(value));
     }
   }
+
+  @Override
+  public boolean canRunOnSharedWorker() {
+    return true;
+  }
 }
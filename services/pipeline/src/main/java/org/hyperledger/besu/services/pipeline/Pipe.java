@@ -44,13 +44,23 @@ public class Pipe<T> implements ReadPipe<T>, WritePipe<T> {
   private final Counter abortedItemCounter;
   private final AtomicBoolean closed = new AtomicBoolean();
   private final AtomicBoolean aborted = new AtomicBoolean();
+  private volatile Runnable wakeupListener;
+  private volatile int wakeupThreshold;
 
   public Pipe(
       final int capacity,
       final Counter inputCounter,
       final Counter outputCounter,
       final Counter abortedItemCounter) {
-    queue = new ArrayBlockingQueue<>(capacity);
+    this(new ArrayBlockingQueue<>(capacity), inputCounter, outputCounter, abortedItemCounter);
+  }
+
+  Pipe(
+      final BlockingQueue<T> queue,
+      final Counter inputCounter,
+      final Counter outputCounter,
+      final Counter abortedItemCounter) {
+    this.queue = queue;
     this.inputCounter = inputCounter;
     this.outputCounter = outputCounter;
     this.abortedItemCounter = abortedItemCounter;
@@ -66,14 +76,36 @@ public class Pipe<T> implements ReadPipe<T>, WritePipe<T> {
     return aborted.get();
   }
 
+  int size() {
+    return queue.size();
+  }
+
   @Override
   public boolean hasRemainingCapacity() {
     return queue.remainingCapacity() > 0 && isOpen();
   }
 
+  /**
+   * Registers a listener to run when a reader or writer of this pipe that does not wait on it may
+   * have work to do: when an item is added to the empty pipe or the pipe holds at least
+   * <i>threshold</i> items, when items are removed while fewer than <i>threshold</i> items could
+   * be added, and when the pipe is closed or aborted. Adding and removing items in between does
+   * not run the listener, so that a batch of items needs a single wake up. The threshold is
+   * lowered to half the capacity of the pipe if it is larger.
+   *
+   * @param threshold the number of items that are worth waking up for.
+   * @param listener the listener to run.
+   */
+  void setWakeupListener(final int threshold, final Runnable listener) {
+    this.wakeupThreshold =
+        Math.max(1, Math.min(threshold, (queue.size() + queue.remainingCapacity()) / 2));
+    this.wakeupListener = listener;
+  }
+
   @Override
   public void close() {
     closed.set(true);
+    wakeUp();
   }
 
   @Override
@@ -81,6 +113,32 @@ public class Pipe<T> implements ReadPipe<T>, WritePipe<T> {
     if (aborted.compareAndSet(false, true)) {
       abortedItemCounter.inc(queue.size());
     }
+    wakeUp();
+  }
+
+  private void wakeUp() {
+    final Runnable listener = wakeupListener;
+    if (listener != null) {
+      listener.run();
+    }
+  }
+
+  private void itemAdded() {
+    inputCounter.inc();
+    final Runnable listener = wakeupListener;
+    if (listener != null) {
+      final int size = queue.size();
+      if (size == 1 || size >= wakeupThreshold) {
+        listener.run();
+      }
+    }
+  }
+
+  private void itemsRemoved(final int count) {
+    final Runnable listener = wakeupListener;
+    if (listener != null && count > 0 && queue.remainingCapacity() - count < wakeupThreshold) {
+      listener.run();
+    }
   }
 
   @Override
@@ -98,6 +156,7 @@ public class Pipe<T> implements ReadPipe<T>, WritePipe<T> {
         final T value = queue.poll(1, TimeUnit.SECONDS);
         if (value != null) {
           outputCounter.inc();
+          itemsRemoved(1);
           return value;
         }
       }
@@ -112,6 +171,7 @@ public class Pipe<T> implements ReadPipe<T>, WritePipe<T> {
     final T item = queue.poll();
     if (item != null) {
       outputCounter.inc();
+      itemsRemoved(1);
     }
     return item;
   }
@@ -120,6 +180,7 @@ public class Pipe<T> implements ReadPipe<T>, WritePipe<T> {
   public void drainTo(final Collection<T> output, final int maxElements) {
     final int count = queue.drainTo(output, maxElements);
     outputCounter.inc(count);
+    itemsRemoved(count);
   }
 
   @Override
@@ -127,7 +188,7 @@ public class Pipe<T> implements ReadPipe<T>, WritePipe<T> {
     while (isOpen()) {
       try {
         if (queue.offer(value, 1, TimeUnit.SECONDS)) {
-          inputCounter.inc();
+          itemAdded();
           return;
         }
       } catch (final InterruptedException e) {
@@ -135,4 +196,13 @@ public class Pipe<T> implements ReadPipe<T>, WritePipe<T> {
       }
     }
   }
+
+  @Override
+  public boolean offer(final T value) {
+    if (isOpen() && queue.offer(value)) {
+      itemAdded();
+      return true;
+    }
+    return false;
+  }
 }
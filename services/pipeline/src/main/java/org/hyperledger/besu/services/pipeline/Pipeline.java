@@ -18,6 +18,8 @@ import static java.util.stream.Collectors.toList;
 
 import org.hyperledger.besu.util.ExceptionUtils;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CancellationException;
@@ -41,6 +43,8 @@ public class Pipeline<I> {
   private final Collection<Stage> stages;
   private final Collection<Pipe<?>> pipes;
   private final CompleterStage<?> completerStage;
+  private final PipelineOptions options;
+  private final List<StageStatistics> stageStatistics;
   private final AtomicBoolean started = new AtomicBoolean(false);
   private final Tracer tracer =
       GlobalOpenTelemetry.getTracer("org.hyperledger.besu.services.pipeline", "1.0.0");
@@ -57,6 +61,8 @@ public class Pipeline<I> {
   private final String name;
   private final boolean tracingEnabled;
   private volatile List<Future<?>> futures;
+  private volatile long startNanos;
+  private volatile long endNanos;
 
   Pipeline(
       final Pipe<I> inputPipe,
@@ -64,13 +70,17 @@ public class Pipeline<I> {
       final boolean tracingEnabled,
       final Collection<Stage> stages,
       final Collection<Pipe<?>> pipes,
-      final CompleterStage<?> completerStage) {
+      final CompleterStage<?> completerStage,
+      final PipelineOptions options,
+      final List<StageStatistics> stageStatistics) {
     this.inputPipe = inputPipe;
     this.tracingEnabled = tracingEnabled;
     this.name = name;
     this.stages = stages;
     this.pipes = pipes;
     this.completerStage = completerStage;
+    this.options = options;
+    this.stageStatistics = stageStatistics;
   }
 
   /**
@@ -82,9 +92,44 @@ public class Pipeline<I> {
     return inputPipe;
   }
 
+  /**
+   * Get the statistics of each stage of this pipeline, in the order the stages were added. Stages
+   * run by several threads have a single entry.
+   *
+   * @return the statistics of each stage.
+   */
+  public List<StageStatistics> getStageStatistics() {
+    return stageStatistics;
+  }
+
+  /**
+   * Get the statistics of the stage that limits the throughput of this pipeline so far, which is
+   * the stage whose workers spent the most time processing items rather than waiting on their
+   * pipes.
+   *
+   * @return the statistics of the critical path stage.
+   */
+  public StageStatistics getCriticalPathStage() {
+    return StageStatistics.criticalPathStage(stageStatistics);
+  }
+
+  /**
+   * Get how long this pipeline has been running for, or ran for if it has completed.
+   *
+   * @return the time since the pipeline was started, or zero if it has not been started.
+   */
+  public Duration getElapsedTime() {
+    if (!started.get()) {
+      return Duration.ZERO;
+    }
+    final long end = endNanos;
+    return Duration.ofNanos((end != 0 ? end : System.nanoTime()) - startNanos);
+  }
+
   /**
    * Starts execution of the pipeline. Each stage in the pipeline requires a dedicated thread from
-   * the supplied executor service.
+   * the supplied executor service, except for the stages run on shared workers when selected in
+   * the {@link PipelineOptions}, which require a thread per worker instead.
    *
    * @param executorService the {@link ExecutorService} to execute each stage in.
    * @return a future that will be completed when the pipeline completes. If the pipeline fails or
@@ -94,8 +139,10 @@ public class Pipeline<I> {
     if (!started.compareAndSet(false, true)) {
       return overallFuture;
     }
+    startNanos = System.nanoTime();
+    overallFuture.whenComplete((result, error) -> completed());
     futures =
-        Stream.concat(stages.stream(), Stream.of(completerStage))
+        Stream.concat(createTasks().stream(), Stream.of(completerStage))
             .map(task -> runWithErrorHandling(executorService, task))
             .collect(toList());
     completerStage
@@ -120,6 +167,43 @@ public class Pipeline<I> {
     return overallFuture;
   }
 
+  private void completed() {
+    endNanos = System.nanoTime();
+    options.getMetrics().releasePipes(pipes);
+    if (LOG.isDebugEnabled()) {
+      LOG.debug(
+          "Pipeline {} completed in {} ms, critical path stage {}, stages {}",
+          name,
+          getElapsedTime().toMillis(),
+          getCriticalPathStage().getName(),
+          stageStatistics);
+    }
+  }
+
+  private List<Stage> createTasks() {
+    if (options.getSharedWorkers() == 0) {
+      return new ArrayList<>(stages);
+    }
+    final List<Stage> tasks = new ArrayList<>();
+    final List<ProcessingStage<?, ?>> sharedStages = new ArrayList<>();
+    for (final Stage stage : stages) {
+      if (stage instanceof ProcessingStage
+          && ((ProcessingStage<?, ?>) stage).canRunOnSharedWorker()) {
+        sharedStages.add((ProcessingStage<?, ?>) stage);
+      } else {
+        tasks.add(stage);
+      }
+    }
+    if (!sharedStages.isEmpty()) {
+      final SharedWorkerScheduler scheduler = new SharedWorkerScheduler(sharedStages);
+      pipes.forEach(
+          pipe -> pipe.setWakeupListener(SharedWorkerScheduler.BATCH_SIZE, scheduler::wakeUp));
+      tasks.addAll(
+          scheduler.createWorkers(Math.min(options.getSharedWorkers(), sharedStages.size())));
+    }
+    return tasks;
+  }
+
   /**
    * Abort execution of this pipeline. The future returned by {@link #start(ExecutorService)} will
    * be completed with a {@link CancellationException}.
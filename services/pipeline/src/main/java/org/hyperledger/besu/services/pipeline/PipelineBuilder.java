@@ -33,7 +33,8 @@ import java.util.stream.Stream;
 
 /**
  * Supports building a new pipeline. Pipelines are comprised of a source, various processing stages
- * and a consumer, each of which run in their own thread.
+ * and a consumer, each of which run in their own thread unless shared workers are selected in the
+ * {@link PipelineOptions}.
  *
  * <p>The pipeline completes when all items from the source have passed through each stage and are
  * received by the consumer. The pipeline will halt immediately if an exception is thrown from any
@@ -53,6 +54,8 @@ public class PipelineBuilder<I, T> {
   private final LabelledMetric<Counter> outputCounter;
   private final boolean tracingEnabled;
   private final String pipelineName;
+  private final PipelineOptions options;
+  private final Collection<StageStatistics> stageStatistics;
 
   public PipelineBuilder(
       final Pipe<I> inputPipe,
@@ -64,6 +67,32 @@ public class PipelineBuilder<I, T> {
       final LabelledMetric<Counter> outputCounter,
       final boolean tracingEnabled,
       final String pipelineName) {
+    this(
+        inputPipe,
+        stages,
+        pipes,
+        lastStageName,
+        pipeEnd,
+        bufferSize,
+        outputCounter,
+        tracingEnabled,
+        pipelineName,
+        PipelineOptions.DEFAULT,
+        emptyList());
+  }
+
+  private PipelineBuilder(
+      final Pipe<I> inputPipe,
+      final Collection<Stage> stages,
+      final Collection<Pipe<?>> pipes,
+      final String lastStageName,
+      final ReadPipe<T> pipeEnd,
+      final int bufferSize,
+      final LabelledMetric<Counter> outputCounter,
+      final boolean tracingEnabled,
+      final String pipelineName,
+      final PipelineOptions options,
+      final Collection<StageStatistics> stageStatistics) {
     checkArgument(!pipes.isEmpty(), "Must have at least one pipe in a pipeline");
     this.lastStageName = lastStageName;
     this.outputCounter = outputCounter;
@@ -74,6 +103,8 @@ public class PipelineBuilder<I, T> {
     this.bufferSize = bufferSize;
     this.tracingEnabled = tracingEnabled;
     this.pipelineName = pipelineName;
+    this.options = options;
+    this.stageStatistics = stageStatistics;
   }
 
   /**
@@ -98,8 +129,45 @@ public class PipelineBuilder<I, T> {
       final LabelledMetric<Counter> itemCounter,
       final boolean tracingEnabled,
       final String pipelineName) {
-    final Pipe<T> pipe = createPipe(bufferSize, sourceName, itemCounter);
-    final IteratorSourceStage<T> sourceStage = new IteratorSourceStage<>(sourceName, source, pipe);
+    return createPipelineFrom(
+        sourceName,
+        source,
+        bufferSize,
+        itemCounter,
+        tracingEnabled,
+        pipelineName,
+        PipelineOptions.DEFAULT);
+  }
+
+  /**
+   * Create a new pipeline that processes inputs from <i>source</i>, as {@link
+   * #createPipelineFrom(String, Iterator, int, LabelledMetric, boolean, String)} does, with the
+   * given pipe implementation and stage scheduling.
+   *
+   * @param sourceName the name of this stage. Used as the label for the output count metric.
+   * @param source the source to pull items from for processing.
+   * @param bufferSize the number of items to be buffered between each stage in the pipeline.
+   * @param itemCounter the counter to increment for each output of a stage. Must accept two labels,
+   *     the stage name and action (output or drained).
+   * @param <T> the type of items input into the pipeline.
+   * @param tracingEnabled whether this pipeline should be traced
+   * @param pipelineName the name of the pipeline for tracing purposes
+   * @param options the pipe implementation and stage scheduling to use.
+   * @return a {@link PipelineBuilder} ready to extend the pipeline with additional stages.
+   */
+  public static <T> PipelineBuilder<T, T> createPipelineFrom(
+      final String sourceName,
+      final Iterator<T> source,
+      final int bufferSize,
+      final LabelledMetric<Counter> itemCounter,
+      final boolean tracingEnabled,
+      final String pipelineName,
+      final PipelineOptions options) {
+    final Pipe<T> pipe = createPipe(bufferSize, sourceName, itemCounter, pipelineName, options);
+    final StageStatistics sourceStatistics =
+        options.getMetrics().createStageStatistics(pipelineName, sourceName);
+    final IteratorSourceStage<T> sourceStage =
+        new IteratorSourceStage<>(sourceName, source, pipe, sourceStatistics);
     return new PipelineBuilder<>(
         pipe,
         singleton(sourceStage),
@@ -109,7 +177,9 @@ public class PipelineBuilder<I, T> {
         bufferSize,
         itemCounter,
         tracingEnabled,
-        pipelineName);
+        pipelineName,
+        options,
+        singleton(sourceStatistics));
   }
 
   /**
@@ -131,7 +201,38 @@ public class PipelineBuilder<I, T> {
       final LabelledMetric<Counter> outputCounter,
       final boolean tracingEnabled,
       final String pipelineName) {
-    final Pipe<T> pipe = createPipe(bufferSize, sourceName, outputCounter);
+    return createPipeline(
+        sourceName,
+        bufferSize,
+        outputCounter,
+        tracingEnabled,
+        pipelineName,
+        PipelineOptions.DEFAULT);
+  }
+
+  /**
+   * Create a new pipeline that processes inputs added to <i>pipe</i>, as {@link
+   * #createPipeline(String, int, LabelledMetric, boolean, String)} does, with the given pipe
+   * implementation and stage scheduling.
+   *
+   * @param sourceName the name of this stage. Used as the label for the output count metric.
+   * @param bufferSize the number of items to be buffered between each stage in the pipeline.
+   * @param outputCounter the counter to increment for each output of a stage. Must have a single
+   *     label which will be filled with the stage name.
+   * @param <T> the type of items input into the pipeline.
+   * @param tracingEnabled whether this pipeline should be traced
+   * @param pipelineName the name of the pipeline for tracing purposes
+   * @param options the pipe implementation and stage scheduling to use.
+   * @return a {@link PipelineBuilder} ready to extend the pipeline with additional stages.
+   */
+  public static <T> PipelineBuilder<T, T> createPipeline(
+      final String sourceName,
+      final int bufferSize,
+      final LabelledMetric<Counter> outputCounter,
+      final boolean tracingEnabled,
+      final String pipelineName,
+      final PipelineOptions options) {
+    final Pipe<T> pipe = createPipe(bufferSize, sourceName, outputCounter, pipelineName, options);
     return new PipelineBuilder<>(
         pipe,
         emptyList(),
@@ -141,7 +242,9 @@ public class PipelineBuilder<I, T> {
         bufferSize,
         outputCounter,
         tracingEnabled,
-        pipelineName);
+        pipelineName,
+        options,
+        emptyList());
   }
 
   /**
@@ -225,6 +328,26 @@ public class PipelineBuilder<I, T> {
     return addStage(new AsyncOperationProcessor<>(processor, maxConcurrency, true), stageName);
   }
 
+  /**
+   * Adds a 1-to-1, asynchronous processing stage to the pipeline, as {@link
+   * #thenProcessAsyncOrdered(String, Function, int)} does, where the number of items that may be in
+   * progress concurrently is set by an {@link AdaptiveLimit}. The limit is told when results have
+   * to wait for capacity in the next stage, and should be fed the outcome of each operation by
+   * <i>processor</i>.
+   *
+   * @param stageName the name of this stage. Used as the label for the output count metric.
+   * @param processor the processing to apply to each item.
+   * @param maxConcurrency the limit on the number of items being processed concurrently.
+   * @param <O> the output type for this processing step.
+   * @return a {@link PipelineBuilder} ready to extend the pipeline with additional stages.
+   */
+  public <O> PipelineBuilder<I, O> thenProcessAsyncOrdered(
+      final String stageName,
+      final Function<T, CompletableFuture<O>> processor,
+      final AdaptiveLimit maxConcurrency) {
+    return addStage(new AsyncOperationProcessor<>(processor, maxConcurrency, true), stageName);
+  }
+
   /**
    * Batches items into groups of at most <i>maximumBatchSize</i>. Batches are created eagerly to
    * minimize delay so may not be full.
@@ -250,7 +373,35 @@ public class PipelineBuilder<I, T> {
         (int) Math.ceil(((double) bufferSize) / maximumBatchSize),
         outputCounter,
         tracingEnabled,
-        pipelineName);
+        pipelineName,
+        options,
+        stageStatistics);
+  }
+
+  /**
+   * Batches items into groups whose size is set by an {@link AdaptiveLimit}, as {@link
+   * #inBatches(int)} does. Each batch is sized by the value of the limit when it is created.
+   *
+   * <p>The output buffer size is reduced to <code>bufferSize / batchSize</code>, rounded up, using
+   * the value of the limit when the stage is added.
+   *
+   * @param batchSize the limit on the number of items to include in a batch.
+   * @return a {@link PipelineBuilder} ready to extend the pipeline with additional stages.
+   */
+  public PipelineBuilder<I, List<T>> inBatches(final AdaptiveLimit batchSize) {
+    return new PipelineBuilder<>(
+        inputPipe,
+        stages,
+        pipes,
+        lastStageName,
+        new BatchingReadPipe<>(
+            pipeEnd, batchSize, outputCounter.labels(lastStageName + "_outputPipe", "batches")),
+        (int) Math.ceil(((double) bufferSize) / batchSize.getAsInt()),
+        outputCounter,
+        tracingEnabled,
+        pipelineName,
+        options,
+        stageStatistics);
   }
 
   /**
@@ -307,13 +458,16 @@ public class PipelineBuilder<I, T> {
    * @return the constructed pipeline ready to execute.
    */
   public Pipeline<I> andFinishWith(final String stageName, final Consumer<T> completer) {
+    final StageStatistics statistics = createStageStatistics(stageName);
     return new Pipeline<>(
         inputPipe,
         pipelineName,
         tracingEnabled,
         stages,
         pipes,
-        new CompleterStage<>(stageName, pipeEnd, completer));
+        new CompleterStage<>(stageName, pipeEnd, completer, statistics),
+        options,
+        concat(stageStatistics, statistics));
   }
 
   private <O> PipelineBuilder<I, O> thenProcessInParallel(
@@ -321,12 +475,14 @@ public class PipelineBuilder<I, T> {
       final Supplier<Processor<T, O>> createProcessor,
       final int numberOfThreads,
       final int newBufferSize) {
-    final Pipe<O> newPipeEnd = createPipe(newBufferSize, stageName, outputCounter);
+    final Pipe<O> newPipeEnd =
+        createPipe(newBufferSize, stageName, outputCounter, pipelineName, options);
     final WritePipe<O> outputPipe = new SharedWritePipe<>(newPipeEnd, numberOfThreads);
+    final StageStatistics statistics = createStageStatistics(stageName);
     final ArrayList<Stage> newStages = new ArrayList<>(stages);
     for (int i = 0; i < numberOfThreads; i++) {
       final Stage processStage =
-          new ProcessingStage<>(stageName, pipeEnd, outputPipe, createProcessor.get());
+          new ProcessingStage<>(stageName, pipeEnd, outputPipe, createProcessor.get(), statistics);
       newStages.add(processStage);
     }
     return new PipelineBuilder<>(
@@ -338,7 +494,9 @@ public class PipelineBuilder<I, T> {
         newBufferSize,
         outputCounter,
         tracingEnabled,
-        pipelineName);
+        pipelineName,
+        options,
+        concat(stageStatistics, statistics));
   }
 
   private <O> PipelineBuilder<I, O> addStage(
@@ -348,8 +506,11 @@ public class PipelineBuilder<I, T> {
 
   private <O> PipelineBuilder<I, O> addStage(
       final Processor<T, O> processor, final int newBufferSize, final String stageName) {
-    final Pipe<O> outputPipe = createPipe(newBufferSize, stageName, outputCounter);
-    final Stage processStage = new ProcessingStage<>(stageName, pipeEnd, outputPipe, processor);
+    final Pipe<O> outputPipe =
+        createPipe(newBufferSize, stageName, outputCounter, pipelineName, options);
+    final StageStatistics statistics = createStageStatistics(stageName);
+    final Stage processStage =
+        new ProcessingStage<>(stageName, pipeEnd, outputPipe, processor, statistics);
     final List<Stage> newStages = concat(stages, processStage);
     return new PipelineBuilder<>(
         inputPipe,
@@ -360,7 +521,13 @@ public class PipelineBuilder<I, T> {
         newBufferSize,
         outputCounter,
         tracingEnabled,
-        pipelineName);
+        pipelineName,
+        options,
+        concat(stageStatistics, statistics));
+  }
+
+  private StageStatistics createStageStatistics(final String stageName) {
+    return options.getMetrics().createStageStatistics(pipelineName, stageName);
   }
 
   private <X> List<X> concat(final Collection<X> existing, final X newItem) {
@@ -372,12 +539,17 @@ public class PipelineBuilder<I, T> {
   private static <O> Pipe<O> createPipe(
       final int newBufferSize,
       final String stageName,
-      final LabelledMetric<Counter> outputCounter) {
+      final LabelledMetric<Counter> outputCounter,
+      final String pipelineName,
+      final PipelineOptions options) {
     final String labelName = stageName + "_outputPipe";
-    return new Pipe<>(
-        newBufferSize,
-        outputCounter.labels(labelName, "added"),
-        outputCounter.labels(labelName, "removed"),
-        outputCounter.labels(labelName, "aborted"));
+    final Pipe<O> pipe =
+        new Pipe<>(
+            options.createQueue(newBufferSize),
+            outputCounter.labels(labelName, "added"),
+            outputCounter.labels(labelName, "removed"),
+            outputCounter.labels(labelName, "aborted"));
+    options.getMetrics().registerPipe(pipelineName, labelName, pipe);
+    return pipe;
   }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledGauge;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports the statistics of pipeline stages and the number of items queued in pipeline pipes to a
+ * metrics system, labelled with the pipeline and stage or pipe name.
+ *
+ * <p>Pipelines are often built again under the same name, such as the chain download pipeline for
+ * each sync target, so the metrics should be created once by the owner of the metrics system and
+ * shared by all the pipelines reporting to it. The gauge of a pipe reads whichever pipe was last
+ * built under its name, until the pipeline it belongs to completes.
+ */
+public class PipelineMetrics {
+
+  static final PipelineMetrics NO_OP = new PipelineMetrics(new NoOpMetricsSystem());
+
+  private final LabelledMetric<OperationTimer> processingTimer;
+  private final LabelledMetric<Counter> waitCounter;
+  private final LabelledGauge pipeSizeGauge;
+  private final Map<List<String>, Pipe<?>> currentPipes = new ConcurrentHashMap<>();
+  private final Set<List<String>> registeredPipes = new HashSet<>();
+
+  public PipelineMetrics(final MetricsSystem metricsSystem) {
+    processingTimer =
+        metricsSystem.createLabelledTimer(
+            BesuMetricCategory.SYNCHRONIZER,
+            "pipeline_stage_processing_seconds",
+            "Time taken by a pipeline stage to process an item",
+            "pipeline",
+            "stage");
+    waitCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.SYNCHRONIZER,
+            "pipeline_stage_wait_microseconds_total",
+            "Time the threads of a pipeline stage spent waiting on their input or output pipe",
+            "pipeline",
+            "stage",
+            "pipe");
+    pipeSizeGauge =
+        metricsSystem.createLabelledGauge(
+            BesuMetricCategory.SYNCHRONIZER,
+            "pipeline_pipe_size",
+            "Number of items queued in a pipe between two pipeline stages",
+            "pipeline",
+            "pipe");
+  }
+
+  StageStatistics createStageStatistics(final String pipelineName, final String stageName) {
+    return new StageStatistics(
+        stageName,
+        processingTimer.labels(pipelineName, stageName),
+        waitCounter.labels(pipelineName, stageName, "input"),
+        waitCounter.labels(pipelineName, stageName, "output"));
+  }
+
+  synchronized void registerPipe(
+      final String pipelineName, final String pipeName, final Pipe<?> pipe) {
+    final List<String> labels = List.of(pipelineName, pipeName);
+    currentPipes.put(labels, pipe);
+    if (registeredPipes.add(labels)) {
+      pipeSizeGauge.labels(
+          () -> {
+            final Pipe<?> currentPipe = currentPipes.get(labels);
+            return currentPipe == null ? 0 : currentPipe.size();
+          },
+          pipelineName,
+          pipeName);
+    }
+  }
+
+  void releasePipes(final Collection<Pipe<?>> pipes) {
+    currentPipes.values().removeAll(pipes);
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Selects how the pipes between the stages of a pipeline are implemented and how its stages are
+ * run, and where the statistics of its stages are reported. By default pipes are backed by an
+ * {@link ArrayBlockingQueue}, every stage runs on a dedicated thread and the statistics of the
+ * stages are only logged when the pipeline completes.
+ */
+public class PipelineOptions {
+
+  public static final PipelineOptions DEFAULT =
+      new PipelineOptions(false, 0, PipelineMetrics.NO_OP);
+
+  private final boolean ringBufferPipes;
+  private final int sharedWorkers;
+  private final PipelineMetrics metrics;
+
+  private PipelineOptions(
+      final boolean ringBufferPipes, final int sharedWorkers, final PipelineMetrics metrics) {
+    this.ringBufferPipes = ringBufferPipes;
+    this.sharedWorkers = sharedWorkers;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Backs pipes with a lock-free ring buffer, so that stages exchanging items quickly do not
+   * contend on a lock. Threads waiting on these pipes spin briefly and then poll at intervals of
+   * at most a millisecond.
+   *
+   * @return the options with ring buffer pipes.
+   */
+  public PipelineOptions withRingBufferPipes() {
+    return new PipelineOptions(true, sharedWorkers, metrics);
+  }
+
+  /**
+   * Runs the stages added with {@link PipelineBuilder#thenProcess}, {@link
+   * PipelineBuilder#thenProcessInParallel}, {@link PipelineBuilder#thenFlatMap} and {@link
+   * PipelineBuilder#thenFlatMapInParallel} on the given number of shared workers, stepping through
+   * a batch of items of one stage at a time, rather than on a thread each. The functions of these
+   * stages must not block, as a blocked function holds up a worker. Other stages still run on
+   * dedicated threads.
+   *
+   * @param workerCount the number of workers to share between the stages.
+   * @return the options with shared workers.
+   */
+  public PipelineOptions withSharedWorkers(final int workerCount) {
+    checkArgument(workerCount > 0, "Number of shared workers must be greater than 0");
+    return new PipelineOptions(ringBufferPipes, workerCount, metrics);
+  }
+
+  /**
+   * Reports the processing time of each item, the time spent waiting on input and output pipes by
+   * each stage and the number of items queued in each pipe to the given pipeline metrics, labelled
+   * with the pipeline name.
+   *
+   * @param metrics the pipeline metrics to report to.
+   * @return the options with metrics.
+   */
+  public PipelineOptions withMetrics(final PipelineMetrics metrics) {
+    return new PipelineOptions(ringBufferPipes, sharedWorkers, metrics);
+  }
+
+  int getSharedWorkers() {
+    return sharedWorkers;
+  }
+
+  PipelineMetrics getMetrics() {
+    return metrics;
+  }
+
+  <T> BlockingQueue<T> createQueue(final int capacity) {
+    return ringBufferPipes ? new RingBufferQueue<>(capacity) : new ArrayBlockingQueue<>(capacity);
+  }
+}
@@ -14,33 +14,66 @@
  */
 package org.hyperledger.besu.services.pipeline;
 
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+
 class ProcessingStage<I, O> implements Stage {
 
   private final String name;
   private final ReadPipe<I> inputPipe;
   private final WritePipe<O> outputPipe;
   private final Processor<I, O> processor;
+  private final Deque<O> pendingOutput = new ArrayDeque<>();
+  private final AvailableInput availableInput = new AvailableInput();
+  private final BufferedOutput bufferedOutput = new BufferedOutput();
+  private final StageStatistics.Recorder recorder;
+  private final ReadPipe<I> timedInputPipe;
+  private final WritePipe<O> timedOutputPipe;
 
   public ProcessingStage(
       final String name,
       final ReadPipe<I> inputPipe,
       final WritePipe<O> outputPipe,
       final Processor<I, O> processor) {
+    this(name, inputPipe, outputPipe, processor, new StageStatistics(name));
+  }
+
+  ProcessingStage(
+      final String name,
+      final ReadPipe<I> inputPipe,
+      final WritePipe<O> outputPipe,
+      final Processor<I, O> processor,
+      final StageStatistics statistics) {
     this.name = name;
     this.inputPipe = inputPipe;
     this.outputPipe = outputPipe;
     this.processor = processor;
+    this.recorder = statistics.newRecorder();
+    this.timedInputPipe = recorder.timeInput(inputPipe);
+    this.timedOutputPipe = recorder.timeOutput(outputPipe);
+  }
+
+  enum StepResult {
+    PROGRESSED,
+    IDLE,
+    DONE
   }
 
   @Override
   public void run() {
     while (inputPipe.hasMore()) {
-      processor.processNextInput(inputPipe, outputPipe);
+      recorder.beginCall();
+      try {
+        processor.processNextInput(timedInputPipe, timedOutputPipe);
+      } finally {
+        recorder.endCall();
+      }
     }
     if (inputPipe.isAborted()) {
       processor.abort();
     }
-    while (!processor.attemptFinalization(outputPipe)) {
+    while (!attemptFinalization(timedOutputPipe)) {
       if (inputPipe.isAborted()) {
         processor.abort();
         break;
@@ -49,8 +82,157 @@ class ProcessingStage<I, O> implements Stage {
     outputPipe.close();
   }
 
+  boolean canRunOnSharedWorker() {
+    return processor.canRunOnSharedWorker();
+  }
+
+  /**
+   * Processes at most <i>maxItems</i> of the items already available in the input pipe, without
+   * waiting for input or for capacity in the output pipe, for stages run on a shared worker rather
+   * than a dedicated thread. Outputs the next stage has no room for are held back and written first
+   * on the next step. Steps of the same stage must not run concurrently.
+   *
+   * @param maxItems the maximum number of items to process.
+   * @return whether any item was processed or output, or whether the stage has finished and closed
+   *     its output pipe.
+   */
+  StepResult step(final int maxItems) {
+    boolean progressed = flushPendingOutput();
+    for (int i = 0; i < maxItems && pendingOutput.isEmpty() && inputPipe.hasMore(); i++) {
+      if (!outputPipe.hasRemainingCapacity()) {
+        break;
+      }
+      recorder.beginCall();
+      try {
+        processor.processNextInput(availableInput, bufferedOutput);
+      } finally {
+        recorder.endCall();
+      }
+      if (!availableInput.tookItem) {
+        break;
+      }
+      progressed = true;
+      flushPendingOutput();
+    }
+    if (!inputPipe.hasMore() && finishStep()) {
+      return StepResult.DONE;
+    }
+    return progressed ? StepResult.PROGRESSED : StepResult.IDLE;
+  }
+
+  private boolean finishStep() {
+    if (inputPipe.isAborted()) {
+      processor.abort();
+      pendingOutput.clear();
+    } else if (!attemptFinalization(bufferedOutput)) {
+      return false;
+    }
+    flushPendingOutput();
+    if (!pendingOutput.isEmpty()) {
+      return false;
+    }
+    outputPipe.close();
+    return true;
+  }
+
+  private boolean attemptFinalization(final WritePipe<O> output) {
+    recorder.beginCall();
+    try {
+      return processor.attemptFinalization(output);
+    } finally {
+      recorder.endCall();
+    }
+  }
+
+  private boolean flushPendingOutput() {
+    boolean flushed = false;
+    while (!pendingOutput.isEmpty()) {
+      if (!outputPipe.isOpen()) {
+        // put discards items once the pipe is closed, and so do we
+        pendingOutput.clear();
+        return flushed;
+      }
+      if (!outputPipe.offer(pendingOutput.peekFirst())) {
+        return flushed;
+      }
+      pendingOutput.removeFirst();
+      flushed = true;
+    }
+    return flushed;
+  }
+
   @Override
   public String getName() {
     return name;
   }
+
+  /** The input pipe as seen by the processor when stepping: reading never waits for an item. */
+  private class AvailableInput implements ReadPipe<I> {
+    private boolean tookItem;
+
+    @Override
+    public boolean hasMore() {
+      return inputPipe.hasMore();
+    }
+
+    @Override
+    public boolean isAborted() {
+      return inputPipe.isAborted();
+    }
+
+    @Override
+    public I get() {
+      return poll();
+    }
+
+    @Override
+    public I poll() {
+      final I item = inputPipe.poll();
+      tookItem = item != null;
+      if (tookItem) {
+        recorder.itemTaken();
+      }
+      return item;
+    }
+
+    @Override
+    public void drainTo(final Collection<I> output, final int maxElements) {
+      inputPipe.drainTo(output, maxElements);
+    }
+  }
+
+  /** The output pipe as seen by the processor when stepping: writing never waits for capacity. */
+  private class BufferedOutput implements WritePipe<O> {
+
+    @Override
+    public boolean isOpen() {
+      return outputPipe.isOpen();
+    }
+
+    @Override
+    public void put(final O value) {
+      pendingOutput.addLast(value);
+    }
+
+    @Override
+    public boolean offer(final O value) {
+      pendingOutput.addLast(value);
+      return true;
+    }
+
+    @Override
+    public boolean hasRemainingCapacity() {
+      return pendingOutput.isEmpty() && outputPipe.hasRemainingCapacity();
+    }
+
+    @Override
+    public void close() {
+      // the stage closes its own output pipe once the processor has finished
+    }
+
+    @Override
+    public void abort() {
+      outputPipe.abort();
+    }
+  }
 }
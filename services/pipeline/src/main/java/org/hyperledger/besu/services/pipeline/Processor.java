@@ -22,4 +22,14 @@ interface Processor<I, O> {
   }
 
   default void abort() {}
+
+  /**
+   * Whether this processor only ever waits on its input and output pipes, so that it can be run
+   * on a shared worker by handing it pipes that never block.
+   *
+   * @return true if the processor can be run on a shared worker.
+   */
+  default boolean canRunOnSharedWorker() {
+    return false;
+  }
 }
@@ -0,0 +1,327 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A bounded queue for any number of producers and consumers that does not take locks. Items are
+ * stored in a ring of slots, each carrying a sequence number that tells producers and consumers
+ * whether the slot is ready to be written or read, so that claiming a slot is a single
+ * compare-and-set on the head or tail counter.
+ *
+ * <p>The blocking operations spin briefly and then park until they can proceed. Parked threads
+ * register themselves so that the operation that makes room or adds an item unparks one of them;
+ * only then does it touch anything beyond the ring. As a thread may be unparked just as it stops
+ * waiting, waiting threads also check again after at most {@link #MAX_PARK_NANOS}. The blocking
+ * operations throw {@link InterruptedException} if the thread is interrupted while waiting.
+ *
+ * <p>The number of slots is the capacity rounded up to a power of two. The capacity is checked
+ * before claiming a slot, so concurrent producers may briefly exceed it but never the number of
+ * slots.
+ *
+ * <p>Iterators are weakly consistent: they return the items that were in the queue when the
+ * iterator was created, in order, even if they have been taken since. Removing an item, through an
+ * iterator or {@link #remove(Object)}, empties its slot, which consumers skip when they reach it;
+ * until then the slot still counts towards the size of the queue.
+ *
+ * @param <T> the type of item in the queue.
+ */
+class RingBufferQueue<T> extends AbstractQueue<T> implements BlockingQueue<T> {
+
+  static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  // spinning only helps when the thread that will make progress can run at the same time
+  private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 64 : 0;
+
+  private final int capacity;
+  private final int mask;
+  private final AtomicReferenceArray<T> slots;
+  private final AtomicLongArray sequences;
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+  private final Set<Thread> waitingProducers = ConcurrentHashMap.newKeySet();
+  private final Set<Thread> waitingConsumers = ConcurrentHashMap.newKeySet();
+
+  RingBufferQueue(final int capacity) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Invalid capacity " + capacity);
+    }
+    final int slotCount = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    this.capacity = capacity;
+    this.mask = slotCount - 1;
+    this.slots = new AtomicReferenceArray<>(slotCount);
+    this.sequences = new AtomicLongArray(slotCount);
+    for (int i = 0; i < slotCount; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  @Override
+  public boolean offer(final T item) {
+    if (item == null) {
+      throw new NullPointerException();
+    }
+    long position = tail.get();
+    while (true) {
+      final int index = (int) position & mask;
+      final long available = sequences.get(index) - position;
+      if (available == 0) {
+        if (position - head.get() >= capacity) {
+          return false;
+        }
+        if (tail.compareAndSet(position, position + 1)) {
+          slots.lazySet(index, item);
+          // publishes the item to the consumer that reads this sequence
+          sequences.set(index, position + 1);
+          wakeUp(waitingConsumers);
+          return true;
+        }
+        position = tail.get();
+      } else if (available < 0) {
+        // the slot still holds an item from the previous lap
+        return false;
+      } else {
+        position = tail.get();
+      }
+    }
+  }
+
+  @Override
+  public T poll() {
+    long position = head.get();
+    while (true) {
+      final int index = (int) position & mask;
+      final long available = sequences.get(index) - (position + 1);
+      if (available == 0) {
+        if (head.compareAndSet(position, position + 1)) {
+          final T item = slots.getAndSet(index, null);
+          // hands the slot to the producer of the next lap
+          sequences.set(index, position + mask + 1);
+          wakeUp(waitingProducers);
+          if (item != null) {
+            return item;
+          }
+          // the item was removed through an iterator, so move on to the next one
+        }
+        position = head.get();
+      } else if (available < 0) {
+        // the slot has not been written yet
+        return null;
+      } else {
+        position = head.get();
+      }
+    }
+  }
+
+  @Override
+  public T peek() {
+    for (long position = head.get(); ; position++) {
+      final int index = (int) position & mask;
+      if (sequences.get(index) != position + 1) {
+        return null;
+      }
+      final T item = slots.get(index);
+      if (item != null) {
+        return item;
+      }
+    }
+  }
+
+  @Override
+  public boolean offer(final T item, final long timeout, final TimeUnit unit)
+      throws InterruptedException {
+    final long deadline = System.nanoTime() + unit.toNanos(timeout);
+    int attempts = 0;
+    while (!offer(item)) {
+      final long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return false;
+      }
+      await(attempts++, waitingProducers, () -> size() < capacity, remaining);
+    }
+    return true;
+  }
+
+  @Override
+  public T poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+    final long deadline = System.nanoTime() + unit.toNanos(timeout);
+    int attempts = 0;
+    T item;
+    while ((item = poll()) == null) {
+      final long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return null;
+      }
+      await(attempts++, waitingConsumers, () -> size() > 0, remaining);
+    }
+    return item;
+  }
+
+  @Override
+  public void put(final T item) throws InterruptedException {
+    int attempts = 0;
+    while (!offer(item)) {
+      await(attempts++, waitingProducers, () -> size() < capacity, MAX_PARK_NANOS);
+    }
+  }
+
+  @Override
+  public T take() throws InterruptedException {
+    int attempts = 0;
+    T item;
+    while ((item = poll()) == null) {
+      await(attempts++, waitingConsumers, () -> size() > 0, MAX_PARK_NANOS);
+    }
+    return item;
+  }
+
+  private void await(
+      final int attempts,
+      final Set<Thread> waitingThreads,
+      final BooleanSupplier ready,
+      final long maxNanos)
+      throws InterruptedException {
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+    if (attempts < SPINS) {
+      Thread.onSpinWait();
+      return;
+    }
+    final Thread thread = Thread.currentThread();
+    waitingThreads.add(thread);
+    try {
+      // checked after registering so that a change made before that is not missed
+      if (!ready.getAsBoolean()) {
+        LockSupport.parkNanos(this, Math.min(maxNanos, MAX_PARK_NANOS));
+      }
+    } finally {
+      waitingThreads.remove(thread);
+    }
+  }
+
+  private static void wakeUp(final Set<Thread> waitingThreads) {
+    if (!waitingThreads.isEmpty()) {
+      final Iterator<Thread> threads = waitingThreads.iterator();
+      if (threads.hasNext()) {
+        LockSupport.unpark(threads.next());
+      }
+    }
+  }
+
+  @Override
+  public int drainTo(final Collection<? super T> output) {
+    return drainTo(output, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int drainTo(final Collection<? super T> output, final int maxElements) {
+    int count = 0;
+    T item;
+    while (count < maxElements && (item = poll()) != null) {
+      output.add(item);
+      count++;
+    }
+    return count;
+  }
+
+  @Override
+  public int size() {
+    final long headPosition = head.get();
+    final long size = tail.get() - headPosition;
+    return (int) Math.max(0, Math.min(size, capacity));
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  public int remainingCapacity() {
+    return capacity - size();
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    final List<T> items = new ArrayList<>();
+    final List<Long> positions = new ArrayList<>();
+    final long end = tail.get();
+    for (long position = head.get(); position < end; position++) {
+      final int index = (int) position & mask;
+      final T item = slots.get(index);
+      // checking the sequence after reading the slot ensures the item belongs to this position
+      if (item != null && sequences.get(index) == position + 1) {
+        items.add(item);
+        positions.add(position);
+      }
+    }
+    return new SnapshotIterator(items, positions);
+  }
+
+  private class SnapshotIterator implements Iterator<T> {
+    private final List<T> items;
+    private final List<Long> positions;
+    private int next = 0;
+    private int last = -1;
+
+    private SnapshotIterator(final List<T> items, final List<Long> positions) {
+      this.items = items;
+      this.positions = positions;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < items.size();
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      last = next++;
+      return items.get(last);
+    }
+
+    @Override
+    public void remove() {
+      if (last < 0) {
+        throw new IllegalStateException();
+      }
+      final long position = positions.get(last);
+      final int index = (int) position & mask;
+      // the item may have been taken already, in which case there is nothing left to remove
+      if (sequences.get(index) == position + 1) {
+        slots.compareAndSet(index, items.get(last), null);
+      }
+      last = -1;
+    }
+  }
+}
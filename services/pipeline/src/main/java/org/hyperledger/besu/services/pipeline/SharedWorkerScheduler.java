@@ -0,0 +1,138 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import static java.util.stream.Collectors.toList;
+
+import org.hyperledger.besu.services.pipeline.ProcessingStage.StepResult;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+/**
+ * Runs processing stages on a small number of shared workers instead of a thread per stage.
+ *
+ * <p>Each worker repeatedly goes round all the stages, starting from a different stage for each
+ * worker, and steps every stage that no other worker is currently stepping through up to {@link
+ * #BATCH_SIZE} of its available items. An idle worker so takes over whichever stages have work,
+ * however the work is spread. When a round makes no progress the worker parks until a pipe of the
+ * pipeline has a batch of items queued or is closed, or for at most {@link #MAX_IDLE_NANOS}, so
+ * that single items are still picked up promptly without waking workers for every item.
+ */
+class SharedWorkerScheduler {
+
+  static final int BATCH_SIZE = 16;
+  static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final List<ScheduledStage> stages;
+  private final AtomicInteger remainingStages;
+  private final Set<Thread> idleWorkers = ConcurrentHashMap.newKeySet();
+
+  SharedWorkerScheduler(final List<ProcessingStage<?, ?>> stages) {
+    this.stages = stages.stream().map(ScheduledStage::new).collect(toList());
+    this.remainingStages = new AtomicInteger(stages.size());
+  }
+
+  /**
+   * Creates the workers, which must each be run by a thread of their own.
+   *
+   * @param workerCount the number of workers to create.
+   * @return the workers.
+   */
+  List<Stage> createWorkers(final int workerCount) {
+    return IntStream.range(0, workerCount).mapToObj(Worker::new).collect(toList());
+  }
+
+  /** Wakes up an idle worker, if any, to look for work. */
+  void wakeUp() {
+    final Iterator<Thread> workers = idleWorkers.iterator();
+    if (workers.hasNext()) {
+      LockSupport.unpark(workers.next());
+    }
+  }
+
+  private class Worker implements Stage {
+    private final int index;
+
+    private Worker(final int index) {
+      this.index = index;
+    }
+
+    @Override
+    public void run() {
+      final Thread thread = Thread.currentThread();
+      while (remainingStages.get() > 0 && !thread.isInterrupted()) {
+        boolean progressed = false;
+        for (int i = 0; i < stages.size(); i++) {
+          progressed |= stages.get((index + i) % stages.size()).tryStep();
+        }
+        if (!progressed && remainingStages.get() > 0) {
+          idleWorkers.add(thread);
+          LockSupport.parkNanos(this, MAX_IDLE_NANOS);
+          idleWorkers.remove(thread);
+        }
+      }
+      // let parked workers see that the last stage has finished
+      idleWorkers.forEach(LockSupport::unpark);
+    }
+
+    @Override
+    public String getName() {
+      return "sharedWorker-" + index;
+    }
+  }
+
+  private class ScheduledStage {
+    private final ProcessingStage<?, ?> stage;
+    private final AtomicBoolean stepping = new AtomicBoolean();
+    private volatile boolean done;
+
+    private ScheduledStage(final ProcessingStage<?, ?> stage) {
+      this.stage = stage;
+    }
+
+    /**
+     * Steps the stage unless it is finished or already being stepped by another worker.
+     *
+     * @return true if the stage made progress.
+     */
+    private boolean tryStep() {
+      if (done || !stepping.compareAndSet(false, true)) {
+        return false;
+      }
+      try {
+        // checked again now that the flag has been taken, as the last holder may have finished it
+        if (done) {
+          return false;
+        }
+        final StepResult result = stage.step(BATCH_SIZE);
+        if (result == StepResult.DONE) {
+          done = true;
+          remainingStages.decrementAndGet();
+        }
+        return result != StepResult.IDLE;
+      } finally {
+        stepping.set(false);
+      }
+    }
+  }
+}
@@ -49,6 +49,11 @@ class SharedWritePipe<T> implements WritePipe<T> {
     delegate.put(value);
   }
 
+  @Override
+  public boolean offer(final T value) {
+    return delegate.offer(value);
+  }
+
   @Override
   public void close() {
     if (remainingClosesRequired.decrementAndGet() == 0) {
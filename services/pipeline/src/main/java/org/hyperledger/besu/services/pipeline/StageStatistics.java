@@ -0,0 +1,295 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer.TimingContext;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The time spent by the threads of a pipeline stage processing items and waiting on their input
+ * and output pipes. The statistics of a stage run by several threads add up the time of all of
+ * them.
+ *
+ * <p>A stage run on a shared worker never waits on its pipes, so its wait times stay at zero and
+ * its processing time is the time workers spent stepping through it.
+ */
+public class StageStatistics {
+
+  private final String name;
+  private final OperationTimer processingTimer;
+  private final Counter inputWaitCounter;
+  private final Counter outputWaitCounter;
+
+  private final AtomicInteger workers = new AtomicInteger();
+  private final LongAdder itemsProcessed = new LongAdder();
+  private final LongAdder processingNanos = new LongAdder();
+  private final LongAdder inputWaitNanos = new LongAdder();
+  private final LongAdder outputWaitNanos = new LongAdder();
+
+  StageStatistics(final String name) {
+    this(
+        name,
+        NoOpMetricsSystem.NO_OP_OPERATION_TIMER,
+        NoOpMetricsSystem.NO_OP_COUNTER,
+        NoOpMetricsSystem.NO_OP_COUNTER);
+  }
+
+  StageStatistics(
+      final String name,
+      final OperationTimer processingTimer,
+      final Counter inputWaitCounter,
+      final Counter outputWaitCounter) {
+    this.name = name;
+    this.processingTimer = processingTimer;
+    this.inputWaitCounter = inputWaitCounter;
+    this.outputWaitCounter = outputWaitCounter;
+  }
+
+  /**
+   * Creates a recorder for one of the threads running the stage.
+   *
+   * @return the recorder, which must only be used by that thread.
+   */
+  Recorder newRecorder() {
+    workers.incrementAndGet();
+    return new Recorder();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Get the number of threads, or stage instances stepped by shared workers, running the stage.
+   *
+   * @return the number of workers of the stage.
+   */
+  public int getWorkers() {
+    return workers.get();
+  }
+
+  public long getItemsProcessed() {
+    return itemsProcessed.sum();
+  }
+
+  public Duration getProcessingTime() {
+    return Duration.ofNanos(processingNanos.sum());
+  }
+
+  public Duration getInputWaitTime() {
+    return Duration.ofNanos(inputWaitNanos.sum());
+  }
+
+  public Duration getOutputWaitTime() {
+    return Duration.ofNanos(outputWaitNanos.sum());
+  }
+
+  /**
+   * Get the processing time of the stage per worker, which is how long each of them was kept busy.
+   * The stage with the highest busy time holds up the stages before and after it, and so sets the
+   * throughput of the pipeline.
+   *
+   * @return the processing time of the stage divided by its number of workers.
+   */
+  public Duration getBusyTime() {
+    return getProcessingTime().dividedBy(Math.max(1, getWorkers()));
+  }
+
+  /**
+   * Finds the stage that limits the throughput of a pipeline, which is the one with the highest
+   * busy time.
+   *
+   * @param stages the statistics of the stages of a pipeline.
+   * @return the statistics of the stage with the highest busy time.
+   */
+  static StageStatistics criticalPathStage(final Collection<StageStatistics> stages) {
+    StageStatistics criticalPath = null;
+    for (final StageStatistics stage : stages) {
+      if (criticalPath == null || stage.getBusyTime().compareTo(criticalPath.getBusyTime()) > 0) {
+        criticalPath = stage;
+      }
+    }
+    return criticalPath;
+  }
+
+  @Override
+  public String toString() {
+    return name
+        + "{workers="
+        + getWorkers()
+        + ", items="
+        + getItemsProcessed()
+        + ", processingMillis="
+        + getProcessingTime().toMillis()
+        + ", inputWaitMillis="
+        + getInputWaitTime().toMillis()
+        + ", outputWaitMillis="
+        + getOutputWaitTime().toMillis()
+        + '}';
+  }
+
+  /**
+   * Records the time of a single thread of the stage. Each call of the stage's processing is
+   * bracketed by {@link #beginCall()} and {@link #endCall()}, and the time it spent waiting on the
+   * pipes returned from {@link #timeInput(ReadPipe)} and {@link #timeOutput(WritePipe)} is taken
+   * off its processing time. The processing time histogram measures each item from when it is
+   * taken until its first output is handed on or the call ends.
+   */
+  class Recorder {
+    private long callStartNanos;
+    private long callWaitNanos;
+    private TimingContext itemTimer;
+
+    void beginCall() {
+      callStartNanos = System.nanoTime();
+      callWaitNanos = 0;
+    }
+
+    void endCall() {
+      finishItem();
+      processingNanos.add(System.nanoTime() - callStartNanos - callWaitNanos);
+    }
+
+    void itemTaken() {
+      finishItem();
+      itemTimer = processingTimer.startTimer();
+    }
+
+    private void finishItem() {
+      if (itemTimer != null) {
+        itemTimer.stopTimer();
+        itemTimer = null;
+        itemsProcessed.increment();
+      }
+    }
+
+    private void inputWaited(final long nanos) {
+      callWaitNanos += nanos;
+      inputWaitNanos.add(nanos);
+      inputWaitCounter.inc(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    private void outputWaited(final long nanos) {
+      callWaitNanos += nanos;
+      outputWaitNanos.add(nanos);
+      outputWaitCounter.inc(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    <T> ReadPipe<T> timeInput(final ReadPipe<T> pipe) {
+      return new TimedReadPipe<>(pipe);
+    }
+
+    <T> WritePipe<T> timeOutput(final WritePipe<T> pipe) {
+      return new TimedWritePipe<>(pipe);
+    }
+
+    private class TimedReadPipe<T> implements ReadPipe<T> {
+      private final ReadPipe<T> pipe;
+
+      private TimedReadPipe(final ReadPipe<T> pipe) {
+        this.pipe = pipe;
+      }
+
+      @Override
+      public boolean hasMore() {
+        return pipe.hasMore();
+      }
+
+      @Override
+      public boolean isAborted() {
+        return pipe.isAborted();
+      }
+
+      @Override
+      public T get() {
+        final long start = System.nanoTime();
+        final T item = pipe.get();
+        inputWaited(System.nanoTime() - start);
+        if (item != null) {
+          itemTaken();
+        }
+        return item;
+      }
+
+      @Override
+      public T poll() {
+        final T item = pipe.poll();
+        if (item != null) {
+          itemTaken();
+        }
+        return item;
+      }
+
+      @Override
+      public void drainTo(final Collection<T> output, final int maxElements) {
+        final int sizeBefore = output.size();
+        pipe.drainTo(output, maxElements);
+        if (output.size() > sizeBefore) {
+          itemTaken();
+        }
+      }
+    }
+
+    private class TimedWritePipe<T> implements WritePipe<T> {
+      private final WritePipe<T> pipe;
+
+      private TimedWritePipe(final WritePipe<T> pipe) {
+        this.pipe = pipe;
+      }
+
+      @Override
+      public boolean isOpen() {
+        return pipe.isOpen();
+      }
+
+      @Override
+      public void put(final T value) {
+        finishItem();
+        final long start = System.nanoTime();
+        pipe.put(value);
+        outputWaited(System.nanoTime() - start);
+      }
+
+      @Override
+      public boolean offer(final T value) {
+        finishItem();
+        return pipe.offer(value);
+      }
+
+      @Override
+      public boolean hasRemainingCapacity() {
+        return pipe.hasRemainingCapacity();
+      }
+
+      @Override
+      public void close() {
+        pipe.close();
+      }
+
+      @Override
+      public void abort() {
+        pipe.abort();
+      }
+    }
+  }
+}
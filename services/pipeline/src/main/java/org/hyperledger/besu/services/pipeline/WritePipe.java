@@ -36,6 +36,14 @@ public interface WritePipe<T> {
    */
   void put(T value);
 
+  /**
+   * Adds a new item to the pipe if it has capacity available, without blocking.
+   *
+   * @param value the value to add to the pipe.
+   * @return true if the item was added, false if the pipe is full or no longer open.
+   */
+  boolean offer(T value);
+
   /**
    * Determine if this pipe has capacity to accept another item.
    *
@@ -0,0 +1,82 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Test;
+
+public class AdaptiveLimitTest {
+
+  private final AdaptiveLimit limit = new AdaptiveLimit(2, 10, 8);
+
+  @Test
+  public void shouldGrowByOneForEachResultWithinTarget() {
+    limit.recordResult(true);
+    assertThat(limit.getAsInt()).isEqualTo(9);
+
+    limit.recordResult(true);
+    limit.recordResult(true);
+    assertThat(limit.getAsInt()).isEqualTo(10);
+  }
+
+  @Test
+  public void shouldShrinkByAQuarterForEachResultOverTarget() {
+    limit.recordResult(false);
+    assertThat(limit.getAsInt()).isEqualTo(6);
+  }
+
+  @Test
+  public void shouldHalveOnFailure() {
+    limit.recordFailure();
+    assertThat(limit.getAsInt()).isEqualTo(4);
+
+    limit.recordFailure();
+    limit.recordFailure();
+    assertThat(limit.getAsInt()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldStepDownOnBackpressure() {
+    limit.recordBackpressure();
+    assertThat(limit.getAsInt()).isEqualTo(7);
+  }
+
+  @Test
+  public void shouldRecoverGraduallyAfterBackingOff() {
+    limit.recordFailure();
+    limit.recordResult(true);
+    limit.recordResult(true);
+    assertThat(limit.getAsInt()).isEqualTo(6);
+  }
+
+  @Test
+  public void fixedLimitShouldNeverChange() {
+    final AdaptiveLimit fixed = AdaptiveLimit.fixed(5);
+    fixed.recordResult(true);
+    fixed.recordFailure();
+    fixed.recordBackpressure();
+    assertThat(fixed.getAsInt()).isEqualTo(5);
+  }
+
+  @Test
+  public void shouldRejectInitialLimitOutsideBounds() {
+    assertThatThrownBy(() -> new AdaptiveLimit(2, 10, 11))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new AdaptiveLimit(0, 10, 5))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
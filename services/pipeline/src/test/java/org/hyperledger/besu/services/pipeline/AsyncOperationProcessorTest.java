@@ -47,6 +47,34 @@ public class AsyncOperationProcessorTest {
     verify(writePipe).put("a");
   }
 
+  @Test
+  public void shouldReduceAdaptiveConcurrencyWhenOutputPipeIsFull() {
+    final AdaptiveLimit maxConcurrency = new AdaptiveLimit(1, 3, 3);
+    final AsyncOperationProcessor<CompletableFuture<String>, String> processor =
+        new AsyncOperationProcessor<>(Function.identity(), maxConcurrency, true);
+    when(writePipe.hasRemainingCapacity()).thenReturn(false);
+    when(readPipe.get()).thenReturn(completedFuture("a"));
+
+    processor.processNextInput(readPipe, writePipe);
+
+    verify(writePipe).put("a");
+    assertThat(maxConcurrency.getAsInt()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldNotReduceAdaptiveConcurrencyWhenOutputPipeHasCapacity() {
+    final AdaptiveLimit maxConcurrency = new AdaptiveLimit(1, 3, 3);
+    final AsyncOperationProcessor<CompletableFuture<String>, String> processor =
+        new AsyncOperationProcessor<>(Function.identity(), maxConcurrency, true);
+    when(writePipe.hasRemainingCapacity()).thenReturn(true);
+    when(readPipe.get()).thenReturn(completedFuture("a"));
+
+    processor.processNextInput(readPipe, writePipe);
+
+    verify(writePipe).put("a");
+    assertThat(maxConcurrency.getAsInt()).isEqualTo(3);
+  }
+
   @Test
   public void shouldNotExceedConcurrentJobLimit() {
     final AsyncOperationProcessor<CompletableFuture<String>, String> processor =
@@ -132,6 +132,46 @@ public class PipeTest {
     verify(abortedItemCounter).inc(2);
   }
 
+  @Test
+  public void shouldOfferItemsOnlyWhileOpenAndNotFull() {
+    for (int i = 0; i < 5; i++) {
+      assertThat(pipe.offer("A")).isTrue();
+    }
+    assertThat(pipe.offer("B")).isFalse();
+    verify(inputCounter, times(5)).inc();
+
+    pipe.get();
+    pipe.close();
+    assertThat(pipe.offer("B")).isFalse();
+  }
+
+  @Test
+  public void shouldRunWakeupListenerOnlyForBatchesAndClosing() {
+    final List<String> wakeups = new ArrayList<>();
+    pipe.setWakeupListener(2, () -> wakeups.add("wakeup"));
+
+    pipe.put("A");
+    assertThat(wakeups).hasSize(1);
+    pipe.put("B");
+    assertThat(wakeups).hasSize(2);
+
+    pipe.get();
+    pipe.get();
+    pipe.put("C");
+    pipe.put("D");
+    pipe.put("E");
+    assertThat(wakeups).hasSize(5);
+
+    pipe.put("F");
+    assertThat(wakeups).hasSize(6);
+    // only one slot was free, so a writer may be waiting for this one
+    pipe.poll();
+    assertThat(wakeups).hasSize(7);
+
+    pipe.close();
+    assertThat(wakeups).hasSize(8);
+  }
+
   @Test
   public void shouldReturnNullFromGetImmediatelyIfThreadIsInterrupted() {
     Thread.currentThread().interrupt();
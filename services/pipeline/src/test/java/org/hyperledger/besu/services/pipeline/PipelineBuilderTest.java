@@ -25,8 +25,12 @@ import static org.assertj.core.api.Assertions.fail;
 import static org.awaitility.Awaitility.waitAtMost;
 import static org.hyperledger.besu.metrics.noop.NoOpMetricsSystem.NO_OP_LABELLED_2_COUNTER;
 
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledGauge;
 import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import org.hyperledger.besu.plugin.services.metrics.MetricCategory;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -47,6 +51,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -430,6 +435,85 @@ public class PipelineBuilderTest {
         .isSameAs(expectedError);
   }
 
+  @Test
+  public void shouldRunStagesOnSharedWorkers() throws Exception {
+    final List<Integer> output = synchronizedList(new ArrayList<>());
+    final Iterator<Integer> source = Stream.iterate(1, i -> i + 1).limit(1000).iterator();
+    final Pipeline<Integer> pipeline =
+        PipelineBuilder.createPipelineFrom(
+                "input",
+                source,
+                10,
+                NO_OP_LABELLED_2_COUNTER,
+                false,
+                "test",
+                PipelineOptions.DEFAULT.withRingBufferPipes().withSharedWorkers(2))
+            .thenProcess("addOne", value -> value + 1)
+            .thenFlatMapInParallel("duplicate", value -> Stream.of(value, -value), 3, 20)
+            .inBatches(7)
+            .thenFlatMap("flatten", List::stream, 10)
+            .andFinishWith("end", output::add);
+
+    pipeline.start(executorService).get(10, SECONDS);
+
+    assertThat(output)
+        .containsExactlyInAnyOrderElementsOf(
+            Stream.iterate(2, i -> i + 1)
+                .limit(1000)
+                .flatMap(value -> Stream.of(value, -value))
+                .collect(toList()));
+  }
+
+  @Test
+  public void shouldPreserveOrderOfSingleStageOnSharedWorkers() throws Exception {
+    final List<String> output = new ArrayList<>();
+    final Pipeline<Integer> pipeline =
+        PipelineBuilder.createPipelineFrom(
+                "input",
+                tasks,
+                10,
+                NO_OP_LABELLED_2_COUNTER,
+                false,
+                "test",
+                PipelineOptions.DEFAULT.withSharedWorkers(2))
+            .thenProcess("toString", Object::toString)
+            .andFinishWith("end", output::add);
+
+    pipeline.start(executorService).get(10, SECONDS);
+
+    assertThat(output)
+        .containsExactly(
+            "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15");
+  }
+
+  @Test
+  public void shouldAbortPipelineWhenProcessorOnSharedWorkerThrowsException() {
+    final RuntimeException expectedError = new RuntimeException("Oops");
+    final Pipeline<Integer> pipeline =
+        PipelineBuilder.createPipelineFrom(
+                "input",
+                tasks,
+                10,
+                NO_OP_LABELLED_2_COUNTER,
+                false,
+                "test",
+                PipelineOptions.DEFAULT.withSharedWorkers(1))
+            .thenProcess(
+                "stageName",
+                (Function<Integer, Integer>)
+                    value -> {
+                      throw expectedError;
+                    })
+            .andFinishWith("end", new ArrayList<Integer>()::add);
+
+    final CompletableFuture<?> result = pipeline.start(executorService);
+
+    assertThatThrownBy(() -> result.get(10, SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .extracting(Throwable::getCause)
+        .isSameAs(expectedError);
+  }
+
   @Test
   public void shouldTrackTaskCountMetrics() throws Exception {
     final Map<String, SimpleCounter> counters = new ConcurrentHashMap<>();
@@ -471,6 +555,79 @@ public class PipelineBuilderTest {
     assertThat(counters.get("asyncOrdered_outputPipe-batches").count).hasValueBetween(4, 15);
   }
 
+  @Test
+  public void shouldRecordStageStatisticsAndFindCriticalPathStage() throws Exception {
+    final Pipeline<Integer> pipeline =
+        PipelineBuilder.createPipelineFrom(
+                "input", tasks, 10, NO_OP_LABELLED_2_COUNTER, false, "test")
+            .thenProcess("slow", value -> sleepAndReturn(10, value))
+            .thenProcessInParallel("parallel", Function.identity(), 2)
+            .andFinishWith("end", new ArrayList<>()::add);
+
+    pipeline.start(executorService).get(10, SECONDS);
+
+    final List<StageStatistics> statistics = pipeline.getStageStatistics();
+    assertThat(statistics)
+        .extracting(StageStatistics::getName)
+        .containsExactly("input", "slow", "parallel", "end");
+    assertThat(statistics).extracting(StageStatistics::getWorkers).containsExactly(1, 1, 2, 1);
+    assertThat(statistics)
+        .extracting(StageStatistics::getItemsProcessed)
+        .containsExactly(15L, 15L, 15L, 15L);
+
+    final StageStatistics slow = statistics.get(1);
+    assertThat(slow.getProcessingTime().toMillis()).isGreaterThanOrEqualTo(150);
+    assertThat(pipeline.getCriticalPathStage()).isSameAs(slow);
+    // the stages after the slow one spend most of their time waiting for it
+    assertThat(statistics.get(3).getInputWaitTime()).isGreaterThan(slow.getInputWaitTime());
+    assertThat(pipeline.getElapsedTime()).isGreaterThanOrEqualTo(slow.getProcessingTime());
+  }
+
+  @Test
+  public void shouldReportPipeSizeOfLatestPipelineBuiltWithSameName() throws Exception {
+    final Map<List<String>, DoubleSupplier> gauges = new ConcurrentHashMap<>();
+    final MetricsSystem metricsSystem =
+        new NoOpMetricsSystem() {
+          @Override
+          public LabelledGauge createLabelledGauge(
+              final MetricCategory category,
+              final String name,
+              final String help,
+              final String... labelNames) {
+            return (valueSupplier, labelValues) ->
+                assertThat(gauges.put(List.of(labelValues), valueSupplier)).isNull();
+          }
+        };
+    final PipelineOptions options = PipelineOptions.DEFAULT.withMetrics(new PipelineMetrics(metricsSystem));
+
+    PipelineBuilder.<Integer>createPipeline(
+            "source", 10, NO_OP_LABELLED_2_COUNTER, false, "test", options)
+        .andFinishWith("end", value -> {});
+    final Pipeline<Integer> pipeline =
+        PipelineBuilder.<Integer>createPipeline(
+                "source", 10, NO_OP_LABELLED_2_COUNTER, false, "test", options)
+            .andFinishWith("end", value -> {});
+
+    final DoubleSupplier pipeSize = gauges.get(List.of("test", "source_outputPipe"));
+    assertThat(gauges).hasSize(1);
+    pipeline.getInputPipe().put(1);
+    pipeline.getInputPipe().put(2);
+    assertThat(pipeSize.getAsDouble()).isEqualTo(2);
+
+    pipeline.getInputPipe().close();
+    pipeline.start(executorService).get(10, SECONDS);
+    assertThat(pipeSize.getAsDouble()).isZero();
+  }
+
+  private static <T> T sleepAndReturn(final long millis, final T value) {
+    try {
+      Thread.sleep(millis);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return value;
+  }
+
   private void waitForSize(final Collection<?> collection, final int targetSize) {
     waitAtMost(10, SECONDS).untilAsserted(() -> assertThat(collection).hasSize(targetSize));
   }
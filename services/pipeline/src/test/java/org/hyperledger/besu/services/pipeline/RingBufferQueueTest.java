@@ -0,0 +1,197 @@
+/*
+ * Copyright Hyperledger Besu Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class RingBufferQueueTest {
+
+  @Test
+  public void shouldReturnItemsInOrder() {
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(4);
+    for (int lap = 0; lap < 3; lap++) {
+      assertThat(queue.offer(1)).isTrue();
+      assertThat(queue.offer(2)).isTrue();
+      assertThat(queue.offer(3)).isTrue();
+      assertThat(queue.peek()).isEqualTo(1);
+      assertThat(queue.poll()).isEqualTo(1);
+      assertThat(queue.poll()).isEqualTo(2);
+      assertThat(queue.poll()).isEqualTo(3);
+      assertThat(queue.poll()).isNull();
+    }
+  }
+
+  @Test
+  public void shouldBeBoundedByCapacity() {
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(3);
+    assertThat(queue.offer(1)).isTrue();
+    assertThat(queue.offer(2)).isTrue();
+    assertThat(queue.offer(3)).isTrue();
+
+    assertThat(queue.offer(4)).isFalse();
+    assertThat(queue.size()).isEqualTo(3);
+    assertThat(queue.remainingCapacity()).isZero();
+
+    queue.poll();
+    assertThat(queue.remainingCapacity()).isEqualTo(1);
+    assertThat(queue.offer(4)).isTrue();
+  }
+
+  @Test
+  public void shouldSupportCapacityOfOne() {
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(1);
+    assertThat(queue.offer(1)).isTrue();
+    assertThat(queue.offer(2)).isFalse();
+    assertThat(queue.poll()).isEqualTo(1);
+    assertThat(queue.offer(2)).isTrue();
+    assertThat(queue.poll()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldLimitNumberOfItemsDrained() {
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(8);
+    IntStream.range(0, 5).forEach(queue::offer);
+
+    final List<Integer> output = new ArrayList<>();
+    assertThat(queue.drainTo(output, 3)).isEqualTo(3);
+    assertThat(output).containsExactly(0, 1, 2);
+    assertThat(queue.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldIterateOverQueuedItems() {
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(4);
+    // wraps around the ring
+    for (int i = 0; i < 6; i++) {
+      queue.offer(i);
+      if (i < 3) {
+        queue.poll();
+      }
+    }
+
+    assertThat(queue).containsExactly(3, 4, 5);
+    assertThat(queue.contains(4)).isTrue();
+    assertThat(queue.toString()).isEqualTo("[3, 4, 5]");
+    assertThat(queue.toArray()).containsExactly(3, 4, 5);
+  }
+
+  @Test
+  public void shouldKeepIteratingOverSnapshotWhenItemsAreTaken() {
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(4);
+    IntStream.range(0, 3).forEach(queue::offer);
+
+    final Iterator<Integer> iterator = queue.iterator();
+    queue.poll();
+    queue.offer(3);
+
+    assertThat(iterator).toIterable().containsExactly(0, 1, 2);
+  }
+
+  @Test
+  public void shouldSkipRemovedItems() {
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(4);
+    IntStream.range(0, 4).forEach(queue::offer);
+
+    assertThat(queue.remove(1)).isTrue();
+    assertThat(queue.remove(7)).isFalse();
+
+    assertThat(queue).containsExactly(0, 2, 3);
+    assertThat(queue.poll()).isEqualTo(0);
+    assertThat(queue.peek()).isEqualTo(2);
+    assertThat(queue.poll()).isEqualTo(2);
+    assertThat(queue.poll()).isEqualTo(3);
+    assertThat(queue.poll()).isNull();
+    assertThat(queue.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void shouldTimeOutWaitingForCapacityOrItems() throws Exception {
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(1);
+    assertThat(queue.poll(10, MILLISECONDS)).isNull();
+    queue.offer(1);
+    assertThat(queue.offer(2, 10, MILLISECONDS)).isFalse();
+  }
+
+  @Test
+  public void shouldThrowWhenInterruptedWhileWaiting() {
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(1);
+    Thread.currentThread().interrupt();
+    assertThatThrownBy(() -> queue.poll(10, SECONDS)).isInstanceOf(InterruptedException.class);
+  }
+
+  @Test
+  public void shouldDeliverEveryItemOnceWithConcurrentProducersAndConsumers() throws Exception {
+    final int producers = 4;
+    final int consumers = 4;
+    final int itemsPerProducer = 50_000;
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(64);
+    final ConcurrentLinkedQueue<Integer> received = new ConcurrentLinkedQueue<>();
+    final CountDownLatch start = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int p = 0; p < producers; p++) {
+        final int offset = p * itemsPerProducer;
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  for (int i = 0; i < itemsPerProducer; i++) {
+                    queue.put(offset + i);
+                  }
+                  return null;
+                }));
+      }
+      for (int c = 0; c < consumers; c++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  for (int i = 0; i < itemsPerProducer; i++) {
+                    received.add(queue.take());
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (final Future<?> future : futures) {
+        future.get(30, SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(received.stream().sorted().collect(Collectors.toList()))
+        .isEqualTo(
+            IntStream.range(0, producers * itemsPerProducer).boxed().collect(Collectors.toList()));
+    assertThat(queue.isEmpty()).isTrue();
+  }
+}